@@ -4,26 +4,114 @@ import com.sondertara.common.bean.exception.BeanCopyException;
 import com.sondertara.common.lang.reflect.ReflectUtils;
 
 import java.beans.PropertyDescriptor;
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
+ * Deep copy of beans.
+ * <p>
+ * The copy plans (property accessors, collection element types and fields) are computed once per class and cached,
+ * so a copy only reads and writes. Both {@link #copyProperties(Object, Object)} and {@link #deepClone(Object)} keep
+ * the copies of the beans already copied in an {@link IdentityHashMap}: an object graph with cycles is copied
+ * without recursing forever, and a bean referenced twice is copied once.
+ *
  * @author shengyun
  * @date 17/4/7
  */
 public class DeepCopyUtils {
 
+    /**
+     * The property plans held by the class whose loader can see the other class of the pair (the source, else the
+     * target), keyed by the other class, so a plan never keeps a child class loader (e.g. of a web application) alive
+     */
+    private static final ClassValue<Map<Class<?>, PropertyPlan[]>> PLANS_BY_SOURCE = newPropertyPlans();
+    private static final ClassValue<Map<Class<?>, PropertyPlan[]>> PLANS_BY_TARGET = newPropertyPlans();
+
+    private static final ClassValue<FieldPlan[]> FIELD_PLANS = new ClassValue<FieldPlan[]>() {
+        @Override
+        protected FieldPlan[] computeValue(Class<?> type) {
+            return fieldPlans(type);
+        }
+    };
+
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                ReflectUtils.setAccessible(constructor);
+                return constructor;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * the public {@code clone()} of the JDK value classes, {@code null} when there is none
+     */
+    private static final ClassValue<Method> CLONE_METHODS = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            return cloneMethod(type);
+        }
+    };
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>();
+
+    static {
+        Class<?>[] types = {String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+                Double.class, BigInteger.class, BigDecimal.class, Class.class, UUID.class, Locale.class, Currency.class, URI.class, URL.class,
+                Pattern.class, File.class};
+        for (Class<?> type : types) {
+            IMMUTABLE_TYPES.add(type);
+        }
+    }
+
+    private static final String COLLECTIONS_PREFIX = "java.util.Collections$";
+
+    private static final int KIND_VALUE = 0;
+    private static final int KIND_COLLECTION = 1;
+    private static final int KIND_MAP = 2;
+
     /**
      * <p>
      * 深层次复制。
@@ -34,169 +122,594 @@ public class DeepCopyUtils {
      * @since 2017年2月21日
      */
     public static void copyProperties(Object source, Object target) {
+        Map<Object, Object> copies = new IdentityHashMap<>(8);
+        copies.put(source, target);
+        copyProperties(source, target, copies);
+    }
+
+    private static void copyProperties(Object source, Object target, Map<Object, Object> copies) {
+        for (PropertyPlan plan : propertyPlans(source.getClass(), target.getClass())) {
+            try {
+                Object srcValue = plan.read.invoke(source);
+                if (null == srcValue) {
+                    continue;
+                }
+                Object dstValue;
+                if (plan.kind == KIND_COLLECTION) {
+                    dstValue = copyCollection(plan, (Collection<?>) srcValue, copies);
+                } else if (plan.kind == KIND_MAP) {
+                    dstValue = copyMap(plan, (Map<?, ?>) srcValue, copies);
+                } else if (plan.targetType.isInstance(srcValue)) {
+                    // 如果前后两者类型相同或dest是src的父类型，直接复制即可
+                    dstValue = srcValue;
+                } else if (srcValue instanceof String || srcValue instanceof Number || srcValue instanceof Boolean) {
+                    // 自己保证，基本类型的要对应一致
+                    continue;
+                } else {
+                    dstValue = copyBean(srcValue, plan.targetType, copies);
+                }
+                plan.write.invoke(target, dstValue);
+            } catch (BeanCopyException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new BeanCopyException("Could not copy properties from source to target", ex);
+            }
+        }
+    }
+
+    private static Object copyBean(Object source, Class<?> targetType, Map<Object, Object> copies) {
+        Object copy = copies.get(source);
+        if (targetType.isInstance(copy)) {
+            return copy;
+        }
+        copy = newInstance(targetType);
+        copies.put(source, copy);
+        copyProperties(source, copy, copies);
+        return copy;
+    }
+
+    /**
+     * List 实例化 ArrayList，Set实例化HashSet
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<?> copyCollection(PropertyPlan plan, Collection<?> srcList, Map<Object, Object> copies) {
+        Collection destCollec;
+        if (List.class.isAssignableFrom(plan.targetType)) {
+            destCollec = new ArrayList<>(srcList.size());
+        } else if (Set.class.isAssignableFrom(plan.targetType)) {
+            destCollec = new HashSet<>(Math.max((int) (srcList.size() / .75f) + 1, 16));
+        } else {
+            throw new BeanCopyException("don not support type: " + plan.targetType.getName());
+        }
+        for (Object srcObj : srcList) {
+            destCollec.add(srcObj == null ? null : copyBean(srcObj, plan.elementType, copies));
+        }
+        return destCollec;
+    }
+
+    /**
+     * copyMap仅支持实例化HashMap
+     */
+    private static Map<Object, Object> copyMap(PropertyPlan plan, Map<?, ?> srcMap, Map<Object, Object> copies) {
+        Map<Object, Object> destMap = new HashMap<>(Math.max((int) (srcMap.size() / .75f) + 1, 16));
+        for (Map.Entry<?, ?> entry : srcMap.entrySet()) {
+            Object value = entry.getValue();
+            destMap.put(entry.getKey(), value == null ? null : copyBean(value, plan.elementType, copies));
+        }
+        return destMap;
+    }
+
+    private static PropertyPlan[] propertyPlans(Class<?> sourceClass, Class<?> targetClass) {
+        Map<Class<?>, PropertyPlan[]> plans;
+        Class<?> key;
+        if (isVisible(targetClass, sourceClass)) {
+            plans = PLANS_BY_SOURCE.get(sourceClass);
+            key = targetClass;
+        } else if (isVisible(sourceClass, targetClass)) {
+            plans = PLANS_BY_TARGET.get(targetClass);
+            key = sourceClass;
+        } else {
+            // unrelated class loaders, caching would keep one of them alive
+            return propertyPlan(sourceClass, targetClass);
+        }
+        PropertyPlan[] plan = plans.get(key);
+        if (plan == null) {
+            plan = propertyPlan(sourceClass, targetClass);
+            plans.putIfAbsent(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Whether the class is loaded by the loader of the host or one of its parents
+     */
+    private static boolean isVisible(Class<?> cls, Class<?> host) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader cur = host.getClassLoader(); cur != null; cur = cur.getParent()) {
+            if (cur == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        Class<?> actualEditable = target.getClass();
-        PropertyDescriptor[] targetPds = PropertyUtils.getPropertyDescriptors(actualEditable);
-
-        for (int i = 0; i < targetPds.length; i++) {
-            PropertyDescriptor targetPd = targetPds[i];
-            if (targetPd.getWriteMethod() != null) {
-                PropertyDescriptor sourcePd;
-                sourcePd = PropertyUtils.getPropertyDescriptor(source, targetPd.getName());
-                if (sourcePd != null && sourcePd.getReadMethod() != null) {
-                    try {
-                        Method readMethod = sourcePd.getReadMethod();
-                        if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-                            readMethod.setAccessible(true);
-                        }
-                        Object srcValue = readMethod.invoke(source);
-                        if (null == srcValue) {
-                            continue;
-                        }
-                        // 如果是集合类型
-                        if (Collection.class.isAssignableFrom(sourcePd.getPropertyType())) {
-                            // 相同类型，直接复制即可
-                            Field srcField = source.getClass().getDeclaredField(sourcePd.getName());
-                            Field destField = target.getClass().getDeclaredField(targetPd.getName());
-                            Class<?> destTrueType = getTrueType(destField);
-                            Class<?> srcTrueType = getTrueType(srcField);
-                            if (!destTrueType.equals(srcTrueType)) {
-                                copyCollection(sourcePd, targetPd, source, target);
-                                continue;
-                            }
-                        }
-
-                        // Map
-                        if (Map.class.isAssignableFrom(sourcePd.getPropertyType())) {
-                            // 相同类型，直接复制即可
-                            Field srcField = source.getClass().getDeclaredField(sourcePd.getName());
-                            Field destField = target.getClass().getDeclaredField(targetPd.getName());
-                            Class<?> destTrueType = getMapValueTrueType(destField);
-                            Class<?> srcTrueType = getMapValueTrueType(srcField);
-                            if (!destTrueType.equals(srcTrueType)) {
-                                copyMap(sourcePd, targetPd, source, target);
-                                continue;
-                            }
-                        }
-
-                        // 如果前后两者类型不同，不是父子类型，dest是src的父类型也是可以的。
-                        // boolean sameClass =
-                        // srcValue.getClass().getName().equals(targetPd.getPropertyType().getName());
-                        // AA.class.isAssignableFrom(BB.class) AA是否是BB的父类或一样的。
-                        boolean sameClass = targetPd.getPropertyType().isAssignableFrom(srcValue.getClass());
-                        if (!sameClass) {
-                            // 如果不是基本包装类型和String
-                            // 自己保证，基本类型的要对应一致
-                            boolean base = srcValue instanceof String || srcValue instanceof Number || srcValue instanceof Boolean;
-                            if (!base) {
-
-                                Object dstValue = ReflectUtils.newInstance(targetPd.getPropertyType());
-                                copyProperties(srcValue, dstValue);
-
-                                Method writeMethod = targetPd.getWriteMethod();
-                                if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-                                    writeMethod.setAccessible(true);
-                                }
-                                writeMethod.invoke(target, dstValue);
-
-                            }
-
-                        } else {
-                            Method writeMethod = targetPd.getWriteMethod();
-                            if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-                                writeMethod.setAccessible(true);
-                            }
-                            writeMethod.invoke(target, srcValue);
-                        }
-                    } catch (Throwable ex) {
-                        throw new BeanCopyException("Could not copy properties from source to target", ex);
-                    }
+    private static ClassValue<Map<Class<?>, PropertyPlan[]>> newPropertyPlans() {
+        return new ClassValue<Map<Class<?>, PropertyPlan[]>>() {
+            @Override
+            protected Map<Class<?>, PropertyPlan[]> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>(4);
+            }
+        };
+    }
+
+    private static PropertyPlan[] propertyPlan(Class<?> sourceClass, Class<?> targetClass) {
+        Map<String, PropertyDescriptor> sourcePds = new HashMap<>(16);
+        for (PropertyDescriptor pd : PropertyUtils.getPropertyDescriptors(sourceClass)) {
+            sourcePds.put(pd.getName(), pd);
+        }
+        List<PropertyPlan> plans = new ArrayList<>();
+        for (PropertyDescriptor targetPd : PropertyUtils.getPropertyDescriptors(targetClass)) {
+            Method writeMethod = targetPd.getWriteMethod();
+            PropertyDescriptor sourcePd = sourcePds.get(targetPd.getName());
+            if (writeMethod == null || sourcePd == null || sourcePd.getReadMethod() == null) {
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
+                readMethod.setAccessible(true);
+            }
+            if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
+                writeMethod.setAccessible(true);
+            }
+            int kind = KIND_VALUE;
+            Class<?> elementType = null;
+            Class<?> sourceType = sourcePd.getPropertyType();
+            // 集合和Map的元素类型不同时，逐个copy元素
+            if (Collection.class.isAssignableFrom(sourceType) || Map.class.isAssignableFrom(sourceType)) {
+                int index = Map.class.isAssignableFrom(sourceType) ? 1 : 0;
+                Class<?> srcTrueType = typeArgument(findField(sourceClass, sourcePd.getName()), index);
+                Class<?> destTrueType = typeArgument(findField(targetClass, targetPd.getName()), index);
+                if (srcTrueType != null && destTrueType != null && !destTrueType.equals(srcTrueType)) {
+                    kind = index == 1 ? KIND_MAP : KIND_COLLECTION;
+                    elementType = destTrueType;
                 }
             }
+            plans.add(new PropertyPlan(readMethod, writeMethod, targetPd.getPropertyType(), kind, elementType));
+        }
+        return plans.toArray(new PropertyPlan[0]);
+    }
+
+    private static Field findField(Class<?> cls, String name) {
+        for (Class<?> cur = cls; cur != null && cur != Object.class; cur = cur.getSuperclass()) {
+            try {
+                return cur.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // try the super class
+            }
         }
+        return null;
+    }
+
+    private static Class<?> typeArgument(Field field, int index) {
+        if (field == null) {
+            return null;
+        }
+        Type genericType = field.getGenericType();
+        if (!(genericType instanceof ParameterizedType)) {
+            return null;
+        }
+        Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        return index < arguments.length && arguments[index] instanceof Class ? (Class<?>) arguments[index] : null;
     }
 
     /**
-     * copyMap仅支持HashMap<String, Object>
+     * Clone the object graph, the shared references and the cycles are preserved
      *
-     * @param sourcePd
-     * @param targetPd
-     * @param source
-     * @param target
-     * @throws NoSuchFieldException
+     * @param source the source
+     * @param <T>    the type
+     * @return the clone
+     * @see #deepClone(Object, boolean)
+     */
+    public static <T> T deepClone(T source) {
+        return deepClone(source, true);
+    }
+
+    /**
+     * Clone the object graph.
+     * <p>
+     * The immutable values (strings, primitive wrappers, enums, {@code java.time} values...) are shared, the arrays
+     * are copied (primitive arrays in bulk), the common JDK collections and maps are copied to the same class and the
+     * beans are copied field by field. The unmodifiable, empty and singleton collections of {@link Collections} stay
+     * unmodifiable, {@link EnumSet} and {@link EnumMap} keep their key type.
+     * <p>
+     * The other JDK classes are never copied field by field: the {@link Cloneable} ones with a public {@code clone()}
+     * ({@link java.util.Date}, {@link java.util.Calendar}, {@link java.sql.Timestamp}...) are cloned, the rest are
+     * shared.
+     *
+     * @param source           the source
+     * @param preserveIdentity keep an identity map of the copies, so that an object referenced twice is copied once
+     *                         and the cycles are supported. Without it a tree is copied a bit faster but a cycle
+     *                         overflows the stack.
+     * @param <T>              the type
+     * @return the clone
      */
     @SuppressWarnings("unchecked")
-    private static void copyMap(PropertyDescriptor sourcePd, PropertyDescriptor targetPd, Object source, Object target) throws NoSuchFieldException {
-        Field srcField = source.getClass().getDeclaredField(sourcePd.getName());
-        Field destField = target.getClass().getDeclaredField(targetPd.getName());
+    public static <T> T deepClone(T source, boolean preserveIdentity) {
+        return (T) cloneValue(source, preserveIdentity ? new IdentityHashMap<>() : null);
+    }
 
-        srcField.setAccessible(true);
-        destField.setAccessible(true);
+    private static Object cloneValue(Object value, Map<Object, Object> copies) {
+        if (value == null || isImmutable(value.getClass())) {
+            return value;
+        }
+        if (copies != null) {
+            Object copy = copies.get(value);
+            if (copy != null) {
+                return copy;
+            }
+        }
+        Class<?> cls = value.getClass();
+        if (cls.isArray()) {
+            return cloneArray(value, cls.getComponentType(), copies);
+        }
+        if (value instanceof Collection) {
+            return cloneCollection((Collection<?>) value, copies);
+        }
+        if (value instanceof Map) {
+            return cloneMap((Map<?, ?>) value, copies);
+        }
+        if (isJdkClass(cls)) {
+            return cloneJdkValue(value, copies);
+        }
+        Object copy = newInstance(cls);
+        if (copies != null) {
+            copies.put(value, copy);
+        }
         try {
-            Class<?> destTrueField = getMapValueTrueType(destField);
-            HashMap<String, Object> srcMap = (HashMap) srcField.get(source);
-            // Map 实例化 HashMap
-            // 后续可以考虑配置化支持更高类型
-            Map<String, Object> destMap = new HashMap<>();
+            for (FieldPlan plan : FIELD_PLANS.get(cls)) {
+                Object fieldValue = plan.field.get(value);
+                plan.field.set(copy, plan.shared ? fieldValue : cloneValue(fieldValue, copies));
+            }
+        } catch (IllegalAccessException e) {
+            throw new BeanCopyException(e);
+        }
+        return copy;
+    }
+
+    private static Object cloneArray(Object array, Class<?> componentType, Map<Object, Object> copies) {
+        int length = Array.getLength(array);
+        Object copy = Array.newInstance(componentType, length);
+        if (copies != null) {
+            copies.put(array, copy);
+        }
+        if (componentType.isPrimitive() || isImmutable(componentType)) {
+            System.arraycopy(array, 0, copy, 0, length);
+            return copy;
+        }
+        Object[] source = (Object[]) array;
+        Object[] target = (Object[]) copy;
+        for (int i = 0; i < length; i++) {
+            target[i] = cloneValue(source[i], copies);
+        }
+        return copy;
+    }
 
-            for (Map.Entry<String, Object> entry : srcMap.entrySet()) {
-                Object destObj = ReflectUtils.newInstance(destTrueField);
-                copyProperties(entry.getValue(), destObj);
-                destMap.put(entry.getKey(), destObj);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<?> cloneCollection(Collection<?> collection, Map<Object, Object> copies) {
+        if (collection instanceof EnumSet) {
+            // enum constants are immutable
+            Collection copy = ((EnumSet) collection).clone();
+            if (copies != null) {
+                copies.put(collection, copy);
             }
+            return copy;
+        }
+        String name = collection.getClass().getName();
+        if (name.startsWith(COLLECTIONS_PREFIX + "Empty")) {
+            return collection;
+        }
+        if (name.startsWith(COLLECTIONS_PREFIX + "Singleton")) {
+            Object element = cloneValue(collection.iterator().next(), copies);
+            Collection copy = collection instanceof Set ? Collections.singleton(element) : Collections.singletonList(element);
+            if (copies != null) {
+                copies.put(collection, copy);
+            }
+            return copy;
+        }
+        boolean unmodifiable = name.startsWith(COLLECTIONS_PREFIX + "Unmodifiable");
+        Collection copy = unmodifiable ? newMutableCollection(collection) : newCollection(collection);
+        // the unmodifiable view is registered before the elements are cloned, so a cycle gets the view as well
+        Collection result = unmodifiable ? unmodifiableCollection(collection, copy) : copy;
+        if (copies != null) {
+            copies.put(collection, result);
+        }
+        for (Object element : collection) {
+            copy.add(cloneValue(element, copies));
+        }
+        return result;
+    }
 
-            destField.set(target, destMap);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<?, ?> cloneMap(Map<?, ?> map, Map<Object, Object> copies) {
+        if (map instanceof EnumMap) {
+            // copy the key type and the entries at once, then replace the values by their clones
+            EnumMap copy = new EnumMap((EnumMap) map);
+            if (copies != null) {
+                copies.put(map, copy);
+            }
+            for (Object entry : copy.entrySet()) {
+                Map.Entry e = (Map.Entry) entry;
+                e.setValue(cloneValue(e.getValue(), copies));
+            }
+            return copy;
+        }
+        String name = map.getClass().getName();
+        if (name.startsWith(COLLECTIONS_PREFIX + "Empty")) {
+            return map;
+        }
+        if (name.startsWith(COLLECTIONS_PREFIX + "Singleton")) {
+            Map.Entry<?, ?> entry = map.entrySet().iterator().next();
+            Map copy = Collections.singletonMap(cloneValue(entry.getKey(), copies), cloneValue(entry.getValue(), copies));
+            if (copies != null) {
+                copies.put(map, copy);
+            }
+            return copy;
+        }
+        boolean unmodifiable = name.startsWith(COLLECTIONS_PREFIX + "Unmodifiable");
+        Map copy = unmodifiable ? newMutableMap(map) : newMap(map);
+        Map result = unmodifiable ? unmodifiableMap(map, copy) : copy;
+        if (copies != null) {
+            copies.put(map, result);
         }
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(cloneValue(entry.getKey(), copies), cloneValue(entry.getValue(), copies));
+        }
+        return result;
+    }
+
+    /**
+     * Clone a JDK value that is neither a collection nor a map through its public {@code clone()}, share it otherwise
+     */
+    private static Object cloneJdkValue(Object value, Map<Object, Object> copies) {
+        Method clone = CLONE_METHODS.get(value.getClass());
+        if (clone == null) {
+            return value;
+        }
+        Object copy;
+        try {
+            copy = clone.invoke(value);
+        } catch (ReflectiveOperationException e) {
+            throw new BeanCopyException("Can not clone " + value.getClass().getName(), e);
+        }
+        if (copies != null) {
+            copies.put(value, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * The public {@code clone()} declared by the nearest public class, so it can be invoked without
+     * {@code setAccessible} on the JDK internal subclasses (e.g. the calendars other than gregorian)
+     */
+    private static Method cloneMethod(Class<?> cls) {
+        if (!Cloneable.class.isAssignableFrom(cls)) {
+            return null;
+        }
+        for (Class<?> cur = cls; cur != null && cur != Object.class; cur = cur.getSuperclass()) {
+            if (!Modifier.isPublic(cur.getModifiers())) {
+                continue;
+            }
+            try {
+                Method method = cur.getMethod("clone");
+                if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isJdkClass(Class<?> cls) {
+        String name = cls.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.")
+                || name.startsWith("com.sun.");
+    }
+
+    /**
+     * The mutable collection backing the copy of an unmodifiable collection
+     */
+    private static Collection<?> newMutableCollection(Collection<?> collection) {
+        int size = collection.size();
+        if (collection instanceof SortedSet) {
+            return new TreeSet<>(((SortedSet<?>) collection).comparator());
+        }
+        if (collection instanceof Set) {
+            return new LinkedHashSet<>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        // keep the RandomAccess marker of the unmodifiable list
+        return collection instanceof List && !(collection instanceof RandomAccess) ? new LinkedList<>() : new ArrayList<>(size);
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static void copyCollection(PropertyDescriptor sourcePd, PropertyDescriptor targetPd, Object source, Object target) throws Exception {
-        Field srcField = source.getClass().getDeclaredField(sourcePd.getName());
-        Field destField = target.getClass().getDeclaredField(targetPd.getName());
+    private static Collection<?> unmodifiableCollection(Collection<?> source, Collection copy) {
+        if (source instanceof NavigableSet) {
+            return Collections.unmodifiableNavigableSet((NavigableSet) copy);
+        }
+        if (source instanceof SortedSet) {
+            return Collections.unmodifiableSortedSet((SortedSet) copy);
+        }
+        if (source instanceof Set) {
+            return Collections.unmodifiableSet((Set) copy);
+        }
+        if (source instanceof List) {
+            return Collections.unmodifiableList((List) copy);
+        }
+        return Collections.unmodifiableCollection(copy);
+    }
 
-        srcField.setAccessible(true);
-        destField.setAccessible(true);
+    private static Map<?, ?> newMutableMap(Map<?, ?> map) {
+        if (map instanceof SortedMap) {
+            return new TreeMap<>(((SortedMap<?, ?>) map).comparator());
+        }
+        return new LinkedHashMap<>(Math.max((int) (map.size() / .75f) + 1, 16));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<?, ?> unmodifiableMap(Map<?, ?> source, Map copy) {
+        if (source instanceof NavigableMap) {
+            return Collections.unmodifiableNavigableMap((NavigableMap) copy);
+        }
+        if (source instanceof SortedMap) {
+            return Collections.unmodifiableSortedMap((SortedMap) copy);
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * A collection of the same class, the JDK collections without default constructor
+     * (e.g. unmodifiable or {@code Arrays.asList}) are copied to an {@link ArrayList} or a {@link LinkedHashSet}
+     */
+    private static Collection<?> newCollection(Collection<?> collection) {
+        Class<?> cls = collection.getClass();
+        int size = collection.size();
+        if (cls == ArrayList.class) {
+            return new ArrayList<>(size);
+        }
+        if (cls == HashSet.class) {
+            return new HashSet<>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        if (cls == LinkedHashSet.class) {
+            return new LinkedHashSet<>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        if (cls == LinkedList.class) {
+            return new LinkedList<>();
+        }
+        if (cls == ArrayDeque.class) {
+            return new ArrayDeque<>(size);
+        }
+        if (collection instanceof SortedSet) {
+            return new TreeSet<>(((SortedSet<?>) collection).comparator());
+        }
+        Object instance = newInstanceIfPossible(cls);
+        if (instance != null) {
+            return (Collection<?>) instance;
+        }
+        return collection instanceof Set ? new LinkedHashSet<>(Math.max((int) (size / .75f) + 1, 16)) : new ArrayList<>(size);
+    }
+
+    /**
+     * A map of the same class, the JDK maps without default constructor are copied to a {@link LinkedHashMap}
+     */
+    private static Map<?, ?> newMap(Map<?, ?> map) {
+        Class<?> cls = map.getClass();
+        int capacity = Math.max((int) (map.size() / .75f) + 1, 16);
+        if (cls == HashMap.class) {
+            return new HashMap<>(capacity);
+        }
+        if (cls == LinkedHashMap.class) {
+            return new LinkedHashMap<>(capacity);
+        }
+        if (cls == ConcurrentHashMap.class) {
+            return new ConcurrentHashMap<>(capacity);
+        }
+        if (map instanceof SortedMap) {
+            return new TreeMap<>(((SortedMap<?, ?>) map).comparator());
+        }
+        Object instance = newInstanceIfPossible(cls);
+        if (instance != null) {
+            return (Map<?, ?>) instance;
+        }
+        return new LinkedHashMap<>(capacity);
+    }
+
+    private static boolean isImmutable(Class<?> cls) {
+        return cls.isPrimitive() || IMMUTABLE_TYPES.contains(cls) || cls.isEnum() || Enum.class.isAssignableFrom(cls)
+                || cls.getName().startsWith("java.time.") || Path.class.isAssignableFrom(cls);
+    }
+
+    private static Object newInstance(Class<?> cls) {
+        Constructor<?> constructor = CONSTRUCTORS.get(cls);
+        if (constructor == null) {
+            throw new BeanCopyException("No default constructor of " + cls.getName());
+        }
         try {
-            Class<?> destTrueField = getTrueType(destField);
-            Collection srcList = (Collection) srcField.get(source);
-            // List 实例化 ArrayList，Set实例化HashSet
-            // 后续可以考虑配置化支持更高类型
-            Collection destCollec = null;
-            if (List.class.isAssignableFrom(destField.getType())) {
-                destCollec = new ArrayList<>();
-            } else if (Set.class.isAssignableFrom(destField.getType())) {
-                destCollec = new HashSet<>();
-            } else {
-                throw new Exception("don not support type");
-            }
-            Iterator iterator = srcList.iterator();
-            while (iterator.hasNext()) {
-                Object srcObj = iterator.next();
-                Object destObj = ReflectUtils.newInstance(destTrueField);
-                copyProperties(srcObj, destObj);
-                destCollec.add(destObj);
-            }
-
-            destField.set(target, destCollec);
-        } catch (IllegalAccessException | InstantiationException e) {
-            e.printStackTrace();
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new BeanCopyException("Instance class " + cls.getName() + " error", e);
         }
     }
 
-    private static Class getTrueType(Field srcField) {
-        Type genericType = srcField.getGenericType();
-        ParameterizedType pt = (ParameterizedType) genericType;
-        Class actualClass = (Class) pt.getActualTypeArguments()[0];
-        return actualClass;
+    private static Object newInstanceIfPossible(Class<?> cls) {
+        Constructor<?> constructor = CONSTRUCTORS.get(cls);
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
 
+    private static FieldPlan[] fieldPlans(Class<?> cls) {
+        List<FieldPlan> plans = new ArrayList<>();
+        for (Class<?> cur = cls; cur != null && cur != Object.class; cur = cur.getSuperclass()) {
+            for (Field field : cur.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                try {
+                    ReflectUtils.setAccessible(field);
+                } catch (RuntimeException e) {
+                    throw new BeanCopyException("Can not clone " + cls.getName() + ", the field " + field.getName() + " is not accessible", e);
+                }
+                plans.add(new FieldPlan(field, isImmutable(field.getType())));
+            }
+        }
+        return plans.toArray(new FieldPlan[0]);
+    }
+
+    private static class PropertyPlan {
+        final Method read;
+        final Method write;
+        final Class<?> targetType;
+        final int kind;
+        /**
+         * the element (or map value) type of the target when it differs from the source
+         */
+        final Class<?> elementType;
+
+        PropertyPlan(Method read, Method write, Class<?> targetType, int kind, Class<?> elementType) {
+            this.read = read;
+            this.write = write;
+            this.targetType = targetType;
+            this.kind = kind;
+            this.elementType = elementType;
+        }
+    }
+
+    private static class FieldPlan {
+        final Field field;
+        /**
+         * the declared type is immutable, the value is copied as is
+         */
+        final boolean shared;
+
+        FieldPlan(Field field, boolean shared) {
+            this.field = field;
+            this.shared = shared;
+        }
     }
 
-    private static Class<?> getMapValueTrueType(Field srcField) {
+    private static Class<?> getTrueType(Field srcField) {
         Type genericType = srcField.getGenericType();
         ParameterizedType pt = (ParameterizedType) genericType;
-        Class<?> actualClass = (Class<?>) pt.getActualTypeArguments()[1];
+        Class<?> actualClass = (Class<?>) pt.getActualTypeArguments()[0];
         return actualClass;
 
     }
@@ -211,12 +724,10 @@ public class DeepCopyUtils {
         try {
             Class destTrueField = getTrueType(destField);
             List srcList = (List) srcField.get(source);
-            List destList = new ArrayList();
-            for (int j = 0; j < srcList.size(); j++) {
-                Object srcObj = srcList.get(j);
-                Object destObj = ReflectUtils.newInstance(destTrueField);
-                copyProperties(srcObj, destObj);
-                destList.add(destObj);
+            List destList = new ArrayList(srcList.size());
+            Map<Object, Object> copies = new IdentityHashMap<>(8);
+            for (Object srcObj : srcList) {
+                destList.add(srcObj == null ? null : copyBean(srcObj, destTrueField, copies));
             }
             destField.set(target, destList);
         } catch (IllegalAccessException e) {
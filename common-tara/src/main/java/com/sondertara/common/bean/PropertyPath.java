@@ -0,0 +1,449 @@
+package com.sondertara.common.bean;
+
+import com.sondertara.common.bean.exception.NestedNullException;
+import com.sondertara.common.bean.expression.DefaultResolver;
+import com.sondertara.common.bean.expression.Resolver;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A nested property expression such as {@code order.items[3].sku(key)} parsed once into a chain of steps.
+ * <p>
+ * The expression is split by the {@link DefaultResolver} when it is compiled. Each step keeps the method handles of
+ * the last bean class it has seen, so a path evaluated against the same classes does not parse the expression nor
+ * look up the property descriptors again. Anything else (unknown properties, null containers, a setter whose argument
+ * does not match...) is handed to the {@link PropertyUtilsBean} methods taking the already split name, index and key,
+ * so the results and the exceptions are the same as {@link PropertyUtilsBean#getNestedProperty(Object, String)} and
+ * {@link PropertyUtilsBean#setNestedProperty(Object, String, Object)}.
+ * <p>
+ * The compiled paths are cached by {@link PropertyUtilsBean#compilePath(String)} and released by
+ * {@link PropertyUtilsBean#clearDescriptors()}.
+ *
+ * @author huangxiaohu
+ */
+public final class PropertyPath {
+    private static final Resolver RESOLVER = new DefaultResolver();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType INDEXED_GETTER_TYPE = MethodType.methodType(Object.class, Object.class, int.class);
+    private static final MethodType MAPPED_GETTER_TYPE = MethodType.methodType(Object.class, Object.class, String.class);
+
+    private static final int SIMPLE = 0;
+    private static final int INDEXED = 1;
+    private static final int MAPPED = 2;
+
+    private final String expression;
+    private final Step[] steps;
+    private final PropertyUtilsBean propertyUtils;
+
+    PropertyPath(String expression, PropertyUtilsBean propertyUtils) {
+        this.expression = expression;
+        this.propertyUtils = propertyUtils;
+        List<Step> list = new ArrayList<>();
+        String remaining = expression;
+        do {
+            String segment = remaining.isEmpty() ? remaining : RESOLVER.next(remaining);
+            list.add(new Step(segment, remaining));
+            remaining = RESOLVER.remove(remaining);
+        } while (remaining != null);
+        this.steps = list.toArray(new Step[0]);
+    }
+
+    /**
+     * Compile the expression with the shared {@link PropertyUtilsBean}
+     *
+     * @param expression the property expression
+     * @return the cached path
+     */
+    public static PropertyPath compile(String expression) {
+        return PropertyUtilsBean.getInstance().compilePath(expression);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Same as {@link PropertyUtilsBean#getNestedProperty(Object, String)}
+     *
+     * @param bean the bean
+     * @return the property value
+     */
+    public Object get(Object bean) {
+        try {
+            return doGet(bean);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Same as {@link PropertyUtilsBean#setNestedProperty(Object, String, Object)}
+     *
+     * @param bean  the bean
+     * @param value the property value
+     */
+    public void set(Object bean, Object value) {
+        try {
+            doSet(bean, value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    Object doGet(Object bean) throws Exception {
+        checkBean(bean);
+        final int last = steps.length - 1;
+        for (int i = 0; i < last; i++) {
+            final Step step = steps[i];
+            final Object nestedBean = step.get(bean, propertyUtils);
+            if (nestedBean == null) {
+                if (step.optional) {
+                    return null;
+                }
+                throw new NestedNullException("Null property value for '" + step.remaining + "' on bean class '" + bean.getClass() + "'");
+            }
+            bean = nestedBean;
+        }
+        return steps[last].get(bean, propertyUtils);
+    }
+
+    void doSet(Object bean, Object value) throws Exception {
+        checkBean(bean);
+        final int last = steps.length - 1;
+        for (int i = 0; i < last; i++) {
+            final Step step = steps[i];
+            final Object nestedBean = step.get(bean, propertyUtils);
+            if (nestedBean == null) {
+                throw new NestedNullException("Null property value for '" + step.remaining + "' on bean class '" + bean.getClass() + "'");
+            }
+            bean = nestedBean;
+        }
+        steps[last].set(bean, value, propertyUtils);
+    }
+
+    private static void checkBean(Object bean) {
+        if (bean == null) {
+            throw new IllegalArgumentException("No bean specified");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * One property of the path
+     */
+    private static final class Step {
+        /**
+         * the segment of the expression, e.g. {@code items[3]}
+         */
+        private final String segment;
+        /**
+         * the expression from this step, for the messages
+         */
+        private final String remaining;
+        private final int kind;
+        /**
+         * the property name with the annotations
+         */
+        private final String name;
+        private final String propertyName;
+        private final boolean field;
+        private final boolean optional;
+        private final int index;
+        private final String key;
+        /**
+         * the index or key can not be parsed, the property utils report it with the bean class
+         */
+        private final boolean malformed;
+        /**
+         * the key when the bean is a map
+         */
+        private final String mapKey;
+        /**
+         * the exception if the segment can not be used on a map
+         */
+        private final String mapError;
+
+        private volatile Accessor accessor;
+
+        Step(String segment, String remaining) {
+            this.segment = segment;
+            this.remaining = remaining;
+            String parsedKey = null;
+            int parsedIndex = -1;
+            boolean invalid = false;
+            if (RESOLVER.isMapped(segment)) {
+                this.kind = MAPPED;
+                try {
+                    parsedKey = RESOLVER.getKey(segment);
+                } catch (IllegalArgumentException e) {
+                    invalid = true;
+                }
+            } else if (RESOLVER.isIndexed(segment)) {
+                this.kind = INDEXED;
+                try {
+                    parsedIndex = RESOLVER.getIndex(segment);
+                } catch (IllegalArgumentException e) {
+                    invalid = true;
+                }
+            } else {
+                this.kind = SIMPLE;
+            }
+            this.key = parsedKey;
+            this.index = parsedIndex;
+            this.malformed = invalid || (kind == MAPPED && parsedKey == null) || (kind == INDEXED && parsedIndex < 0);
+            this.name = RESOLVER.getProperty(segment);
+            this.field = name.startsWith("@");
+            this.propertyName = trimAnnotations(name);
+            this.optional = name.endsWith("?") || segment.endsWith("?");
+
+            // same as PropertyUtilsBean#getPropertyOfMapBean
+            String keyOfMap = segment;
+            String error = null;
+            try {
+                if (kind == MAPPED && name.isEmpty()) {
+                    keyOfMap = RESOLVER.getKey(segment);
+                }
+                if (RESOLVER.isIndexed(keyOfMap) || RESOLVER.isMapped(keyOfMap)) {
+                    error = "Indexed or mapped properties are not supported on" + " objects of type Map: " + keyOfMap;
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            this.mapKey = keyOfMap;
+            this.mapError = error;
+        }
+
+        Object get(Object bean, PropertyUtilsBean propertyUtils) throws Exception {
+            if (bean instanceof Map) {
+                if (mapError != null) {
+                    throw new IllegalArgumentException(mapError);
+                }
+                return ((Map<?, ?>) bean).get(mapKey);
+            }
+            if (malformed) {
+                return kind == MAPPED ? propertyUtils._getMappedProperty(bean, segment) : propertyUtils._getIndexedProperty(bean, segment);
+            }
+            final Accessor current = accessor(bean, propertyUtils);
+            if (current.getter == null) {
+                switch (kind) {
+                    case INDEXED:
+                        return propertyUtils._getIndexedProperty(bean, name, index);
+                    case MAPPED:
+                        return propertyUtils._getMappedProperty(bean, name, key);
+                    default:
+                        return propertyUtils._getSimpleProperty(bean, segment);
+                }
+            }
+            final Object value;
+            try {
+                if (current.indexed) {
+                    value = current.getter.invokeExact(bean, index);
+                } else if (current.mapped) {
+                    value = current.getter.invokeExact(bean, key);
+                } else {
+                    value = current.getter.invokeExact(bean);
+                }
+            } catch (IndexOutOfBoundsException e) {
+                if (current.indexed) {
+                    throw e;
+                }
+                throw new InvocationTargetException(e);
+            } catch (Throwable e) {
+                // same as Method#invoke
+                throw new InvocationTargetException(e);
+            }
+            if (kind == INDEXED && !current.indexed) {
+                return element(value, bean, propertyUtils);
+            }
+            if (kind == MAPPED && !current.mapped) {
+                return value instanceof Map ? ((Map<?, ?>) value).get(key) : null;
+            }
+            return value;
+        }
+
+        private Object element(Object container, Object bean, PropertyUtilsBean propertyUtils) throws Exception {
+            if (container instanceof List) {
+                return ((List<?>) container).get(index);
+            }
+            if (container != null && container.getClass().isArray()) {
+                try {
+                    return Array.get(container, index);
+                } catch (final ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Index: " + index + ", Size: " + Array.getLength(container) + " for property '" + name + "'");
+                }
+            }
+            return propertyUtils._getIndexedProperty(bean, name, index);
+        }
+
+        void set(Object bean, Object value, PropertyUtilsBean propertyUtils) throws Exception {
+            if (bean instanceof Map) {
+                if (mapError != null) {
+                    throw new IllegalArgumentException(mapError);
+                }
+                @SuppressWarnings("unchecked") final Map<Object, Object> map = (Map<Object, Object>) bean;
+                map.put(mapKey, value);
+                return;
+            }
+            if (kind == MAPPED) {
+                if (malformed) {
+                    propertyUtils._setMappedProperty(bean, segment, value);
+                } else {
+                    propertyUtils._setMappedProperty(bean, name, key, value);
+                }
+                return;
+            }
+            if (kind == INDEXED) {
+                if (malformed) {
+                    propertyUtils._setIndexedProperty(bean, segment, value);
+                } else {
+                    propertyUtils._setIndexedProperty(bean, name, index, value);
+                }
+                return;
+            }
+            final Accessor current = accessor(bean, propertyUtils);
+            if (current.setter == null || (value == null ? current.primitive : !current.setterType.isInstance(value))) {
+                // let the reflection report or widen it
+                propertyUtils._setSimpleProperty(bean, segment, value);
+                return;
+            }
+            try {
+                current.setter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        private Accessor accessor(Object bean, PropertyUtilsBean propertyUtils) {
+            Accessor current = accessor;
+            if (current == null || current.beanClass != bean.getClass()) {
+                current = resolve(bean, propertyUtils);
+                accessor = current;
+            }
+            return current;
+        }
+
+        /**
+         * Find the handles of the bean class, the handles are null if the property utils must be called
+         */
+        private Accessor resolve(Object bean, PropertyUtilsBean propertyUtils) {
+            final Class<?> beanClass = bean.getClass();
+            try {
+                if (field) {
+                    if (kind != SIMPLE) {
+                        return new Accessor(beanClass);
+                    }
+                    final Field f = FieldUtils.getField(beanClass, propertyName);
+                    if (f == null) {
+                        return new Accessor(beanClass);
+                    }
+                    f.setAccessible(true);
+                    MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    MethodHandle getter = lookup.unreflectGetter(f).asType(GETTER_TYPE);
+                    // FieldUtils.writeField keeps the '?' of the name
+                    MethodHandle setter = name.endsWith("?") || Modifier.isFinal(f.getModifiers()) ? null : lookup.unreflectSetter(f).asType(SETTER_TYPE);
+                    return new Accessor(beanClass, getter, setter, f.getType(), false, false);
+                }
+                if (propertyName.isEmpty()) {
+                    return new Accessor(beanClass);
+                }
+                final PropertyDescriptor descriptor = propertyUtils.getPropertyDescriptor(bean, propertyName);
+                if (descriptor == null) {
+                    return new Accessor(beanClass);
+                }
+                if (kind == INDEXED && descriptor instanceof IndexedPropertyDescriptor) {
+                    final Method indexedRead = MethodUtils.getAccessibleMethod(((IndexedPropertyDescriptor) descriptor).getIndexedReadMethod());
+                    if (indexedRead != null) {
+                        return new Accessor(beanClass, LOOKUP.unreflect(indexedRead).asType(INDEXED_GETTER_TYPE), null, null, true, false);
+                    }
+                }
+                if (kind == MAPPED && descriptor instanceof MappedPropertyDescriptor) {
+                    final Method mappedRead = MethodUtils.getAccessibleMethod(((MappedPropertyDescriptor) descriptor).getMappedReadMethod());
+                    if (mappedRead == null) {
+                        return new Accessor(beanClass);
+                    }
+                    return new Accessor(beanClass, LOOKUP.unreflect(mappedRead).asType(MAPPED_GETTER_TYPE), null, null, false, true);
+                }
+                final Method read = propertyUtils.getReadMethod(beanClass, descriptor);
+                final MethodHandle getter = read == null ? null : LOOKUP.unreflect(read).asType(GETTER_TYPE);
+                MethodHandle setter = null;
+                Class<?> setterType = null;
+                if (kind == SIMPLE && !name.endsWith("?")) {
+                    final Method write = propertyUtils.getWriteMethod(beanClass, descriptor);
+                    if (write != null) {
+                        setter = LOOKUP.unreflect(write).asType(SETTER_TYPE);
+                        setterType = write.getParameterTypes()[0];
+                    }
+                }
+                return new Accessor(beanClass, getter, setter, setterType, false, false);
+            } catch (Exception e) {
+                // the property utils will report it
+                return new Accessor(beanClass);
+            }
+        }
+
+        private static String trimAnnotations(String name) {
+            if (name.startsWith("@")) {
+                name = name.substring(1);
+            }
+            if (name.endsWith("?")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            return name;
+        }
+    }
+
+    /**
+     * The handles of a step for a bean class
+     */
+    private static final class Accessor {
+        private final Class<?> beanClass;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        /**
+         * the boxed type of the setter argument
+         */
+        private final Class<?> setterType;
+        private final boolean primitive;
+        private final boolean indexed;
+        private final boolean mapped;
+
+        Accessor(Class<?> beanClass) {
+            this(beanClass, null, null, null, false, false);
+        }
+
+        Accessor(Class<?> beanClass, MethodHandle getter, MethodHandle setter, Class<?> setterType, boolean indexed, boolean mapped) {
+            this.beanClass = beanClass;
+            this.getter = getter;
+            this.setter = setter;
+            this.setterType = setterType == null ? null : ClassUtils.primitiveToWrapper(setterType);
+            this.primitive = setterType != null && setterType.isPrimitive();
+            this.indexed = indexed;
+            this.mapped = mapped;
+        }
+    }
+}
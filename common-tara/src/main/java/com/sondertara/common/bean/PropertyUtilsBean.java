@@ -17,6 +17,9 @@
 
 package com.sondertara.common.bean;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.sondertara.common.bean.exception.NestedNullException;
 import com.sondertara.common.bean.expression.DefaultResolver;
 import com.sondertara.common.bean.expression.Resolver;
@@ -39,6 +42,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -102,15 +106,32 @@ public class PropertyUtilsBean {
     /**
      * The cache of PropertyDescriptor arrays for beans we have already
      * introspected, keyed by the java.lang.Class of this object.
+     * <p>
+     * The values are kept by the class itself, so the reads are lock-free and the
+     * entries are released together with the ClassLoader. The cache is replaced by
+     * {@link #clearDescriptors()}.
+     */
+    private volatile ClassValue<BeanIntrospectionData> descriptorsCache;
+    private volatile ClassValue<Map<String, PropertyDescriptor>> mappedDescriptorsCache;
+
+    /**
+     * The compiled nested property expressions, the least recently used are evicted
      */
-    private final WeakFastHashMap<Class<?>, BeanIntrospectionData> descriptorsCache;
-    private final WeakFastHashMap<Class<?>, FastHashMap> mappedDescriptorsCache;
+    private final LoadingCache<String, PropertyPath> pathCache = CacheBuilder.newBuilder().maximumSize(PATH_CACHE_SIZE)
+            .build(new CacheLoader<String, PropertyPath>() {
+                @Override
+                public PropertyPath load(String expression) {
+                    return new PropertyPath(expression, PropertyUtilsBean.this);
+                }
+            });
 
     /**
      * An empty object array
      */
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
+    private static final int PATH_CACHE_SIZE = 1024;
+
     /**
      * Log instance
      */
@@ -127,10 +148,8 @@ public class PropertyUtilsBean {
      * Base constructor
      */
     public PropertyUtilsBean() {
-        descriptorsCache = new WeakFastHashMap<>();
-        descriptorsCache.setFast(true);
-        mappedDescriptorsCache = new WeakFastHashMap<>();
-        mappedDescriptorsCache.setFast(true);
+        descriptorsCache = newDescriptorsCache();
+        mappedDescriptorsCache = newMappedDescriptorsCache();
         introspectors = new CopyOnWriteArrayList<>();
         resetBeanIntrospectors();
     }
@@ -229,8 +248,9 @@ public class PropertyUtilsBean {
      */
     public void clearDescriptors() {
 
-        descriptorsCache.clear();
-        mappedDescriptorsCache.clear();
+        descriptorsCache = newDescriptorsCache();
+        mappedDescriptorsCache = newMappedDescriptorsCache();
+        pathCache.invalidateAll();
         Introspector.flushCaches();
 
     }
@@ -687,7 +707,8 @@ public class PropertyUtilsBean {
      * </p>
      *
      * @param beanClass Bean class to be introspected
-     * @return the mapped property descriptors
+     * @return a copy of the mapped property descriptors, null if none has been
+     * cached for this class yet
      * @deprecated This method should not be exposed
      */
     @Deprecated
@@ -698,7 +719,13 @@ public class PropertyUtilsBean {
         }
 
         // Look up any cached descriptors for this bean class
-        return mappedDescriptorsCache.get(beanClass);
+        final Map<String, PropertyDescriptor> mappedDescriptors = mappedDescriptorsCache.get(beanClass);
+        if (mappedDescriptors.isEmpty()) {
+            return null;
+        }
+        final FastHashMap result = new FastHashMap(mappedDescriptors);
+        result.setFast(true);
+        return result;
 
     }
 
@@ -712,7 +739,8 @@ public class PropertyUtilsBean {
      * </p>
      *
      * @param bean Bean to be introspected
-     * @return the mapped property descriptors
+     * @return a copy of the mapped property descriptors, null if none has been
+     * cached for this class yet
      * @deprecated This method should not be exposed
      */
     @Deprecated
@@ -757,6 +785,9 @@ public class PropertyUtilsBean {
         if (name == null) {
             throw new IllegalArgumentException("No name specified for bean class '" + bean.getClass() + "'");
         }
+        if (isDefaultAccess()) {
+            return compilePath(name).doGet(bean);
+        }
 
         // Resolve nested references
         while (resolver.hasNested(name)) {
@@ -806,6 +837,29 @@ public class PropertyUtilsBean {
 
     }
 
+    /**
+     * Compile the nested property expression, the paths are cached by expression
+     * and released by {@link #clearDescriptors()}.
+     *
+     * @param expression the property expression
+     * @return the compiled path
+     * @throws IllegalArgumentException if the expression is null
+     */
+    public PropertyPath compilePath(final String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("No expression specified");
+        }
+        return pathCache.getUnchecked(expression);
+    }
+
+    /**
+     * The compiled paths follow the default resolver and map handling,
+     * a custom resolver or a subclass keeps parsing the expression.
+     */
+    private boolean isDefaultAccess() {
+        return getClass() == PropertyUtilsBean.class && resolver.getClass() == DefaultResolver.class;
+    }
+
     /**
      * This method is called by getNestedProperty and setNestedProperty to
      * define what it means to get a property from an object which implements
@@ -936,13 +990,8 @@ public class PropertyUtilsBean {
             return result;
         }
 
-        FastHashMap mappedDescriptors = getMappedPropertyDescriptors(bean);
-        if (mappedDescriptors == null) {
-            mappedDescriptors = new FastHashMap();
-            mappedDescriptors.setFast(true);
-            mappedDescriptorsCache.put(bean.getClass(), mappedDescriptors);
-        }
-        result = (PropertyDescriptor) mappedDescriptors.get(name);
+        final Map<String, PropertyDescriptor> mappedDescriptors = mappedDescriptorsCache.get(bean.getClass());
+        result = mappedDescriptors.get(name);
         if (result == null) {
             // not found, try to create it
             try {
@@ -953,7 +1002,10 @@ public class PropertyUtilsBean {
                  */
             }
             if (result != null) {
-                mappedDescriptors.put(name, result);
+                final PropertyDescriptor existing = mappedDescriptors.putIfAbsent(name, result);
+                if (existing != null) {
+                    result = existing;
+                }
             }
         }
 
@@ -1767,6 +1819,10 @@ public class PropertyUtilsBean {
         if (name == null) {
             throw new IllegalArgumentException("No name specified for bean class '" + bean.getClass() + "'");
         }
+        if (isDefaultAccess()) {
+            compilePath(name).doSet(bean, value);
+            return;
+        }
 
         // Resolve nested references
         while (resolver.hasNested(name)) {
@@ -2045,13 +2101,25 @@ public class PropertyUtilsBean {
         }
 
         // Look up any cached information for this bean class
-        BeanIntrospectionData data = descriptorsCache.get(beanClass);
-        if (data == null) {
-            data = fetchIntrospectionData(beanClass);
-            descriptorsCache.put(beanClass, data);
-        }
+        return descriptorsCache.get(beanClass);
+    }
 
-        return data;
+    private ClassValue<BeanIntrospectionData> newDescriptorsCache() {
+        return new ClassValue<BeanIntrospectionData>() {
+            @Override
+            protected BeanIntrospectionData computeValue(Class<?> type) {
+                return fetchIntrospectionData(type);
+            }
+        };
+    }
+
+    private static ClassValue<Map<String, PropertyDescriptor>> newMappedDescriptorsCache() {
+        return new ClassValue<Map<String, PropertyDescriptor>>() {
+            @Override
+            protected Map<String, PropertyDescriptor> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>(8);
+            }
+        };
     }
 
     /**
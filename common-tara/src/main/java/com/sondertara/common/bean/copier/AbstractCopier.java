@@ -24,7 +24,8 @@ public abstract class AbstractCopier implements Copier {
         try {
             Object value = fromField.get(source);
             if (value == null) {
-                if (COPY_IGNORE_NULL.get()) {
+                // a primitive keeps its value, same as the generated copier
+                if (COPY_IGNORE_NULL.get() || toField.getType().isPrimitive()) {
                     return;
                 }
                 toField.set(target, null);
@@ -25,6 +25,11 @@ class BeanCopier extends AbstractCopier {
      * No need to be volatile
      */
     private volatile List<Copier> copiers = null;
+    /**
+     * The copiers of the analyzed fields, generated on first use
+     */
+    private volatile Copier fieldsCopier;
+    private volatile Copier fieldsCopierIgnoreNull;
 
     /**
      * Top bean
@@ -33,7 +38,7 @@ class BeanCopier extends AbstractCopier {
         super(null, null);
         this.fromCls = fromCls;
         this.toCls = toCls;
-        converter = ConverterRegistry.find(fromCls.getName(), toCls.getName());
+        converter = ConverterRegistry.find(fromCls, toCls);
         if (converter == null) {
             try {
                 constructor = toCls.getDeclaredConstructor();
@@ -53,7 +58,7 @@ class BeanCopier extends AbstractCopier {
         this.toCls = toField.getType();
         fromField.setAccessible(true);
         toField.setAccessible(true);
-        converter = ConverterRegistry.find(fromCls.getName(), toCls.getName());
+        converter = ConverterRegistry.find(fromCls, toCls);
         if (converter == null) {
             try {
                 constructor = toCls.getDeclaredConstructor();
@@ -91,20 +96,16 @@ class BeanCopier extends AbstractCopier {
 
                 Class<?> fieldCls = toField.getType();
                 if (Set.class.isAssignableFrom(fieldCls)) {
-                    copiers.add(new CollectionCopier(fromField, toField, Utils.nameOf(fromEtlTypes[0]), Utils.nameOf(toEtlTypes[0]), true));
+                    copiers.add(new CollectionCopier(fromField, toField, fromEtlTypes[0], toEtlTypes[0], true));
                 } else if (Collection.class.isAssignableFrom(fieldCls)) {
-                    copiers.add(new CollectionCopier(fromField, toField, Utils.nameOf(fromEtlTypes[0]), Utils.nameOf(toEtlTypes[0]), false));
+                    copiers.add(new CollectionCopier(fromField, toField, fromEtlTypes[0], toEtlTypes[0], false));
                 } else if (Map.class.isAssignableFrom(fieldCls)) {
-                    try {
-                        if (!toEtlTypes[0].equals(fromEtlTypes[0]) && !Class.forName(Utils.nameOf(toEtlTypes[0])).isAssignableFrom(Class.forName(Utils.nameOf(fromEtlTypes[0])))) {
-                            throw new BeanAnalysisException("Key types mismatch: " + fromField + " <-> " + toField);
-                        }
-                    } catch (ClassNotFoundException e) {
-                        throw new BeanAnalysisException(e);
+                    if (!toEtlTypes[0].equals(fromEtlTypes[0]) && !Utils.classOf(toEtlTypes[0]).isAssignableFrom(Utils.classOf(fromEtlTypes[0]))) {
+                        throw new BeanAnalysisException("Key types mismatch: " + fromField + " <-> " + toField);
                     }
-                    copiers.add(new MapCopier(fromField, toField, Utils.nameOf(fromEtlTypes[1]), Utils.nameOf(toEtlTypes[1])));
+                    copiers.add(new MapCopier(fromField, toField, fromEtlTypes[1], toEtlTypes[1]));
                 } else {
-                    TypeConverter<?> converter = ConverterRegistry.find(fromField.getType().getName(), toField.getType().getName());
+                    TypeConverter<?> converter = ConverterRegistry.find(fromField.getType(), toField.getType());
                     if (converter != null) {
                         copiers.add(new SingleCopier(fromField, toField));
                     } else {
@@ -126,7 +127,7 @@ class BeanCopier extends AbstractCopier {
         return copiers;
     }
 
-    private static List<Field> allNonStaticFields(Class<?> cls) {
+    static List<Field> allNonStaticFields(Class<?> cls) {
         List<Field> all = new ArrayList<>();
         Class<?> cur = cls;
         do {
@@ -150,10 +151,102 @@ class BeanCopier extends AbstractCopier {
         if (copiers == null) {
             synchronized (this) {
                 if (copiers == null) {
+                    long start = System.nanoTime();
                     copiers = analyze(fromCls, toCls);
+                    BeanCopierRegistry.recordBuild(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Analyze this copier and the nested ones, and build their field copiers of both null modes
+     *
+     * @param visited the copiers already warmed up
+     */
+    void warmUp(Set<BeanCopier> visited) {
+        if (!visited.add(this)) {
+            return;
+        }
+        ensureAnalyzed();
+        if (converter != null) {
+            return;
+        }
+        fieldsCopier(false);
+        fieldsCopier(true);
+        for (Copier copier : copiers) {
+            if (copier instanceof BeanCopier) {
+                ((BeanCopier) copier).warmUp(visited);
+            } else if (copier instanceof AbstractCopier && ((AbstractCopier) copier).converter instanceof BeanConverter) {
+                ((BeanConverter) ((AbstractCopier) copier).converter).copier.warmUp(visited);
+            }
+        }
+    }
+
+    Class<?> getFromCls() {
+        return fromCls;
+    }
+
+    Class<?> getToCls() {
+        return toCls;
+    }
+
+    TypeConverter<?> getConverter() {
+        return converter;
+    }
+
+    /**
+     * @return the analyzed copiers, null if a registered converter copies the bean
+     */
+    List<Copier> getCopiers() {
+        ensureAnalyzed();
+        return copiers;
+    }
+
+    /**
+     * @return the field copier built so far, null if not used yet
+     */
+    Copier getFieldsCopier() {
+        return fieldsCopier;
+    }
+
+    /**
+     * The copier of all the analyzed fields, built by the {@link CopierBackend} of the registry
+     */
+    private Copier fieldsCopier(boolean ignoreNull) {
+        Copier copier = ignoreNull ? fieldsCopierIgnoreNull : fieldsCopier;
+        if (copier != null) {
+            return copier;
+        }
+        ensureAnalyzed();
+        synchronized (this) {
+            copier = ignoreNull ? fieldsCopierIgnoreNull : fieldsCopier;
+            if (copier == null) {
+                long start = System.nanoTime();
+                final List<Copier> analyzed = copiers;
+                CopierBackend backend = BeanCopierRegistry.getBackend();
+                if (backend == CopierBackend.BYTECODE) {
+                    copier = CopierCompiler.compile(fromCls, toCls, analyzed, ignoreNull);
+                }
+                if (copier == null && backend != CopierBackend.REFLECT) {
+                    copier = MethodHandleCopierFactory.create(fromCls, toCls, analyzed, ignoreNull);
+                }
+                if (copier == null) {
+                    copier = (source, target) -> {
+                        for (Copier each : analyzed) {
+                            each.copy(source, target);
+                        }
+                    };
+                }
+                if (ignoreNull) {
+                    fieldsCopierIgnoreNull = copier;
+                } else {
+                    fieldsCopier = copier;
                 }
+                BeanCopierRegistry.recordBuild(System.nanoTime() - start);
             }
         }
+        return copier;
     }
 
     /**
@@ -193,10 +286,7 @@ class BeanCopier extends AbstractCopier {
      * Top bean
      */
     void topCopyWithoutTopConverter(Object source, Object target) {
-        ensureAnalyzed();
-        for (Copier copier : copiers) {
-            copier.copy(source, target);
-        }
+        fieldsCopier(COPY_IGNORE_NULL.get()).copy(source, target);
     }
 
     /**
@@ -229,9 +319,27 @@ class BeanCopier extends AbstractCopier {
             throw new BeanCopyException(e);
         }
 
-        ensureAnalyzed();
-        for (Copier copier : copiers) {
-            copier.copy(from, to);
+        fieldsCopier(COPY_IGNORE_NULL.get()).copy(from, to);
+    }
+
+    /**
+     * Convert a collection element or map value with the copier
+     */
+    static final class BeanConverter implements TypeConverter<Object> {
+        final BeanCopier copier;
+
+        BeanConverter(BeanCopier copier) {
+            this.copier = copier;
+        }
+
+        @Override
+        public Object convert(Object value, Object defaultValue) {
+            return copier.copyConvert(value, defaultValue);
+        }
+
+        @Override
+        public String toString() {
+            return "BeanCopier{" + copier.fromCls.getName() + " -> " + copier.toCls.getName() + "}";
         }
     }
 
@@ -1,53 +1,330 @@
 package com.sondertara.common.bean.copier;
 
+import com.sondertara.common.convert.ConvertUtils;
+import com.sondertara.common.convert.GenericConvert;
 import com.sondertara.common.lang.Pair;
+import com.sondertara.common.lang.loader.ClassScanner;
 import com.sondertara.common.lang.map.WeakConcurrentMap;
-import com.sondertara.common.lang.reflect.ReflectUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 
 /**
  * Registry of all generated bean copiers.
+ * <p>
+ * The copiers are analyzed on first use. {@link #warmUp(Collection)} prepares and validates the copiers of known class
+ * pairs at start-up instead, in parallel, and returns their {@link CopyPlan}; {@link #getMetrics()} reports the size,
+ * the hits and misses and the build time of the registry. The lookups of the warm-up are not counted as hits or
+ * misses.
  *
  * @author huangxiaohu
  */
 public class BeanCopierRegistry {
-    private static final Map<Pair<Class<?>, Class<?>>, BeanCopier> TOP_BEAN_COPIER_MAP = new WeakConcurrentMap<>();
-    private static final Map<Pair<Field, Field>, BeanCopier> REF_BEAN_COPIER_MAP = new WeakConcurrentMap<>();
-    private static final Map<Class<?>, Map<String, Field>> SIMPLE_CLASS_COPIER_MAP = new WeakConcurrentMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(BeanCopierRegistry.class);
+
+    /**
+     * The copiers held by the class whose loader can see the other class of the pair (the source, else the target),
+     * keyed by the other class. A copier, and the class generated for it, then only references classes of the same
+     * or a parent class loader and never keeps a child class loader (e.g. of a web application) alive. A weak
+     * {@link Pair} key would be collected at the next GC and the copier generated again.
+     */
+    private static volatile ClassValue<Map<Class<?>, BeanCopier>> BY_SOURCE = newTopBeanCopierMap();
+    private static volatile ClassValue<Map<Class<?>, BeanCopier>> BY_TARGET = newTopBeanCopierMap();
+    /**
+     * The maps held by the classes, emptied on {@link #clear()}
+     */
+    private static final Queue<WeakReference<Map<Class<?>, BeanCopier>>> ISSUED_MAPS = new ConcurrentLinkedQueue<>();
+    private static final Map<Field, Map<Field, BeanCopier>> REF_BEAN_COPIER_MAP = new WeakConcurrentMap<>();
+    private static volatile CopierBackend backend = CopierBackend.fromProperty();
+
+    private static final AtomicInteger TOP_SIZE = new AtomicInteger();
+    private static final AtomicInteger REF_SIZE = new AtomicInteger();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder BUILDS = new LongAdder();
+    private static final LongAdder BUILD_NANOS = new LongAdder();
+    /**
+     * Set while warming up or describing copiers, their lookups (nested beans included) are not counted as hits and
+     * misses
+     */
+    private static final ThreadLocal<Boolean> UNCOUNTED = new ThreadLocal<>();
+
+    /**
+     * @return the backend of the copiers
+     */
+    public static CopierBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Change the backend of the copiers, the cached copiers are dropped
+     *
+     * @param backend the backend
+     */
+    public static void setBackend(CopierBackend backend) {
+        BeanCopierRegistry.backend = Objects.requireNonNull(backend, "backend");
+        clear();
+    }
 
     /**
      * Prepare a bean copier before using, in order to check correctness and warm-up
      * cache in advance
      */
     public static BeanCopier prepare(Class<?> sourceCls, Class<?> targetCls) {
-        Pair<Class<?>, Class<?>> pair = Pair.of(sourceCls, targetCls);
-        BeanCopier beanCopier = TOP_BEAN_COPIER_MAP.get(pair);
+        boolean counted = UNCOUNTED.get() == null;
+        Map<Class<?>, BeanCopier> copiers;
+        Class<?> key;
+        if (isVisible(targetCls, sourceCls)) {
+            copiers = BY_SOURCE.get(sourceCls);
+            key = targetCls;
+        } else if (isVisible(sourceCls, targetCls)) {
+            copiers = BY_TARGET.get(targetCls);
+            key = sourceCls;
+        } else {
+            // unrelated class loaders, caching would keep one of them alive
+            if (counted) {
+                MISSES.increment();
+            }
+            BeanCopier beanCopier = new BeanCopier(sourceCls, targetCls);
+            beanCopier.ensureAnalyzed();
+            return beanCopier;
+        }
+        BeanCopier beanCopier = copiers.get(key);
         if (beanCopier == null) {
+            if (counted) {
+                MISSES.increment();
+            }
             beanCopier = new BeanCopier(sourceCls, targetCls);
-            TOP_BEAN_COPIER_MAP.put(pair, beanCopier);
+            BeanCopier previous = copiers.putIfAbsent(key, beanCopier);
+            if (previous != null) {
+                return previous;
+            }
+            TOP_SIZE.incrementAndGet();
             beanCopier.ensureAnalyzed();
+        } else if (counted) {
+            HITS.increment();
         }
         return beanCopier;
     }
 
+    /**
+     * Whether the class is loaded by the loader of the host or one of its parents
+     */
+    private static boolean isVisible(Class<?> cls, Class<?> host) {
+        ClassLoader loader = cls.getClassLoader();
+        if (loader == null) {
+            return true;
+        }
+        for (ClassLoader cur = host.getClassLoader(); cur != null; cur = cur.getParent()) {
+            if (cur == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prepare the copiers of the class pairs in parallel: analyze them and their nested beans and build the field
+     * copiers, so that the first copies do not pay for it
+     *
+     * @param pairs the source and target classes
+     * @return the plans in the order of the pairs, check {@link CopyPlan#isValid()} for the failures
+     */
+    public static List<CopyPlan> warmUp(Collection<? extends Pair<? extends Class<?>, ? extends Class<?>>> pairs) {
+        long start = System.nanoTime();
+        List<CopyPlan> plans = pairs.parallelStream().map(pair -> warmUp(pair.getKey(), pair.getValue())).collect(Collectors.toList());
+        if (logger.isInfoEnabled()) {
+            long failed = plans.stream().filter(plan -> !plan.isValid()).count();
+            logger.info("Warm up {} bean copiers in {}ms, {} invalid", plans.size(), (System.nanoTime() - start) / 1_000_000, failed);
+        }
+        return plans;
+    }
+
+    /**
+     * Scan the package with {@link ClassScanner} and warm up the copiers of the class pairs accepted by the filter,
+     * e.g. {@code (s, t) -> t.getSimpleName().equals(s.getSimpleName().replace("Entity", "Vo"))}
+     *
+     * @param packageName the package of the beans
+     * @param pairFilter  accept a source and target class
+     * @return the plans of the accepted pairs
+     */
+    public static List<CopyPlan> warmUp(String packageName, BiPredicate<Class<?>, Class<?>> pairFilter) {
+        List<Class<?>> classes = ClassScanner.scanPackage(packageName, BeanCopierRegistry::isBean).stream()
+                .sorted((a, b) -> a.getName().compareTo(b.getName())).collect(Collectors.toList());
+        List<Pair<Class<?>, Class<?>>> pairs = new ArrayList<>();
+        for (Class<?> source : classes) {
+            for (Class<?> target : classes) {
+                if (source != target && pairFilter.test(source, target)) {
+                    pairs.add(Pair.of(source, target));
+                }
+            }
+        }
+        return warmUp(pairs);
+    }
+
+    /**
+     * Prepare the copier and describe it, the analysis errors are reported in the plan
+     *
+     * @param sourceCls the source class
+     * @param targetCls the target class
+     * @return the plan
+     */
+    public static CopyPlan describe(Class<?> sourceCls, Class<?> targetCls) {
+        long start = System.nanoTime();
+        UNCOUNTED.set(Boolean.TRUE);
+        try {
+            return plan(prepare(sourceCls, targetCls), System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            return failed(sourceCls, targetCls, e, System.nanoTime() - start);
+        } finally {
+            UNCOUNTED.remove();
+        }
+    }
+
+    /**
+     * @return a snapshot of the counters
+     */
+    public static CopierMetrics getMetrics() {
+        return new CopierMetrics(TOP_SIZE.get(), REF_SIZE.get(), HITS.sum(), MISSES.sum(), BUILDS.sum(), BUILD_NANOS.sum());
+    }
+
+    private static CopyPlan warmUp(Class<?> sourceCls, Class<?> targetCls) {
+        long start = System.nanoTime();
+        UNCOUNTED.set(Boolean.TRUE);
+        try {
+            BeanCopier beanCopier = prepare(sourceCls, targetCls);
+            beanCopier.warmUp(Collections.newSetFromMap(new IdentityHashMap<>()));
+            return plan(beanCopier, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Warm up bean copier from {} to {} failed", sourceCls.getName(), targetCls.getName(), e);
+            return failed(sourceCls, targetCls, e, System.nanoTime() - start);
+        } finally {
+            UNCOUNTED.remove();
+        }
+    }
+
+    private static CopyPlan plan(BeanCopier beanCopier, long buildNanos) {
+        Class<?> sourceCls = beanCopier.getFromCls();
+        Class<?> targetCls = beanCopier.getToCls();
+        List<CopyPlan.FieldPlan> fields = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        if (beanCopier.getConverter() != null) {
+            return new CopyPlan(sourceCls, targetCls, String.valueOf(beanCopier.getConverter()), fields, skipped, problems, null, buildNanos, null);
+        }
+        Set<String> copied = new HashSet<>();
+        for (Copier copier : beanCopier.getCopiers()) {
+            AbstractCopier fieldCopier = (AbstractCopier) copier;
+            Field toField = fieldCopier.toField;
+            copied.add(toField.getName());
+            String kind;
+            if (copier instanceof BeanCopier) {
+                kind = "bean";
+            } else if (copier instanceof CollectionCopier) {
+                kind = "collection";
+            } else if (copier instanceof MapCopier) {
+                kind = "map";
+            } else {
+                kind = "value";
+            }
+            String converter = null;
+            if (fieldCopier.converter instanceof GenericConvert) {
+                converter = "ConvertUtils";
+                if (!ConvertUtils.hasConverter(toField.getGenericType())) {
+                    problems.add(toField.getName() + ": no converter from " + fieldCopier.fromField.getGenericType().getTypeName() + " to " + toField.getGenericType().getTypeName());
+                }
+            } else if (fieldCopier.converter != null) {
+                converter = fieldCopier.converter.toString();
+            }
+            fields.add(new CopyPlan.FieldPlan(toField.getName(), kind, fieldCopier.fromField.getType(), toField.getType(), converter));
+        }
+        for (Field field : BeanCopier.allNonStaticFields(targetCls)) {
+            if (!copied.contains(field.getName())) {
+                skipped.add(field.getName());
+            }
+        }
+        Copier fieldsCopier = beanCopier.getFieldsCopier();
+        String copierClass = fieldsCopier == null ? backend.name() : fieldsCopier.getClass().getName();
+        return new CopyPlan(sourceCls, targetCls, null, fields, skipped, problems, copierClass, buildNanos, null);
+    }
+
+    private static CopyPlan failed(Class<?> sourceCls, Class<?> targetCls, Throwable error, long buildNanos) {
+        return new CopyPlan(sourceCls, targetCls, null, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), null, buildNanos, error);
+    }
+
+    /**
+     * The classes that may be copied: concrete, not an enum, annotation or anonymous class
+     */
+    private static boolean isBean(Class<?> cls) {
+        return !cls.isInterface() && !cls.isEnum() && !cls.isAnnotation() && !cls.isAnonymousClass() && !Modifier.isAbstract(cls.getModifiers());
+    }
+
+    static void recordBuild(long nanos) {
+        BUILDS.increment();
+        BUILD_NANOS.add(nanos);
+    }
+
     static BeanCopier findOrCreate(Field fromField, Field toField) {
-        Pair<Field, Field> pair = Pair.of(fromField, toField);
-        BeanCopier beanCopier = REF_BEAN_COPIER_MAP.get(pair);
+        Map<Field, BeanCopier> copiers = REF_BEAN_COPIER_MAP.computeIfAbsent(fromField, key -> new ConcurrentHashMap<>(4));
+        BeanCopier beanCopier = copiers.get(toField);
         if (beanCopier == null) {
             beanCopier = new BeanCopier(fromField, toField);
-            REF_BEAN_COPIER_MAP.put(pair, beanCopier);
+            BeanCopier previous = copiers.putIfAbsent(toField, beanCopier);
+            if (previous != null) {
+                return previous;
+            }
+            REF_SIZE.incrementAndGet();
         }
         return beanCopier;
     }
 
-    static void clear() {
-        TOP_BEAN_COPIER_MAP.clear();
-        REF_BEAN_COPIER_MAP.clear();
+    private static ClassValue<Map<Class<?>, BeanCopier>> newTopBeanCopierMap() {
+        return new ClassValue<Map<Class<?>, BeanCopier>>() {
+            @Override
+            protected Map<Class<?>, BeanCopier> computeValue(Class<?> type) {
+                Map<Class<?>, BeanCopier> copiers = new ConcurrentHashMap<>(4);
+                ISSUED_MAPS.removeIf(reference -> reference.get() == null);
+                ISSUED_MAPS.add(new WeakReference<>(copiers));
+                return copiers;
+            }
+        };
     }
 
-    static Map<String, Field> findOrCreate(Class<?> targetCls) {
-        return SIMPLE_CLASS_COPIER_MAP.computeIfAbsent(targetCls, key -> ReflectUtils.getFieldMap(targetCls));
+    /**
+     * Drop all the copiers. The maps still held by the classes are emptied, so the copiers and their generated classes
+     * can be collected with their class loader; a copier generated again reuses the class already defined.
+     */
+    static void clear() {
+        BY_SOURCE = newTopBeanCopierMap();
+        BY_TARGET = newTopBeanCopierMap();
+        WeakReference<Map<Class<?>, BeanCopier>> reference;
+        while ((reference = ISSUED_MAPS.poll()) != null) {
+            Map<Class<?>, BeanCopier> copiers = reference.get();
+            if (copiers != null) {
+                copiers.clear();
+            }
+        }
+        REF_BEAN_COPIER_MAP.clear();
+        TOP_SIZE.set(0);
+        REF_SIZE.set(0);
     }
 }
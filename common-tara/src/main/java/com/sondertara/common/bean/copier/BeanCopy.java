@@ -1,10 +1,22 @@
 package com.sondertara.common.bean.copier;
 
 import com.sondertara.common.bean.exception.BeanAnalysisException;
+import com.sondertara.common.bean.exception.BeanCopyException;
+import com.sondertara.common.lang.reflect.ReflectUtils;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.sondertara.common.bean.copier.Copier.COPY_IGNORE_NULL;
 
@@ -25,7 +37,11 @@ import static com.sondertara.common.bean.copier.Copier.COPY_IGNORE_NULL;
  */
 @SuppressWarnings("unchecked")
 public class BeanCopy {
-
+    /**
+     * The min size of the sources copied in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final int MIN_CHUNK_SIZE = 256;
 
     /**
      * Copy properties of source to a new instance of targetCls
@@ -66,11 +82,95 @@ public class BeanCopy {
      */
     public static void copy(Collection<?> sources, Collection<?> targets, Class<?> targetCls) {
         Collection<Object> results = (Collection<Object>) targets;
-        Object sourceObj = sources.stream().filter(Objects::nonNull).findFirst().orElseThrow(() -> new BeanAnalysisException("The source collection is empty"));
-        BeanCopier elemCopier = BeanCopierRegistry.prepare(sourceObj.getClass(), targetCls);
-        for (Object source : sources) {
-            results.add(elemCopier.topCopyWithoutTopConverter(source));
+        if (sources.stream().noneMatch(Objects::nonNull)) {
+            throw new BeanAnalysisException("The source collection is empty");
+        }
+        if (results instanceof ArrayList) {
+            ((ArrayList<Object>) results).ensureCapacity(results.size() + sources.size());
+        }
+        results.addAll(copyList(sources, targetCls));
+    }
+
+    /**
+     * Copy each element of sources to a new instance of targetCls.
+     * <p>
+     * The copier is looked up by the runtime class of each element, so the sources may mix several classes.
+     * A null element is copied to null.
+     *
+     * @param sources   the sources
+     * @param targetCls the target class
+     * @param <R>       the target type
+     * @return the copies in the iteration order of sources
+     */
+    public static <R> List<R> copyList(Collection<?> sources, Class<R> targetCls) {
+        return copyList(sources, targetCls, false);
+    }
+
+    /**
+     * Copy each element of sources to a new instance of targetCls, in the common {@link ForkJoinPool}
+     * if parallel and the sources are large enough
+     *
+     * @param sources   the sources
+     * @param targetCls the target class
+     * @param parallel  copy in parallel
+     * @param <R>       the target type
+     * @return the copies in the iteration order of sources
+     * @see #copyList(Collection, Class)
+     */
+    public static <R> List<R> copyList(Collection<?> sources, Class<R> targetCls, boolean parallel) {
+        return mapAll(sources, () -> new ElementCopier<>(targetCls), parallel);
+    }
+
+    /**
+     * Convert each bean to a map of the field names and values, the null beans are skipped
+     *
+     * @param beans    the beans
+     * @param parallel convert in parallel
+     * @return the maps
+     */
+    public static List<Map<String, Object>> beansToMaps(Collection<?> beans, boolean parallel) {
+        Collection<?> sources = beans.stream().anyMatch(Objects::isNull) ? beans.stream().filter(Objects::nonNull).collect(Collectors.toList()) : beans;
+        return mapAll(sources, () -> new Function<Object, Map<String, Object>>() {
+            private BeanMapMapper lastMapper;
+
+            @Override
+            public Map<String, Object> apply(Object bean) {
+                if (lastMapper == null || bean.getClass() != lastMapper.getBeanClass()) {
+                    lastMapper = BeanMapMapper.of(bean.getClass());
+                }
+                return lastMapper.toMap(bean);
+            }
+        }, parallel);
+    }
+
+    /**
+     * Convert each map to a new instance of beanCls, a null map is converted to null
+     *
+     * @param maps     the maps
+     * @param beanCls  the bean class
+     * @param parallel convert in parallel
+     * @param <R>      the bean type
+     * @return the beans
+     */
+    public static <R> List<R> mapsToBeans(Collection<? extends Map<?, ?>> maps, Class<R> beanCls, boolean parallel) {
+        final Constructor<R> constructor = ReflectUtils.getConstructor(beanCls);
+        if (constructor == null) {
+            throw new BeanAnalysisException(beanCls.getName() + " has no default constructor!");
         }
+        final BeanMapMapper mapper = BeanMapMapper.of(beanCls);
+        return mapAll(maps, () -> map -> {
+            if (map == null) {
+                return null;
+            }
+            R bean;
+            try {
+                bean = constructor.newInstance();
+            } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+                throw new BeanCopyException(e);
+            }
+            mapper.fromMap(map, bean);
+            return bean;
+        }, parallel);
     }
 
     /**
@@ -84,5 +184,103 @@ public class BeanCopy {
         }
     }
 
+    /**
+     * Map all the sources into a pre-sized list.
+     * <p>
+     * In parallel the sources are split in chunks mapped by the common {@link ForkJoinPool}, each chunk with its own
+     * mapper from the supplier, so the mappers can keep state (e.g. the copier of the last class). The
+     * {@link Copier#COPY_IGNORE_NULL} flag of the calling thread is passed to the chunks, so the result is the same as
+     * the sequential one.
+     */
+    private static <S, R> List<R> mapAll(Collection<? extends S> sources, Supplier<? extends Function<? super S, ? extends R>> mappers, boolean parallel) {
+        int size = sources.size();
+        if (size == 0) {
+            return new ArrayList<>(0);
+        }
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (!parallel || size < PARALLEL_THRESHOLD || parallelism < 2) {
+            List<R> results = new ArrayList<>(size);
+            Function<? super S, ? extends R> mapper = mappers.get();
+            for (S source : sources) {
+                results.add(mapper.apply(source));
+            }
+            return results;
+        }
+        Object[] array = sources.toArray();
+        Object[] results = new Object[array.length];
+        int chunk = Math.max(MIN_CHUNK_SIZE, array.length / (parallelism * 4));
+        ForkJoinPool.commonPool().invoke(new MapTask<>(array, results, 0, array.length, chunk, mappers, COPY_IGNORE_NULL.get()));
+        return (List<R>) new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Copy a bean with the copier of its runtime class, the copier of the last class is kept
+     */
+    private static class ElementCopier<R> implements Function<Object, R> {
+        private final Class<R> targetCls;
+        private Class<?> lastCls;
+        private BeanCopier lastCopier;
+
+        ElementCopier(Class<R> targetCls) {
+            this.targetCls = targetCls;
+        }
+
+        @Override
+        public R apply(Object source) {
+            if (source == null) {
+                return null;
+            }
+            if (source.getClass() != lastCls) {
+                lastCls = source.getClass();
+                lastCopier = BeanCopierRegistry.prepare(lastCls, targetCls);
+            }
+            return (R) lastCopier.topCopyWithoutTopConverter(source);
+        }
+    }
+
+    private static class MapTask<S, R> extends RecursiveAction {
+        private final Object[] sources;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Supplier<? extends Function<? super S, ? extends R>> mappers;
+        /**
+         * the ignore null flag of the calling thread
+         */
+        private final boolean ignoreNull;
+
+        MapTask(Object[] sources, Object[] results, int from, int to, int chunk, Supplier<? extends Function<? super S, ? extends R>> mappers, boolean ignoreNull) {
+            this.sources = sources;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.mappers = mappers;
+            this.ignoreNull = ignoreNull;
+        }
 
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                boolean previous = COPY_IGNORE_NULL.get();
+                COPY_IGNORE_NULL.set(ignoreNull);
+                try {
+                    Function<? super S, ? extends R> mapper = mappers.get();
+                    for (int i = from; i < to; i++) {
+                        results[i] = mapper.apply((S) sources[i]);
+                    }
+                } finally {
+                    if (previous) {
+                        COPY_IGNORE_NULL.set(true);
+                    } else {
+                        COPY_IGNORE_NULL.remove();
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapTask<>(sources, results, from, middle, chunk, mappers, ignoreNull), new MapTask<>(sources, results, middle, to, chunk, mappers, ignoreNull));
+        }
+    }
 }
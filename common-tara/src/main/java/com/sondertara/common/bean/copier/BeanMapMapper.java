@@ -0,0 +1,268 @@
+package com.sondertara.common.bean.copier;
+
+import com.sondertara.common.bean.exception.BeanCopyException;
+import com.sondertara.common.convert.GenericConvert;
+import com.sondertara.common.lang.reflect.ReflectUtils;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The compiled mapper between a bean class and {@code Map<String, Object>} or a flat {@code Object[]}.
+ * <p>
+ * The fields of {@link ReflectUtils#getFieldMap(Class)} are resolved once per class: the keys are kept in an array
+ * with an open addressing index, the accessors are the {@link MethodHandleCopierFactory} lambdas (method handles for a
+ * bean of a child class loader, or the field itself if they can not be created) and the converter of each field is
+ * resolved when the value is not an instance of the field type. The fields are read and written as by reflection: a
+ * getter or setter is only called if it just returns or sets the field, and a bean of a subclass (which may override
+ * them) is accessed by its fields. The {@code Object[]} projection lists the values in the order of
+ * {@link #getKeys()}, so that the callers can read them by position without building a map.
+ *
+ * @author huangxiaohu
+ */
+public final class BeanMapMapper {
+    private static final ClassValue<BeanMapMapper> MAPPERS = new ClassValue<BeanMapMapper>() {
+        @Override
+        protected BeanMapMapper computeValue(Class<?> type) {
+            return new BeanMapMapper(type);
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final String[] keys;
+    private final List<String> keyList;
+    private final Accessor[] accessors;
+    /**
+     * whether a getter or setter is called, the beans of a subclass are then accessed by their fields
+     */
+    private final boolean callsMethods;
+    /**
+     * open addressing table of the key indexes plus one, 0 is empty
+     */
+    private final int[] table;
+    private final int mask;
+    private final int mapCapacity;
+
+    private BeanMapMapper(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        Map<String, Field> fieldMap = ReflectUtils.getFieldMap(beanClass);
+        this.keys = fieldMap.keySet().toArray(new String[0]);
+        this.keyList = Collections.unmodifiableList(Arrays.asList(keys));
+        this.accessors = new Accessor[keys.length];
+        int i = 0;
+        boolean callsMethods = false;
+        for (Field field : fieldMap.values()) {
+            Accessor accessor = new Accessor(beanClass, field);
+            accessors[i++] = accessor;
+            callsMethods |= accessor.callsMethods;
+        }
+        this.callsMethods = callsMethods;
+        int size = Integer.highestOneBit(Math.max(1, keys.length * 2 - 1)) << 1;
+        this.table = new int[size];
+        this.mask = size - 1;
+        for (i = 0; i < keys.length; i++) {
+            int slot = keys[i].hashCode() & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        this.mapCapacity = (int) (keys.length / 0.75f) + 1;
+    }
+
+    /**
+     * Get the mapper of the bean class
+     *
+     * @param beanClass the bean class
+     * @return the cached mapper
+     */
+    public static BeanMapMapper of(Class<?> beanClass) {
+        return MAPPERS.get(beanClass);
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * @return the field names, in the order of the {@code Object[]} projection
+     */
+    public List<String> getKeys() {
+        return keyList;
+    }
+
+    /**
+     * @param key the field name
+     * @return the position of the field, -1 if not found
+     */
+    public int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        String name = key.toString();
+        int slot = name.hashCode() & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            if (keys[index - 1].equals(name)) {
+                return index - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param bean the bean
+     * @return a pre-sized map of the field names and values
+     */
+    public Map<String, Object> toMap(Object bean) {
+        Map<String, Object> map = new HashMap<>(mapCapacity);
+        toMap(bean, map);
+        return map;
+    }
+
+    /**
+     * Put the field names and values into the map
+     *
+     * @param bean the bean
+     * @param map  the target map
+     */
+    public void toMap(Object bean, Map<String, Object> map) {
+        boolean byField = byField(bean);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], accessors[i].get(bean, byField));
+        }
+    }
+
+    /**
+     * @param bean the bean
+     * @return the values in the order of {@link #getKeys()}
+     */
+    public Object[] toArray(Object bean) {
+        Object[] values = new Object[keys.length];
+        toArray(bean, values, 0);
+        return values;
+    }
+
+    /**
+     * Write the values in the order of {@link #getKeys()}
+     *
+     * @param bean   the bean
+     * @param values the target array
+     * @param offset the position of the first value
+     */
+    public void toArray(Object bean, Object[] values, int offset) {
+        boolean byField = byField(bean);
+        for (int i = 0; i < keys.length; i++) {
+            values[offset + i] = accessors[i].get(bean, byField);
+        }
+    }
+
+    /**
+     * Set the fields from the map, the null values and the unknown keys are skipped
+     *
+     * @param map  the source map
+     * @param bean the bean
+     */
+    public void fromMap(Map<?, ?> map, Object bean) {
+        boolean byField = byField(bean);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            int index = indexOf(entry.getKey());
+            if (index >= 0) {
+                accessors[index].set(bean, value, byField);
+            }
+        }
+    }
+
+    /**
+     * Set the fields from the values in the order of {@link #getKeys()}, the null values are skipped
+     *
+     * @param values the values
+     * @param offset the position of the first value
+     * @param bean   the bean
+     */
+    public void fromArray(Object[] values, int offset, Object bean) {
+        int length = Math.min(keys.length, values.length - offset);
+        boolean byField = byField(bean);
+        for (int i = 0; i < length; i++) {
+            Object value = values[offset + i];
+            if (value != null) {
+                accessors[i].set(bean, value, byField);
+            }
+        }
+    }
+
+    /**
+     * @return whether the bean is a subclass instance which may override the getters and setters
+     */
+    private boolean byField(Object bean) {
+        return callsMethods && bean.getClass() != beanClass;
+    }
+
+    /**
+     * The cached accessors and converter of a field
+     */
+    private static class Accessor {
+        private final Field field;
+        private final Class<?> boxedType;
+        private final GenericConvert converter;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        private final boolean callsMethods;
+
+        Accessor(Class<?> beanClass, Field field) {
+            this.field = field;
+            this.boxedType = ClassUtils.primitiveToWrapper(field.getType());
+            this.converter = new GenericConvert(field.getGenericType());
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            this.getter = isStatic ? null : MethodHandleCopierFactory.getter(beanClass, field);
+            this.setter = isStatic ? null : MethodHandleCopierFactory.setter(beanClass, field);
+            this.callsMethods = !isStatic && (Utils.findGetter(beanClass, field) != null || Utils.findSetter(beanClass, field) != null);
+            if (getter == null || setter == null || callsMethods) {
+                ReflectUtils.setAccessible(field);
+            }
+        }
+
+        Object get(Object bean, boolean byField) {
+            if (getter != null && !(byField && callsMethods)) {
+                return getter.apply(bean);
+            }
+            try {
+                return field.get(bean);
+            } catch (IllegalAccessException e) {
+                throw new BeanCopyException(e);
+            }
+        }
+
+        void set(Object bean, Object value, boolean byField) {
+            if (!boxedType.isInstance(value)) {
+                // keep the value if it can not be converted,same as ReflectUtils.setFieldValue
+                Object converted = converter.convert(value, null);
+                if (converted != null) {
+                    value = converted;
+                }
+            }
+            if (setter != null && !(byField && callsMethods)) {
+                setter.accept(bean, value);
+                return;
+            }
+            try {
+                field.set(bean, value);
+            } catch (IllegalAccessException e) {
+                throw new BeanCopyException(e);
+            }
+        }
+    }
+}
@@ -3,14 +3,15 @@ package com.sondertara.common.bean.copier;
 import com.sondertara.common.bean.exception.BeanCopyException;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
 class CollectionCopier extends AbstractCopier {
-    private final boolean isSet;
+    final boolean isSet;
 
-    CollectionCopier(Field fromField, Field toField, String fromEtlType, String toEtlType, boolean isSet) {
+    CollectionCopier(Field fromField, Field toField, Type fromEtlType, Type toEtlType, boolean isSet) {
         super(fromField, toField);
         this.isSet = isSet;
         fromField.setAccessible(true);
@@ -1,29 +1,62 @@
-
 package com.sondertara.common.bean.copier;
 
 import com.sondertara.common.convert.TypeConverter;
-import com.sondertara.common.lang.Pair;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Registry of all added converters.
+ * <p>
+ * The converters are registered by class name, so that they can be added before the classes are loaded, and
+ * resolved by class identity: the result of each (source, target) class pair, including a missing converter,
+ * is kept in a {@link ClassValue} of the source class which is replaced when a converter is added.
  *
  * @author huangxiaohu
  */
 public class ConverterRegistry {
-    private static final Map<Pair<String, String>, TypeConverter<?>> CONVERTER_MAP = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, TypeConverter<?>>> CONVERTER_MAP = new ConcurrentHashMap<>();
+    private static final Object NONE = new Object();
+    private static volatile ClassValue<Map<Class<?>, Object>> RESOLVED_MAP = newResolvedMap();
+
+    static TypeConverter<?> find(Class<?> fromType, Class<?> toType) {
+        Map<Class<?>, Object> resolved = RESOLVED_MAP.get(fromType);
+        Object converter = resolved.get(toType);
+        if (converter == null) {
+            converter = find(fromType.getName(), toType.getName());
+            if (converter == null) {
+                converter = NONE;
+            }
+            resolved.putIfAbsent(toType, converter);
+        }
+        return converter == NONE ? null : (TypeConverter<?>) converter;
+    }
 
     static TypeConverter<?> find(String fromType, String toType) {
-        return CONVERTER_MAP.get(Pair.of(fromType, toType));
+        Map<String, TypeConverter<?>> converters = CONVERTER_MAP.get(fromType);
+        return converters == null ? null : converters.get(toType);
     }
 
     public static void put(String fromType, String toType, TypeConverter<?> converter) {
-        CONVERTER_MAP.put(Pair.of(fromType, toType), converter);
+        CONVERTER_MAP.computeIfAbsent(fromType, key -> new ConcurrentHashMap<>(4)).put(toType, converter);
+        RESOLVED_MAP = newResolvedMap();
+    }
+
+    public static void put(Class<?> fromType, Class<?> toType, TypeConverter<?> converter) {
+        put(fromType.getName(), toType.getName(), converter);
+    }
+
+    private static ClassValue<Map<Class<?>, Object>> newResolvedMap() {
+        return new ClassValue<Map<Class<?>, Object>>() {
+            @Override
+            protected Map<Class<?>, Object> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>(4);
+            }
+        };
     }
 
     static void clear() {
         CONVERTER_MAP.clear();
+        RESOLVED_MAP = newResolvedMap();
     }
 }
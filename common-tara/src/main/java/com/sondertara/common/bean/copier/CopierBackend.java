@@ -0,0 +1,51 @@
+package com.sondertara.common.bean.copier;
+
+/**
+ * How the analyzed fields of a bean copier are accessed.
+ * <p>
+ * The default backend is read from the system property {@value #PROPERTY}
+ * ({@code bytecode}, {@code method_handle} or {@code reflect}) and can be changed by
+ * {@link BeanCopierRegistry#setBackend(CopierBackend)}. A backend that can not be used for a class pair
+ * falls back to the next one: bytecode, then method handles, then reflection.
+ *
+ * @author huangxiaohu
+ */
+public enum CopierBackend {
+    /**
+     * Generate a copier class with javassist, the fastest
+     */
+    BYTECODE,
+    /**
+     * Compose {@link java.lang.invoke.LambdaMetafactory} accessors, no class is defined next to the beans
+     * so it works where defining classes is restricted, e.g. modular JDK 17 deployments
+     */
+    METHOD_HANDLE,
+    /**
+     * {@link java.lang.reflect.Field} get and set
+     */
+    REFLECT;
+
+    /**
+     * The system property of the default backend
+     */
+    public static final String PROPERTY = "tara.bean.copier.backend";
+
+    /**
+     * @return the backend of the system property, {@link #BYTECODE} if absent
+     */
+    static CopierBackend fromProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.trim().isEmpty()) {
+            return BYTECODE;
+        }
+        String name = value.trim().toUpperCase().replace('-', '_');
+        if ("METHODHANDLE".equals(name)) {
+            return METHOD_HANDLE;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown bean copier backend: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.sondertara.common.bean.copier;
+
+import com.sondertara.common.convert.GenericConvert;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.LoaderClassPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generate a straight-line {@link Copier} for a (source, target) class pair with javassist.
+ * <p>
+ * Fields copied by a {@link SingleCopier} are inlined with the primitive and wrapper conversions written out. A field
+ * is read and written directly when the generated class can access it, else by its getter or setter if that only
+ * returns or sets the field (see {@link Utils#findGetter(Class, Field)}), so the copy is the same as the reflection
+ * copiers: an accessor with logic is never called. The other copiers (collections, maps, nested beans, registered
+ * converters and the fields without a usable access) are called from the generated method in their analyzed order.
+ * When accessors are called, a bean of a subclass (which may override them) is copied by the reflection copiers.
+ * <p>
+ * The generated class is defined next to the target class, so that its package-private members can be used. Its name
+ * is derived from the generated code, so a copier generated again after {@link BeanCopierRegistry#clear()} reuses the
+ * class already defined. If the class can not be defined (e.g. a security manager or a sealed package),
+ * {@link #compile} returns null and the reflection copiers are used.
+ *
+ * @author huangxiaohu
+ */
+final class CopierCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(CopierCompiler.class);
+
+    private static final String SUFFIX = "$$TaraCopier$$";
+    /**
+     * The static field holding the code of a generated class, to check a class found by name
+     */
+    private static final String SOURCE_FIELD = "SOURCE";
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>(16);
+
+    static {
+        PRIMITIVES.put(Boolean.class, boolean.class);
+        PRIMITIVES.put(Byte.class, byte.class);
+        PRIMITIVES.put(Short.class, short.class);
+        PRIMITIVES.put(Character.class, char.class);
+        PRIMITIVES.put(Integer.class, int.class);
+        PRIMITIVES.put(Long.class, long.class);
+        PRIMITIVES.put(Float.class, float.class);
+        PRIMITIVES.put(Double.class, double.class);
+    }
+
+    private CopierCompiler() {
+    }
+
+    /**
+     * Generate the copier of the analyzed copiers
+     *
+     * @param fromCls    the source class
+     * @param toCls      the target class
+     * @param copiers    the analyzed copiers
+     * @param ignoreNull skip the null values instead of setting null
+     * @return the generated copier, null if it can not be generated
+     */
+    static Copier compile(Class<?> fromCls, Class<?> toCls, List<Copier> copiers, boolean ignoreNull) {
+        if (Utils.isBuiltin(toCls) || toCls.isArray() || toCls.isInterface() || !isVisible(fromCls, toCls) || !isVisible(toCls, toCls)) {
+            return null;
+        }
+        try {
+            return define(fromCls, toCls, copiers, ignoreNull);
+        } catch (Throwable e) {
+            logger.debug("Generate copier from {} to {} failed, use reflection", fromCls.getName(), toCls.getName(), e);
+            return null;
+        }
+    }
+
+    private static Copier define(Class<?> fromCls, Class<?> toCls, List<Copier> copiers, boolean ignoreNull) throws Exception {
+        List<Copier> delegates = new ArrayList<>();
+        Set<Method> accessors = new HashSet<>();
+        StringBuilder statements = new StringBuilder(256);
+        for (Copier copier : copiers) {
+            String statement = null;
+            if (copier instanceof SingleCopier) {
+                statement = inline((SingleCopier) copier, fromCls, toCls, ignoreNull, accessors);
+            } else if (copier instanceof CollectionCopier) {
+                CollectionCopier collectionCopier = (CollectionCopier) copier;
+                statement = inlineContainer(collectionCopier, fromCls, toCls, ignoreNull, accessors, Collection.class, collectionCopier.isSet ? HashSet.class : ArrayList.class, "addAll");
+            } else if (copier instanceof MapCopier) {
+                statement = inlineContainer((AbstractCopier) copier, fromCls, toCls, ignoreNull, accessors, Map.class, HashMap.class, "putAll");
+            }
+            if (statement == null) {
+                statements.append("this.delegates[").append(delegates.size()).append("].copy($1, $2);\n");
+                delegates.add(copier);
+            } else {
+                statements.append(statement).append('\n');
+            }
+        }
+        StringBuilder body = new StringBuilder(statements.length() + 256);
+        body.append("{\n");
+        if (!accessors.isEmpty() && !(Modifier.isFinal(fromCls.getModifiers()) && Modifier.isFinal(toCls.getModifiers()))) {
+            // an accessor may be overridden with logic by a subclass
+            body.append("if ($1.getClass() != ").append(typeName(fromCls)).append(".class || $2.getClass() != ").append(typeName(toCls))
+                    .append(".class) { this.fallback.copy($1, $2); return; }\n");
+        }
+        body.append(typeName(fromCls)).append(" s = (").append(typeName(fromCls)).append(") $1;\n");
+        body.append(typeName(toCls)).append(" t = (").append(typeName(toCls)).append(") $2;\n");
+        body.append(statements).append('}');
+
+        Copier fallback = (source, target) -> {
+            for (Copier copier : copiers) {
+                copier.copy(source, target);
+            }
+        };
+        Class<?> generated = defineClass(fromCls, toCls, body.toString());
+        return (Copier) generated.getConstructor(Copier[].class, Copier.class).newInstance(delegates.toArray(new Copier[0]), fallback);
+    }
+
+    /**
+     * Define the class of the copy method next to the target class, or find the one defined with the same code
+     */
+    private static synchronized Class<?> defineClass(Class<?> fromCls, Class<?> toCls, String body) throws Exception {
+        String baseName = toCls.getName() + SUFFIX + Integer.toHexString(body.hashCode());
+        String name = baseName;
+        for (int i = 1; ; i++) {
+            Class<?> defined = findDefined(name, toCls.getClassLoader());
+            if (defined == null) {
+                break;
+            }
+            if (body.equals(defined.getField(SOURCE_FIELD).get(null))) {
+                return defined;
+            }
+            name = baseName + "_" + i;
+        }
+
+        ClassPool pool = new ClassPool(true);
+        pool.appendClassPath(new ClassClassPath(Copier.class));
+        pool.appendClassPath(new LoaderClassPath(toCls.getClassLoader()));
+        if (fromCls.getClassLoader() != toCls.getClassLoader()) {
+            pool.appendClassPath(new LoaderClassPath(fromCls.getClassLoader()));
+        }
+        CtClass ctClass = pool.makeClass(name);
+        try {
+            ctClass.addInterface(pool.get(Copier.class.getName()));
+            String copierType = Copier.class.getName();
+            ctClass.addField(CtField.make("public static final String " + SOURCE_FIELD + ";", ctClass), CtField.Initializer.constant(body));
+            ctClass.addField(CtField.make("private final " + copierType + "[] delegates;", ctClass));
+            ctClass.addField(CtField.make("private final " + copierType + " fallback;", ctClass));
+            ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName() + "(" + copierType + "[] delegates, " + copierType
+                    + " fallback) { this.delegates = $1; this.fallback = $2; }", ctClass));
+            ctClass.addMethod(CtMethod.make("public void copy(Object source, Object target) " + body, ctClass));
+            Class<?> generated = ctClass.toClass(toCls);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Generate copier {}:\n{}", generated.getName(), body);
+            }
+            return generated;
+        } finally {
+            ctClass.detach();
+        }
+    }
+
+    /**
+     * @return the class already defined by the loader, null if none
+     */
+    private static Class<?> findDefined(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the statement copying the field, null if it can not be inlined
+     */
+    private static String inline(SingleCopier copier, Class<?> fromCls, Class<?> toCls, boolean ignoreNull, Set<Method> accessors) {
+        if (copier.converter != null && !(copier.converter instanceof GenericConvert)) {
+            // registered converter
+            return null;
+        }
+        Field fromField = copier.fromField;
+        Field toField = copier.toField;
+        Class<?> fromType = fromField.getType();
+        Class<?> toType = toField.getType();
+        if (!isVisible(fromType, toCls) || !isVisible(toType, toCls)) {
+            return null;
+        }
+        String read = reader(fromField, fromCls, toCls, "s", accessors);
+        String write = writer(toField, toCls, accessors);
+        if (read == null || write == null) {
+            return null;
+        }
+        if (toType.isAssignableFrom(fromType)) {
+            if (fromType.isPrimitive() || !ignoreNull) {
+                return String.format(write, read) + ";";
+            }
+            return "{ " + typeName(fromType) + " v = " + read + "; if (v != null) { " + String.format(write, "v") + "; } }";
+        }
+        Class<?> fromPrimitive = fromType.isPrimitive() ? fromType : PRIMITIVES.get(fromType);
+        Class<?> toPrimitive = toType.isPrimitive() ? toType : PRIMITIVES.get(toType);
+        if (fromPrimitive == null || toPrimitive == null) {
+            return null;
+        }
+        if (fromPrimitive != toPrimitive && (!isNumeric(fromPrimitive) || !isNumeric(toPrimitive))) {
+            // boolean and char conversions are left to the converters
+            return null;
+        }
+        String value = fromType.isPrimitive() ? read : "v." + toPrimitive.getName() + "Value()";
+        String converted = fromPrimitive == toPrimitive ? value : "(" + toPrimitive.getName() + ") " + value;
+        if (!toType.isPrimitive()) {
+            converted = toType.getName() + ".valueOf(" + converted + ")";
+        }
+        if (fromType.isPrimitive()) {
+            return String.format(write, converted) + ";";
+        }
+        StringBuilder statement = new StringBuilder();
+        statement.append("{ ").append(fromType.getName()).append(" v = ").append(read).append("; if (v != null) { ")
+                .append(String.format(write, converted)).append("; }");
+        if (!ignoreNull && !toType.isPrimitive()) {
+            statement.append(" else { ").append(String.format(write, "(" + toType.getName() + ") null")).append("; }");
+        }
+        return statement.append(" }").toString();
+    }
+
+    /**
+     * Inline the copy of a collection or map without element conversion: add all to the target container,
+     * or set a new container if the target is null
+     *
+     * @return the statement copying the field, null if it can not be inlined
+     */
+    private static String inlineContainer(AbstractCopier copier, Class<?> fromCls, Class<?> toCls, boolean ignoreNull, Set<Method> accessors,
+                                          Class<?> api, Class<?> containerType, String addAll) {
+        Field fromField = copier.fromField;
+        Field toField = copier.toField;
+        if (copier.converter != null || !toField.getType().isAssignableFrom(containerType)) {
+            return null;
+        }
+        if (!isVisible(fromField.getType(), toCls) || !isVisible(toField.getType(), toCls)) {
+            return null;
+        }
+        String read = reader(fromField, fromCls, toCls, "s", accessors);
+        String readTarget = reader(toField, toCls, toCls, "t", accessors);
+        String write = writer(toField, toCls, accessors);
+        if (read == null || readTarget == null || write == null) {
+            return null;
+        }
+        String type = api.getName();
+        StringBuilder statement = new StringBuilder();
+        statement.append("{ ").append(type).append(" v = ").append(read).append("; if (v != null) { ")
+                .append(type).append(" c = ").append(readTarget).append("; if (c == null) { ")
+                .append(String.format(write, "new " + containerType.getName() + "(v)")).append("; } else { c.")
+                .append(addAll).append("(v); } }");
+        if (!ignoreNull) {
+            statement.append(" else { ").append(String.format(write, "(" + typeName(toField.getType()) + ") null")).append("; }");
+        }
+        return statement.append(" }").toString();
+    }
+
+    private static boolean isNumeric(Class<?> primitive) {
+        return primitive != boolean.class && primitive != char.class;
+    }
+
+    /**
+     * @param beanCls   the class of the variable
+     * @param accessors the accessors called so far
+     * @return the expression reading the field of the variable, the field itself or its plain getter
+     */
+    private static String reader(Field field, Class<?> beanCls, Class<?> host, String variable, Set<Method> accessors) {
+        if (isAccessible(field, host)) {
+            return variable + "." + field.getName();
+        }
+        Method method = Utils.findGetter(beanCls, field);
+        if (method != null && isAccessible(method, host)) {
+            accessors.add(method);
+            return variable + "." + method.getName() + "()";
+        }
+        return null;
+    }
+
+    /**
+     * @param beanCls   the class of {@code t}
+     * @param accessors the accessors called so far
+     * @return the format of the statement writing the field of {@code t}, the field itself or its plain setter
+     */
+    private static String writer(Field field, Class<?> beanCls, Set<Method> accessors) {
+        if (Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        if (isAccessible(field, beanCls)) {
+            return "t." + field.getName() + " = %s";
+        }
+        Method method = Utils.findSetter(beanCls, field);
+        if (method != null && isAccessible(method, beanCls)) {
+            accessors.add(method);
+            return "t." + method.getName() + "(%s)";
+        }
+        return null;
+    }
+
+    private static boolean isAccessible(Method method, Class<?> host) {
+        return isAccessible(method.getModifiers(), method.getDeclaringClass(), host);
+    }
+
+    private static boolean isAccessible(Field field, Class<?> host) {
+        return isAccessible(field.getModifiers(), field.getDeclaringClass(), host);
+    }
+
+    private static boolean isAccessible(int modifiers, Class<?> owner, Class<?> host) {
+        if (Modifier.isPrivate(modifiers) || !isVisible(owner, host)) {
+            return false;
+        }
+        // protected members are reachable in the same package only,the generated class is not a subclass
+        return Modifier.isPublic(modifiers) || isSamePackage(owner, host);
+    }
+
+    /**
+     * Whether the class can be referenced by a class generated in the package of the host: accessible and resolved to
+     * the same class by the loader of the host
+     */
+    private static boolean isVisible(Class<?> cls, Class<?> host) {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        if (cls.getClassLoader() != host.getClassLoader() && findDefined(cls.getName(), host.getClassLoader()) != cls) {
+            return false;
+        }
+        for (Class<?> cur = cls; cur != null; cur = cur.getEnclosingClass()) {
+            int modifiers = cur.getModifiers();
+            if (Modifier.isPrivate(modifiers) || (!Modifier.isPublic(modifiers) && !isSamePackage(cur, host))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSamePackage(Class<?> a, Class<?> b) {
+        return a.getClassLoader() == b.getClassLoader() && packageName(a).equals(packageName(b));
+    }
+
+    private static String packageName(Class<?> cls) {
+        String name = cls.getName();
+        int index = name.lastIndexOf('.');
+        return index < 0 ? "" : name.substring(0, index);
+    }
+
+    private static String typeName(Class<?> cls) {
+        if (cls.isArray()) {
+            return typeName(cls.getComponentType()) + "[]";
+        }
+        return cls.getName();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sondertara.common.bean.copier;
+
+/**
+ * A snapshot of the {@link BeanCopierRegistry} counters.
+ *
+ * @author huangxiaohu
+ * @see BeanCopierRegistry#getMetrics()
+ */
+public final class CopierMetrics {
+    private final int size;
+    private final int referenceSize;
+    private final long hits;
+    private final long misses;
+    private final long builds;
+    private final long buildNanos;
+
+    CopierMetrics(int size, int referenceSize, long hits, long misses, long builds, long buildNanos) {
+        this.size = size;
+        this.referenceSize = referenceSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.builds = builds;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * @return the number of top level copiers
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of copiers of nested bean fields
+     */
+    public int getReferenceSize() {
+        return referenceSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of analyses and generated field copiers
+     */
+    public long getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return the total time of the analyses and the generations
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CopierMetrics{" + "size=" + size + ", referenceSize=" + referenceSize + ", hits=" + hits + ", misses=" + misses
+                + ", builds=" + builds + ", buildMillis=" + buildNanos / 1_000_000 + '}';
+    }
+}
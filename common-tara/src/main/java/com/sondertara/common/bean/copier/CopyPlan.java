@@ -0,0 +1,169 @@
+package com.sondertara.common.bean.copier;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The description of a prepared bean copier: the copied fields with their converters, the target fields without a
+ * source field and the problems found while preparing it.
+ *
+ * @author huangxiaohu
+ * @see BeanCopierRegistry#describe(Class, Class)
+ * @see BeanCopierRegistry#warmUp(java.util.Collection)
+ */
+public final class CopyPlan {
+    private final Class<?> sourceClass;
+    private final Class<?> targetClass;
+    private final String converter;
+    private final List<FieldPlan> fields;
+    private final List<String> skippedFields;
+    private final List<String> problems;
+    private final String copierClass;
+    private final long buildNanos;
+    private final Throwable error;
+
+    CopyPlan(Class<?> sourceClass, Class<?> targetClass, String converter, List<FieldPlan> fields, List<String> skippedFields,
+             List<String> problems, String copierClass, long buildNanos, Throwable error) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.converter = converter;
+        this.fields = Collections.unmodifiableList(fields);
+        this.skippedFields = Collections.unmodifiableList(skippedFields);
+        this.problems = Collections.unmodifiableList(problems);
+        this.copierClass = copierClass;
+        this.buildNanos = buildNanos;
+        this.error = error;
+    }
+
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * @return the registered converter of the whole bean, null if the fields are copied
+     */
+    public String getConverter() {
+        return converter;
+    }
+
+    public List<FieldPlan> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the target fields without a source field of the same name
+     */
+    public List<String> getSkippedFields() {
+        return skippedFields;
+    }
+
+    /**
+     * @return the fields that will fail when copied, e.g. no converter for the target type
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    /**
+     * @return the class copying the fields, e.g. the generated copier of the bytecode backend
+     */
+    public String getCopierClass() {
+        return copierClass;
+    }
+
+    /**
+     * @return the time spent preparing the copier
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return the exception of the analysis, null if succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isValid() {
+        return error == null && problems.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(sourceClass.getName()).append(" -> ").append(targetClass.getName());
+        if (error != null) {
+            return sb.append(" FAILED: ").append(error).toString();
+        }
+        if (converter != null) {
+            return sb.append(" converted by ").append(converter).toString();
+        }
+        sb.append(" (").append(copierClass).append(", ").append(buildNanos / 1000).append("us)");
+        for (FieldPlan field : fields) {
+            sb.append("\n  ").append(field);
+        }
+        if (!skippedFields.isEmpty()) {
+            sb.append("\n  skipped: ").append(skippedFields);
+        }
+        for (String problem : problems) {
+            sb.append("\n  problem: ").append(problem);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A copied field
+     */
+    public static final class FieldPlan {
+        private final String name;
+        private final String kind;
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+        private final String converter;
+
+        FieldPlan(String name, String kind, Class<?> sourceType, Class<?> targetType, String converter) {
+            this.name = name;
+            this.kind = kind;
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.converter = converter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return value, collection, map or bean
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        public Class<?> getSourceType() {
+            return sourceType;
+        }
+
+        public Class<?> getTargetType() {
+            return targetType;
+        }
+
+        /**
+         * @return the converter of the value or the elements, null if assigned as is
+         */
+        public String getConverter() {
+            return converter;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + kind + " " + sourceType.getSimpleName() + " -> " + targetType.getSimpleName()
+                    + (converter == null ? "" : " via " + converter);
+        }
+    }
+}
@@ -3,12 +3,13 @@ package com.sondertara.common.bean.copier;
 import com.sondertara.common.bean.exception.BeanCopyException;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 
 class MapCopier extends AbstractCopier {
 
-    MapCopier(Field fromField, Field toField, String fromEtlType, String toEtlType) {
+    MapCopier(Field fromField, Field toField, Type fromEtlType, Type toEtlType) {
         super(fromField, toField);
         fromField.setAccessible(true);
         toField.setAccessible(true);
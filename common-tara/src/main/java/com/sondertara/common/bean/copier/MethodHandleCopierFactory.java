@@ -0,0 +1,260 @@
+package com.sondertara.common.bean.copier;
+
+import com.sondertara.common.bean.exception.BeanCopyException;
+import com.sondertara.common.convert.TypeConverter;
+import com.sondertara.common.util.MethodHandleUtils;
+import org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Build a {@link Copier} of the analyzed fields from method handles.
+ * <p>
+ * The getters and setters of the fields copied by a {@link SingleCopier} are turned into {@link Function} and
+ * {@link BiConsumer} by {@link LambdaMetafactory}, so the JIT can inline them like a lambda. Only the accessors which
+ * just return or set the field are used (see {@link Utils#findGetter(Class, Field)}), so the copy is the same as the
+ * reflection copiers, and a bean of a subclass (which may override them) is copied by the analyzed copiers. Non-public
+ * accessors and fields, and the accessors of a class this class loader can not resolve, are called by a
+ * {@link MethodHandle} unreflected with {@link MethodHandleUtils#lookup(Class)}.
+ * The other copiers are kept, as well as a field whose accessors can not be resolved (e.g. a package not opened to
+ * this module).
+ *
+ * @author huangxiaohu
+ */
+final class MethodHandleCopierFactory {
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandleCopierFactory.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private MethodHandleCopierFactory() {
+    }
+
+    /**
+     * @param fromCls    the source class
+     * @param toCls      the target class
+     * @param copiers    the analyzed copiers
+     * @param ignoreNull skip the null values instead of setting null
+     * @return the copier of all the fields
+     */
+    static Copier create(Class<?> fromCls, Class<?> toCls, List<Copier> copiers, boolean ignoreNull) {
+        final Copier[] fieldCopiers = new Copier[copiers.size()];
+        boolean usesAccessors = false;
+        for (int i = 0; i < fieldCopiers.length; i++) {
+            Copier copier = copiers.get(i);
+            Copier accessorCopier = copier instanceof SingleCopier ? accessorCopier((SingleCopier) copier, fromCls, toCls, ignoreNull) : null;
+            fieldCopiers[i] = accessorCopier == null ? copier : accessorCopier;
+            if (accessorCopier != null) {
+                SingleCopier singleCopier = (SingleCopier) copier;
+                usesAccessors |= Utils.findGetter(fromCls, singleCopier.fromField) != null || Utils.findSetter(toCls, singleCopier.toField) != null;
+            }
+        }
+        if (!usesAccessors || Modifier.isFinal(fromCls.getModifiers()) && Modifier.isFinal(toCls.getModifiers())) {
+            return (source, target) -> {
+                for (Copier copier : fieldCopiers) {
+                    copier.copy(source, target);
+                }
+            };
+        }
+        // an accessor may be overridden with logic by a subclass
+        final Copier[] analyzed = copiers.toArray(new Copier[0]);
+        return (source, target) -> {
+            Copier[] each = source.getClass() == fromCls && target.getClass() == toCls ? fieldCopiers : analyzed;
+            for (Copier copier : each) {
+                copier.copy(source, target);
+            }
+        };
+    }
+
+    private static Copier accessorCopier(SingleCopier copier, Class<?> fromCls, Class<?> toCls, boolean ignoreNull) {
+        Function<Object, Object> getter = getter(fromCls, copier.fromField);
+        BiConsumer<Object, Object> setter = getter == null ? null : setter(toCls, copier.toField);
+        if (setter == null) {
+            return null;
+        }
+        return new AccessorCopier(getter, setter, copier.converter, ignoreNull || copier.toField.getType().isPrimitive());
+    }
+
+    /**
+     * @param beanCls the class of the beans
+     * @param field   the field
+     * @return the getter of the field, null if it can not be accessed by method handles
+     */
+    static Function<Object, Object> getter(Class<?> beanCls, Field field) {
+        Method method = Utils.findGetter(beanCls, field);
+        try {
+            if (method != null) {
+                if (isPublic(method) && isLinkable(method)) {
+                    Function<Object, Object> function = lambdaGetter(method);
+                    if (function != null) {
+                        return function;
+                    }
+                }
+                return handleGetter(MethodHandleUtils.lookup(method.getDeclaringClass()).unreflect(method));
+            }
+            return handleGetter(MethodHandleUtils.lookup(field.getDeclaringClass()).unreflectGetter(field));
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Can not access {}, use reflection", field, e);
+            return null;
+        }
+    }
+
+    /**
+     * @param beanCls the class of the beans
+     * @param field   the field
+     * @return the setter of the field, null if it can not be accessed by method handles
+     */
+    static BiConsumer<Object, Object> setter(Class<?> beanCls, Field field) {
+        Method method = Utils.findSetter(beanCls, field);
+        try {
+            if (method != null) {
+                if (isPublic(method) && isLinkable(method)) {
+                    BiConsumer<Object, Object> consumer = lambdaSetter(method);
+                    if (consumer != null) {
+                        return consumer;
+                    }
+                }
+                return handleSetter(MethodHandleUtils.lookup(method.getDeclaringClass()).unreflect(method));
+            }
+            if (Modifier.isFinal(field.getModifiers())) {
+                return null;
+            }
+            return handleSetter(MethodHandleUtils.lookup(field.getDeclaringClass()).unreflectSetter(field));
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Can not access {}, use reflection", field, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambdaGetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class), GETTER_TYPE, handle,
+                    MethodType.methodType(ClassUtils.primitiveToWrapper(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            logger.debug("Can not create the lambda of {}", method, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> lambdaSetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class), SETTER_TYPE, handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), ClassUtils.primitiveToWrapper(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            logger.debug("Can not create the lambda of {}", method, e);
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> handleGetter(MethodHandle handle) {
+        final MethodHandle getter = handle.asType(GETTER_TYPE);
+        return source -> {
+            try {
+                return (Object) getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw new BeanCopyException(e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+        final MethodHandle setter = handle.asType(SETTER_TYPE);
+        return (target, value) -> {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw new BeanCopyException(e);
+            }
+        };
+    }
+
+    /**
+     * Whether the method can be called from this class without opening its package
+     */
+    private static boolean isPublic(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> cur = method.getDeclaringClass(); cur != null; cur = cur.getEnclosingClass()) {
+            if (!Modifier.isPublic(cur.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the lambda class, which is defined in this class loader, resolves the same classes as the method. A bean
+     * of a child class loader (e.g. of a web application) is called by the unreflected method handle instead.
+     */
+    private static boolean isLinkable(Method method) {
+        if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> cls) {
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(cls.getName(), false, MethodHandleCopierFactory.class.getClassLoader()) == cls;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copy a field with the getter and setter
+     */
+    private static class AccessorCopier implements Copier {
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        private final TypeConverter<?> converter;
+        private final boolean skipNull;
+
+        AccessorCopier(Function<Object, Object> getter, BiConsumer<Object, Object> setter, TypeConverter<?> converter, boolean skipNull) {
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.skipNull = skipNull;
+        }
+
+        @Override
+        public void copy(Object source, Object target) {
+            Object value = getter.apply(source);
+            if (value == null) {
+                if (!skipNull) {
+                    setter.accept(target, null);
+                }
+                return;
+            }
+            setter.accept(target, converter == null ? value : converter.convert(value, null));
+        }
+    }
+}
@@ -14,7 +14,7 @@ class SingleCopier extends AbstractCopier {
         Class<?> fromCls = fromField.getType();
         Class<?> toCls = toField.getType();
         if (!toCls.isAssignableFrom(fromCls)) {
-            converter = ConverterRegistry.find(fromCls.getName(), toCls.getName());
+            converter = ConverterRegistry.find(fromCls, toCls);
             if (converter == null) {
                 converter = new GenericConvert(toField.getGenericType());
                 // throw new BeanAnalysisException(String.format("Converter not found. from: %s,
@@ -3,46 +3,199 @@ package com.sondertara.common.bean.copier;
 
 import com.sondertara.common.bean.exception.BeanAnalysisException;
 import com.sondertara.common.convert.TypeConverter;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.ByteArray;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * utils fot bean copier
  */
 class Utils {
+    /**
+     * The plain accessors of a class read from its class file, the method name and descriptor to the field name.
+     * Only strings are kept, the class loaders are not referenced.
+     */
+    private static final ClassValue<Map<String, String>> PLAIN_ACCESSORS = new ClassValue<Map<String, String>>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> type) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            ClassLoader loader = type.getClassLoader();
+            Map<String, String> accessors = new HashMap<>(8);
+            try (InputStream in = loader == null ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource)) {
+                if (in == null) {
+                    return accessors;
+                }
+                ClassFile classFile = new ClassFile(new DataInputStream(new BufferedInputStream(in)));
+                for (MethodInfo method : classFile.getMethods()) {
+                    String field = accessedField(classFile, method);
+                    if (field != null) {
+                        accessors.put(method.getName() + method.getDescriptor(), field);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // no class file, the fields are accessed directly
+                accessors.clear();
+            }
+            return accessors;
+        }
+    };
+
     static boolean isBuiltin(Class<?> cls) {
         return cls.isPrimitive() || cls.getName().startsWith("java.") || cls.getName().startsWith("javax.");
     }
 
-    static String nameOf(Type type) {
-        String str = type.toString();
-        int idxOfSpace = str.lastIndexOf(' ');
-        if (idxOfSpace >= 0) {
-            return str.substring(idxOfSpace + 1);
+    /**
+     * The class of a type argument: the bound of a wildcard, the raw type of a parameterized type
+     *
+     * @throws BeanAnalysisException if the type is a type variable or a generic array
+     */
+    static Class<?> classOf(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return classOf(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            Type[] lowerBounds = wildcardType.getLowerBounds();
+            return classOf(lowerBounds.length > 0 ? lowerBounds[0] : wildcardType.getUpperBounds()[0]);
+        }
+        throw new BeanAnalysisException("Unsupported type argument: " + type.getTypeName());
+    }
+
+    /**
+     * Find the getter of the field called on the beans of the class: {@code getXxx()}, or {@code isXxx()} for a boolean.
+     * <p>
+     * Only a getter which just returns the field is used, so reading by the getter is the same as reading the field.
+     * A getter with logic is ignored and the field is read.
+     *
+     * @param beanCls the class of the beans, the getter is looked up from it
+     * @param field   the field
+     * @return the getter, null if not found or not a plain getter
+     */
+    static Method findGetter(Class<?> beanCls, Field field) {
+        String name = capitalize(field.getName());
+        Method method = null;
+        if (field.getType() == boolean.class) {
+            method = findMethod(beanCls, "is" + name);
+            if (method != null && method.getReturnType() != boolean.class) {
+                method = null;
+            }
+        }
+        if (method == null) {
+            method = findMethod(beanCls, "get" + name);
+            if (method != null && method.getReturnType() != field.getType()) {
+                method = null;
+            }
+        }
+        return method != null && isPlainAccessor(method, field) ? method : null;
+    }
+
+    /**
+     * Find the setter {@code setXxx(type)} of the field called on the beans of the class, the return type is ignored
+     * for chained setters.
+     * <p>
+     * Only a setter which just sets the field is used, a setter with logic is ignored and the field is set.
+     *
+     * @param beanCls the class of the beans, the setter is looked up from it
+     * @param field   the field
+     * @return the setter, null if not found or not a plain setter
+     */
+    static Method findSetter(Class<?> beanCls, Field field) {
+        Method method = findMethod(beanCls, "set" + capitalize(field.getName()), field.getType());
+        return method != null && isPlainAccessor(method, field) ? method : null;
+    }
+
+    /**
+     * Whether the accessor is declared with the field and its code only reads or writes it:
+     * {@code return this.field;}, {@code this.field = value;} or {@code this.field = value; return this;}
+     */
+    private static boolean isPlainAccessor(Method method, Field field) {
+        return method.getDeclaringClass() == field.getDeclaringClass()
+                && field.getName().equals(PLAIN_ACCESSORS.get(method.getDeclaringClass())
+                .get(method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString()));
+    }
+
+    /**
+     * @return the field of this class read or written by the method, null if the method does anything else
+     */
+    private static String accessedField(ClassFile classFile, MethodInfo method) {
+        CodeAttribute code = method.getCodeAttribute();
+        if (code == null || code.getExceptionTable().size() > 0 || (method.getAccessFlags() & AccessFlag.STATIC) != 0) {
+            return null;
+        }
+        byte[] bytes = code.getCode();
+        int index;
+        if (bytes.length == 5 && op(bytes, 0) == Opcode.ALOAD_0 && op(bytes, 1) == Opcode.GETFIELD
+                && op(bytes, 4) >= Opcode.IRETURN && op(bytes, 4) <= Opcode.ARETURN) {
+            index = ByteArray.readU16bit(bytes, 2);
+        } else if ((bytes.length == 6 || bytes.length == 7) && op(bytes, 0) == Opcode.ALOAD_0 && isLoad1(op(bytes, 1))
+                && op(bytes, 2) == Opcode.PUTFIELD
+                && (bytes.length == 6 ? op(bytes, 5) == Opcode.RETURN : op(bytes, 5) == Opcode.ALOAD_0 && op(bytes, 6) == Opcode.ARETURN)) {
+            index = ByteArray.readU16bit(bytes, 3);
         } else {
-            return str;
+            return null;
         }
+        ConstPool constPool = classFile.getConstPool();
+        return classFile.getName().equals(constPool.getFieldrefClassName(index)) ? constPool.getFieldrefName(index) : null;
+    }
+
+    private static int op(byte[] code, int index) {
+        return code[index] & 0xFF;
+    }
+
+    private static boolean isLoad1(int op) {
+        return op == Opcode.ILOAD_1 || op == Opcode.LLOAD_1 || op == Opcode.FLOAD_1 || op == Opcode.DLOAD_1 || op == Opcode.ALOAD_1;
+    }
+
+    private static Method findMethod(Class<?> owner, String name, Class<?>... parameterTypes) {
+        for (Class<?> cur = owner; cur != null && cur != Object.class; cur = cur.getSuperclass()) {
+            try {
+                Method method = cur.getDeclaredMethod(name, parameterTypes);
+                return Modifier.isStatic(method.getModifiers()) ? null : method;
+            } catch (NoSuchMethodException e) {
+                // try the super class
+            }
+        }
+        return null;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
     }
 
-    static TypeConverter<?> findOrCreateConverter(String fromType, String toType) {
+    static TypeConverter<?> findOrCreateConverter(Type fromType, Type toType) {
         TypeConverter<?> converter;
-        Class<?> fromCls;
-        Class<?> toCls;
-        try {
-            fromCls = Class.forName(fromType);
-            toCls = Class.forName(toType);
-        } catch (ClassNotFoundException e) {
-            throw new BeanAnalysisException(e);
-        }
-        converter = ConverterRegistry.find(fromType, toType);
+        Class<?> fromCls = classOf(fromType);
+        Class<?> toCls = classOf(toType);
+        converter = ConverterRegistry.find(fromCls, toCls);
         if (converter == null && !toCls.isAssignableFrom(fromCls)) {
             if (!Utils.isBuiltin(fromCls) && !Utils.isBuiltin(toCls)) {
-                final BeanCopier beanCopier = BeanCopierRegistry.prepare(fromCls, toCls);
-                converter = beanCopier::copyConvert;
+                converter = new BeanCopier.BeanConverter(BeanCopierRegistry.prepare(fromCls, toCls));
             }
             if (converter == null) {
                 throw new BeanAnalysisException(
-                        String.format("Converter not found. from: %s, to: %s", fromType, toType));
+                        String.format("Converter not found. from: %s, to: %s", fromType.getTypeName(), toType.getTypeName()));
             }
         } // else keep null
         return converter;
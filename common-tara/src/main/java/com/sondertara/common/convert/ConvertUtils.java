@@ -6,6 +6,8 @@ import com.sondertara.common.convert.impl.BigDecimalTypeConverter;
 import com.sondertara.common.convert.impl.BigIntegerTypeConverter;
 import com.sondertara.common.convert.impl.DateTypeConverter;
 import com.sondertara.common.convert.impl.NumberTypeConverter;
+import com.sondertara.common.convert.impl.StringIntTypeConverter;
+import com.sondertara.common.convert.impl.StringLongTypeConverter;
 import com.sondertara.common.convert.impl.StringTypeConverter;
 import com.sondertara.common.convert.impl.primitive.BooleanPrimitiveTypeConverter;
 import com.sondertara.common.convert.impl.primitive.BytePrimitiveTypeConverter;
@@ -23,16 +25,25 @@ import com.sondertara.common.convert.impl.wrapper.IntegerWrapperTypeConverter;
 import com.sondertara.common.convert.impl.wrapper.LongWrapperTypeConverter;
 import com.sondertara.common.convert.impl.wrapper.ShortWrapperTypeConverter;
 
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 转换器工具类
+ * <p>
+ * 每个目标类型按源类型解析一次转换器并缓存，源类型与目标类型相同的不可变值直接返回，String 转 int/long
+ * 使用不装箱的专用转换器。热点调用处可以通过 {@link #resolve(Class, Type)} 持有解析后的转换器，
+ * 或使用 {@link #convertToInt(Object, int)}、{@link #convertToLong(Object, long)} 得到原始类型。
  *
  * @author huangxiaohu
  */
@@ -40,6 +51,18 @@ public class ConvertUtils {
 
     private static final Map<Type, TypeConverter<?>> DEFAULT_TYPE_CONVERTER_MAP;
 
+    /**
+     * 目标类型 -> (源类型 -> 转换器)
+     */
+    private static final Map<Type, ClassValue<TypeConverter<?>>> RESOLVED_CONVERTER_MAP;
+
+    /**
+     * 与目标类型相同时无需转换的不可变类型
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(16);
+
+    private static final TypeConverter<Object> IDENTITY = (value, defaultValue) -> value == null ? defaultValue : value;
+
     static {
         DEFAULT_TYPE_CONVERTER_MAP = new HashMap<>();
 
@@ -69,6 +92,30 @@ public class ConvertUtils {
         DEFAULT_TYPE_CONVERTER_MAP.put(BigDecimal.class, new BigDecimalTypeConverter());
         DEFAULT_TYPE_CONVERTER_MAP.put(BigInteger.class, new BigIntegerTypeConverter());
         DEFAULT_TYPE_CONVERTER_MAP.put(Number.class, new NumberTypeConverter());
+
+        IMMUTABLE_TYPES.add(Integer.class);
+        IMMUTABLE_TYPES.add(Long.class);
+        IMMUTABLE_TYPES.add(Byte.class);
+        IMMUTABLE_TYPES.add(Short.class);
+        IMMUTABLE_TYPES.add(Float.class);
+        IMMUTABLE_TYPES.add(Double.class);
+        IMMUTABLE_TYPES.add(Boolean.class);
+        IMMUTABLE_TYPES.add(Character.class);
+        IMMUTABLE_TYPES.add(String.class);
+        IMMUTABLE_TYPES.add(BigDecimal.class);
+        IMMUTABLE_TYPES.add(BigInteger.class);
+
+        RESOLVED_CONVERTER_MAP = new HashMap<>(DEFAULT_TYPE_CONVERTER_MAP.size() * 2);
+        for (Map.Entry<Type, TypeConverter<?>> entry : DEFAULT_TYPE_CONVERTER_MAP.entrySet()) {
+            final Class<?> targetType = (Class<?>) entry.getKey();
+            final TypeConverter<?> defaultConverter = entry.getValue();
+            RESOLVED_CONVERTER_MAP.put(targetType, new ClassValue<TypeConverter<?>>() {
+                @Override
+                protected TypeConverter<?> computeValue(Class<?> sourceClass) {
+                    return specialize(sourceClass, targetType, defaultConverter);
+                }
+            });
+        }
     }
 
     private ConvertUtils() {
@@ -81,7 +128,95 @@ public class ConvertUtils {
 
     @SuppressWarnings("unchecked")
     public static <T> T convert(Type type, Object value) {
-        return (T) getConverter(type).convert(value, null);
+        if (value == null) {
+            return (T) getConverter(type).convert(null, null);
+        }
+        return (T) resolve(value.getClass(), type).convert(value, null);
+    }
+
+    /**
+     * @param type the target type
+     * @return whether the values can be converted to the type
+     */
+    public static boolean hasConverter(Type type) {
+        return RESOLVED_CONVERTER_MAP.containsKey(type);
+    }
+
+    /**
+     * 解析源类型到目标类型的转换器，结果会被缓存，调用方可以持有它避免每次查找
+     *
+     * @param sourceClass the class of the values
+     * @param targetType  the target type
+     * @param <T>         the target class
+     * @return the converter
+     * @throws UnsupportedOperationException no converter for the target type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeConverter<T> resolve(Class<?> sourceClass, Type targetType) {
+        ClassValue<TypeConverter<?>> resolved = RESOLVED_CONVERTER_MAP.get(targetType);
+        if (resolved == null) {
+            throw new UnsupportedOperationException("No Converter for type [" + targetType.getTypeName() + "]");
+        }
+        return (TypeConverter<T>) resolved.get(sourceClass);
+    }
+
+    /**
+     * 转换为 int，不装箱
+     *
+     * @param value        the value
+     * @param defaultValue null、空白字符串或无法转换时的默认值
+     * @return the int value
+     * @throws NumberFormatException 字符串不是数字
+     */
+    public static int convertToInt(Object value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof CharSequence) {
+            CharSequence sValue = (CharSequence) value;
+            return StringUtils.isBlank(sValue) ? defaultValue : StringIntTypeConverter.toInt(sValue, true);
+        }
+        Integer result = convert(int.class, value);
+        return result == null ? defaultValue : result;
+    }
+
+    /**
+     * 转换为 long，不装箱
+     *
+     * @param value        the value
+     * @param defaultValue null 或无法转换时的默认值
+     * @return the long value
+     */
+    public static long convertToLong(Object value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof CharSequence) {
+            return StringLongTypeConverter.toLong((CharSequence) value, defaultValue);
+        }
+        Long result = convert(long.class, value);
+        return result == null ? defaultValue : result;
+    }
+
+    private static TypeConverter<?> specialize(Class<?> sourceClass, Class<?> targetType, TypeConverter<?> defaultConverter) {
+        if (IMMUTABLE_TYPES.contains(sourceClass) && sourceClass == ClassUtils.primitiveToWrapper(targetType)) {
+            return IDENTITY;
+        }
+        if (CharSequence.class.isAssignableFrom(sourceClass)) {
+            if (targetType == int.class || targetType == Integer.class) {
+                return targetType.isPrimitive() ? StringIntTypeConverter.PRIMITIVE : StringIntTypeConverter.WRAPPER;
+            }
+            if (targetType == long.class || targetType == Long.class) {
+                return targetType.isPrimitive() ? StringLongTypeConverter.PRIMITIVE : StringLongTypeConverter.WRAPPER;
+            }
+        }
+        return defaultConverter;
     }
 
     /**
@@ -3,18 +3,43 @@ package com.sondertara.common.convert;
 import java.lang.reflect.Type;
 
 /**
+ * 转换为指定类型，缓存最近一次源类型解析出的转换器
+ *
  * @author huangxiaohu
  */
 public class GenericConvert implements TypeConverter<Object> {
 
     private final Type targetType;
 
+    /**
+     * the converter of the last source class, the fields are final so it can be shared without locking
+     */
+    private Resolved resolved;
+
     public GenericConvert(Type type) {
         this.targetType = type;
     }
 
     @Override
     public Object convert(Object value, Object defaultValue) {
-        return ConvertUtils.convert(targetType, value);
+        if (value == null) {
+            return ConvertUtils.convert(targetType, null);
+        }
+        Resolved current = resolved;
+        if (current == null || current.sourceClass != value.getClass()) {
+            current = new Resolved(value.getClass(), ConvertUtils.resolve(value.getClass(), targetType));
+            resolved = current;
+        }
+        return current.converter.convert(value, null);
+    }
+
+    private static final class Resolved {
+        private final Class<?> sourceClass;
+        private final TypeConverter<?> converter;
+
+        Resolved(Class<?> sourceClass, TypeConverter<?> converter) {
+            this.sourceClass = sourceClass;
+            this.converter = converter;
+        }
     }
 }
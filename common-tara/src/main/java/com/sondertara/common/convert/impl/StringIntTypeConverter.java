@@ -0,0 +1,108 @@
+package com.sondertara.common.convert.impl;
+
+import com.sondertara.common.convert.AbstractTypeConverter;
+
+/**
+ * String 转 int/Integer 的专用转换器
+ * <p>
+ * 与 {@link com.sondertara.common.convert.impl.primitive.IntegerPrimitiveTypeConverter} 及
+ * {@link com.sondertara.common.convert.impl.wrapper.IntegerWrapperTypeConverter} 的规则一致：原始类型去除首尾空白，
+ * 空白字符串为 0，包装类型空字符串为 null，含小数点时按 double 截断。十进制数字直接逐位解析，不创建中间对象，
+ * 其余情况（非 ASCII 数字、溢出等）交给 {@link Integer#parseInt(String)} 得到相同的结果或异常。
+ *
+ * @author huangxiaohu
+ */
+public class StringIntTypeConverter extends AbstractTypeConverter<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    public static final StringIntTypeConverter PRIMITIVE = new StringIntTypeConverter(true);
+    public static final StringIntTypeConverter WRAPPER = new StringIntTypeConverter(false);
+
+    private final boolean primitive;
+
+    private StringIntTypeConverter(boolean primitive) {
+        this.primitive = primitive;
+    }
+
+    @Override
+    protected Integer convertInternal(Object value) {
+        CharSequence sValue = (CharSequence) value;
+        if (primitive ? isBlank(sValue) : sValue.length() == 0) {
+            return primitive ? 0 : null;
+        }
+        return toInt(sValue, primitive);
+    }
+
+    /**
+     * 转换为 int，不装箱
+     *
+     * @param value 非空字符串
+     * @param trim  是否去除首尾空白
+     * @return the int value
+     * @throws NumberFormatException 不是数字
+     */
+    public static int toInt(CharSequence value, boolean trim) {
+        int from = 0;
+        int to = value.length();
+        if (trim) {
+            while (from < to && Character.isWhitespace(value.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(value.charAt(to - 1))) {
+                to--;
+            }
+        }
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) == '.') {
+                return Double.valueOf(value.subSequence(from, to).toString()).intValue();
+            }
+        }
+        return parseInt(value, from, to);
+    }
+
+    /**
+     * same as {@link com.sondertara.common.util.StringUtils#isEmpty(String)}
+     */
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析十进制整数
+     *
+     * @param value 字符串
+     * @param from  起始位置
+     * @param to    结束位置（不含）
+     * @return the int value
+     * @throws NumberFormatException 不是 int 范围内的整数
+     */
+    public static int parseInt(CharSequence value, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to) {
+            char first = value.charAt(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+        // 9 位以内不会溢出
+        if (i < to && to - i <= 9) {
+            int result = 0;
+            for (; i < to; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(value.subSequence(from, to).toString());
+                }
+                result = result * 10 + digit;
+            }
+            return negative ? -result : result;
+        }
+        return Integer.parseInt(value.subSequence(from, to).toString());
+    }
+}
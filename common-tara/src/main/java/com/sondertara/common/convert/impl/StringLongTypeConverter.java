@@ -0,0 +1,86 @@
+package com.sondertara.common.convert.impl;
+
+import com.sondertara.common.convert.AbstractTypeConverter;
+
+/**
+ * String 转 long/Long 的专用转换器
+ * <p>
+ * 与 {@link com.sondertara.common.convert.impl.primitive.LongPrimitiveTypeConverter} 及
+ * {@link com.sondertara.common.convert.impl.wrapper.LongWrapperTypeConverter} 的规则一致：原始类型无法解析时为 0，
+ * 包装类型空字符串为 null，其余无法解析时抛出 {@link NumberFormatException}。
+ *
+ * @author huangxiaohu
+ */
+public class StringLongTypeConverter extends AbstractTypeConverter<Long> {
+    private static final long serialVersionUID = 1L;
+
+    public static final StringLongTypeConverter PRIMITIVE = new StringLongTypeConverter(true);
+    public static final StringLongTypeConverter WRAPPER = new StringLongTypeConverter(false);
+
+    private final boolean primitive;
+
+    private StringLongTypeConverter(boolean primitive) {
+        this.primitive = primitive;
+    }
+
+    @Override
+    protected Long convertInternal(Object value) {
+        CharSequence sValue = (CharSequence) value;
+        if (primitive) {
+            return toLong(sValue, 0L);
+        }
+        if (sValue.length() == 0) {
+            return null;
+        }
+        return parseLong(sValue, 0, sValue.length());
+    }
+
+    /**
+     * 转换为 long，不装箱
+     *
+     * @param value        字符串
+     * @param defaultValue 无法解析时的默认值
+     * @return the long value
+     */
+    public static long toLong(CharSequence value, long defaultValue) {
+        try {
+            return parseLong(value, 0, value.length());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 解析十进制整数
+     *
+     * @param value 字符串
+     * @param from  起始位置
+     * @param to    结束位置（不含）
+     * @return the long value
+     * @throws NumberFormatException 不是 long 范围内的整数
+     */
+    public static long parseLong(CharSequence value, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to) {
+            char first = value.charAt(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+        // 18 位以内不会溢出
+        if (i < to && to - i <= 18) {
+            long result = 0;
+            for (; i < to; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Long.parseLong(value.subSequence(from, to).toString());
+                }
+                result = result * 10 + digit;
+            }
+            return negative ? -result : result;
+        }
+        return Long.parseLong(value.subSequence(from, to).toString());
+    }
+}
@@ -8,23 +8,12 @@ import java.math.BigInteger;
  * SM2密钥对Bean
  *
  * @author huangxiaohu
+ * @deprecated 实现已合并至{@link com.sondertara.common.crypto.asymmetric.SM2KeyPair}，此类仅为兼容保留
  */
-public class SM2KeyPair {
-
-    private final ECPoint publicKey;
-    private final BigInteger privateKey;
+@Deprecated
+public class SM2KeyPair extends com.sondertara.common.crypto.asymmetric.SM2KeyPair {
 
     public SM2KeyPair(ECPoint publicKey, BigInteger privateKey) {
-        this.publicKey = publicKey;
-        this.privateKey = privateKey;
-    }
-
-    public ECPoint getPublicKey() {
-        return publicKey;
+        super(publicKey, privateKey);
     }
-
-    public BigInteger getPrivateKey() {
-        return privateKey;
-    }
-
 }
@@ -1,15 +1,13 @@
 package com.sondertara.common.crypto.asymmetric;
 
+import com.sondertara.common.crypto.engine.KeyCache;
+import com.sondertara.common.crypto.engine.SignatureEngine;
 import com.sondertara.common.exception.TaraException;
 
-import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.Signature;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
 
 /**
@@ -73,17 +71,9 @@ public class DSAUtils {
      */
     public static byte[] sign(byte[] data, byte[] privateKey, String signatureAlgorithm) throws Exception {
         try {
-            PKCS8EncodedKeySpec pkcs8KeySpec = new PKCS8EncodedKeySpec(privateKey);
+            PrivateKey priKey = KeyCache.privateKey(ALGORITHM, privateKey);
 
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
-
-            PrivateKey priKey = keyFactory.generatePrivate(pkcs8KeySpec);
-
-            Signature signature = Signature.getInstance(signatureAlgorithm);
-            signature.initSign(priKey);
-            signature.update(data);
-
-            return signature.sign();
+            return SignatureEngine.of(signatureAlgorithm).sign(priKey, data);
         } catch (Exception e) {
             throw new Exception(e);
         }
@@ -95,17 +85,9 @@ public class DSAUtils {
     public static boolean verify(byte[] data, byte[] publicKey, byte[] sign, String signatureAlgorithm)
             throws Exception {
         try {
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKey);
-
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
-
-            PublicKey pubKey = keyFactory.generatePublic(keySpec);
-
-            Signature signature = Signature.getInstance(signatureAlgorithm);
-            signature.initVerify(pubKey);
-            signature.update(data);
+            PublicKey pubKey = KeyCache.publicKey(ALGORITHM, publicKey);
 
-            return signature.verify(sign);
+            return SignatureEngine.of(signatureAlgorithm).verify(pubKey, data, sign);
         } catch (Exception e) {
             throw new Exception(e);
         }
@@ -1,22 +1,35 @@
 package com.sondertara.common.crypto.asymmetric;
 
+import com.sondertara.common.crypto.engine.CipherEngine;
+import com.sondertara.common.crypto.engine.Engine;
+import com.sondertara.common.crypto.engine.KeyCache;
+import com.sondertara.common.crypto.engine.MacEngine;
 import com.sondertara.common.exception.TaraException;
 import org.apache.commons.codec.binary.Base64;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
-import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.SecureRandom;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.ArrayList;
-import java.util.List;
+import java.security.spec.MGF1ParameterSpec;
 
 /**
  * RSA: 既能用于数据加密也能用于数字签名的算法
@@ -59,6 +72,46 @@ public class RSAUtils {
      */
     public static final int DEFAULT_BUFFER_SIZE = (DEFAULT_KEY_SIZE / 8) - 11;
 
+    /**
+     * 数字信封的格式版本
+     */
+    public static final int ENVELOPE_VERSION = 1;
+    /**
+     * 数字信封中加密密钥的算法，摘要及MGF1均使用SHA-256
+     */
+    public static final String ENVELOPE_KEY_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+    /**
+     * 数字信封中加密数据的算法
+     */
+    public static final String ENVELOPE_TRANSFORMATION = "AES/CTR/NoPadding";
+    /**
+     * 数字信封中数据的认证算法
+     */
+    public static final String ENVELOPE_MAC = "HmacSHA256";
+    /**
+     * 数字信封中每个数据块的明文长度
+     */
+    public static final int ENVELOPE_CHUNK_SIZE = Engine.BUFFER_SIZE;
+
+    private static final String AES = "AES";
+    private static final int ENVELOPE_KEY_SIZE = 32;
+    private static final int ENVELOPE_IV_SIZE = 16;
+    private static final int ENVELOPE_TAG_SIZE = 32;
+    /**
+     * 数据块长度字段的最高位，标记最后一个数据块
+     */
+    private static final int ENVELOPE_FINAL_CHUNK = 0x80000000;
+    private static final byte[] ENVELOPE_ENCRYPTION_LABEL = "tara-envelope-encryption".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENVELOPE_AUTHENTICATION_LABEL = "tara-envelope-authentication".getBytes(StandardCharsets.US_ASCII);
+    private static final OAEPParameterSpec ENVELOPE_OAEP = new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256,
+            PSource.PSpecified.DEFAULT);
+
+    private static final CipherEngine CIPHER = CipherEngine.of(ECB_PKCS1_PADDING);
+    private static final CipherEngine ENVELOPE_KEY_CIPHER = CipherEngine.of(ENVELOPE_KEY_TRANSFORMATION);
+    private static final CipherEngine ENVELOPE_CIPHER = CipherEngine.of(ENVELOPE_TRANSFORMATION);
+    private static final MacEngine ENVELOPE_MAC_ENGINE = MacEngine.of(ENVELOPE_MAC);
+    private static final ThreadLocal<SecureRandom> ENVELOPE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
     /**
      * 随机生成RSA密钥对
      *
@@ -95,13 +148,9 @@ public class RSAUtils {
 
         try {
             // 得到公钥
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKey);
-            KeyFactory kf = KeyFactory.getInstance(RSA);
-            PublicKey keyPublic = kf.generatePublic(keySpec);
+            PublicKey keyPublic = KeyCache.publicKey(RSA, publicKey);
             // 加密数据
-            Cipher cp = Cipher.getInstance(ECB_PKCS1_PADDING);
-            cp.init(Cipher.ENCRYPT_MODE, keyPublic);
-            return cp.doFinal(data);
+            return CIPHER.encrypt(keyPublic, data);
         } catch (Exception e) {
 
             throw new TaraException("RSA encryptByPublicKey error", e);
@@ -127,13 +176,9 @@ public class RSAUtils {
 
         try {
             // 得到私钥
-            PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(privateKey);
-            KeyFactory kf = KeyFactory.getInstance(RSA);
-            PrivateKey keyPrivate = kf.generatePrivate(keySpec);
+            PrivateKey keyPrivate = KeyCache.privateKey(RSA, privateKey);
             // 数据加密
-            Cipher cipher = Cipher.getInstance(ECB_PKCS1_PADDING);
-            cipher.init(Cipher.ENCRYPT_MODE, keyPrivate);
-            return cipher.doFinal(data);
+            return CIPHER.encrypt(keyPrivate, data);
         } catch (Exception e) {
 
             throw new TaraException("RSA encryptByPublicKey error", e);
@@ -159,13 +204,9 @@ public class RSAUtils {
 
         try {
             // 得到公钥
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKey);
-            KeyFactory kf = KeyFactory.getInstance(RSA);
-            PublicKey keyPublic = kf.generatePublic(keySpec);
+            PublicKey keyPublic = KeyCache.publicKey(RSA, publicKey);
             // 数据解密
-            Cipher cipher = Cipher.getInstance(ECB_PKCS1_PADDING);
-            cipher.init(Cipher.DECRYPT_MODE, keyPublic);
-            return cipher.doFinal(data);
+            return CIPHER.decrypt(keyPublic, data);
         } catch (Exception e) {
 
             throw new TaraException("RSA encryptByPublicKey error", e);
@@ -186,13 +227,9 @@ public class RSAUtils {
 
         try {
             // 得到私钥
-            PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(privateKey);
-            KeyFactory kf = KeyFactory.getInstance(RSA);
-            PrivateKey keyPrivate = kf.generatePrivate(keySpec);
+            PrivateKey keyPrivate = KeyCache.privateKey(RSA, privateKey);
             // 解密数据
-            Cipher cp = Cipher.getInstance(ECB_PKCS1_PADDING);
-            cp.init(Cipher.DECRYPT_MODE, keyPrivate);
-            return cp.doFinal(encrypted);
+            return CIPHER.decrypt(keyPrivate, encrypted);
         } catch (Exception e) {
 
             throw new TaraException("RSA encryptByPublicKey error", e);
@@ -224,7 +261,7 @@ public class RSAUtils {
         if (dataLen <= DEFAULT_BUFFER_SIZE) {
             return encryptByPublicKey(data, publicKey);
         }
-        List<Byte> allBytes = new ArrayList<>(2048);
+        ByteArrayOutputStream allBytes = new ByteArrayOutputStream(2048);
         int bufIndex = 0;
         int subDataLoop = 0;
         byte[] buf = new byte[DEFAULT_BUFFER_SIZE];
@@ -234,14 +271,10 @@ public class RSAUtils {
             if (++bufIndex == DEFAULT_BUFFER_SIZE || i == dataLen - 1) {
                 subDataLoop++;
                 if (subDataLoop != 1) {
-                    for (byte b : DEFAULT_SPLIT) {
-                        allBytes.add(b);
-                    }
+                    allBytes.write(DEFAULT_SPLIT, 0, DEFAULT_SPLIT.length);
                 }
                 byte[] encryptBytes = encryptByPublicKey(buf, publicKey);
-                for (byte b : encryptBytes) {
-                    allBytes.add(b);
-                }
+                allBytes.write(encryptBytes, 0, encryptBytes.length);
                 bufIndex = 0;
                 if (i == dataLen - 1) {
                     buf = null;
@@ -250,14 +283,7 @@ public class RSAUtils {
                 }
             }
         }
-        byte[] bytes = new byte[allBytes.size()];
-        {
-            int i = 0;
-            for (Byte b : allBytes) {
-                bytes[i++] = b;
-            }
-        }
-        return bytes;
+        return allBytes.toByteArray();
     }
 
     /**
@@ -271,7 +297,7 @@ public class RSAUtils {
         if (dataLen <= DEFAULT_BUFFER_SIZE) {
             return encryptByPrivateKey(data, privateKey);
         }
-        List<Byte> allBytes = new ArrayList<>(2048);
+        ByteArrayOutputStream allBytes = new ByteArrayOutputStream(2048);
         int bufIndex = 0;
         int subDataLoop = 0;
         byte[] buf = new byte[DEFAULT_BUFFER_SIZE];
@@ -282,14 +308,10 @@ public class RSAUtils {
             if (++bufIndex == DEFAULT_BUFFER_SIZE || i == dataLen - 1) {
                 subDataLoop++;
                 if (subDataLoop != 1) {
-                    for (byte b : DEFAULT_SPLIT) {
-                        allBytes.add(b);
-                    }
+                    allBytes.write(DEFAULT_SPLIT, 0, DEFAULT_SPLIT.length);
                 }
                 byte[] encryptBytes = encryptByPrivateKey(buf, privateKey);
-                for (byte b : encryptBytes) {
-                    allBytes.add(b);
-                }
+                allBytes.write(encryptBytes, 0, encryptBytes.length);
                 bufIndex = 0;
                 if (i == dataLen - 1) {
                     buf = null;
@@ -298,14 +320,7 @@ public class RSAUtils {
                 }
             }
         }
-        byte[] bytes = new byte[allBytes.size()];
-        {
-            int i = 0;
-            for (Byte b : allBytes) {
-                bytes[i++] = b;
-            }
-        }
-        return bytes;
+        return allBytes.toByteArray();
     }
 
     /**
@@ -321,7 +336,7 @@ public class RSAUtils {
             return decryptByPublicKey(encrypted, publicKey);
         }
         int dataLen = encrypted.length;
-        List<Byte> allBytes = new ArrayList<>(1024);
+        ByteArrayOutputStream allBytes = new ByteArrayOutputStream(1024);
         int latestStartIndex = 0;
         for (int i = 0; i < dataLen; i++) {
             byte bt = encrypted[i];
@@ -331,9 +346,7 @@ public class RSAUtils {
                 byte[] part = new byte[dataLen - latestStartIndex];
                 System.arraycopy(encrypted, latestStartIndex, part, 0, part.length);
                 byte[] decryptPart = decryptByPublicKey(part, publicKey);
-                for (byte b : decryptPart) {
-                    allBytes.add(b);
-                }
+                allBytes.write(decryptPart, 0, decryptPart.length);
                 latestStartIndex = i + splitLen;
                 i = latestStartIndex - 1;
             } else if (bt == DEFAULT_SPLIT[0]) {
@@ -361,21 +374,12 @@ public class RSAUtils {
                 byte[] part = new byte[i - latestStartIndex];
                 System.arraycopy(encrypted, latestStartIndex, part, 0, part.length);
                 byte[] decryptPart = decryptByPublicKey(part, publicKey);
-                for (byte b : decryptPart) {
-                    allBytes.add(b);
-                }
+                allBytes.write(decryptPart, 0, decryptPart.length);
                 latestStartIndex = i + splitLen;
                 i = latestStartIndex - 1;
             }
         }
-        byte[] bytes = new byte[allBytes.size()];
-        {
-            int i = 0;
-            for (Byte b : allBytes) {
-                bytes[i++] = b;
-            }
-        }
-        return bytes;
+        return allBytes.toByteArray();
     }
 
     /**
@@ -388,7 +392,7 @@ public class RSAUtils {
             return decryptByPrivateKey(encrypted, privateKey);
         }
         int dataLen = encrypted.length;
-        List<Byte> allBytes = new ArrayList<>(1024);
+        ByteArrayOutputStream allBytes = new ByteArrayOutputStream(1024);
         int latestStartIndex = 0;
         for (int i = 0; i < dataLen; i++) {
             byte bt = encrypted[i];
@@ -398,9 +402,7 @@ public class RSAUtils {
                 byte[] part = new byte[dataLen - latestStartIndex];
                 System.arraycopy(encrypted, latestStartIndex, part, 0, part.length);
                 byte[] decryptPart = decryptByPrivateKey(part, privateKey);
-                for (byte b : decryptPart) {
-                    allBytes.add(b);
-                }
+                allBytes.write(decryptPart, 0, decryptPart.length);
                 latestStartIndex = i + splitLen;
                 i = latestStartIndex - 1;
             } else if (bt == DEFAULT_SPLIT[0]) {
@@ -428,21 +430,174 @@ public class RSAUtils {
                 byte[] part = new byte[i - latestStartIndex];
                 System.arraycopy(encrypted, latestStartIndex, part, 0, part.length);
                 byte[] decryptPart = decryptByPrivateKey(part, privateKey);
-                for (byte b : decryptPart) {
-                    allBytes.add(b);
-                }
+                allBytes.write(decryptPart, 0, decryptPart.length);
                 latestStartIndex = i + splitLen;
                 i = latestStartIndex - 1;
             }
         }
-        byte[] bytes = new byte[allBytes.size()];
-        {
-            int i = 0;
-            for (Byte b : allBytes) {
-                bytes[i++] = b;
+        return allBytes.toByteArray();
+    }
+
+    /**
+     * 数字信封加密：随机生成主密钥，只用RSA公钥（OAEP）加密主密钥，数据以{@code AES/CTR}流式加密并按块以{@code HmacSHA256}认证，
+     * 加密与认证的密钥由主密钥分别派生。不需要对数据分段做RSA加密，内存占用与数据大小无关，适用于大文件。不关闭流
+     * <p>
+     * 输出格式：1字节版本 + 2字节的主密钥密文长度 + 主密钥密文 + 16字节IV + 数据块。
+     * 每个数据块为4字节长度（最高位标记最后一块）+ 密文 + 32字节认证码，认证码覆盖IV、块序号、长度及密文。
+     * 除最后一块外每块的明文长度均为{@link #ENVELOPE_CHUNK_SIZE}，最后一块可以为空
+     *
+     * @param in        明文输入流
+     * @param out       密文输出流
+     * @param publicKey X509编码的公钥
+     * @return 写出的字节数
+     */
+    public static long encryptEnvelope(InputStream in, OutputStream out, byte[] publicKey) {
+        try {
+            byte[] secret = new byte[ENVELOPE_KEY_SIZE];
+            byte[] iv = new byte[ENVELOPE_IV_SIZE];
+            SecureRandom random = ENVELOPE_RANDOM.get();
+            random.nextBytes(secret);
+            random.nextBytes(iv);
+            byte[] encryptedKey = ENVELOPE_KEY_CIPHER.doFinal(Cipher.ENCRYPT_MODE, KeyCache.publicKey(RSA, publicKey), ENVELOPE_OAEP,
+                    secret, 0, secret.length);
+            out.write(ENVELOPE_VERSION);
+            out.write(encryptedKey.length >>> 8);
+            out.write(encryptedKey.length);
+            out.write(encryptedKey);
+            out.write(iv);
+            long length = 3 + encryptedKey.length + iv.length;
+
+            Cipher cipher = ENVELOPE_CIPHER.cipher(Cipher.ENCRYPT_MODE, envelopeKey(secret, ENVELOPE_ENCRYPTION_LABEL, AES),
+                    new IvParameterSpec(iv));
+            Key macKey = envelopeKey(secret, ENVELOPE_AUTHENTICATION_LABEL, ENVELOPE_MAC);
+            byte[] buffer = new byte[ENVELOPE_CHUNK_SIZE];
+            byte[] header = new byte[4];
+            long index = 0;
+            int read;
+            do {
+                read = readChunk(in, buffer);
+                int lengthWord = read < buffer.length ? read | ENVELOPE_FINAL_CHUNK : read;
+                writeInt(header, lengthWord);
+                byte[] encrypted = cipher.update(buffer, 0, read);
+                if (null == encrypted) {
+                    encrypted = new byte[0];
+                }
+                out.write(header);
+                out.write(encrypted);
+                out.write(envelopeTag(macKey, iv, index++, header, encrypted));
+                length += header.length + encrypted.length + ENVELOPE_TAG_SIZE;
+            } while (read == buffer.length);
+            return length;
+        } catch (Exception e) {
+            throw new TaraException("RSA encryptEnvelope error", e);
+        }
+    }
+
+    /**
+     * 数字信封解密，见{@link #encryptEnvelope(InputStream, OutputStream, byte[])}。
+     * 每个数据块通过认证后才解密写出，认证失败、数据被截断或版本不支持时抛出异常，此前写出的只有已通过认证的数据块。不关闭流
+     *
+     * @param in         密文输入流
+     * @param out        明文输出流
+     * @param privateKey PKCS8编码的私钥
+     * @return 写出的字节数
+     * @throws TaraException 解密或认证失败
+     */
+    public static long decryptEnvelope(InputStream in, OutputStream out, byte[] privateKey) {
+        try {
+            DataInputStream input = new DataInputStream(in);
+            int version = input.readUnsignedByte();
+            if (version != ENVELOPE_VERSION) {
+                throw new TaraException("Unsupported envelope version: " + version);
+            }
+            byte[] encryptedKey = new byte[input.readUnsignedShort()];
+            input.readFully(encryptedKey);
+            byte[] iv = new byte[ENVELOPE_IV_SIZE];
+            input.readFully(iv);
+            byte[] secret = ENVELOPE_KEY_CIPHER.doFinal(Cipher.DECRYPT_MODE, KeyCache.privateKey(RSA, privateKey), ENVELOPE_OAEP,
+                    encryptedKey, 0, encryptedKey.length);
+
+            Cipher cipher = ENVELOPE_CIPHER.cipher(Cipher.DECRYPT_MODE, envelopeKey(secret, ENVELOPE_ENCRYPTION_LABEL, AES),
+                    new IvParameterSpec(iv));
+            Key macKey = envelopeKey(secret, ENVELOPE_AUTHENTICATION_LABEL, ENVELOPE_MAC);
+            byte[] header = new byte[4];
+            byte[] tag = new byte[ENVELOPE_TAG_SIZE];
+            long index = 0;
+            long length = 0;
+            boolean last;
+            do {
+                input.readFully(header);
+                int lengthWord = readInt(header);
+                last = (lengthWord & ENVELOPE_FINAL_CHUNK) != 0;
+                int chunkLength = lengthWord & ~ENVELOPE_FINAL_CHUNK;
+                if (last ? chunkLength >= ENVELOPE_CHUNK_SIZE : chunkLength != ENVELOPE_CHUNK_SIZE) {
+                    throw new AEADBadTagException("Invalid envelope chunk length");
+                }
+                byte[] encrypted = new byte[chunkLength];
+                input.readFully(encrypted);
+                input.readFully(tag);
+                if (!MessageDigest.isEqual(tag, envelopeTag(macKey, iv, index++, header, encrypted))) {
+                    throw new AEADBadTagException("Envelope authentication failed");
+                }
+                byte[] decrypted = cipher.update(encrypted);
+                if (null != decrypted) {
+                    out.write(decrypted);
+                    length += decrypted.length;
+                }
+            } while (!last);
+            return length;
+        } catch (TaraException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TaraException("RSA decryptEnvelope error", e);
+        }
+    }
+
+    /**
+     * 由主密钥派生加密或认证密钥：{@code HmacSHA256(secret, label)}
+     */
+    private static Key envelopeKey(byte[] secret, byte[] label, String algorithm) {
+        return new SecretKeySpec(ENVELOPE_MAC_ENGINE.mac(new SecretKeySpec(secret, ENVELOPE_MAC), label), algorithm);
+    }
+
+    private static byte[] envelopeTag(Key macKey, byte[] iv, long index, byte[] header, byte[] encrypted) throws GeneralSecurityException {
+        Mac mac = ENVELOPE_MAC_ENGINE.mac(macKey);
+        mac.update(iv);
+        byte[] counter = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            counter[i] = (byte) index;
+            index >>>= 8;
+        }
+        mac.update(counter);
+        mac.update(header);
+        mac.update(encrypted);
+        return mac.doFinal();
+    }
+
+    /**
+     * 读满一个数据块，流结束时返回实际读取的字节数
+     */
+    private static int readChunk(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read == -1) {
+                break;
             }
+            total += read;
         }
-        return bytes;
+        return total;
+    }
+
+    private static void writeInt(byte[] bytes, int value) {
+        bytes[0] = (byte) (value >>> 24);
+        bytes[1] = (byte) (value >>> 16);
+        bytes[2] = (byte) (value >>> 8);
+        bytes[3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes) {
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
     }
 
     /**
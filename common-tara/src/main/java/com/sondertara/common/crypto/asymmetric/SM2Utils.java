@@ -1,5 +1,7 @@
 package com.sondertara.common.crypto.asymmetric;
 
+import com.sondertara.common.crypto.engine.CryptoEngine;
+import com.sondertara.common.crypto.engine.SM2SignatureEngine;
 import com.sondertara.common.exception.TaraException;
 import com.sondertara.common.util.HexUtils;
 import org.bouncycastle.crypto.params.ECDomainParameters;
@@ -66,13 +68,13 @@ public class SM2Utils {
 
     // 安全随机数
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final ECCurve.Fp E_C_CURVE;
-    private static final ECPoint EC_POINT;
+    private static final ECCurve E_C_CURVE;
+    private static final SM2SignatureEngine SIGNATURE_ENGINE = SM2SignatureEngine.getInstance();
 
     static {
-        E_C_CURVE = new ECCurve.Fp(P, A, B, null, null);
-        EC_POINT = E_C_CURVE.createPoint(GX, GY);
-        ECC_DOMAIN_PARAMETERS = new ECDomainParameters(E_C_CURVE, EC_POINT, N);
+        // 共用CryptoEngine中的推荐曲线，基点的点乘由SM2SignatureEngine完成
+        ECC_DOMAIN_PARAMETERS = CryptoEngine.sm2DomainParameters();
+        E_C_CURVE = ECC_DOMAIN_PARAMETERS.getCurve();
     }
 
     /**
@@ -185,7 +187,7 @@ public class SM2Utils {
             BigInteger k = random(N);
 
             // 加密第2步：根据随机数k,计算椭圆曲线点C1,计算公式：C1 = [k]G = (x1, y1)
-            ECPoint eCPoint = EC_POINT.multiply(k);
+            ECPoint eCPoint = SIGNATURE_ENGINE.multiplyBase(k);
             C1 = eCPoint.getEncoded(false);
 
             // 加密第3步：计算椭圆曲线点ecPoint,计算公式：ecPoint = [h]Pb
@@ -318,7 +320,7 @@ public class SM2Utils {
 
         BigInteger d = random(N.subtract(new BigInteger("1")));
 
-        SM2KeyPair keyPair = new SM2KeyPair(EC_POINT.multiply(d).normalize(), d);
+        SM2KeyPair keyPair = new SM2KeyPair(SIGNATURE_ENGINE.multiplyBase(d), d);
 
         if (checkPublicKey(keyPair.getPublicKey())) {
             return keyPair;
@@ -514,12 +516,8 @@ public class SM2Utils {
     }
 
     private static int toInteger(byte[] source, int index) {
-        StringBuilder valueStr = new StringBuilder();
-        for (int i = 0; i < 4; i++) {
-            valueStr.append(HexUtils.HEX_DIGITS[(byte) ((source[index * 4 + i] & 0xF0) >> 4)]);
-            valueStr.append(HexUtils.HEX_DIGITS[(byte) (source[index * 4 + i] & 0x0F)]);
-        }
-        return Long.valueOf(valueStr.toString(), 16).intValue();
+        final int offset = index * 4;
+        return (source[offset] & 0xFF) << 24 | (source[offset + 1] & 0xFF) << 16 | (source[offset + 2] & 0xFF) << 8 | (source[offset + 3] & 0xFF);
 
     }
 
@@ -568,18 +566,9 @@ public class SM2Utils {
         byte[] ZA = ZA(IDA, keyPair.getPublicKey());
         byte[] _M = join(ZA, M.getBytes());
         BigInteger e = new BigInteger(1, byteHash(_M));
-        BigInteger k;
-        BigInteger r;
-        do {
-            k = random(N);
-            ECPoint p1 = EC_POINT.multiply(k).normalize();
-            BigInteger x1 = p1.getXCoord().toBigInteger();
-            r = e.add(x1);
-            r = r.mod(N);
-        } while (r.equals(BigInteger.ZERO) || r.add(k).equals(N));
-
-        BigInteger s = ((keyPair.getPrivateKey().add(BigInteger.ONE).modInverse(N))
-                .multiply((k.subtract(r.multiply(keyPair.getPrivateKey()))).mod(N))).mod(N);
+        BigInteger[] rs = SIGNATURE_ENGINE.sign(e, keyPair.getPrivateKey());
+        BigInteger r = rs[0];
+        BigInteger s = rs[1];
 
         return new Signature(r, s);
     }
@@ -594,26 +583,38 @@ public class SM2Utils {
      * @return true or false
      */
     public static boolean verifySignature(String M, Signature signature, String IDA, ECPoint aPublicKey) {
-        if (!between(signature.r, BigInteger.ONE, N)) {
-            return false;
-        }
-        if (!between(signature.s, BigInteger.ONE, N)) {
-            return false;
-        }
-
         byte[] M_ = join(ZA(IDA, aPublicKey), M.getBytes());
         BigInteger e = new BigInteger(1, byteHash(M_));
-        BigInteger t = signature.r.add(signature.s).mod(N);
-
-        if (t.equals(BigInteger.ZERO)) {
-            return false;
-        }
+        return SIGNATURE_ENGINE.verify(e, signature.r, signature.s, aPublicKey);
+    }
 
-        ECPoint p1 = EC_POINT.multiply(signature.s).normalize();
-        ECPoint p2 = aPublicKey.multiply(t).normalize();
-        BigInteger x1 = p1.add(p2).normalize().getXCoord().toBigInteger();
-        BigInteger R = e.add(x1).mod(N);
-        return R.equals(signature.r);
+    /**
+     * 批量签名验证，同一签名方的用户标识摘要只计算一次，公钥校验后缓存复用
+     *
+     * @param messages   签名信息
+     * @param signatures 签名，与签名信息一一对应
+     * @param IDA        签名方唯一标识
+     * @param aPublicKey 签名方公钥
+     * @return 每个签名是否通过
+     */
+    public static boolean[] verifySignatures(String[] messages, Signature[] signatures, String IDA, ECPoint aPublicKey) {
+        int count = messages.length;
+        if (signatures.length != count) {
+            throw new IllegalArgumentException("The length of messages and signatures must be the same");
+        }
+        ECPoint publicKey = SIGNATURE_ENGINE.precompute(aPublicKey);
+        byte[] ZA = ZA(IDA, publicKey);
+        BigInteger[] e = new BigInteger[count];
+        BigInteger[] r = new BigInteger[count];
+        BigInteger[] s = new BigInteger[count];
+        ECPoint[] publicKeys = new ECPoint[count];
+        for (int i = 0; i < count; i++) {
+            e[i] = new BigInteger(1, byteHash(ZA, messages[i].getBytes()));
+            r[i] = signatures[i].r;
+            s[i] = signatures[i].s;
+            publicKeys[i] = publicKey;
+        }
+        return SIGNATURE_ENGINE.verify(e, r, s, publicKeys);
     }
 
     /**
@@ -672,6 +673,14 @@ public class SM2Utils {
             this.s = s;
         }
 
+        public BigInteger getR() {
+            return r;
+        }
+
+        public BigInteger getS() {
+            return s;
+        }
+
         @Override
         public String toString() {
             return r.toString(16) + "," + s.toString(16);
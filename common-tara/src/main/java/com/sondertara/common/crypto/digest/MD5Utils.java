@@ -1,15 +1,13 @@
 package com.sondertara.common.crypto.digest;
 
+import com.sondertara.common.crypto.engine.DigestEngine;
 import com.sondertara.common.exception.TaraException;
+import com.sondertara.common.util.HexUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.InputStream;
 import java.math.BigInteger;
-import java.nio.MappedByteBuffer;
-import java.nio.channels.FileChannel;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * @author huangxiaohu
@@ -17,6 +15,8 @@ import java.security.NoSuchAlgorithmException;
 public class MD5Utils {
     static final String MD5 = "MD5";
 
+    private static final DigestEngine DIGEST = DigestEngine.of(MD5);
+
     /**
      * 字符串加密
      *
@@ -24,28 +24,7 @@ public class MD5Utils {
      * @return 加密后新字符串
      */
     public static String encrypt(String data) {
-
-        byte[] dataBytes = data.getBytes();
-        MessageDigest md5;
-        try {
-            md5 = MessageDigest.getInstance(MD5);
-            md5.update(dataBytes);
-            byte[] resultBytes = md5.digest();
-
-            StringBuilder sb = new StringBuilder();
-            for (byte b : resultBytes) {
-                if (Integer.toHexString(0xFF & b).length() == 1) {
-                    sb.append("0").append(Integer.toHexString(0xFF & b));
-                } else {
-                    sb.append(Integer.toHexString(0xFF & b));
-                }
-            }
-
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("MD5 encrypt error", e);
-        }
-
+        return HexUtils.encodeHexStr(DIGEST.digest(data.getBytes()));
     }
 
     /**
@@ -55,28 +34,28 @@ public class MD5Utils {
      * @return 加密后的字符串
      */
     public static String encryptFile(String filePath) {
-
-        File file = new File(filePath);
-        try (FileInputStream fis = new FileInputStream(file)) {
-            StringBuilder sb = new StringBuilder();
-            MappedByteBuffer byteBuffer = fis.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
-
-            MessageDigest md5 = MessageDigest.getInstance(MD5);
-            md5.update(byteBuffer);
-            byte[] resultBytes = md5.digest();
-            for (byte b : resultBytes) {
-                if (Integer.toHexString(0xFF & b).length() == 1) {
-                    sb.append("0").append(Integer.toHexString(0xFF & b));
-                } else {
-                    sb.append(Integer.toHexString(0xFF & b));
-                }
-            }
-            return sb.toString();
+        try {
+            // 分段映射，支持超过2G的文件
+            return HexUtils.encodeHexStr(DIGEST.digest(new File(filePath)));
         } catch (Exception e) {
             throw new TaraException("MD5 encryptFile error", e);
         }
     }
 
+    /**
+     * 输入流加密，内存占用与数据大小无关，不关闭流
+     *
+     * @param in 输入流
+     * @return 加密后的字符串
+     */
+    public static String encrypt(InputStream in) {
+        try {
+            return HexUtils.encodeHexStr(DIGEST.digest(in));
+        } catch (Exception e) {
+            throw new TaraException("MD5 encrypt error", e);
+        }
+    }
+
     /**
      * 对字符串 MD5 加盐值加密
      *
@@ -85,22 +64,11 @@ public class MD5Utils {
      * @return MD5加密后生成32位(小写字母 + 数字)字符串
      */
     public static String encrypt(String value, String saltValue) {
-        try {
-            // 1、获得MD5摘要算法的 MessageDigest 对象
-            MessageDigest md = MessageDigest.getInstance(MD5);
-
-            // 2、使用指定的字节更新摘要
-            md.update(value.getBytes());
-            md.update(saltValue.getBytes());
+        // 依次使用值和盐更新摘要
+        byte[] digest = DIGEST.digest(value.getBytes(), saltValue.getBytes());
 
-            // digest()最后确定返回md5 hash值，返回值为8位字符串。因为md5 hash值是16位的hex值，实际上就是8位的字符
-            // BigInteger函数则将8位的字符串转换成16位hex值，用字符串来表示；得到字符串形式的hash值。1 固定值
-            return new BigInteger(1, md.digest()).toString(16);
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-            System.out.println("md5 " + value + "加密失败！");
-            return null;
-        }
+        // BigInteger函数则将8位的字符串转换成16位hex值，用字符串来表示；得到字符串形式的hash值。1 固定值
+        return new BigInteger(1, digest).toString(16);
     }
 
     /**
@@ -1,10 +1,12 @@
 package com.sondertara.common.crypto.digest;
 
+import com.sondertara.common.crypto.engine.DigestEngine;
 import com.sondertara.common.exception.TaraException;
 import com.sondertara.common.util.HexUtils;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * SHA加密，不可逆
@@ -12,45 +14,80 @@ import java.security.NoSuchAlgorithmException;
  * @author huangxiaohu
  */
 public class SHAUtils {
+    private static final DigestEngine SHA1 = DigestEngine.of("SHA");
+    private static final DigestEngine SHA256 = DigestEngine.of("SHA-256");
+    private static final DigestEngine SHA384 = DigestEngine.of("SHA-384");
+    private static final DigestEngine SHA512 = DigestEngine.of("SHA-512");
 
     public static String sha1(String message) {
-        try {
-            MessageDigest sha1 = MessageDigest.getInstance("SHA");
-            byte[] shaEncode = sha1.digest(message.getBytes());
-            return HexUtils.encodeHexStr(shaEncode);
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("SHA1 encrypt error", e);
-        }
+        return HexUtils.encodeHexStr(SHA1.digest(message.getBytes()));
     }
 
     public static String sha256(String message) {
-        try {
-            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
-            byte[] sha256Encode = sha256.digest(message.getBytes());
-            return HexUtils.encodeHexStr(sha256Encode);
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("SHA256 encrypt error", e);
-        }
+        return HexUtils.encodeHexStr(SHA256.digest(message.getBytes()));
     }
 
     public static String sha384(String message) {
+        return HexUtils.encodeHexStr(SHA384.digest(message.getBytes()));
+    }
+
+    public static String sha512(String message) {
+        return HexUtils.encodeHexStr(SHA512.digest(message.getBytes()));
+    }
+
+    /**
+     * 对输入流计算SHA-256摘要，内存占用与数据大小无关，不关闭流
+     *
+     * @param in 输入流
+     * @return 16进制字符串
+     */
+    public static String sha256(InputStream in) {
+        return digest(SHA256, in);
+    }
+
+    /**
+     * 对文件计算SHA-256摘要，文件分段映射到内存
+     *
+     * @param file 文件
+     * @return 16进制字符串
+     */
+    public static String sha256(File file) {
+        return digest(SHA256, file);
+    }
+
+    /**
+     * 对输入流计算SHA-512摘要，内存占用与数据大小无关，不关闭流
+     *
+     * @param in 输入流
+     * @return 16进制字符串
+     */
+    public static String sha512(InputStream in) {
+        return digest(SHA512, in);
+    }
+
+    /**
+     * 对文件计算SHA-512摘要，文件分段映射到内存
+     *
+     * @param file 文件
+     * @return 16进制字符串
+     */
+    public static String sha512(File file) {
+        return digest(SHA512, file);
+    }
+
+    private static String digest(DigestEngine engine, InputStream in) {
         try {
-            MessageDigest sha384 = MessageDigest.getInstance("SHA-384");
-            byte[] sha384Encode = sha384.digest(message.getBytes());
-            return HexUtils.encodeHexStr(sha384Encode);
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("SHA384 encrypt error", e);
+            return HexUtils.encodeHexStr(engine.digest(in));
+        } catch (IOException e) {
+            throw new TaraException(engine.getAlgorithm() + " encrypt error", e);
         }
     }
 
-    public static String sha512(String message) {
+    private static String digest(DigestEngine engine, File file) {
         try {
-            MessageDigest sha512 = MessageDigest.getInstance("SHA-512");
-            byte[] sha512Encode = sha512.digest(message.getBytes());
-            return HexUtils.encodeHexStr(sha512Encode);
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("SHA384 encrypt error", e);
+            return HexUtils.encodeHexStr(engine.digest(file));
+        } catch (IOException e) {
+            throw new TaraException(engine.getAlgorithm() + " encryptFile error", e);
         }
     }
 
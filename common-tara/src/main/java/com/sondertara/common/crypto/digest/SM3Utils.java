@@ -1,13 +1,14 @@
 package com.sondertara.common.crypto.digest;
 
 import com.sondertara.common.exception.TaraException;
+import com.sondertara.common.util.HexUtils;
 import org.bouncycastle.crypto.digests.SM3Digest;
 import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.pqc.math.linearalgebra.ByteUtils;
 
-import java.security.Security;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 
 /**
@@ -18,10 +19,7 @@ import java.util.Arrays;
 public class SM3Utils {
 
     private static final String ENCODING = "UTF-8";
-
-    static {
-        Security.addProvider(new BouncyCastleProvider());
-    }
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     /**
      * SM3加密方式之：不提供密钥的方式 SM3加密，返回加密后长度为64位的16进制字符串
@@ -30,7 +28,7 @@ public class SM3Utils {
      * @return str
      */
     public static String encrypt(String src) {
-        return ByteUtils.toHexString(getEncryptBySrcByte(src.getBytes()));
+        return HexUtils.encodeHexStr(getEncryptBySrcByte(src.getBytes()));
 
     }
 
@@ -48,6 +46,28 @@ public class SM3Utils {
         return encryptByte;
     }
 
+    /**
+     * 对输入流计算SM3摘要，内存占用与数据大小无关，不关闭流
+     *
+     * @param in 输入流
+     * @return 长度为64位的16进制字符串
+     */
+    public static String encrypt(InputStream in) {
+        SM3Digest sm3 = new SM3Digest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sm3.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new TaraException("SM3 encrypt error", e);
+        }
+        byte[] encryptByte = new byte[sm3.getDigestSize()];
+        sm3.doFinal(encryptByte, 0);
+        return HexUtils.encodeHexStr(encryptByte);
+    }
+
     /**
      * 加密
      *
@@ -56,7 +76,7 @@ public class SM3Utils {
      * @return encrypt
      */
     public static String encrypt(String src, String key) {
-        return ByteUtils.toHexString(getEncryptByKey(src, key));
+        return HexUtils.encodeHexStr(getEncryptByKey(src, key));
 
     }
 
@@ -0,0 +1,259 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+
+import javax.crypto.Cipher;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 加解密引擎，每个线程持有一个{@link Cipher}实例
+ * <p>
+ * 同一线程连续使用同一个{@link Key}对象及模式且不需要IV时（如ECB、RSA），不会重复初始化{@link Cipher}，
+ * 配合{@link KeyCache}可以省去密钥解析和初始化的开销
+ *
+ * @author huangxiaohu
+ */
+public final class CipherEngine extends Engine<Cipher> {
+    private static final ConcurrentMap<String, CipherEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private CipherEngine(String transformation, String provider) {
+        super(transformation, provider);
+    }
+
+    /**
+     * 获取加解密引擎
+     *
+     * @param transformation 转换名称，如{@code AES}、{@code RSA/ECB/PKCS1Padding}
+     * @return {@link CipherEngine}
+     * @throws TaraException 算法不可用
+     */
+    public static CipherEngine of(String transformation) {
+        return of(transformation, null);
+    }
+
+    /**
+     * 获取加解密引擎
+     *
+     * @param transformation 转换名称
+     * @param provider       Provider名称，{@code null}表示按优先级查找
+     * @return {@link CipherEngine}
+     * @throws TaraException 算法或Provider不可用
+     */
+    public static CipherEngine of(String transformation, String provider) {
+        return ENGINES.computeIfAbsent(cacheKey(transformation, provider), k -> new CipherEngine(transformation, provider));
+    }
+
+    @Override
+    protected Cipher create() throws GeneralSecurityException {
+        String provider = getProvider();
+        return null == provider ? Cipher.getInstance(getAlgorithm()) : Cipher.getInstance(getAlgorithm(), provider);
+    }
+
+    /**
+     * 加密
+     *
+     * @param key  密钥
+     * @param data 明文
+     * @return 密文
+     */
+    public byte[] encrypt(Key key, byte[] data) {
+        return doFinal(Cipher.ENCRYPT_MODE, key, null, data, 0, data.length);
+    }
+
+    /**
+     * 解密
+     *
+     * @param key  密钥
+     * @param data 密文
+     * @return 明文
+     */
+    public byte[] decrypt(Key key, byte[] data) {
+        return doFinal(Cipher.DECRYPT_MODE, key, null, data, 0, data.length);
+    }
+
+    /**
+     * 使用当前线程的{@link Cipher}完成一次加解密
+     *
+     * @param mode   {@link Cipher#ENCRYPT_MODE}或{@link Cipher#DECRYPT_MODE}
+     * @param key    密钥
+     * @param params 算法参数，如IV，可以为{@code null}
+     * @param data   数据
+     * @param offset 开始位置
+     * @param length 长度
+     * @return 结果
+     * @throws TaraException 加解密失败
+     */
+    public byte[] doFinal(int mode, Key key, AlgorithmParameterSpec params, byte[] data, int offset, int length) {
+        final Slot<Cipher> slot = slot();
+        try {
+            return init(slot, mode, key, params).doFinal(data, offset, length);
+        } catch (GeneralSecurityException e) {
+            slot.reset();
+            throw new TaraException(getAlgorithm() + " doFinal error", e);
+        } catch (RuntimeException e) {
+            slot.reset();
+            throw e;
+        }
+    }
+
+    /**
+     * 流式加密，每次读取{@link #BUFFER_SIZE}个字节，内存占用与数据大小无关，不关闭流
+     *
+     * @param key 密钥
+     * @param in  明文输入流
+     * @param out 密文输出流
+     * @return 写出的字节数
+     * @throws IOException IO异常
+     */
+    public long encrypt(Key key, InputStream in, OutputStream out) throws IOException {
+        return doFinal(Cipher.ENCRYPT_MODE, key, null, in, out);
+    }
+
+    /**
+     * 流式解密，每次读取{@link #BUFFER_SIZE}个字节，内存占用与数据大小无关，不关闭流
+     *
+     * @param key 密钥
+     * @param in  密文输入流
+     * @param out 明文输出流
+     * @return 写出的字节数
+     * @throws IOException IO异常
+     */
+    public long decrypt(Key key, InputStream in, OutputStream out) throws IOException {
+        return doFinal(Cipher.DECRYPT_MODE, key, null, in, out);
+    }
+
+    /**
+     * 流式加解密，不关闭流
+     *
+     * @param mode   模式
+     * @param key    密钥
+     * @param params 算法参数，可以为{@code null}
+     * @param in     输入流
+     * @param out    输出流
+     * @return 写出的字节数
+     * @throws IOException  IO异常
+     * @throws TaraException 加解密失败
+     */
+    public long doFinal(int mode, Key key, AlgorithmParameterSpec params, InputStream in, OutputStream out) throws IOException {
+        final Cipher cipher = cipher(mode, key, params);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] output = new byte[cipher.getOutputSize(BUFFER_SIZE)];
+        long total = 0;
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                output = ensureCapacity(output, cipher.getOutputSize(read));
+                int length = cipher.update(buffer, 0, read, output);
+                out.write(output, 0, length);
+                total += length;
+            }
+            output = ensureCapacity(output, cipher.getOutputSize(0));
+            int length = cipher.doFinal(output, 0);
+            out.write(output, 0, length);
+            return total + length;
+        } catch (GeneralSecurityException e) {
+            throw new TaraException(getAlgorithm() + " doFinal error", e);
+        }
+    }
+
+    /**
+     * 基于通道的流式加解密，如{@link java.nio.channels.FileChannel}，不关闭通道
+     *
+     * @param mode   模式
+     * @param key    密钥
+     * @param params 算法参数，可以为{@code null}
+     * @param in     输入通道
+     * @param out    输出通道
+     * @return 写出的字节数
+     * @throws IOException  IO异常
+     * @throws TaraException 加解密失败
+     */
+    public long doFinal(int mode, Key key, AlgorithmParameterSpec params, ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        final Cipher cipher = cipher(mode, key, params);
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(BUFFER_SIZE));
+        long total = 0;
+        try {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                if (output.capacity() < cipher.getOutputSize(buffer.remaining())) {
+                    output = ByteBuffer.allocate(cipher.getOutputSize(buffer.remaining()));
+                }
+                cipher.update(buffer, output);
+                buffer.clear();
+                total += write(output, out);
+            }
+            if (output.capacity() < cipher.getOutputSize(0)) {
+                output = ByteBuffer.allocate(cipher.getOutputSize(0));
+            }
+            buffer.flip();
+            cipher.doFinal(buffer, output);
+            return total + write(output, out);
+        } catch (GeneralSecurityException e) {
+            throw new TaraException(getAlgorithm() + " doFinal error", e);
+        }
+    }
+
+    private static int write(ByteBuffer output, WritableByteChannel out) throws IOException {
+        output.flip();
+        final int length = output.remaining();
+        while (output.hasRemaining()) {
+            out.write(output);
+        }
+        output.clear();
+        return length;
+    }
+
+    private static byte[] ensureCapacity(byte[] output, int size) {
+        return output.length < size ? new byte[size] : output;
+    }
+
+    /**
+     * 获取当前线程已初始化的{@link Cipher}，用于分段{@code update}的场景。
+     * 返回的实例只能在当前线程使用，且在下一次调用本引擎之前完成{@code doFinal}
+     *
+     * @param mode   模式
+     * @param key    密钥
+     * @param params 算法参数，可以为{@code null}
+     * @return {@link Cipher}
+     * @throws TaraException 初始化失败
+     */
+    public Cipher cipher(int mode, Key key, AlgorithmParameterSpec params) {
+        final Slot<Cipher> slot = slot();
+        // 调用方可能中途放弃，不复用初始化状态
+        slot.reset();
+        try {
+            return init(slot, mode, key, params);
+        } catch (GeneralSecurityException e) {
+            throw new TaraException(getAlgorithm() + " init error", e);
+        } finally {
+            slot.reset();
+        }
+    }
+
+    private static Cipher init(Slot<Cipher> slot, int mode, Key key, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        final Cipher cipher = slot.instance;
+        if (null == params && slot.isInitialized(key, mode)) {
+            return cipher;
+        }
+        slot.reset();
+        if (null == params) {
+            cipher.init(mode, key);
+        } else {
+            cipher.init(mode, key, params);
+        }
+        // doFinal后Cipher回到初始化时的状态，带IV的模式不能复用，否则会重复使用同一个IV
+        slot.remember(key, mode, null == params && null == cipher.getIV());
+        return cipher;
+    }
+}
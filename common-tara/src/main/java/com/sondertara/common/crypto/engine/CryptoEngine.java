@@ -0,0 +1,77 @@
+package com.sondertara.common.crypto.engine;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.Provider;
+import java.security.Security;
+
+/**
+ * 加解密核心，集中完成BouncyCastle Provider的注册及国密曲线参数的初始化，各工具类不再各自注册Provider。
+ * <p>
+ * 加解密、摘要、签名的实例由{@link CipherEngine}、{@link DigestEngine}、{@link MacEngine}、{@link SignatureEngine}按线程缓存，
+ * 密钥由{@link KeyCache}缓存
+ *
+ * @author huangxiaohu
+ */
+public final class CryptoEngine {
+    /**
+     * SM2推荐曲线名称
+     */
+    public static final String SM2_CURVE_NAME = "sm2p256v1";
+
+    private static final Provider BOUNCY_CASTLE_PROVIDER = registerBouncyCastle();
+
+    private CryptoEngine() {
+    }
+
+    /**
+     * 获取已注册的BouncyCastle Provider名称，首次调用时注册，已注册则复用
+     *
+     * @return Provider名称，用于{@link CipherEngine#of(String, String)}等
+     */
+    public static String bouncyCastle() {
+        return BOUNCY_CASTLE_PROVIDER.getName();
+    }
+
+    /**
+     * @return 已注册的BouncyCastle Provider
+     */
+    public static Provider bouncyCastleProvider() {
+        return BOUNCY_CASTLE_PROVIDER;
+    }
+
+    /**
+     * 获取SM2推荐曲线的域参数，曲线使用BouncyCastle针对sm2p256v1优化的实现，基点的预计算表随实例复用
+     *
+     * @return {@link ECDomainParameters}
+     */
+    public static ECDomainParameters sm2DomainParameters() {
+        return Sm2Holder.DOMAIN_PARAMETERS;
+    }
+
+    private static Provider registerBouncyCastle() {
+        synchronized (Security.class) {
+            Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+            if (null == provider) {
+                provider = new BouncyCastleProvider();
+                Security.addProvider(provider);
+            }
+            return provider;
+        }
+    }
+
+    /**
+     * 延迟初始化SM2曲线，只使用对称加密、摘要时不加载
+     */
+    private static final class Sm2Holder {
+        private static final ECDomainParameters DOMAIN_PARAMETERS;
+
+        static {
+            X9ECParameters parameters = CustomNamedCurves.getByName(SM2_CURVE_NAME);
+            DOMAIN_PARAMETERS = new ECDomainParameters(parameters.getCurve(), parameters.getG(), parameters.getN(), parameters.getH());
+        }
+    }
+}
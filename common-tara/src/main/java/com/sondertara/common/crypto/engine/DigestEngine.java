@@ -0,0 +1,160 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 摘要引擎，每个线程持有一个{@link MessageDigest}实例
+ *
+ * @author huangxiaohu
+ */
+public final class DigestEngine extends Engine<MessageDigest> {
+    /**
+     * 计算文件摘要时每次映射的字节数
+     */
+    public static final long MAP_SIZE = 64L * 1024 * 1024;
+
+    private static final ConcurrentMap<String, DigestEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private DigestEngine(String algorithm, String provider) {
+        super(algorithm, provider);
+    }
+
+    /**
+     * 获取摘要引擎
+     *
+     * @param algorithm 算法名称，如{@code MD5}、{@code SHA-256}
+     * @return {@link DigestEngine}
+     * @throws TaraException 算法不可用
+     */
+    public static DigestEngine of(String algorithm) {
+        return of(algorithm, null);
+    }
+
+    /**
+     * 获取摘要引擎
+     *
+     * @param algorithm 算法名称
+     * @param provider  Provider名称，{@code null}表示按优先级查找
+     * @return {@link DigestEngine}
+     * @throws TaraException 算法或Provider不可用
+     */
+    public static DigestEngine of(String algorithm, String provider) {
+        return ENGINES.computeIfAbsent(cacheKey(algorithm, provider), k -> new DigestEngine(algorithm, provider));
+    }
+
+    @Override
+    protected MessageDigest create() throws GeneralSecurityException {
+        String provider = getProvider();
+        return null == provider ? MessageDigest.getInstance(getAlgorithm()) : MessageDigest.getInstance(getAlgorithm(), provider);
+    }
+
+    /**
+     * 计算摘要
+     *
+     * @param data 数据
+     * @return 摘要
+     */
+    public byte[] digest(byte[] data) {
+        return digest(data, 0, data.length);
+    }
+
+    /**
+     * 计算摘要
+     *
+     * @param data   数据
+     * @param offset 开始位置
+     * @param length 长度
+     * @return 摘要
+     */
+    public byte[] digest(byte[] data, int offset, int length) {
+        final MessageDigest digest = messageDigest();
+        digest.update(data, offset, length);
+        return digest.digest();
+    }
+
+    /**
+     * 依次对多段数据计算摘要，如数据加盐
+     *
+     * @param data 多段数据
+     * @return 摘要
+     */
+    public byte[] digest(byte[]... data) {
+        final MessageDigest digest = messageDigest();
+        for (byte[] part : data) {
+            digest.update(part);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 对输入流计算摘要，每次读取{@link #BUFFER_SIZE}个字节，不关闭流
+     *
+     * @param in 输入流
+     * @return 摘要
+     * @throws IOException IO异常
+     */
+    public byte[] digest(InputStream in) throws IOException {
+        final MessageDigest digest = messageDigest();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 对文件计算摘要，按{@link #MAP_SIZE}分段映射到内存，支持超过2G的文件
+     *
+     * @param file 文件
+     * @return 摘要
+     * @throws IOException IO异常
+     */
+    public byte[] digest(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return digest(channel);
+        }
+    }
+
+    /**
+     * 对文件通道从当前位置到末尾的数据计算摘要，按{@link #MAP_SIZE}分段映射到内存，不关闭通道
+     *
+     * @param channel 文件通道
+     * @return 摘要
+     * @throws IOException IO异常
+     */
+    public byte[] digest(FileChannel channel) throws IOException {
+        final MessageDigest digest = messageDigest();
+        final long size = channel.size();
+        long position = channel.position();
+        while (position < size) {
+            long length = Math.min(MAP_SIZE, size - position);
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            position += length;
+        }
+        channel.position(position);
+        return digest.digest();
+    }
+
+    /**
+     * 获取当前线程已重置的{@link MessageDigest}，用于分段{@code update}的场景。
+     * 返回的实例只能在当前线程使用，且在下一次调用本引擎之前完成{@code digest}
+     *
+     * @return {@link MessageDigest}
+     */
+    public MessageDigest messageDigest() {
+        final MessageDigest digest = slot().instance;
+        digest.reset();
+        return digest;
+    }
+}
@@ -0,0 +1,101 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * 加解密引擎基类，按线程缓存JCA实例（{@link javax.crypto.Cipher}、{@link java.security.MessageDigest}等），
+ * 避免每次调用都通过{@code getInstance}查找Provider。
+ * <p>
+ * 引擎对象线程安全，可以作为常量长期持有，同一算法及Provider的引擎由各子类的{@code of}方法复用
+ *
+ * @param <T> JCA实例类型
+ * @author huangxiaohu
+ */
+public abstract class Engine<T> {
+    /**
+     * 流式处理时每次读取的字节数
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String algorithm;
+    private final String provider;
+    private final ThreadLocal<Slot<T>> slots;
+
+    protected Engine(String algorithm, String provider) {
+        this.algorithm = algorithm;
+        this.provider = provider;
+        this.slots = ThreadLocal.withInitial(() -> new Slot<>(newInstance()));
+        // 构造时即校验算法是否可用
+        this.slots.get();
+    }
+
+    /**
+     * @return 算法名称
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return Provider名称，{@code null}表示按优先级查找
+     */
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * 创建JCA实例
+     *
+     * @return 新实例
+     * @throws GeneralSecurityException 算法或Provider不可用
+     */
+    protected abstract T create() throws GeneralSecurityException;
+
+    /**
+     * @return 当前线程的实例槽
+     */
+    Slot<T> slot() {
+        return slots.get();
+    }
+
+    private T newInstance() {
+        try {
+            return create();
+        } catch (GeneralSecurityException e) {
+            throw new TaraException(algorithm + " is not available", e);
+        }
+    }
+
+    static String cacheKey(String algorithm, String provider) {
+        return null == provider ? algorithm : algorithm + '@' + provider;
+    }
+
+    /**
+     * 线程内的实例及其最近一次初始化使用的密钥和模式，密钥和模式未变化时可以跳过初始化
+     */
+    static final class Slot<T> {
+        final T instance;
+        Key key;
+        int mode;
+
+        Slot(T instance) {
+            this.instance = instance;
+        }
+
+        boolean isInitialized(Key key, int mode) {
+            return null != key && this.key == key && this.mode == mode;
+        }
+
+        void remember(Key key, int mode, boolean reusable) {
+            this.key = reusable ? key : null;
+            this.mode = mode;
+        }
+
+        void reset() {
+            this.key = null;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.sondertara.common.crypto.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sondertara.common.exception.TaraException;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 密钥缓存，按算法及密钥字节缓存解析后的{@link Key}，避免每次加解密都重新解析X509、PKCS8编码的密钥。
+ * <p>
+ * 相同的密钥字节返回同一个{@link Key}对象，{@link CipherEngine}等引擎据此跳过重复的初始化
+ *
+ * @author huangxiaohu
+ */
+public final class KeyCache {
+    /**
+     * 缓存的密钥数量上限
+     */
+    public static final int MAXIMUM_SIZE = 256;
+
+    private static final String SHA1_PRNG = "SHA1PRNG";
+
+    private static final Cache<KeyId, Key> KEYS = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    private KeyCache() {
+    }
+
+    /**
+     * 获取X509编码的公钥
+     *
+     * @param algorithm 算法，如{@code RSA}
+     * @param encoded   X509编码的公钥
+     * @return {@link PublicKey}
+     * @throws TaraException 公钥无效
+     */
+    public static PublicKey publicKey(String algorithm, byte[] encoded) {
+        final KeyId id = new KeyId(algorithm, KeyType.PUBLIC, 0, encoded);
+        Key key = KEYS.getIfPresent(id);
+        if (null == key) {
+            try {
+                key = KeyFactory.getInstance(algorithm).generatePublic(new X509EncodedKeySpec(encoded));
+            } catch (GeneralSecurityException e) {
+                throw new TaraException("Invalid " + algorithm + " public key", e);
+            }
+            KEYS.put(id.retain(), key);
+        }
+        return (PublicKey) key;
+    }
+
+    /**
+     * 获取PKCS8编码的私钥
+     *
+     * @param algorithm 算法，如{@code RSA}
+     * @param encoded   PKCS8编码的私钥
+     * @return {@link PrivateKey}
+     * @throws TaraException 私钥无效
+     */
+    public static PrivateKey privateKey(String algorithm, byte[] encoded) {
+        final KeyId id = new KeyId(algorithm, KeyType.PRIVATE, 0, encoded);
+        Key key = KEYS.getIfPresent(id);
+        if (null == key) {
+            try {
+                key = KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+            } catch (GeneralSecurityException e) {
+                throw new TaraException("Invalid " + algorithm + " private key", e);
+            }
+            KEYS.put(id.retain(), key);
+        }
+        return (PrivateKey) key;
+    }
+
+    /**
+     * 获取对称密钥
+     *
+     * @param algorithm 算法，如{@code AES}、{@code HmacSHA256}
+     * @param encoded   密钥字节
+     * @return {@link SecretKey}
+     */
+    public static SecretKey secretKey(String algorithm, byte[] encoded) {
+        final KeyId id = new KeyId(algorithm, KeyType.SECRET, 0, encoded);
+        Key key = KEYS.getIfPresent(id);
+        if (null == key) {
+            key = new SecretKeySpec(encoded, algorithm);
+            KEYS.put(id.retain(), key);
+        }
+        return (SecretKey) key;
+    }
+
+    /**
+     * 获取以种子初始化{@code SHA1PRNG}后由{@link KeyGenerator}生成的对称密钥，相同的种子和长度生成的密钥相同
+     *
+     * @param algorithm 算法，如{@code AES}
+     * @param seed      种子
+     * @param keySize   密钥长度
+     * @return {@link SecretKey}
+     * @throws TaraException 算法不可用
+     */
+    public static SecretKey seededSecretKey(String algorithm, byte[] seed, int keySize) {
+        final KeyId id = new KeyId(algorithm, KeyType.SEEDED, keySize, seed);
+        Key key = KEYS.getIfPresent(id);
+        if (null == key) {
+            try {
+                KeyGenerator keyGenerator = KeyGenerator.getInstance(algorithm);
+                SecureRandom random = SecureRandom.getInstance(SHA1_PRNG);
+                random.setSeed(seed);
+                keyGenerator.init(keySize, random);
+                // 统一为SecretKeySpec，与secretKey(String, byte[])返回的类型一致
+                key = new SecretKeySpec(keyGenerator.generateKey().getEncoded(), algorithm);
+            } catch (GeneralSecurityException e) {
+                throw new TaraException("Init secretKey error", e);
+            }
+            KEYS.put(id.retain(), key);
+        }
+        return (SecretKey) key;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        KEYS.invalidateAll();
+    }
+
+    private enum KeyType {
+        /**
+         * X509编码的公钥
+         */
+        PUBLIC,
+        /**
+         * PKCS8编码的私钥
+         */
+        PRIVATE,
+        /**
+         * 对称密钥
+         */
+        SECRET,
+        /**
+         * 以种子生成的对称密钥
+         */
+        SEEDED
+    }
+
+    /**
+     * 算法、类型及密钥字节的包装，查找时直接引用调用方的数组，放入缓存时才复制
+     */
+    private static final class KeyId {
+        private final String algorithm;
+        private final KeyType type;
+        private final int keySize;
+        private final byte[] encoded;
+        private final int hash;
+
+        KeyId(String algorithm, KeyType type, int keySize, byte[] encoded) {
+            this.algorithm = Objects.requireNonNull(algorithm, "algorithm");
+            this.type = type;
+            this.keySize = keySize;
+            this.encoded = Objects.requireNonNull(encoded, "key");
+            int result = algorithm.hashCode();
+            result = 31 * result + type.ordinal();
+            result = 31 * result + keySize;
+            result = 31 * result + Arrays.hashCode(this.encoded);
+            this.hash = result;
+        }
+
+        /**
+         * @return 复制了密钥字节的实例，调用方修改原数组不影响缓存
+         */
+        KeyId retain() {
+            return new KeyId(algorithm, type, keySize, encoded.clone());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof KeyId)) {
+                return false;
+            }
+            KeyId other = (KeyId) obj;
+            return hash == other.hash && keySize == other.keySize && type == other.type && algorithm.equals(other.algorithm)
+                    && Arrays.equals(encoded, other.encoded);
+        }
+    }
+}
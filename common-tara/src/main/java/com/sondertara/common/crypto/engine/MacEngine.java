@@ -0,0 +1,98 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 消息认证码引擎，每个线程持有一个{@link Mac}实例，同一线程连续使用同一个{@link Key}对象时不会重复初始化
+ *
+ * @author huangxiaohu
+ */
+public final class MacEngine extends Engine<Mac> {
+    private static final ConcurrentMap<String, MacEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private MacEngine(String algorithm, String provider) {
+        super(algorithm, provider);
+    }
+
+    /**
+     * 获取消息认证码引擎
+     *
+     * @param algorithm 算法名称，如{@code HmacSHA256}
+     * @return {@link MacEngine}
+     * @throws TaraException 算法不可用
+     */
+    public static MacEngine of(String algorithm) {
+        return of(algorithm, null);
+    }
+
+    /**
+     * 获取消息认证码引擎
+     *
+     * @param algorithm 算法名称
+     * @param provider  Provider名称，{@code null}表示按优先级查找
+     * @return {@link MacEngine}
+     * @throws TaraException 算法或Provider不可用
+     */
+    public static MacEngine of(String algorithm, String provider) {
+        return ENGINES.computeIfAbsent(cacheKey(algorithm, provider), k -> new MacEngine(algorithm, provider));
+    }
+
+    @Override
+    protected Mac create() throws GeneralSecurityException {
+        String provider = getProvider();
+        return null == provider ? Mac.getInstance(getAlgorithm()) : Mac.getInstance(getAlgorithm(), provider);
+    }
+
+    /**
+     * 计算消息认证码，密钥经{@link KeyCache}缓存
+     *
+     * @param key  密钥
+     * @param data 数据
+     * @return 消息认证码
+     */
+    public byte[] mac(byte[] key, byte[] data) {
+        return mac(KeyCache.secretKey(getAlgorithm(), key), data);
+    }
+
+    /**
+     * 计算消息认证码
+     *
+     * @param key  密钥
+     * @param data 数据
+     * @return 消息认证码
+     */
+    public byte[] mac(Key key, byte[] data) {
+        return mac(key).doFinal(data);
+    }
+
+    /**
+     * 获取当前线程已初始化的{@link Mac}，用于分段{@code update}的场景。
+     * 返回的实例只能在当前线程使用，且在下一次调用本引擎之前完成{@code doFinal}
+     *
+     * @param key 密钥
+     * @return {@link Mac}
+     * @throws TaraException 密钥无效
+     */
+    public Mac mac(Key key) {
+        final Slot<Mac> slot = slot();
+        final Mac mac = slot.instance;
+        if (slot.isInitialized(key, 0)) {
+            mac.reset();
+            return mac;
+        }
+        slot.reset();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new TaraException(getAlgorithm() + " init error", e);
+        }
+        slot.remember(key, 0, true);
+        return mac;
+    }
+}
@@ -0,0 +1,199 @@
+package com.sondertara.common.crypto.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * SM2签名与验签的椭圆曲线运算，只处理消息摘要{@code e}，摘要的计算由调用方完成。
+ * <ul>
+ * <li>基点使用固定基点梳状算法（{@link FixedPointCombMultiplier}），预计算表随基点只生成一次</li>
+ * <li>验签使用Shamir算法同时计算两个点乘，点乘的窗口预计算表保存在点对象上</li>
+ * <li>常用的验签公钥可以通过{@link #precompute(ECPoint)}校验后缓存，最多缓存{@link #MAXIMUM_PUBLIC_KEYS}个，
+ * 之后以相等的公钥验签时复用同一个点对象及其预计算表，不必每次重新生成</li>
+ * <li>批量验签时统一做一次模逆完成所有点的规范化</li>
+ * </ul>
+ *
+ * @author huangxiaohu
+ */
+public final class SM2SignatureEngine {
+    /**
+     * 缓存的预计算公钥数量上限
+     */
+    public static final int MAXIMUM_PUBLIC_KEYS = 256;
+
+    private static final SM2SignatureEngine INSTANCE = new SM2SignatureEngine(CryptoEngine.sm2DomainParameters());
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final ECDomainParameters domainParameters;
+    private final ECCurve curve;
+    private final ECPoint g;
+    private final BigInteger n;
+    private final ECMultiplier multiplier = new FixedPointCombMultiplier();
+    private final Cache<ECPoint, ECPoint> publicKeys = CacheBuilder.newBuilder().maximumSize(MAXIMUM_PUBLIC_KEYS).build();
+
+    private SM2SignatureEngine(ECDomainParameters domainParameters) {
+        this.domainParameters = domainParameters;
+        this.curve = domainParameters.getCurve();
+        this.g = domainParameters.getG();
+        this.n = domainParameters.getN();
+        FixedPointUtil.precompute(g);
+    }
+
+    /**
+     * @return 使用SM2推荐曲线的引擎
+     */
+    public static SM2SignatureEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return 曲线域参数
+     */
+    public ECDomainParameters getDomainParameters() {
+        return domainParameters;
+    }
+
+    /**
+     * 使用基点的预计算表计算{@code [k]G}，如由私钥计算公钥、加密时计算C1
+     *
+     * @param k 系数
+     * @return 规范化的点
+     */
+    public ECPoint multiplyBase(BigInteger k) {
+        return multiplier.multiply(g, k).normalize();
+    }
+
+    /**
+     * 签名
+     *
+     * @param e          消息摘要
+     * @param privateKey 私钥
+     * @return {@code r}和{@code s}
+     */
+    public BigInteger[] sign(BigInteger e, BigInteger privateKey) {
+        final SecureRandom random = RANDOM.get();
+        final BigInteger inverse = privateKey.add(BigInteger.ONE).modInverse(n);
+        BigInteger r;
+        BigInteger s;
+        do {
+            BigInteger k;
+            do {
+                k = BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random);
+                BigInteger x1 = multiplier.multiply(g, k).normalize().getAffineXCoord().toBigInteger();
+                r = e.add(x1).mod(n);
+            } while (r.signum() == 0 || r.add(k).equals(n));
+            s = inverse.multiply(k.subtract(r.multiply(privateKey))).mod(n);
+        } while (s.signum() == 0);
+        return new BigInteger[]{r, s};
+    }
+
+    /**
+     * 验签
+     *
+     * @param e         消息摘要
+     * @param r         签名r
+     * @param s         签名s
+     * @param publicKey 公钥
+     * @return 是否通过
+     */
+    public boolean verify(BigInteger e, BigInteger r, BigInteger s, ECPoint publicKey) {
+        final BigInteger t = checkAndSum(r, s);
+        if (null == t) {
+            return false;
+        }
+        final ECPoint point = multiply(s, t, publicKey, publicKeys.getIfPresent(publicKey)).normalize();
+        return !point.isInfinity() && e.add(point.getAffineXCoord().toBigInteger()).mod(n).equals(r);
+    }
+
+    /**
+     * 批量验签，各点的规范化合并为一次模逆运算，同一公钥多次出现时只查找一次预计算表
+     *
+     * @param e          消息摘要
+     * @param r          签名r
+     * @param s          签名s
+     * @param publicKeys 公钥
+     * @return 每个签名是否通过
+     */
+    public boolean[] verify(BigInteger[] e, BigInteger[] r, BigInteger[] s, ECPoint[] publicKeys) {
+        final int count = e.length;
+        if (r.length != count || s.length != count || publicKeys.length != count) {
+            throw new IllegalArgumentException("The length of digests, signatures and public keys must be the same");
+        }
+        final boolean[] result = new boolean[count];
+        final ECPoint[] points = new ECPoint[count];
+        ECPoint lastKey = null;
+        ECPoint precomputed = null;
+        for (int i = 0; i < count; i++) {
+            BigInteger t = checkAndSum(r[i], s[i]);
+            if (null == t) {
+                points[i] = curve.getInfinity();
+                continue;
+            }
+            if (publicKeys[i] != lastKey) {
+                lastKey = publicKeys[i];
+                precomputed = this.publicKeys.getIfPresent(lastKey);
+            }
+            points[i] = multiply(s[i], t, lastKey, precomputed);
+        }
+        curve.normalizeAll(points);
+        for (int i = 0; i < count; i++) {
+            ECPoint point = points[i];
+            result[i] = !point.isInfinity() && e[i].add(point.getAffineXCoord().toBigInteger()).mod(n).equals(r[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 校验公钥并缓存，之后使用相等的公钥验签时复用缓存的点对象及其预计算表。适用于频繁验签的公钥
+     *
+     * @param publicKey 公钥
+     * @return 缓存的规范化公钥
+     * @throws IllegalArgumentException 公钥不在曲线上
+     */
+    public ECPoint precompute(ECPoint publicKey) {
+        ECPoint point = publicKeys.getIfPresent(publicKey);
+        if (null == point) {
+            point = domainParameters.validatePublicPoint(publicKey);
+            publicKeys.put(point, point);
+        }
+        return point;
+    }
+
+    /**
+     * 清空预计算公钥缓存
+     */
+    public void clear() {
+        publicKeys.invalidateAll();
+    }
+
+    /**
+     * @return {@code r + s mod n}，签名不合法时返回{@code null}
+     */
+    private BigInteger checkAndSum(BigInteger r, BigInteger s) {
+        if (r.signum() <= 0 || r.compareTo(n) >= 0 || s.signum() <= 0 || s.compareTo(n) >= 0) {
+            return null;
+        }
+        final BigInteger t = r.add(s).mod(n);
+        return t.signum() == 0 ? null : t;
+    }
+
+    /**
+     * s * G + t * P，公钥已缓存时使用缓存的点对象，复用其预计算表
+     */
+    private ECPoint multiply(BigInteger s, BigInteger t, ECPoint publicKey, ECPoint precomputed) {
+        final ECPoint point = null != precomputed ? precomputed : ECAlgorithms.importPoint(curve, publicKey);
+        return ECAlgorithms.sumOfTwoMultiplies(g, s, point, t);
+    }
+}
@@ -0,0 +1,106 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 签名引擎，每个线程持有一个{@link Signature}实例，同一线程连续使用同一个密钥对象签名或验签时不会重复初始化
+ *
+ * @author huangxiaohu
+ */
+public final class SignatureEngine extends Engine<Signature> {
+    private static final int SIGN = 1;
+    private static final int VERIFY = 2;
+
+    private static final ConcurrentMap<String, SignatureEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private SignatureEngine(String algorithm, String provider) {
+        super(algorithm, provider);
+    }
+
+    /**
+     * 获取签名引擎
+     *
+     * @param algorithm 算法名称，如{@code SHA256withRSA}
+     * @return {@link SignatureEngine}
+     * @throws TaraException 算法不可用
+     */
+    public static SignatureEngine of(String algorithm) {
+        return of(algorithm, null);
+    }
+
+    /**
+     * 获取签名引擎
+     *
+     * @param algorithm 算法名称
+     * @param provider  Provider名称，{@code null}表示按优先级查找
+     * @return {@link SignatureEngine}
+     * @throws TaraException 算法或Provider不可用
+     */
+    public static SignatureEngine of(String algorithm, String provider) {
+        return ENGINES.computeIfAbsent(cacheKey(algorithm, provider), k -> new SignatureEngine(algorithm, provider));
+    }
+
+    @Override
+    protected Signature create() throws GeneralSecurityException {
+        String provider = getProvider();
+        return null == provider ? Signature.getInstance(getAlgorithm()) : Signature.getInstance(getAlgorithm(), provider);
+    }
+
+    /**
+     * 签名
+     *
+     * @param key  私钥
+     * @param data 数据
+     * @return 签名
+     * @throws TaraException 签名失败
+     */
+    public byte[] sign(PrivateKey key, byte[] data) {
+        final Slot<Signature> slot = slot();
+        final Signature signature = slot.instance;
+        try {
+            if (!slot.isInitialized(key, SIGN)) {
+                slot.reset();
+                signature.initSign(key);
+                slot.remember(key, SIGN, true);
+            }
+            signature.update(data);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            slot.reset();
+            throw new TaraException(getAlgorithm() + " sign error", e);
+        }
+    }
+
+    /**
+     * 验签
+     *
+     * @param key  公钥
+     * @param data 数据
+     * @param sign 签名
+     * @return 是否通过
+     * @throws TaraException 公钥无效或签名格式错误
+     */
+    public boolean verify(PublicKey key, byte[] data, byte[] sign) {
+        final Slot<Signature> slot = slot();
+        final Signature signature = slot.instance;
+        try {
+            if (!slot.isInitialized(key, VERIFY)) {
+                slot.reset();
+                signature.initVerify(key);
+                slot.remember(key, VERIFY, true);
+            }
+            signature.update(data);
+            return signature.verify(sign);
+        } catch (GeneralSecurityException e) {
+            slot.reset();
+            throw new TaraException(getAlgorithm() + " verify error", e);
+        }
+    }
+}
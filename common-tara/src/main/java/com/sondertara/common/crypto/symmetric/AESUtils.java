@@ -1,15 +1,14 @@
 package com.sondertara.common.crypto.symmetric;
 
+import com.sondertara.common.crypto.engine.CipherEngine;
+import com.sondertara.common.crypto.engine.KeyCache;
 import com.sondertara.common.exception.TaraException;
 import com.sondertara.common.util.HexUtils;
 
-import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 
 /**
  * AES加密与解密工具类
@@ -18,22 +17,14 @@ import java.security.SecureRandom;
  */
 public class AESUtils {
     static final String AES = "AES";
-    static final String SHA1_PRNG = "SHA1PRNG";
+
+    private static final CipherEngine CIPHER = CipherEngine.of(AES);
 
     /**
      * 生成密钥
      */
     public static byte[] initKey(String key, int keySize) {
-        try {
-            KeyGenerator keyGenerator = KeyGenerator.getInstance(AES);
-            SecureRandom random = SecureRandom.getInstance(SHA1_PRNG);
-            random.setSeed(key.getBytes());
-            keyGenerator.init(keySize, random);
-            SecretKey secretKey = keyGenerator.generateKey();
-            return secretKey.getEncoded();
-        } catch (NoSuchAlgorithmException e) {
-            throw new TaraException("Init secretKey error", e);
-        }
+        return KeyCache.seededSecretKey(AES, key.getBytes(), keySize).getEncoded();
     }
 
     /**
@@ -49,22 +40,9 @@ public class AESUtils {
             return null;
         }
         try {
-
-            byte[] enCodeFormat = initKey(key, keySize);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(enCodeFormat, AES);
-            Cipher cipher = Cipher.getInstance("AES");
-            byte[] byteContent = plainText.getBytes(StandardCharsets.UTF_8);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-            byte[] bytes = cipher.doFinal(byteContent);
-            StringBuffer sb = new StringBuffer();
-            for (byte aByte : bytes) {
-                StringBuilder hex = new StringBuilder(Integer.toHexString(aByte & 0xFF));
-                if (hex.length() == 1) {
-                    hex.insert(0, '0');
-                }
-                sb.append(hex.toString().toUpperCase());
-            }
-            return sb.toString();
+            SecretKey secretKey = KeyCache.seededSecretKey(AES, key.getBytes(), keySize);
+            byte[] bytes = CIPHER.encrypt(secretKey, plainText.getBytes(StandardCharsets.UTF_8));
+            return HexUtils.encodeHexStr(bytes, false);
         } catch (Exception e) {
             throw new TaraException("AES encrypt error", e);
         }
@@ -88,18 +66,48 @@ public class AESUtils {
         byte[] bytesResult = HexUtils.decodeHex(cipherText);
 
         try {
-
-            byte[] bytes = initKey(key, keySize);
-            SecretKeySpec secretKeySpec = new SecretKeySpec(bytes, AES);
-            Cipher cipher = Cipher.getInstance(AES);
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
-            byte[] result = cipher.doFinal(bytesResult);
+            SecretKey secretKey = KeyCache.seededSecretKey(AES, key.getBytes(), keySize);
+            byte[] result = CIPHER.decrypt(secretKey, bytesResult);
             return new String(result);
         } catch (Exception e) {
             throw new TaraException("AES decrypt error", e);
         }
     }
 
+    /**
+     * 流式加密，内存占用与数据大小无关，不关闭流
+     *
+     * @param in      明文输入流
+     * @param out     密文输出流
+     * @param key     加解密密钥
+     * @param keySize 密钥长度
+     * @return 写出的字节数
+     */
+    public static long encrypt(InputStream in, OutputStream out, String key, int keySize) {
+        try {
+            return CIPHER.encrypt(KeyCache.seededSecretKey(AES, key.getBytes(), keySize), in, out);
+        } catch (Exception e) {
+            throw new TaraException("AES encrypt error", e);
+        }
+    }
+
+    /**
+     * 流式解密，内存占用与数据大小无关，不关闭流
+     *
+     * @param in      密文输入流
+     * @param out     明文输出流
+     * @param key     加解密密钥
+     * @param keySize 密钥长度
+     * @return 写出的字节数
+     */
+    public static long decrypt(InputStream in, OutputStream out, String key, int keySize) {
+        try {
+            return CIPHER.decrypt(KeyCache.seededSecretKey(AES, key.getBytes(), keySize), in, out);
+        } catch (Exception e) {
+            throw new TaraException("AES decrypt error", e);
+        }
+    }
+
     public static void main(String[] args) {
         try {
             // 示例
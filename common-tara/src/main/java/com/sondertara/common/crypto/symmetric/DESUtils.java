@@ -1,5 +1,6 @@
 package com.sondertara.common.crypto.symmetric;
 
+import com.sondertara.common.crypto.engine.CipherEngine;
 import com.sondertara.common.exception.TaraException;
 import org.apache.commons.codec.binary.Base64;
 
@@ -7,7 +8,10 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.DESKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 
 /**
@@ -122,6 +126,43 @@ public class DESUtils {
         return new String(decrypt, StandardCharsets.UTF_8);
     }
 
+    /**
+     * 流式加密，内存占用与数据大小无关，不关闭流
+     *
+     * @param in       明文输入流
+     * @param out      密文输出流
+     * @param password 密码
+     * @return 写出的字节数
+     */
+    public static long encrypt(InputStream in, OutputStream out, String password) {
+        try {
+            return CipherEngine.of(DES).encrypt(generateSecret(password), in, out);
+        } catch (Exception e) {
+            throw new TaraException("DES encrypt error.", e);
+        }
+    }
+
+    /**
+     * 流式解密，内存占用与数据大小无关，不关闭流
+     *
+     * @param in       密文输入流
+     * @param out      明文输出流
+     * @param password 密码
+     * @return 写出的字节数
+     */
+    public static long decrypt(InputStream in, OutputStream out, String password) {
+        try {
+            return CipherEngine.of(DES).decrypt(generateSecret(password), in, out);
+        } catch (Exception e) {
+            throw new TaraException("DES decrypt error", e);
+        }
+    }
+
+    private static SecretKey generateSecret(String password) throws GeneralSecurityException {
+        DESKeySpec desKeySpec = new DESKeySpec(formatPassword(password).getBytes());
+        return SecretKeyFactory.getInstance(DES).generateSecret(desKeySpec);
+    }
+
     private static String formatPassword(String password) {
         int i = password.length() % 8;
         if (i != 0) {
@@ -1,15 +1,17 @@
 package com.sondertara.common.crypto.symmetric;
 
+import com.sondertara.common.crypto.engine.CipherEngine;
+import com.sondertara.common.crypto.engine.CryptoEngine;
+import com.sondertara.common.crypto.engine.KeyCache;
 import com.sondertara.common.exception.TaraException;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import com.sondertara.common.util.HexUtils;
 import org.bouncycastle.pqc.math.linearalgebra.ByteUtils;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.Key;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.SecureRandom;
-import java.security.Security;
 import java.util.Arrays;
 
 /**
@@ -31,30 +33,6 @@ public class SM4Utils {
      */
     public static final int DEFAULT_KEY_SIZE = 128;
 
-    static {
-        Security.addProvider(new BouncyCastleProvider());
-    }
-
-    /**
-     * 生成ECB密码本
-     * ECB模式（电子密码本模式：Electronic codebook）
-     *
-     * @param algorithmName 算法名称
-     * @param mode          模式
-     * @param key           the key
-     * @return Cipher
-     */
-    private static Cipher generateEcbCipher(String algorithmName, int mode, byte[] key) {
-        try {
-            Cipher cipher = Cipher.getInstance(algorithmName, BouncyCastleProvider.PROVIDER_NAME);
-            Key sm4Key = new SecretKeySpec(key, ALGORITHM_NAME);
-            cipher.init(mode, sm4Key);
-            return cipher;
-        } catch (Exception e) {
-            throw new TaraException("SM4 generateEcbCipher error", e);
-        }
-    }
-
     /**
      * 生成密钥：系统自动生成密钥
      *
@@ -62,7 +40,7 @@ public class SM4Utils {
      */
     public static byte[] autoGenerateKey(int keySize) {
         try {
-            KeyGenerator kg = KeyGenerator.getInstance(ALGORITHM_NAME, BouncyCastleProvider.PROVIDER_NAME);
+            KeyGenerator kg = KeyGenerator.getInstance(ALGORITHM_NAME, CryptoEngine.bouncyCastleProvider());
             kg.init(keySize, new SecureRandom());
             return kg.generateKey().getEncoded();
         } catch (Exception e) {
@@ -76,7 +54,7 @@ public class SM4Utils {
      * 加密模式：ECB 密文长度不固定，会随着被加密字符串长度的变化而变化
      *
      * @param key    16进制密钥（忽略大小写）或采集autoGenerateKey自动生成：String
-     *               key=ByteUtils.toHexString(autoGenerateKey(DEFAULT_KEY_SIZE))
+     *               key=HexUtils.encodeHexStr(autoGenerateKey(DEFAULT_KEY_SIZE))
      * @param srcStr 待加密字符串
      * @return 返回16进制的加密字符串
      */
@@ -89,7 +67,7 @@ public class SM4Utils {
             // 加密后的数组
             byte[] cipherArray = encryptEcbPadding(keyData, srcData);
             // 返回加密后的16进制字符串
-            return ByteUtils.toHexString(cipherArray);
+            return HexUtils.encodeHexStr(cipherArray);
         } catch (Exception e) {
             throw new TaraException("SM4 encryptByEcb error", e);
         }
@@ -103,8 +81,7 @@ public class SM4Utils {
      * @param data 数据
      */
     public static byte[] encryptEcbPadding(byte[] key, byte[] data) throws Exception {
-        Cipher cipher = generateEcbCipher(ALGORITHM_NAME_ECB_PADDING, Cipher.ENCRYPT_MODE, key);
-        return cipher.doFinal(data);
+        return generateEcbCipher(Cipher.ENCRYPT_MODE, key).doFinal(data);
     }
 
     /**
@@ -137,13 +114,61 @@ public class SM4Utils {
      */
     public static byte[] decryptEcbPadding(byte[] key, byte[] cipherText) {
         try {
-            Cipher cipher = generateEcbCipher(ALGORITHM_NAME_ECB_PADDING, Cipher.DECRYPT_MODE, key);
-            return cipher.doFinal(cipherText);
+            return ecbEngine().decrypt(KeyCache.secretKey(ALGORITHM_NAME, key), cipherText);
         } catch (Exception e) {
             throw new TaraException("SM4 decryptEcbPadding error", e);
         }
     }
 
+    /**
+     * 流式加密，内存占用与数据大小无关，不关闭流
+     *
+     * @param key 密钥
+     * @param in  明文输入流
+     * @param out 密文输出流
+     * @return 写出的字节数
+     */
+    public static long encryptEcbPadding(byte[] key, InputStream in, OutputStream out) {
+        try {
+            return ecbEngine().encrypt(KeyCache.secretKey(ALGORITHM_NAME, key), in, out);
+        } catch (Exception e) {
+            throw new TaraException("SM4 encryptEcbPadding error", e);
+        }
+    }
+
+    /**
+     * 流式解密，内存占用与数据大小无关，不关闭流
+     *
+     * @param key 密钥
+     * @param in  密文输入流
+     * @param out 明文输出流
+     * @return 写出的字节数
+     */
+    public static long decryptEcbPadding(byte[] key, InputStream in, OutputStream out) {
+        try {
+            return ecbEngine().decrypt(KeyCache.secretKey(ALGORITHM_NAME, key), in, out);
+        } catch (Exception e) {
+            throw new TaraException("SM4 decryptEcbPadding error", e);
+        }
+    }
+
+    /**
+     * 获取当前线程已初始化的ECB模式Cipher，密钥无效时抛出的异常与加解密失败区分
+     */
+    private static Cipher generateEcbCipher(int mode, byte[] key) {
+        try {
+            return ecbEngine().cipher(mode, KeyCache.secretKey(ALGORITHM_NAME, key), null);
+        } catch (TaraException e) {
+            throw new TaraException("SM4 generateEcbCipher error", null == e.getCause() ? e : e.getCause());
+        } catch (RuntimeException e) {
+            throw new TaraException("SM4 generateEcbCipher error", e);
+        }
+    }
+
+    private static CipherEngine ecbEngine() {
+        return CipherEngine.of(ALGORITHM_NAME_ECB_PADDING, CryptoEngine.bouncyCastle());
+    }
+
     /**
      * 加密数据校验：校验加密前后的字符串是否为同一数据
      *
@@ -178,7 +203,7 @@ public class SM4Utils {
         // 自定义的32位16进制密钥
         // String key = "86C63180C2806ED1F47B859DE501215B";
         // 自动生成密钥
-        String key = ByteUtils.toHexString(autoGenerateKey(DEFAULT_KEY_SIZE));
+        String key = HexUtils.encodeHexStr(autoGenerateKey(DEFAULT_KEY_SIZE));
         // 加密
         String cipher = SM4Utils.encryptByEcb(srcStr, key);
 
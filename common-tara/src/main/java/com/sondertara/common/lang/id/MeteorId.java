@@ -1,9 +1,17 @@
 package com.sondertara.common.lang.id;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Based on SnowFlake
  * bit:     0     1~29  30~49  50~60   61~63
  * section: keep  data  node   serial  random
+ * <p>
+ * The second and the serial are packed into one {@code long} ({@code second << seqBits | serial}) and allocated by an
+ * atomic add, so the generator never locks or spins: when the serial of a second is used up the carry moves to the
+ * next second, borrowing from the future. The second starts from the clock and is moved forward when the clock is
+ * ahead of it, it never goes back, so the ids stay unique if the clock is set backwards.
  */
 public class MeteorId {
     /**
@@ -35,19 +43,19 @@ public class MeteorId {
     /**
      * max second
      */
-    private final static long maxSecond = ~(-1 << secBits);
+    private final static long maxSecond = ~(-1L << secBits);
     /**
      * max node
      */
-    private final static long maxNode = ~(-1 << nodeBits);
+    private final static long maxNode = ~(-1L << nodeBits);
     /**
-     * max data
+     * max serial
      */
-    private final static long maxSeq = ~(-1 << secBits);
+    private final static long maxSeq = ~(-1L << seqBits);
     /**
      * max random
      */
-    private final static long maxRand = ~(-1 << randBits);
+    private final static long maxRand = ~(-1L << randBits);
 
     /**
      * the data section left shift
@@ -66,7 +74,17 @@ public class MeteorId {
     private static final Node INSTANCE = new Node(0);
 
     public static long nextId() {
-        return INSTANCE.nexId();
+        return INSTANCE.nextId();
+    }
+
+    /**
+     * Allocate the ids in one atomic operation, e.g. for the bulk inserts
+     *
+     * @param n the count of ids
+     * @return the ascending ids
+     */
+    public static long[] nextIds(int n) {
+        return INSTANCE.nextIds(n);
     }
 
 
@@ -75,58 +93,84 @@ public class MeteorId {
     }
 
     static class Node {
-        private long seqNum;
-        private long randNum;
-        private long second;
-        private long seed;
-        private long nodeId;
+        /**
+         * second << seqBits | serial of the last allocated id
+         */
+        private final AtomicLong secondAndSeq;
+        private volatile long nodeId;
 
         public Node(long nodeId) {
-            if (nodeId < 0 || nodeId > maxNode) {
-                throw new IllegalArgumentException("Node id must between 0 and " + maxNode);
-            }
+            checkNodeId(nodeId);
             this.nodeId = nodeId;
-            this.seqNum = 0;
-            this.randNum = 0;
-            this.seed = 1;
-            this.second = System.currentTimeMillis() / 1000 - initSecond;
+            this.secondAndSeq = new AtomicLong(currentSecond() << seqBits);
+        }
+
+        public long nextId() {
+            long packed = secondAndSeq.incrementAndGet();
+            if ((packed & maxSeq) == 0) {
+                catchUp(packed);
+            }
+            checkSecond(packed);
+            return compose(packed, nodeId, ThreadLocalRandom.current().nextLong() & maxRand);
         }
 
-        public synchronized long nexId() {
-            this.seqNum = (seqNum + 1) & maxSeq;
-            randNum = rand(this);
-            if (seqNum == 0) {
-                second = (second + 1) & maxSecond;
-                if (second == 0) {
-                    throw new IllegalStateException("Seconds overflow. The max second is " + maxSecond);
-                }
+        public long[] nextIds(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("The count of ids must not be negative: " + n);
             }
-            long l = second << timeShift | nodeId << nodeShift | seqNum << seqShift | randNum;
-            if (l < 0) {
-                System.out.println("Seconds overflow");
+            long[] ids = new long[n];
+            if (n == 0) {
+                return ids;
             }
-            return l;
+            long first = secondAndSeq.getAndAdd(n) + 1;
+            // the next allocation starts from the clock if it is ahead
+            checkSecond(catchUp(first + n - 1));
+            long node = nodeId;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < n; i++) {
+                ids[i] = compose(first + i, node, random.nextLong() & maxRand);
+            }
+            return ids;
         }
 
         public void setNodeId(long nodeId) {
+            checkNodeId(nodeId);
             this.nodeId = nodeId;
         }
-    }
 
-    /**
-     * Generate random number
-     * base on xor shift
-     *
-     * @param node the node
-     * @return the random number
-     */
-    private static long rand(Node node) {
-        long x = node.seed;
-        x ^= x << 13;
-        x ^= x << 17;
-        x ^= x << 5;
-        node.seed = x % MeteorId.maxRand;
-        return node.seed;
-    }
+        /**
+         * Move the second forward to the clock, the allocated ids are all less than the new value
+         *
+         * @param packed the last allocated value
+         * @return the allocated value
+         */
+        private long catchUp(long packed) {
+            long now = currentSecond();
+            if (now > (packed >>> seqBits)) {
+                // lost race means another thread allocated or moved forward, try it at the next second
+                secondAndSeq.compareAndSet(packed, now << seqBits);
+            }
+            return packed;
+        }
+
+        private static long compose(long packed, long nodeId, long rand) {
+            return (packed >>> seqBits) << timeShift | nodeId << nodeShift | (packed & maxSeq) << seqShift | rand;
+        }
+
+        private static void checkSecond(long packed) {
+            if ((packed >>> seqBits) > maxSecond) {
+                throw new IllegalStateException("Seconds overflow. The max second is " + maxSecond);
+            }
+        }
+
+        private static void checkNodeId(long nodeId) {
+            if (nodeId < 0 || nodeId > maxNode) {
+                throw new IllegalArgumentException("Node id must between 0 and " + maxNode);
+            }
+        }
 
+        private static long currentSecond() {
+            return System.currentTimeMillis() / 1000 - initSecond;
+        }
+    }
 }
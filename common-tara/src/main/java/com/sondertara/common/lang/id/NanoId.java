@@ -1,7 +1,5 @@
 package com.sondertara.common.lang.id;
 
-import com.sondertara.common.util.RandomUtils;
-
 import java.security.SecureRandom;
 import java.util.Random;
 
@@ -16,22 +14,25 @@ import java.util.Random;
  *
  * <p>
  * 此实现的逻辑基于JavaScript的NanoId实现，见：https://github.com/ai/nanoid
+ * <p>
+ * 未指定随机数生成器时，随机字节取自当前线程的缓冲池（{@link SecureRandom}或非密码安全的{@link java.util.SplittableRandom}），
+ * 字母表的掩码预先计算，字符直接写入{@code char[]}
  *
  * @author David Klebanoff
  */
 public class NanoId {
 
-	/**
-	 * 默认随机数生成器，使用{@link SecureRandom}确保健壮性
-	 */
-	private static final SecureRandom DEFAULT_NUMBER_GENERATOR = RandomUtils.getSecureRandom();
-
 	/**
 	 * 默认随机字母表，使用URL安全的Base64字符
 	 */
 	private static final char[] DEFAULT_ALPHABET = "_-0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"
 			.toCharArray();
 
+	/**
+	 * 默认字母表的掩码
+	 */
+	private static final int DEFAULT_MASK = mask(DEFAULT_ALPHABET.length);
+
 	/**
 	 * 默认长度
 	 */
@@ -53,22 +54,52 @@ public class NanoId {
 	 * @return 伪随机的NanoId字符串
 	 */
 	public static String randomNanoId(int size) {
-		return randomNanoId(null, null, size);
+		checkSize(size);
+		return generate(RandomBytePool.secure(), DEFAULT_ALPHABET, DEFAULT_MASK, size);
+	}
+
+	/**
+	 * 批量生成伪随机的NanoId字符串，使用密码安全的伪随机生成器
+	 *
+	 * @param count 数量
+	 * @param size  ID长度
+	 * @return 伪随机的NanoId字符串
+	 */
+	public static String[] randomNanoIds(int count, int size) {
+		return generate(RandomBytePool.secure(), count, size);
+	}
+
+	/**
+	 * 生成NanoId字符串，使用非密码安全的{@link java.util.SplittableRandom}，适用于临时文件名等只要求唯一的场景
+	 *
+	 * @param size ID长度
+	 * @return NanoId字符串
+	 */
+	public static String fastNanoId(int size) {
+		checkSize(size);
+		return generate(RandomBytePool.fast(), DEFAULT_ALPHABET, DEFAULT_MASK, size);
+	}
+
+	/**
+	 * 批量生成NanoId字符串，使用非密码安全的{@link java.util.SplittableRandom}
+	 *
+	 * @param count 数量
+	 * @param size  ID长度
+	 * @return NanoId字符串
+	 */
+	public static String[] fastNanoIds(int count, int size) {
+		return generate(RandomBytePool.fast(), count, size);
 	}
 
 	/**
 	 * 生成伪随机的NanoId字符串
 	 *
-	 * @param random   随机数生成器
+	 * @param random   随机数生成器，{@code null}时使用当前线程的密码安全缓冲池
 	 * @param alphabet 随机字母表
 	 * @param size     ID长度
 	 * @return 伪随机的NanoId字符串
 	 */
 	public static String randomNanoId(Random random, char[] alphabet, int size) {
-		if (random == null) {
-			random = DEFAULT_NUMBER_GENERATOR;
-		}
-
 		if (alphabet == null) {
 			alphabet = DEFAULT_ALPHABET;
 		}
@@ -77,27 +108,68 @@ public class NanoId {
 			throw new IllegalArgumentException("Alphabet must contain between 1 and 255 symbols.");
 		}
 
-		if (size <= 0) {
-			throw new IllegalArgumentException("Size must be greater than zero.");
+		checkSize(size);
+
+		final int mask = alphabet == DEFAULT_ALPHABET ? DEFAULT_MASK : mask(alphabet.length);
+		if (random == null) {
+			return generate(RandomBytePool.secure(), alphabet, mask, size);
 		}
 
-		final int mask = (2 << (int) Math.floor(Math.log(alphabet.length - 1) / Math.log(2))) - 1;
 		final int step = (int) Math.ceil(1.6 * mask * size / alphabet.length);
-
-		final StringBuilder idBuilder = new StringBuilder();
-
+		final byte[] bytes = new byte[step];
+		final char[] id = new char[size];
+		int length = 0;
 		while (true) {
-			final byte[] bytes = new byte[step];
 			random.nextBytes(bytes);
 			for (int i = 0; i < step; i++) {
 				final int alphabetIndex = bytes[i] & mask;
 				if (alphabetIndex < alphabet.length) {
-					idBuilder.append(alphabet[alphabetIndex]);
-					if (idBuilder.length() == size) {
-						return idBuilder.toString();
+					id[length++] = alphabet[alphabetIndex];
+					if (length == size) {
+						return new String(id);
 					}
 				}
 			}
 		}
 	}
+
+	private static String[] generate(RandomBytePool pool, int count, int size) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Count must not be negative.");
+		}
+		checkSize(size);
+		final String[] ids = new String[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = generate(pool, DEFAULT_ALPHABET, DEFAULT_MASK, size);
+		}
+		return ids;
+	}
+
+	private static String generate(RandomBytePool pool, char[] alphabet, int mask, int size) {
+		final char[] id = new char[size];
+		int length = 0;
+		while (length < size) {
+			final int alphabetIndex = pool.nextByte() & mask;
+			if (alphabetIndex < alphabet.length) {
+				id[length++] = alphabet[alphabetIndex];
+			}
+		}
+		return new String(id);
+	}
+
+	/**
+	 * 覆盖字母表所有下标的最小掩码：2^(floor(log2(length - 1)) + 1) - 1
+	 */
+	private static int mask(int length) {
+		if (length == 1) {
+			return 1;
+		}
+		return (2 << (31 - Integer.numberOfLeadingZeros(length - 1))) - 1;
+	}
+
+	private static void checkSize(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Size must be greater than zero.");
+		}
+	}
 }
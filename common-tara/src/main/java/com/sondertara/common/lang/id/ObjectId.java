@@ -6,7 +6,6 @@ import com.sondertara.common.util.StringUtils;
 
 import java.lang.management.ManagementFactory;
 import java.net.NetworkInterface;
-import java.nio.ByteBuffer;
 import java.util.Enumeration;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -46,6 +45,8 @@ public class ObjectId {
 
     /** 线程安全的下一个随机数,每次生成自增+1 */
     private static final AtomicInteger NEXT_INC = new AtomicInteger(RandomUtils.randomInt());
+    /** 16进制字符 */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
     /** 机器信息 */
     private static final int MACHINE = getMachinePiece() | getProcessPiece();
 
@@ -89,15 +90,14 @@ public class ObjectId {
      * @since 4.1.15
      */
     public static byte[] nextBytes() {
-        final ByteBuffer bb = ByteBuffer.wrap(new byte[12]);
+        final byte[] bytes = new byte[12];
         // 4位
-        bb.putInt((int)System.currentTimeMillis()/1000);
+        putInt(bytes, 0, (int) (System.currentTimeMillis() / 1000));
         // 4位
-        bb.putInt(MACHINE);
+        putInt(bytes, 4, MACHINE);
         // 4位
-        bb.putInt(NEXT_INC.getAndIncrement());
-
-        return bb.array();
+        putInt(bytes, 8, NEXT_INC.getAndIncrement());
+        return bytes;
     }
 
     /**
@@ -116,24 +116,63 @@ public class ObjectId {
      * @return objectId
      */
     public static String next(boolean withHyphen) {
-        byte[] array = nextBytes();
-        final StringBuilder buf = new StringBuilder(withHyphen ? 26 : 24);
-        int t;
-        for (int i = 0; i < array.length; i++) {
-            if (withHyphen && i % 4 == 0 && i != 0) {
-                buf.append("-");
-            }
-            t = array[i] & 0xff;
-            if (t < 16) {
-                buf.append('0');
-            }
-            buf.append(Integer.toHexString(t));
+        final char[] chars = new char[withHyphen ? 26 : 24];
+        encode((int) (System.currentTimeMillis() / 1000), MACHINE, NEXT_INC.getAndIncrement(), withHyphen, chars);
+        return new String(chars);
+    }
 
+    /**
+     * 批量获取objectId，自增计数器一次分配
+     *
+     * @param count      数量
+     * @param withHyphen 是否包含分隔符
+     * @return objectId
+     */
+    public static String[] next(int count, boolean withHyphen) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative.");
         }
-        return buf.toString();
+        final String[] ids = new String[count];
+        final int time = (int) (System.currentTimeMillis() / 1000);
+        final int inc = NEXT_INC.getAndAdd(count);
+        final char[] chars = new char[withHyphen ? 26 : 24];
+        for (int i = 0; i < count; i++) {
+            encode(time, MACHINE, inc + i, withHyphen, chars);
+            ids[i] = new String(chars);
+        }
+        return ids;
     }
 
     // ----------------------------------------------------------------------------------------- Private method start
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * 将三个int按16进制写入字符数组，包含分隔符时每4个字节之间写入"-"
+     */
+    private static void encode(int time, int machine, int inc, boolean withHyphen, char[] chars) {
+        int position = encode(time, chars, 0);
+        if (withHyphen) {
+            chars[position++] = '-';
+        }
+        position = encode(machine, chars, position);
+        if (withHyphen) {
+            chars[position++] = '-';
+        }
+        encode(inc, chars, position);
+    }
+
+    private static int encode(int value, char[] chars, int position) {
+        for (int shift = 28; shift >= 0; shift -= 4) {
+            chars[position++] = HEX_DIGITS[(value >>> shift) & 0xF];
+        }
+        return position;
+    }
     /**
      * 获取机器码片段
      *
@@ -0,0 +1,71 @@
+package com.sondertara.common.lang.id;
+
+import com.sondertara.common.util.RandomUtils;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * 线程内的随机字节缓冲池，一次填充{@link #BUFFER_SIZE}个字节后逐个取用，避免每个ID调用一次随机数生成器，
+ * 每个线程持有独立的生成器，多线程生成ID时不会竞争同一个{@link SecureRandom}
+ *
+ * @author huangxiaohu
+ */
+final class RandomBytePool {
+    /**
+     * 每次填充的字节数
+     */
+    static final int BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<RandomBytePool> SECURE = ThreadLocal.withInitial(() -> new RandomBytePool(true));
+    private static final ThreadLocal<RandomBytePool> FAST = ThreadLocal.withInitial(() -> new RandomBytePool(false));
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final SecureRandom secureRandom;
+    private final SplittableRandom splittableRandom;
+    private int position = BUFFER_SIZE;
+
+    private RandomBytePool(boolean secure) {
+        this.secureRandom = secure ? RandomUtils.getSHA1PRNGRandom(null) : null;
+        this.splittableRandom = secure ? null : new SplittableRandom();
+    }
+
+    /**
+     * @return 当前线程使用{@link SecureRandom}（SHA1PRNG）填充的缓冲池
+     */
+    static RandomBytePool secure() {
+        return SECURE.get();
+    }
+
+    /**
+     * @return 当前线程使用{@link SplittableRandom}填充的缓冲池，非密码安全，适用于文件名等只要求唯一的场景
+     */
+    static RandomBytePool fast() {
+        return FAST.get();
+    }
+
+    /**
+     * @return 下一个随机字节，0~255
+     */
+    int nextByte() {
+        if (position == BUFFER_SIZE) {
+            refill();
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    private void refill() {
+        if (null != secureRandom) {
+            secureRandom.nextBytes(buffer);
+        } else {
+            for (int i = 0; i < BUFFER_SIZE; i += 8) {
+                long value = splittableRandom.nextLong();
+                for (int j = 0; j < 8; j++) {
+                    buffer[i + j] = (byte) value;
+                    value >>>= 8;
+                }
+            }
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.sondertara.common.time;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * 日期格式化器池，按格式、区域及时区缓存{@link DateTimeFormatter}和{@link FastDateFormat}，避免每次格式化时重新编译格式
+ *
+ * @author huangxiaohu
+ */
+public final class DateFormatterPool {
+    /**
+     * 缓存的格式化器数量上限
+     */
+    public static final int MAXIMUM_SIZE = 256;
+
+    private static final Cache<FormatterKey, DateTimeFormatter> FORMATTERS = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+    private static final Cache<FormatterKey, FastDateFormat> FAST_FORMATS = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    private DateFormatterPool() {
+    }
+
+    /**
+     * 获取默认区域{@link Locale.Category#FORMAT}的格式化器，等同于{@link DateTimeFormatter#ofPattern(String)}
+     *
+     * @param pattern 日期格式
+     * @return {@link DateTimeFormatter}
+     * @throws IllegalArgumentException 格式无效
+     */
+    public static DateTimeFormatter get(String pattern) {
+        return get(pattern, Locale.getDefault(Locale.Category.FORMAT), null);
+    }
+
+    /**
+     * 先从池中查找格式化器，找不到则创建并入池
+     *
+     * @param pattern 日期格式
+     * @param locale  区域
+     * @param zone    时区，{@code null}表示不指定时区
+     * @return {@link DateTimeFormatter}
+     * @throws IllegalArgumentException 格式无效
+     */
+    public static DateTimeFormatter get(String pattern, Locale locale, ZoneId zone) {
+        final FormatterKey key = new FormatterKey(pattern, locale, zone);
+        DateTimeFormatter formatter = FORMATTERS.getIfPresent(key);
+        if (null == formatter) {
+            // 不使用CacheLoader，保持ofPattern抛出的IllegalArgumentException
+            formatter = DateTimeFormatter.ofPattern(pattern, locale);
+            if (null != zone) {
+                formatter = formatter.withZone(zone);
+            }
+            FORMATTERS.put(key, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * 先从池中查找{@link FastDateFormat}，找不到则创建并入池
+     *
+     * @param pattern  日期格式
+     * @param timeZone 时区，{@code null}表示默认时区
+     * @param locale   区域，{@code null}表示默认区域
+     * @return {@link FastDateFormat}
+     * @throws IllegalArgumentException 格式无效
+     */
+    public static FastDateFormat getFastDateFormat(String pattern, TimeZone timeZone, Locale locale) {
+        if (null == timeZone) {
+            timeZone = TimeZone.getDefault();
+        }
+        if (null == locale) {
+            locale = Locale.getDefault();
+        }
+        final FormatterKey key = new FormatterKey(pattern, locale, timeZone);
+        FastDateFormat format = FAST_FORMATS.getIfPresent(key);
+        if (null == format) {
+            format = FastDateFormat.getInstance(pattern, timeZone, locale);
+            FAST_FORMATS.put(key, format);
+        }
+        return format;
+    }
+
+    /**
+     * 清空缓存池
+     */
+    public static void clear() {
+        FORMATTERS.invalidateAll();
+        FAST_FORMATS.invalidateAll();
+    }
+
+    /**
+     * 格式、区域及时区的包装
+     */
+    private static final class FormatterKey {
+        private final String pattern;
+        private final Locale locale;
+        private final Object zone;
+
+        FormatterKey(String pattern, Locale locale, Object zone) {
+            this.pattern = Objects.requireNonNull(pattern, "pattern");
+            this.locale = locale;
+            this.zone = zone;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = pattern.hashCode();
+            result = 31 * result + Objects.hashCode(locale);
+            result = 31 * result + Objects.hashCode(zone);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FormatterKey)) {
+                return false;
+            }
+            FormatterKey other = (FormatterKey) obj;
+            return pattern.equals(other.pattern) && Objects.equals(locale, other.locale) && Objects.equals(zone, other.zone);
+        }
+    }
+}
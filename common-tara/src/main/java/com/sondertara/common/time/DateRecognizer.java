@@ -0,0 +1,397 @@
+package com.sondertara.common.time;
+
+import com.sondertara.common.util.LocalDateTimeUtils;
+
+import java.util.TimeZone;
+
+/**
+ * 日期字符串的单次扫描识别器，{@link LocalDateTimeUtils#parseDate(CharSequence)}的快速路径<br>
+ * 按字符类别逐个识别以下格式，直接计算毫秒数，不产生中间字符串：
+ * <ol>
+ * <li>yyyyMMddHHmmss、yyyyMMddHHmmssSSS、yyyyMMdd、HHmmss</li>
+ * <li>yyyy-MM-dd[ HH:mm[:ss[.SSSSSS]]]，日期分隔符可以为"-"、"/"、"."，月、日、时、分、秒可以为1~2位</li>
+ * <li>yyyy-MM-dd'T'HH:mm:ss[.SSS][Z|+HH:mm]</li>
+ * <li>EEE MMM dd HH:mm:ss zzz yyyy，识别后交由{@link LocalDateTimeUtils#parseCST(CharSequence)}解析</li>
+ * </ol>
+ * 解析结果（毫秒数及时区）与对应的{@link DatePattern}格式化器一致；字段越界（宽容模式下会进位）、
+ * 临近夏令时切换或其它无法确定的情况返回{@code null}，由调用方使用正则及格式化器解析
+ *
+ * @author huangxiaohu
+ */
+public final class DateRecognizer {
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+    /**
+     * 1970-01-01距0000-03-01的天数
+     */
+    private static final long DAYS_0000_TO_1970 = 719468L;
+    /**
+     * 更早的年份存在儒略历及地方平时，交由格式化器处理
+     */
+    private static final int MIN_YEAR = 1600;
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int[] MONTH_DAYS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final String DAY_NAMES = "sun|mon|tue|wed|thu|fri|sat";
+    private static final String MONTH_NAMES = "jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec";
+
+    /**
+     * 以分钟为下标的正向偏移时区缓存，取出时复制，避免共享可变的{@link TimeZone}
+     */
+    private static final TimeZone[] OFFSET_ZONES = new TimeZone[(MAX_OFFSET_HOURS + 1) * 60];
+
+    private DateRecognizer() {
+    }
+
+    /**
+     * 识别并解析日期字符串
+     *
+     * @param str 日期字符串，两边的空白字符会被忽略
+     * @return 日期，无法识别时返回{@code null}
+     */
+    public static DateTime parse(CharSequence str) {
+        if (str == null) {
+            return null;
+        }
+        int begin = 0;
+        int end = str.length();
+        while (begin < end && str.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && str.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (begin == end) {
+            return null;
+        }
+        char first = str.charAt(begin);
+        if (isLetter(first)) {
+            return isJdkDateString(str, begin, end) ? LocalDateTimeUtils.parseCST(str.subSequence(begin, end)) : null;
+        }
+        int pos = begin;
+        while (pos < end && isDigit(str.charAt(pos))) {
+            pos++;
+        }
+        int digits = pos - begin;
+        if (pos == end) {
+            return parsePure(str, begin, digits);
+        }
+        if (digits == 4 && isDateSeparator(str.charAt(pos))) {
+            return parseNorm(str, begin, end);
+        }
+        return null;
+    }
+
+    /**
+     * yyyyMMddHHmmss、yyyyMMddHHmmssSSS、yyyyMMdd、HHmmss
+     */
+    private static DateTime parsePure(CharSequence str, int begin, int length) {
+        switch (length) {
+            case 14:
+                return of(DatePattern.PURE_DATETIME_FORMAT.getTimeZone(), number(str, begin, 4), number(str, begin + 4, 2), number(str, begin + 6, 2),
+                        number(str, begin + 8, 2), number(str, begin + 10, 2), number(str, begin + 12, 2), 0);
+            case 17:
+                return of(DatePattern.PURE_DATETIME_MS_FORMAT.getTimeZone(), number(str, begin, 4), number(str, begin + 4, 2), number(str, begin + 6, 2),
+                        number(str, begin + 8, 2), number(str, begin + 10, 2), number(str, begin + 12, 2), number(str, begin + 14, 3));
+            case 8:
+                return of(DatePattern.PURE_DATE_FORMAT.getTimeZone(), number(str, begin, 4), number(str, begin + 4, 2), number(str, begin + 6, 2), 0, 0, 0, 0);
+            case 6:
+                return of(DatePattern.PURE_TIME_FORMAT.getTimeZone(), 1970, 1, 1, number(str, begin, 2), number(str, begin + 2, 2), number(str, begin + 4, 2), 0);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * yyyy-MM-dd[ HH:mm[:ss[.SSSSSS]]] 及 yyyy-MM-dd'T'HH:mm:ss[.SSS][Z|+HH:mm]
+     */
+    private static DateTime parseNorm(CharSequence str, int begin, int end) {
+        final Cursor cursor = new Cursor(str, begin + 5, end);
+        final int year = number(str, begin, 4);
+        final int month = cursor.number(1, 2);
+        if (month < 0 || !cursor.skipDateSeparator()) {
+            return null;
+        }
+        final int day = cursor.number(1, 2);
+        if (day < 0) {
+            return null;
+        }
+        if (cursor.atEnd()) {
+            return of(DatePattern.NORM_DATE_FORMAT.getTimeZone(), year, month, day, 0, 0, 0, 0);
+        }
+        final char separator = cursor.next();
+        if (separator == 'T') {
+            return isStrictIsoDate(str, begin, end) ? parseIsoTime(cursor, year, month, day) : null;
+        }
+        if (separator != ' ') {
+            return null;
+        }
+        final int hour = cursor.number(1, 2);
+        if (hour < 0 || !cursor.skip(':')) {
+            return null;
+        }
+        final int minute = cursor.number(1, 2);
+        if (minute < 0) {
+            return null;
+        }
+        if (cursor.atEnd()) {
+            return of(DatePattern.NORM_DATETIME_MINUTE_FORMAT.getTimeZone(), year, month, day, hour, minute, 0, 0);
+        }
+        if (!cursor.skip(':')) {
+            return null;
+        }
+        final int second = cursor.number(1, 2);
+        if (second < 0) {
+            return null;
+        }
+        if (cursor.atEnd()) {
+            return of(DatePattern.NORM_DATETIME_FORMAT.getTimeZone(), year, month, day, hour, minute, second, 0);
+        }
+        // ISO8601中的逗号等同于点号，超过3位的毫秒被截断
+        if (!cursor.skip('.') && !cursor.skip(',')) {
+            return null;
+        }
+        final int millis = cursor.fraction(6);
+        if (millis < 0 || !cursor.atEnd()) {
+            return null;
+        }
+        return of(DatePattern.NORM_DATETIME_MS_FORMAT.getTimeZone(), year, month, day, hour, minute, second, millis);
+    }
+
+    /**
+     * 'T'之后的HH:mm:ss[.SSS][Z|+HH:mm]
+     */
+    private static DateTime parseIsoTime(Cursor cursor, int year, int month, int day) {
+        final int hour = cursor.number(2, 2);
+        if (hour < 0 || !cursor.skip(':')) {
+            return null;
+        }
+        final int minute = cursor.number(2, 2);
+        if (minute < 0 || !cursor.skip(':')) {
+            return null;
+        }
+        final int second = cursor.number(2, 2);
+        if (second < 0) {
+            return null;
+        }
+        int millis = 0;
+        final boolean hasMillis = cursor.skip('.');
+        if (hasMillis && (millis = cursor.fraction(3)) < 0) {
+            return null;
+        }
+        if (cursor.atEnd()) {
+            TimeZone zone = hasMillis ? DatePattern.UTC_SIMPLE_MS_FORMAT.getTimeZone() : DatePattern.UTC_SIMPLE_FORMAT.getTimeZone();
+            return of(zone, year, month, day, hour, minute, second, millis);
+        }
+        if (cursor.skip('Z')) {
+            if (!cursor.atEnd()) {
+                return null;
+            }
+            TimeZone zone = hasMillis ? DatePattern.UTC_MS_FORMAT.getTimeZone() : DatePattern.UTC_FORMAT.getTimeZone();
+            return of(zone, year, month, day, hour, minute, second, millis);
+        }
+        // 仅识别+HH:mm，+HHmm及负偏移交由格式化器处理
+        if (!cursor.skip('+')) {
+            return null;
+        }
+        final int offsetHour = cursor.number(2, 2);
+        if (offsetHour < 0 || offsetHour > MAX_OFFSET_HOURS || !cursor.skip(':')) {
+            return null;
+        }
+        final int offsetMinute = cursor.number(2, 2);
+        if (offsetMinute < 0 || offsetMinute > 59 || !cursor.atEnd()) {
+            return null;
+        }
+        if (!isValid(year, month, day, hour, minute, second)) {
+            return null;
+        }
+        final int offset = offsetHour * 60 + offsetMinute;
+        final long time = localMillis(year, month, day, hour, minute, second, millis) - offset * MILLIS_PER_MINUTE;
+        return new DateTime(time, offsetZone(offset));
+    }
+
+    /**
+     * 按时区计算本地时间对应的毫秒数
+     *
+     * @return 日期，字段越界或临近时区偏移变化时返回{@code null}
+     */
+    private static DateTime of(TimeZone zone, int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (millis < 0 || !isValid(year, month, day, hour, minute, second)) {
+            return null;
+        }
+        final long local = localMillis(year, month, day, hour, minute, second, millis);
+        final long time = local - zone.getOffset(local - zone.getRawOffset());
+        final int offset = zone.getOffset(time);
+        // 前后一天内偏移不变，本地时间既不在间隙中也不重叠
+        if (local - time != offset || zone.getOffset(time - MILLIS_PER_DAY) != offset || zone.getOffset(time + MILLIS_PER_DAY) != offset) {
+            return null;
+        }
+        return new DateTime(time, zone);
+    }
+
+    private static boolean isValid(int year, int month, int day, int hour, int minute, int second) {
+        if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return false;
+        }
+        int days = MONTH_DAYS[month - 1];
+        if (month == 2 && isLeapYear(year)) {
+            days++;
+        }
+        return day <= days;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static long localMillis(int year, int month, int day, int hour, int minute, int second, int millis) {
+        return epochDay(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND + millis;
+    }
+
+    /**
+     * 公历日期距1970-01-01的天数，年份从3月开始计算以便把闰日放在年末
+     */
+    private static long epochDay(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = y / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static TimeZone offsetZone(int minutes) {
+        TimeZone zone = OFFSET_ZONES[minutes];
+        if (zone == null) {
+            zone = TimeZone.getTimeZone(String.format("GMT+%02d:%02d", minutes / 60, minutes % 60));
+            OFFSET_ZONES[minutes] = zone;
+        }
+        return (TimeZone) zone.clone();
+    }
+
+    /**
+     * 日期部分是否为yyyy-MM-dd，与UTC格式化器的模式一致
+     */
+    private static boolean isStrictIsoDate(CharSequence str, int begin, int end) {
+        return end - begin > 10 && str.charAt(begin + 4) == '-' && str.charAt(begin + 7) == '-' && str.charAt(begin + 10) == 'T';
+    }
+
+    /**
+     * 是否以"EEE MMM "开头，如：Wed Aug 01 00:00:00 CST 2012
+     */
+    private static boolean isJdkDateString(CharSequence str, int begin, int end) {
+        return end - begin > 8 && str.charAt(begin + 3) == ' ' && str.charAt(begin + 7) == ' '
+                && isName(DAY_NAMES, str, begin) && isName(MONTH_NAMES, str, begin + 4);
+    }
+
+    private static boolean isName(String names, CharSequence str, int begin) {
+        final char c0 = Character.toLowerCase(str.charAt(begin));
+        final char c1 = Character.toLowerCase(str.charAt(begin + 1));
+        final char c2 = Character.toLowerCase(str.charAt(begin + 2));
+        for (int i = 0; i < names.length(); i += 4) {
+            if (names.charAt(i) == c0 && names.charAt(i + 1) == c1 && names.charAt(i + 2) == c2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 定长数字，调用方已确认均为数字
+     */
+    private static int number(CharSequence str, int begin, int length) {
+        int value = 0;
+        for (int i = begin; i < begin + length; i++) {
+            value = value * 10 + (str.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDateSeparator(char c) {
+        return c == '-' || c == '/' || c == '.';
+    }
+
+    /**
+     * 扫描位置
+     */
+    private static final class Cursor {
+        private final CharSequence str;
+        private final int end;
+        private int pos;
+
+        Cursor(CharSequence str, int pos, int end) {
+            this.str = str;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        boolean atEnd() {
+            return pos == end;
+        }
+
+        char next() {
+            return str.charAt(pos++);
+        }
+
+        boolean skip(char c) {
+            if (pos < end && str.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean skipDateSeparator() {
+            if (pos < end && isDateSeparator(str.charAt(pos))) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return min~max位数字的值，位数不符时返回-1
+         */
+        int number(int min, int max) {
+            int value = 0;
+            int count = 0;
+            while (pos < end && count < max && isDigit(str.charAt(pos))) {
+                value = value * 10 + (str.charAt(pos++) - '0');
+                count++;
+            }
+            if (count < min || (pos < end && isDigit(str.charAt(pos)))) {
+                return -1;
+            }
+            return value;
+        }
+
+        /**
+         * 1~max位小数，与格式化器一致取前3位数字的值（".5"为5毫秒）
+         *
+         * @return 毫秒数，位数不符时返回-1
+         */
+        int fraction(int max) {
+            final int start = pos;
+            int value = 0;
+            while (pos < end && pos - start < max && isDigit(str.charAt(pos))) {
+                if (pos - start < 3) {
+                    value = value * 10 + (str.charAt(pos) - '0');
+                }
+                pos++;
+            }
+            if (pos == start || (pos < end && isDigit(str.charAt(pos)))) {
+                return -1;
+            }
+            return value;
+        }
+    }
+}
@@ -98,7 +98,7 @@ public class TemporalAccessorUtils extends TemporalUtils {
             return time.toString();
         }
 
-        final DateTimeFormatter formatter = StringUtils.isBlank(format) ? null : DateTimeFormatter.ofPattern(format);
+        final DateTimeFormatter formatter = StringUtils.isBlank(format) ? null : DateFormatterPool.get(format);
 
         return format(time, formatter);
     }
@@ -1,12 +1,10 @@
 package com.sondertara.common.util;
 
 import com.sondertara.common.bean.copier.BeanCopy;
-import com.sondertara.common.bean.copier.BeanToMapCopier;
-import com.sondertara.common.bean.copier.MapToBeanCopier;
+import com.sondertara.common.bean.copier.BeanMapMapper;
 import com.sondertara.common.lang.Assert;
 import com.sondertara.common.lang.reflect.ReflectUtils;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,12 +42,23 @@ public class BeanUtils {
     }
 
     public static <T> List<T> beansToBeans(Collection<?> sourceList, Class<T> targetClass) {
+        return beansToBeans(sourceList, targetClass, false);
+    }
+
+    /**
+     * Copy the beans to new instances of the target class, the sources may mix several classes
+     *
+     * @param sourceList  the source beans
+     * @param targetClass the class of target beans
+     * @param parallel    copy the large lists in the common fork/join pool
+     * @param <T>         the type of target beans
+     * @return the target beans
+     */
+    public static <T> List<T> beansToBeans(Collection<?> sourceList, Class<T> targetClass, boolean parallel) {
         if (sourceList == null || sourceList.isEmpty()) {
             return Collections.emptyList();
         }
-        List<T> result = new ArrayList<>();
-        BeanCopy.copy(sourceList, result, targetClass);
-        return result;
+        return BeanCopy.copyList(sourceList, targetClass, parallel);
     }
 
     /**
@@ -60,12 +69,10 @@ public class BeanUtils {
      * @return map
      */
     public static <T> Map<String, Object> beanToMap(T bean) {
-        Map<String, Object> map = new HashMap<>(16);
         if (bean == null) {
-            return map;
+            return new HashMap<>(16);
         }
-        new BeanToMapCopier().copy(bean, map);
-        return map;
+        return BeanMapMapper.of(bean.getClass()).toMap(bean);
     }
 
     /**
@@ -76,7 +83,7 @@ public class BeanUtils {
      * @param <T> the type of the bean
      */
     public static <T> void mapToBean(Map<?, ?> map, T t) {
-        new MapToBeanCopier().copy(map, t);
+        BeanMapMapper.of(t.getClass()).fromMap(map, t);
     }
 
     /**
@@ -101,17 +108,22 @@ public class BeanUtils {
      * @return the list map
      */
     public static <T> List<Map<String, Object>> beansToMaps(List<T> list) {
-        List<Map<String, Object>> maps = new ArrayList<>();
+        return beansToMaps(list, false);
+    }
+
+    /**
+     * Convert list of bean to List map
+     *
+     * @param list     the list of bean
+     * @param parallel convert the large lists in the common fork/join pool
+     * @param <T>      the type of the bean
+     * @return the list map
+     */
+    public static <T> List<Map<String, Object>> beansToMaps(List<T> list, boolean parallel) {
         if (list == null || list.size() == 0) {
             return null;
         }
-        for (T bean : list) {
-            if (bean != null) {
-                Map<String, Object> beanToMaps = beanToMap(bean);
-                maps.add(beanToMaps);
-            }
-        }
-        return maps;
+        return BeanCopy.beansToMaps(list, parallel);
     }
 
     /**
@@ -123,16 +135,23 @@ public class BeanUtils {
      * @return the list of bean
      */
     public static <T> List<T> mapsToBeans(List<Map<?, Object>> list, Class<T> t) {
-        List<T> beans = new ArrayList<>();
+        return mapsToBeans(list, t, false);
+    }
+
+    /**
+     * Convert list of map to list of bean
+     *
+     * @param list     the map list
+     * @param t        the class of the bean
+     * @param parallel convert the large lists in the common fork/join pool
+     * @param <T>      the type of the bean
+     * @return the list of bean
+     */
+    public static <T> List<T> mapsToBeans(List<Map<?, Object>> list, Class<T> t, boolean parallel) {
         if (list == null || list.size() == 0) {
             return null;
         }
-        for (Map<?, Object> map : list) {
-            T t1 = ReflectUtils.newInstance(t);
-            mapToBean(map, t1);
-            beans.add(t1);
-        }
-        return beans;
+        return BeanCopy.mapsToBeans(list, t, parallel);
     }
 
 }
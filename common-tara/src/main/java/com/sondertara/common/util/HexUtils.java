@@ -3,9 +3,17 @@ package com.sondertara.common.util;
 import com.sondertara.common.exception.TaraException;
 
 import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * 十六进制（简写为hex或下标16）在数学中是一种逢16进1的进位制，一般用数字0到9和字母A到F表示（其中:A~F即10~15）。<br>
@@ -24,6 +32,42 @@ public class HexUtils {
     private final static char[] LOWER_CHARS = "0123456789abcdef".toCharArray();
     private final static char[] UPPER_CHARS = "0123456789ABCDEF".toCharArray();
 
+    /**
+     * 每个字节对应的两个十六进制字符，下标为{@code (b & 0xFF) << 1}
+     */
+    private final static char[] LOWER_PAIRS = pairs(LOWER_CHARS);
+    private final static char[] UPPER_PAIRS = pairs(UPPER_CHARS);
+
+    /**
+     * ASCII字符对应的数值，非十六进制字符为-1
+     */
+    private final static byte[] DIGITS = new byte[256];
+
+    /**
+     * 流式编解码每次处理的字节数
+     */
+    private final static int BUFFER_SIZE = 4096;
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            DIGITS['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGITS['a' + i] = (byte) (10 + i);
+            DIGITS['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private static char[] pairs(char[] alphabets) {
+        final char[] pairs = new char[512];
+        for (int i = 0; i < 256; i++) {
+            pairs[i << 1] = alphabets[i >>> 4];
+            pairs[(i << 1) + 1] = alphabets[i & 0x0F];
+        }
+        return pairs;
+    }
+
     /**
      * 判断给定字符串是否为16进制数<br>
      * 如果是，需要使用对应数字类型对象的{@code decode}方法解码<br>
@@ -79,36 +123,101 @@ public class HexUtils {
      * @return 十六进制char[]
      */
     public static char[] encodeHex(byte[] data, boolean toLowerCase) {
-        char[] alphabets = toLowerCase ? LOWER_CHARS : UPPER_CHARS;
-
-        final int len = data.length;
-        // len*2
-        final char[] out = new char[len << 1];
-        // two characters from the hex value.
-        for (int i = 0, j = 0; i < len; i++) {
-            // 高位
-            out[j++] = alphabets[(0xF0 & data[i]) >>> 4];
-            // 低位
-            out[j++] = alphabets[0x0F & data[i]];
-        }
+        final char[] out = new char[data.length << 1];
+        encodeHex(data, 0, data.length, out, 0, toLowerCase);
         return out;
     }
 
-    private static char[] encode(byte[] data, boolean toLowerCase) {
-        char[] alphabets = toLowerCase ? LOWER_CHARS : UPPER_CHARS;
+    /**
+     * 将字节数组的一部分转换为十六进制字符，写入给定的字符数组
+     *
+     * @param data        byte[]
+     * @param offset      开始位置
+     * @param length      字节数
+     * @param out         目标字符数组，至少有{@code length * 2}个位置
+     * @param outOffset   目标开始位置
+     * @param toLowerCase {@code true} 传换成小写格式 ， {@code false} 传换成大写格式
+     * @return 目标数组中写入后的位置
+     */
+    public static int encodeHex(byte[] data, int offset, int length, char[] out, int outOffset, boolean toLowerCase) {
+        final char[] pairs = toLowerCase ? LOWER_PAIRS : UPPER_PAIRS;
+        final int end = offset + length;
+        int j = outOffset;
+        for (int i = offset; i < end; i++) {
+            final int index = (data[i] & 0xFF) << 1;
+            out[j++] = pairs[index];
+            out[j++] = pairs[index + 1];
+        }
+        return j;
+    }
 
-        final int len = data.length;
-        // len*2
-        final char[] out = new char[len << 1];
-        // two characters from the hex value.
-        for (int i = 0, j = 0; i < len; i++) {
-            // 高位
-            out[j++] = alphabets[(0xF0 & data[i]) >>> 4];
-            // 低位
-            out[j++] = alphabets[0x0F & data[i]];
+    /**
+     * 将{@code src}剩余的字节转换为十六进制字符写入{@code dst}，直到{@code src}读完或{@code dst}写满，
+     * 两者的位置随之移动
+     *
+     * @param src         源
+     * @param dst         目标
+     * @param toLowerCase {@code true} 传换成小写格式 ， {@code false} 传换成大写格式
+     * @return 转换的字节数
+     */
+    public static int encodeHex(ByteBuffer src, CharBuffer dst, boolean toLowerCase) {
+        final char[] pairs = toLowerCase ? LOWER_PAIRS : UPPER_PAIRS;
+        final int count = Math.min(src.remaining(), dst.remaining() >> 1);
+        if (src.hasArray() && dst.hasArray()) {
+            final int position = src.position();
+            final int outPosition = dst.position();
+            encodeHex(src.array(), src.arrayOffset() + position, count, dst.array(), dst.arrayOffset() + outPosition, toLowerCase);
+            src.position(position + count);
+            dst.position(outPosition + (count << 1));
+            return count;
         }
-        return out;
+        for (int i = 0; i < count; i++) {
+            final int index = (src.get() & 0xFF) << 1;
+            dst.put(pairs[index]).put(pairs[index + 1]);
+        }
+        return count;
+    }
+
+    /**
+     * 将字节数组的一部分转换为十六进制字符，追加到{@link StringBuilder}
+     *
+     * @param builder     目标
+     * @param data        byte[]
+     * @param offset      开始位置
+     * @param length      字节数
+     * @param toLowerCase {@code true} 传换成小写格式 ， {@code false} 传换成大写格式
+     * @return 目标
+     */
+    public static StringBuilder appendHex(StringBuilder builder, byte[] data, int offset, int length, boolean toLowerCase) {
+        final char[] pairs = toLowerCase ? LOWER_PAIRS : UPPER_PAIRS;
+        builder.ensureCapacity(builder.length() + (length << 1));
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            final int index = (data[i] & 0xFF) << 1;
+            builder.append(pairs[index]).append(pairs[index + 1]);
+        }
+        return builder;
+    }
 
+    /**
+     * 流式转换为十六进制字符，每次读取{@value #BUFFER_SIZE}个字节，适用于大数据量，流不会被关闭
+     *
+     * @param in          输入流
+     * @param out         输出
+     * @param toLowerCase {@code true} 传换成小写格式 ， {@code false} 传换成大写格式
+     * @return 转换的字节数
+     * @throws IOException IO异常
+     */
+    public static long encodeHex(InputStream in, Writer out, boolean toLowerCase) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final char[] chars = new char[BUFFER_SIZE << 1];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(chars, 0, encodeHex(buffer, 0, read, chars, 0, toLowerCase));
+            total += read;
+        }
+        return total;
     }
 
     public static byte[] decode(CharSequence encoded) {
@@ -116,27 +225,99 @@ public class HexUtils {
             return null;
         }
 
-        encoded = StringUtils.cleanBlank(encoded);
-        int len = encoded.length();
+        if (hasBlank(encoded)) {
+            encoded = StringUtils.cleanBlank(encoded);
+        }
+        final int len = encoded.length();
+        // 如果提供的数据是奇数长度，则前面补0凑偶数
+        final int odd = len & 0x01;
+        final byte[] out = new byte[(len + odd) >> 1];
+        int j = 0;
+        if (odd != 0) {
+            out[0] = (byte) toDigit(encoded.charAt(0), 1);
+            j = 1;
+        }
+        decodeHex(encoded, j, len - j, out, odd, odd);
+        return out;
+    }
 
-        if ((len & 0x01) != 0) {
-            // 如果提供的数据是奇数长度，则前面补0凑偶数
-            encoded = "0" + encoded;
-            len = encoded.length();
+    /**
+     * 将十六进制字符解码后写入给定的字节数组，不处理空白字符
+     *
+     * @param hexData   十六进制字符
+     * @param offset    开始位置
+     * @param length    字符数，必须为偶数
+     * @param out       目标字节数组，至少有{@code length / 2}个位置
+     * @param outOffset 目标开始位置
+     * @return 目标数组中写入后的位置
+     */
+    public static int decodeHex(CharSequence hexData, int offset, int length, byte[] out, int outOffset) {
+        if ((length & 0x01) != 0) {
+            throw new TaraException("Odd number of hexadecimal characters: {}", length);
         }
+        return decodeHex(hexData, offset, length, out, outOffset, 0);
+    }
 
-        final byte[] out = new byte[len >> 1];
+    /**
+     * @param indexShift 错误信息中字符位置的偏移，奇数长度补0时为1
+     */
+    private static int decodeHex(CharSequence hexData, int offset, int length, byte[] out, int outOffset, int indexShift) {
+        final int end = offset + length;
+        int i = outOffset;
+        for (int j = offset; j < end; j += 2) {
+            out[i++] = (byte) ((toDigit(hexData.charAt(j), j + indexShift) << 4) | toDigit(hexData.charAt(j + 1), j + 1 + indexShift));
+        }
+        return i;
+    }
 
-        // two characters form the hex value.
-        for (int i = 0, j = 0; j < len; i++) {
-            int f = toDigit(encoded.charAt(j), j) << 4;
-            j++;
-            f = f | toDigit(encoded.charAt(j), j);
-            j++;
-            out[i] = (byte) (f & 0xFF);
+    /**
+     * 将{@code src}剩余的十六进制字符解码写入{@code dst}，直到{@code src}读完或{@code dst}写满，两者的位置随之移动
+     *
+     * @param src 源，剩余字符数为奇数时最后一个字符不读取
+     * @param dst 目标
+     * @return 写入的字节数
+     */
+    public static int decodeHex(CharBuffer src, ByteBuffer dst) {
+        final int count = Math.min(src.remaining() >> 1, dst.remaining());
+        final int position = src.position();
+        for (int i = 0; i < count; i++) {
+            final int index = position + (i << 1);
+            dst.put((byte) ((toDigit(src.get(), index) << 4) | toDigit(src.get(), index + 1)));
         }
+        return count;
+    }
 
-        return out;
+    /**
+     * 流式解码十六进制字符，每次读取{@value #BUFFER_SIZE}个字节对应的字符，适用于大数据量，流不会被关闭
+     *
+     * @param in  十六进制字符输入，不处理空白字符
+     * @param out 输出流
+     * @return 写入的字节数
+     * @throws IOException IO异常
+     */
+    public static long decodeHex(Reader in, OutputStream out) throws IOException {
+        final char[] chars = new char[BUFFER_SIZE << 1];
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final CharBuffer wrapped = CharBuffer.wrap(chars);
+        long total = 0;
+        int position = 0;
+        int read;
+        while ((read = in.read(chars, position, chars.length - position)) != -1) {
+            final int available = position + read;
+            final int even = available & ~0x01;
+            final int count = decodeHex(wrapped, 0, even, buffer, 0, (int) (total << 1));
+            out.write(buffer, 0, count);
+            total += count;
+            // 奇数个字符时保留最后一个
+            position = available - even;
+            if (position != 0) {
+                chars[0] = chars[available - 1];
+            }
+        }
+        if (position != 0) {
+            throw new TaraException("Odd number of hexadecimal characters: {}", (total << 1) + position);
+        }
+        return total;
     }
 
     /**
@@ -147,13 +328,23 @@ public class HexUtils {
      * @return 一个整数
      */
     public static int toDigit(char ch, int index) {
-        int digit = Character.digit(ch, 16);
+        int digit = ch < 256 ? DIGITS[ch] : Character.digit(ch, 16);
         if (digit < 0) {
             throw new TaraException("Illegal hexadecimal character {} at index {}", ch, index);
         }
         return digit;
     }
 
+    private static boolean hasBlank(CharSequence str) {
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            if (c < 128 ? c <= ' ' || (c >= 0x1C && c <= 0x1F) : CharUtils.isBlankChar(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 将字节数组转换为十六进制字符串
      *
@@ -252,7 +443,7 @@ public class HexUtils {
      * @throws RuntimeException 如果源十六进制字符数组是一个奇怪的长度，将抛出运行时异常
      */
     public static byte[] decodeHex(char[] hexData) {
-        return decodeHex(String.valueOf(hexData));
+        return decode(CharBuffer.wrap(hexData));
     }
 
     /**
@@ -6,6 +6,8 @@ import com.sondertara.common.regex.PatternPool;
 import com.sondertara.common.time.CalendarUtils;
 import com.sondertara.common.time.DateBetween;
 import com.sondertara.common.time.DateField;
+import com.sondertara.common.time.DateFormatterPool;
+import com.sondertara.common.time.DateRecognizer;
 import com.sondertara.common.time.DatePattern;
 import com.sondertara.common.time.DateTime;
 import com.sondertara.common.time.Quarter;
@@ -22,8 +24,10 @@ import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.Instant;
@@ -572,10 +576,29 @@ public class LocalDateTimeUtils extends CalendarUtils {
      * <li>yyyy-MM-dd'T'HH:mm:ss.SSSZ</li>
      * </ol>
      *
+     * 常用格式先由{@link DateRecognizer}单次扫描解析，无法识别的再使用{@link #parseDateByFormat(CharSequence)}
+     *
      * @param dateCharSequence 日期字符串
      * @return 日期
      */
     public static DateTime parseDate(CharSequence dateCharSequence) {
+        if (com.sondertara.common.util.StringUtils.isBlank(dateCharSequence)) {
+            return null;
+        }
+        final DateTime dateTime = DateRecognizer.parse(dateCharSequence);
+        if (null != dateTime) {
+            return dateTime;
+        }
+        return parseDateByFormat(dateCharSequence);
+    }
+
+    /**
+     * 使用正则识别格式并以对应的格式化器解析日期字符串，支持的格式同{@link #parseDate(CharSequence)}
+     *
+     * @param dateCharSequence 日期字符串
+     * @return 日期
+     */
+    public static DateTime parseDateByFormat(CharSequence dateCharSequence) {
         if (com.sondertara.common.util.StringUtils.isBlank(dateCharSequence)) {
             return null;
         }
@@ -1888,8 +1911,7 @@ public class LocalDateTimeUtils extends CalendarUtils {
     public static String now(String formatPattern) {
 
         LocalDateTime dateTime = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(formatPattern);
-        return dateTime.format(formatter);
+        return dateTime.format(DateFormatterPool.get(formatPattern));
     }
 
     public static LocalDateTime parseLocalDateTime(String dateTimeStr, String formatPattern) {
@@ -1937,23 +1959,92 @@ public class LocalDateTimeUtils extends CalendarUtils {
     }
 
     /**
-     * @param date jdk8之前的date
+     * 按默认时区格式化日期，格式化器由{@link DateFormatterPool}缓存，
+     * {@link DatePattern#NORM_DATETIME_PATTERN}和{@link DatePattern#NORM_DATE_PATTERN}直接写出数字
+     *
+     * @param date    jdk8之前的date
+     * @param pattern 日期格式
+     * @return 格式化后的字符串
      */
     public static String format(Date date, String pattern) {
         if (null == date) {
             return null;
         }
-        Instant instant = null;
+        return formatTo(date, pattern, new StringBuilder(pattern.length() + 8)).toString();
+    }
+
+    /**
+     * 按默认时区格式化日期并写入{@link Appendable}，避免产生中间字符串
+     *
+     * @param date       日期，{@code null}时不写入任何内容
+     * @param pattern    日期格式
+     * @param appendable 写入目标，如{@link StringBuilder}、{@link java.io.Writer}
+     * @param <A>        写入目标类型
+     * @return 写入目标
+     * @throws DateTimeException 写入失败
+     */
+    public static <A extends Appendable> A formatTo(Date date, String pattern, A appendable) {
+        if (null == date) {
+            return appendable;
+        }
+        final long epochMilli = date.getTime();
+        final ZoneId zoneId = ZoneId.systemDefault();
         try {
-            instant = date.toInstant();
-        } catch (Exception e) {
-            //UnsupportedOperationException
-            instant = Instant.ofEpochMilli(date.getTime());
+            if ((DatePattern.NORM_DATETIME_PATTERN.equals(pattern) || DatePattern.NORM_DATE_PATTERN.equals(pattern))
+                    && appendNorm(epochMilli, zoneId, pattern.length() > DatePattern.NORM_DATE_PATTERN.length(), appendable)) {
+                return appendable;
+            }
+        } catch (IOException e) {
+            throw new DateTimeException(e.getMessage(), e);
+        }
+        LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zoneId);
+        DateFormatterPool.get(pattern).formatTo(localDateTime, appendable);
+        return appendable;
+    }
+
+    /**
+     * 写出yyyy-MM-dd[ HH:mm:ss]
+     *
+     * @return 年份不在1~9999时返回false，由{@link DateTimeFormatter}处理
+     */
+    private static boolean appendNorm(long epochMilli, ZoneId zoneId, boolean withTime, Appendable appendable) throws IOException {
+        final long epochSecond = Math.floorDiv(epochMilli, 1000L);
+        final int offset = zoneId.getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        final long localSecond = epochSecond + offset;
+        // 公历日期，年份从3月开始计算以便把闰日放在年末
+        final long zeroDay = Math.floorDiv(localSecond, 86400L) + 719468L;
+        final long era = Math.floorDiv(zeroDay, 146097L);
+        final int dayOfEra = (int) (zeroDay - era * 146097L);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int monthIndex = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        final int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        final long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+        appendDigits(appendable, (int) year, 4);
+        appendable.append('-');
+        appendDigits(appendable, month, 2);
+        appendable.append('-');
+        appendDigits(appendable, day, 2);
+        if (withTime) {
+            final int secondOfDay = (int) Math.floorMod(localSecond, 86400L);
+            appendable.append(' ');
+            appendDigits(appendable, secondOfDay / 3600, 2);
+            appendable.append(':');
+            appendDigits(appendable, secondOfDay / 60 % 60, 2);
+            appendable.append(':');
+            appendDigits(appendable, secondOfDay % 60, 2);
+        }
+        return true;
+    }
+
+    private static void appendDigits(Appendable appendable, int value, int width) throws IOException {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            appendable.append((char) ('0' + value / divisor % 10));
         }
-        ZoneId zoneId = ZoneId.systemDefault();
-        LocalDateTime localDateTime = instant.atZone(zoneId).toLocalDateTime();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-        return localDateTime.format(formatter);
     }
 
     public static String format(Date date) {
@@ -1969,8 +2060,7 @@ public class LocalDateTimeUtils extends CalendarUtils {
             return null;
         }
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-            return localDateTime.format(formatter);
+            return localDateTime.format(DateFormatterPool.get(pattern));
         } catch (Exception e) {
             log.error("parser date str error,pattern=[{}]", pattern, e);
             return null;
@@ -1981,8 +2071,7 @@ public class LocalDateTimeUtils extends CalendarUtils {
         if (null == localDate) {
             return null;
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-        return localDate.format(formatter);
+        return localDate.format(DateFormatterPool.get(pattern));
     }
 
     public static String formatLocalDateTime(LocalDateTime localDateTime) {
@@ -2191,7 +2280,7 @@ public class LocalDateTimeUtils extends CalendarUtils {
     public static String getDateTimeSecondStr(long timestamp) {
         LocalDateTime localDateTime = getLocalDateTime(timestamp);
         if (null != localDateTime) {
-            return localDateTime.format(DateTimeFormatter.ofPattern(DATE_TIME_FORMATTER));
+            return localDateTime.format(DateFormatterPool.get(DATE_TIME_FORMATTER));
         }
         throw new RuntimeException("timestamp is invalid:" + timestamp);
     }
@@ -2535,7 +2624,7 @@ public class LocalDateTimeUtils extends CalendarUtils {
         if (null == date) {
             return null;
         }
-        return format(date, DateTimeFormatter.ofPattern(format));
+        return format(date, DateFormatterPool.get(format));
     }
 
     /**
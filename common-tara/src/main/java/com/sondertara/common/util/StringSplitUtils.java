@@ -2,16 +2,228 @@ package com.sondertara.common.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * 字符串切分器
+ * <p>
+ * 切分统一在原字符串的位置上完成，去除空白和忽略空串只移动片段的起止位置，不产生中间字符串。
+ * 只需遍历片段或取某一段时，使用{@link #forEachToken(CharSequence, char, int, boolean, boolean, boolean, TokenHandler)}、
+ * {@link #nthToken(CharSequence, char, int, boolean, boolean)}或{@link #splitToOffsets(CharSequence, char, boolean, boolean, int[])}，
+ * 返回集合的切分方法也基于这些方法实现
  *
  * @author huangxiaohu
  */
 public class StringSplitUtils {
 
+    /**
+     * 片段处理器，接收片段在原字符串中的起止位置
+     */
+    @FunctionalInterface
+    public interface TokenHandler {
+        /**
+         * 处理一个片段
+         *
+         * @param str   被切分的字符串
+         * @param start 片段起始位置（包含）
+         * @param end   片段结束位置（不包含）
+         * @return 是否继续切分
+         */
+        boolean handle(CharSequence str, int start, int end);
+    }
+
+    // ----------------------------------------------------------------------------------------------
+    // Tokenize
+
+    /**
+     * 遍历切分后的片段，不去除空白，不忽略空串
+     *
+     * @param str       被切分的字符串
+     * @param separator 分隔符字符
+     * @param consumer  片段处理，参数为原字符串上的视图，仅在回调内有效，需要保留时调用{@code toString()}
+     * @return 片段数
+     */
+    public static int forEachToken(CharSequence str, char separator, Consumer<CharSequence> consumer) {
+        return forEachToken(str, separator, false, false, consumer);
+    }
+
+    /**
+     * 遍历切分后的片段
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @param consumer    片段处理，参数为原字符串上的视图，仅在回调内有效，需要保留时调用{@code toString()}
+     * @return 片段数
+     */
+    public static int forEachToken(CharSequence str, char separator, boolean isTrim, boolean ignoreEmpty,
+            Consumer<CharSequence> consumer) {
+        final Token token = new Token();
+        return forEachToken(str, separator, -1, isTrim, ignoreEmpty, false, (s, start, end) -> {
+            consumer.accept(token.reset(s, start, end));
+            return true;
+        });
+    }
+
+    /**
+     * 遍历切分后的片段
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符
+     * @param limit       限制分片数，-1不限制
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @param ignoreCase  是否忽略大小写
+     * @param handler     片段处理器，返回{@code false}时停止切分
+     * @return 处理的片段数
+     */
+    public static int forEachToken(CharSequence str, char separator, int limit, boolean isTrim, boolean ignoreEmpty,
+            boolean ignoreCase, TokenHandler handler) {
+        return tokenize(str, separator, null, limit, isTrim, ignoreEmpty, ignoreCase, handler);
+    }
+
+    /**
+     * 遍历切分后的片段，分隔符为空时按照空白符切分，此时片段两边不包含空白符，空串不做为片段
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符串
+     * @param limit       限制分片数，-1不限制
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @param ignoreCase  是否忽略大小写
+     * @param handler     片段处理器，返回{@code false}时停止切分
+     * @return 处理的片段数
+     */
+    public static int forEachToken(CharSequence str, String separator, int limit, boolean isTrim, boolean ignoreEmpty,
+            boolean ignoreCase, TokenHandler handler) {
+        if (StringUtils.isEmpty(separator) && limit != 1) {// 分隔符为空时按照空白符切分
+            return forEachToken(str, limit, handler);
+        }
+        if (null != separator && separator.length() == 1) {
+            return tokenize(str, separator.charAt(0), null, limit, isTrim, ignoreEmpty, ignoreCase, handler);
+        }
+        return tokenize(str, '\0', null == separator ? StringUtils.EMPTY : separator, limit, isTrim, ignoreEmpty, ignoreCase, handler);
+    }
+
+    /**
+     * 使用空白符切分并遍历片段，片段两边不包含空白符，空串不做为片段
+     *
+     * @param str     被切分的字符串
+     * @param limit   限制分片数，-1不限制
+     * @param handler 片段处理器，返回{@code false}时停止切分
+     * @return 处理的片段数
+     */
+    public static int forEachToken(CharSequence str, int limit, TokenHandler handler) {
+        return tokenize(str, '\0', StringUtils.EMPTY, limit, true, true, false, handler);
+    }
+
+    /**
+     * 通过正则切分并遍历片段，分隔符为{@code null}时按照空白符切分
+     *
+     * @param str              被切分的字符串
+     * @param separatorPattern 分隔符正则{@link Pattern}
+     * @param limit            限制分片数，-1不限制
+     * @param isTrim           是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty      是否忽略空串
+     * @param handler          片段处理器，返回{@code false}时停止切分
+     * @return 处理的片段数
+     */
+    public static int forEachToken(CharSequence str, Pattern separatorPattern, int limit, boolean isTrim,
+            boolean ignoreEmpty, TokenHandler handler) {
+        if (null == separatorPattern && limit != 1) {// 分隔符为空时按照空白符切分
+            return forEachToken(str, limit, handler);
+        }
+        if (StringUtils.isEmpty(str)) {
+            return 0;
+        }
+        int count = 0;
+        int start = 0;
+        if (limit != 1) {
+            final Matcher matcher = separatorPattern.matcher(str);
+            while (matcher.find()) {
+                int state = emit(str, start, matcher.start(), isTrim, ignoreEmpty, handler);
+                start = matcher.end();
+                if (state != SKIPPED) {
+                    count++;
+                    if (state == STOPPED) {
+                        return count;
+                    }
+                }
+                // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
+                if (limit > 0 && count > limit - 2) {
+                    break;
+                }
+            }
+        }
+        return emit(str, start, str.length(), isTrim, ignoreEmpty, handler) == SKIPPED ? count : count + 1;
+    }
+
+    /**
+     * 获取切分后的第n个片段，不生成其它片段
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符
+     * @param n           片段序号，从0开始，忽略的空串不计入
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @return 片段，不存在时返回{@code null}
+     */
+    public static String nthToken(CharSequence str, char separator, int n, boolean isTrim, boolean ignoreEmpty) {
+        if (n < 0) {
+            return null;
+        }
+        final NthToken token = new NthToken(n);
+        forEachToken(str, separator, -1, isTrim, ignoreEmpty, false, token);
+        return token.get(str);
+    }
+
+    /**
+     * 获取切分后的第n个片段，不生成其它片段
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符串，为空时按照空白符切分
+     * @param n           片段序号，从0开始，忽略的空串不计入
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @return 片段，不存在时返回{@code null}
+     */
+    public static String nthToken(CharSequence str, String separator, int n, boolean isTrim, boolean ignoreEmpty) {
+        if (n < 0) {
+            return null;
+        }
+        final NthToken token = new NthToken(n);
+        forEachToken(str, separator, -1, isTrim, ignoreEmpty, false, token);
+        return token.get(str);
+    }
+
+    /**
+     * 切分字符串，将片段的起止位置依次写入缓冲区，第i个片段为{@code [offsets[2i], offsets[2i+1])}。
+     * 缓冲区可以复用，写满后停止切分
+     *
+     * @param str         被切分的字符串
+     * @param separator   分隔符字符
+     * @param isTrim      是否去除切分字符串后每个元素两边的空格
+     * @param ignoreEmpty 是否忽略空串
+     * @param offsets     起止位置缓冲区，最多写入{@code offsets.length / 2}个片段
+     * @return 写入的片段数
+     */
+    public static int splitToOffsets(CharSequence str, char separator, boolean isTrim, boolean ignoreEmpty, int[] offsets) {
+        final int capacity = offsets.length >> 1;
+        if (capacity == 0) {
+            return 0;
+        }
+        final int[] count = {0};
+        return forEachToken(str, separator, -1, isTrim, ignoreEmpty, false, (s, start, end) -> {
+            int i = count[0]++ << 1;
+            offsets[i] = start;
+            offsets[i + 1] = end;
+            return count[0] < capacity;
+        });
+    }
+
     // ----------------------------------------------------------------------------------------------
     // Split by char
 
@@ -150,25 +362,9 @@ public class StringSplitUtils {
         if (StringUtils.isEmpty(str)) {
             return new ArrayList<String>(0);
         }
-        if (limit == 1) {
-            return addToList(new ArrayList<String>(1), str, isTrim, ignoreEmpty);
-        }
-
         final ArrayList<String> list = new ArrayList<>(limit > 0 ? limit : 16);
-        int len = str.length();
-        int start = 0;// 切分后每个部分的起始
-        for (int i = 0; i < len; i++) {
-            if (CharUtils.equals(separator, str.charAt(i), ignoreCase)) {
-                addToList(list, str.substring(start, i), isTrim, ignoreEmpty);
-                start = i + 1;// i+1同时将start与i保持一致
-
-                // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
-                if (limit > 0 && list.size() > limit - 2) {
-                    break;
-                }
-            }
-        }
-        return addToList(list, str.substring(start, len), isTrim, ignoreEmpty);// 收尾
+        forEachToken(str, separator, limit, isTrim, ignoreEmpty, ignoreCase, (s, start, end) -> list.add(str.substring(start, end)));
+        return list;
     }
 
     /**
@@ -292,36 +488,9 @@ public class StringSplitUtils {
         if (StringUtils.isEmpty(str)) {
             return new ArrayList<String>(0);
         }
-        if (limit == 1) {
-            return addToList(new ArrayList<String>(1), str, isTrim, ignoreEmpty);
-        }
-
-        if (StringUtils.isEmpty(separator)) {// 分隔符为空时按照空白符切分
-            return split(str, limit);
-        } else if (separator.length() == 1) {// 分隔符只有一个字符长度时按照单分隔符切分
-            return split(str, separator.charAt(0), limit, isTrim, ignoreEmpty, ignoreCase);
-        }
-
         final ArrayList<String> list = new ArrayList<>();
-        int len = str.length();
-        int separatorLen = separator.length();
-        int start = 0;
-        int i = 0;
-        while (i < len) {
-            i = StringUtils.indexOf(str, separator, start, ignoreCase);
-            if (i > -1) {
-                addToList(list, str.substring(start, i), isTrim, ignoreEmpty);
-                start = i + separatorLen;
-
-                // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
-                if (limit > 0 && list.size() > limit - 2) {
-                    break;
-                }
-            } else {
-                break;
-            }
-        }
-        return addToList(list, str.substring(start, len), isTrim, ignoreEmpty);
+        forEachToken(str, separator, limit, isTrim, ignoreEmpty, ignoreCase, (s, start, end) -> list.add(str.substring(start, end)));
+        return list;
     }
 
     /**
@@ -355,25 +524,9 @@ public class StringSplitUtils {
         if (StringUtils.isEmpty(str)) {
             return new ArrayList<String>(0);
         }
-        if (limit == 1) {
-            return addToList(new ArrayList<String>(1), str, true, true);
-        }
-
         final ArrayList<String> list = new ArrayList<>();
-        int len = str.length();
-        int start = 0;// 切分后每个部分的起始
-        for (int i = 0; i < len; i++) {
-            if (CharUtils.isBlankChar(str.charAt(i))) {
-                addToList(list, str.substring(start, i), true, true);
-                start = i + 1;// i+1同时将start与i保持一致
-
-                // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
-                if (limit > 0 && list.size() > limit - 2) {
-                    break;
-                }
-            }
-        }
-        return addToList(list, str.substring(start, len), true, true);// 收尾
+        forEachToken(str, limit, (s, start, end) -> list.add(str.substring(start, end)));
+        return list;
     }
 
     /**
@@ -404,28 +557,9 @@ public class StringSplitUtils {
         if (StringUtils.isEmpty(str)) {
             return new ArrayList<String>(0);
         }
-        if (limit == 1) {
-            return addToList(new ArrayList<String>(1), str, isTrim, ignoreEmpty);
-        }
-
-        if (null == separatorPattern) {// 分隔符为空时按照空白符切分
-            return split(str, limit);
-        }
-
-        final Matcher matcher = separatorPattern.matcher(str);
         final ArrayList<String> list = new ArrayList<>();
-        int len = str.length();
-        int start = 0;
-        while (matcher.find()) {
-            addToList(list, str.substring(start, matcher.start()), isTrim, ignoreEmpty);
-            start = matcher.end();
-
-            // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
-            if (limit > 0 && list.size() > limit - 2) {
-                break;
-            }
-        }
-        return addToList(list, str.substring(start, len), isTrim, ignoreEmpty);
+        forEachToken(str, separatorPattern, limit, isTrim, ignoreEmpty, (s, start, end) -> list.add(str.substring(start, end)));
+        return list;
     }
 
     /**
@@ -476,23 +610,102 @@ public class StringSplitUtils {
     // ----------------------------------------------------------------------------------------------------------
     // Private method start
 
+    private static final int SKIPPED = 0;
+    private static final int ACCEPTED = 1;
+    private static final int STOPPED = 2;
+
+    /**
+     * 按单个字符、字符串或空白符切分
+     *
+     * @param separator    分隔符字符，{@code separatorStr}为{@code null}时使用
+     * @param separatorStr 分隔符字符串，空串表示空白符
+     * @return 处理的片段数
+     */
+    private static int tokenize(CharSequence str, char separator, String separatorStr, int limit, boolean isTrim,
+            boolean ignoreEmpty, boolean ignoreCase, TokenHandler handler) {
+        if (StringUtils.isEmpty(str)) {
+            return 0;
+        }
+        final int len = str.length();
+        final int separatorLen = null == separatorStr || separatorStr.isEmpty() ? 1 : separatorStr.length();
+        int count = 0;
+        int start = 0;// 切分后每个部分的起始
+        if (limit != 1) {
+            int i;
+            while ((i = indexOfSeparator(str, start, separator, separatorStr, ignoreCase)) > -1) {
+                int state = emit(str, start, i, isTrim, ignoreEmpty, handler);
+                start = i + separatorLen;
+                if (state != SKIPPED) {
+                    count++;
+                    if (state == STOPPED) {
+                        return count;
+                    }
+                }
+                // 检查是否超出范围（最大允许limit-1个，剩下一个留给末尾字符串）
+                if (limit > 0 && count > limit - 2) {
+                    break;
+                }
+            }
+        }
+        return emit(str, start, len, isTrim, ignoreEmpty, handler) == SKIPPED ? count : count + 1;// 收尾
+    }
+
     /**
-     * 将字符串加入List中
+     * 从指定位置查找分隔符
      *
-     * @param list        列表
-     * @param part        被加入的部分
-     * @param isTrim      是否去除两端空白符
-     * @param ignoreEmpty 是否略过空字符串（空字符串不做为一个元素）
-     * @return 列表
+     * @return 分隔符位置，未找到返回-1
      */
-    private static List<String> addToList(List<String> list, String part, boolean isTrim, boolean ignoreEmpty) {
+    private static int indexOfSeparator(CharSequence str, int from, char separator, String separatorStr, boolean ignoreCase) {
+        final int len = str.length();
+        if (null == separatorStr) {
+            if (!ignoreCase && str instanceof String) {
+                return ((String) str).indexOf(separator, from);
+            }
+            for (int i = from; i < len; i++) {
+                if (CharUtils.equals(separator, str.charAt(i), ignoreCase)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (separatorStr.isEmpty()) {
+            for (int i = from; i < len; i++) {
+                if (CharUtils.isBlankChar(str.charAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (!ignoreCase && str instanceof String) {
+            return ((String) str).indexOf(separatorStr, from);
+        }
+        final int separatorLen = separatorStr.length();
+        for (int i = from, end = len - separatorLen; i <= end; i++) {
+            if (StringUtils.isSubEquals(str, i, separatorStr, 0, separatorLen, ignoreCase)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在起止位置上去除空白、判断空串后交给处理器
+     *
+     * @return {@link #SKIPPED}、{@link #ACCEPTED}或{@link #STOPPED}
+     */
+    private static int emit(CharSequence str, int start, int end, boolean isTrim, boolean ignoreEmpty, TokenHandler handler) {
         if (isTrim) {
-            part = StringUtils.trim(part);
+            while (start < end && Character.isWhitespace(str.charAt(start))) {
+                start++;
+            }
+            while (start < end && Character.isWhitespace(str.charAt(end - 1))) {
+                end--;
+            }
         }
-        if (!ignoreEmpty || !part.isEmpty()) {
-            list.add(part);
+        if (ignoreEmpty && start == end) {
+            return SKIPPED;
         }
-        return list;
+        return handler.handle(str, start, end) ? ACCEPTED : STOPPED;
     }
 
     /**
@@ -504,4 +717,73 @@ public class StringSplitUtils {
     private static String[] toArray(List<String> list) {
         return list.toArray(new String[list.size()]);
     }
+
+    /**
+     * 原字符串上的片段视图，遍历时复用
+     */
+    private static final class Token implements CharSequence {
+        private CharSequence str;
+        private int start;
+        private int end;
+
+        Token reset(CharSequence str, int start, int end) {
+            this.str = str;
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return str.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > this.end - this.start || start > end) {
+                throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length());
+            }
+            return str.subSequence(this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return str.subSequence(start, end).toString();
+        }
+    }
+
+    /**
+     * 记录第n个片段的位置后停止切分
+     */
+    private static final class NthToken implements TokenHandler {
+        private int remaining;
+        private int start = -1;
+        private int end;
+
+        NthToken(int n) {
+            this.remaining = n;
+        }
+
+        @Override
+        public boolean handle(CharSequence str, int start, int end) {
+            if (remaining-- > 0) {
+                return true;
+            }
+            this.start = start;
+            this.end = end;
+            return false;
+        }
+
+        String get(CharSequence str) {
+            return start < 0 ? null : str.subSequence(start, end).toString();
+        }
+    }
 }
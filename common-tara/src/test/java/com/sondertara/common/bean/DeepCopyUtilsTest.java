@@ -0,0 +1,170 @@
+package com.sondertara.common.bean;
+
+import com.sondertara.common.bean.copier.ChildLoaderBean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class DeepCopyUtilsTest {
+
+    enum Color {
+        RED, GREEN, BLUE
+    }
+
+    public static class Node {
+        private String name;
+        private Date created;
+        private Calendar calendar;
+        private Timestamp timestamp;
+        private Color color;
+        private Node next;
+        private List<Node> children = new ArrayList<>();
+        private List<String> tags;
+        private Set<Color> colors;
+        private Map<String, Integer> scores;
+        private Map<Color, Node> byColor;
+        private StringBuilder note;
+    }
+
+    @Test
+    public void cloneDate() {
+        Node node = new Node();
+        node.created = new Date(1000L);
+        node.calendar = Calendar.getInstance();
+        node.calendar.setTimeInMillis(2000L);
+        node.timestamp = new Timestamp(3000L);
+        node.timestamp.setNanos(123456789);
+
+        Node copy = DeepCopyUtils.deepClone(node);
+
+        Assertions.assertNotSame(node.created, copy.created);
+        Assertions.assertEquals(node.created, copy.created);
+        Assertions.assertNotSame(node.calendar, copy.calendar);
+        Assertions.assertEquals(node.calendar, copy.calendar);
+        Assertions.assertNotSame(node.timestamp, copy.timestamp);
+        Assertions.assertEquals(node.timestamp, copy.timestamp);
+
+        node.created.setTime(0L);
+        Assertions.assertEquals(1000L, copy.created.getTime());
+    }
+
+    @Test
+    public void shareUncloneableJdkValue() {
+        Node node = new Node();
+        node.note = new StringBuilder("note");
+
+        Assertions.assertSame(node.note, DeepCopyUtils.deepClone(node).note);
+    }
+
+    @Test
+    public void cloneEnums() {
+        Node node = new Node();
+        node.color = Color.GREEN;
+        node.colors = EnumSet.of(Color.RED, Color.BLUE);
+        node.byColor = new EnumMap<>(Color.class);
+        node.byColor.put(Color.BLUE, new Node());
+
+        Node copy = DeepCopyUtils.deepClone(node);
+
+        Assertions.assertSame(Color.GREEN, copy.color);
+        Assertions.assertTrue(copy.colors instanceof EnumSet);
+        Assertions.assertNotSame(node.colors, copy.colors);
+        Assertions.assertEquals(node.colors, copy.colors);
+        Assertions.assertEquals(EnumMap.class, copy.byColor.getClass());
+        Assertions.assertEquals(node.byColor.keySet(), copy.byColor.keySet());
+        Assertions.assertNotSame(node.byColor.get(Color.BLUE), copy.byColor.get(Color.BLUE));
+        copy.byColor.put(Color.RED, new Node());
+        Assertions.assertEquals(1, node.byColor.size());
+    }
+
+    @Test
+    public void cloneUnmodifiableCollections() {
+        Node node = new Node();
+        node.tags = Collections.unmodifiableList(new ArrayList<>(Arrays.asList("a", "b")));
+        node.colors = Collections.unmodifiableSet(EnumSet.of(Color.RED));
+        node.scores = Collections.unmodifiableMap(new TreeMap<>(Collections.singletonMap("a", 1)));
+        node.children = Collections.emptyList();
+
+        Node copy = DeepCopyUtils.deepClone(node);
+
+        Assertions.assertEquals(node.tags.getClass(), copy.tags.getClass());
+        Assertions.assertEquals(node.tags, copy.tags);
+        Assertions.assertEquals(node.colors.getClass(), copy.colors.getClass());
+        Assertions.assertEquals(node.colors, copy.colors);
+        Assertions.assertEquals(node.scores.getClass(), copy.scores.getClass());
+        Assertions.assertEquals(node.scores, copy.scores);
+        Assertions.assertSame(node.children, copy.children);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> copy.tags.add("c"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> copy.scores.put("b", 2));
+    }
+
+    @Test
+    public void cloneCycles() {
+        Node first = new Node();
+        Node second = new Node();
+        first.name = "first";
+        second.name = "second";
+        first.next = second;
+        second.next = first;
+        first.children.add(second);
+        first.children.add(first);
+        first.scores = new HashMap<>();
+
+        Node copy = DeepCopyUtils.deepClone(first);
+
+        Assertions.assertNotSame(first, copy);
+        Assertions.assertEquals("first", copy.name);
+        Assertions.assertEquals("second", copy.next.name);
+        Assertions.assertSame(copy, copy.next.next);
+        Assertions.assertSame(copy.next, copy.children.get(0));
+        Assertions.assertSame(copy, copy.children.get(1));
+        Assertions.assertNotSame(first.scores, copy.scores);
+    }
+
+    @Test
+    public void cloneUnmodifiableCycle() {
+        List<Object> list = new ArrayList<>();
+        List<Object> view = Collections.unmodifiableList(list);
+        list.add(view);
+        List<Object> copy = DeepCopyUtils.deepClone(view);
+
+        Assertions.assertNotSame(view, copy);
+        Assertions.assertSame(copy, copy.get(0));
+    }
+
+    @Test
+    public void copyPropertiesAcrossClassLoaders() throws Exception {
+        Class<?> childCls = ChildLoaderBean.loadInChild();
+        ChildLoaderBean parent = new ChildLoaderBean();
+        parent.setBoxed(7);
+        parent.setName("n");
+
+        Object child = childCls.getDeclaredConstructor().newInstance();
+        DeepCopyUtils.copyProperties(parent, child);
+        Assertions.assertEquals(7, childCls.getMethod("getBoxed").invoke(child));
+        Assertions.assertEquals("n", childCls.getMethod("getName").invoke(child));
+
+        childCls.getMethod("setBoxed", Integer.class).invoke(child, 5);
+        ChildLoaderBean back = new ChildLoaderBean();
+        DeepCopyUtils.copyProperties(child, back);
+        Assertions.assertEquals("n", back.getName());
+        Assertions.assertEquals(5, back.getBoxed());
+
+        Object otherChild = ChildLoaderBean.loadInChild().getDeclaredConstructor().newInstance();
+        DeepCopyUtils.copyProperties(child, otherChild);
+        Assertions.assertEquals("n", otherChild.getClass().getMethod("getName").invoke(otherChild));
+    }
+}
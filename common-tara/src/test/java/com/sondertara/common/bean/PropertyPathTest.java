@@ -0,0 +1,286 @@
+package com.sondertara.common.bean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+public class PropertyPathTest {
+
+    /**
+     * a subclass keeps parsing the expressions as before the compiled paths
+     */
+    private static final PropertyUtilsBean PARSING = new PropertyUtilsBean() {
+    };
+    private static final PropertyUtilsBean COMPILED = new PropertyUtilsBean();
+
+    private static final String[] GET_EXPRESSIONS = {"id", "customer", "customer.name", "customer.address.city", "items[0].sku",
+            "items[1].qty", "array[1].sku", "item[1].sku", "attrs(color)", "attrs.color", "attrs(missing)", "tag(a)", "@secret",
+            "customer.@secret", "customer?.name", "nobody?.name", "nobody.name", "missing", "customer.missing", "items[5].sku",
+            "items[-1]", "items[x]", "items[0", "attrs(color", "attrs.color.length", "id.length", "attrs(color)(x)", "(color)",
+            "[0]", "", "customer..name", "list[0][1]", "matrix[1]"};
+
+    private static final String[] SET_EXPRESSIONS = {"id", "customer.name", "customer.address.city", "items[0].sku", "array[1].sku",
+            "item[1].sku", "items[1]", "attrs(size)", "attrs.size", "tag(b)", "@secret", "customer.@secret", "nobody.name",
+            "missing", "customer.missing", "items[7].sku", "items[x]", "id.length", "attrs(size", ""};
+
+    public static class Order {
+        private String id = "o1";
+        private String secret = "s";
+        private Customer customer = new Customer();
+        private Customer nobody;
+        private List<Item> items = new ArrayList<>(Arrays.asList(new Item("a", 1), new Item("b", 2)));
+        private Item[] array = {new Item("x", 10), new Item("y", 20)};
+        private Map<String, Object> attrs = new HashMap<>();
+        private final Map<String, String> tags = new HashMap<>();
+        private List<List<String>> list = Arrays.asList(Arrays.asList("p", "q"));
+        private int[] matrix = {4, 5};
+
+        public Order() {
+            attrs.put("color", "red");
+            tags.put("a", "A");
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Customer getNobody() {
+            return nobody;
+        }
+
+        public void setNobody(Customer nobody) {
+            this.nobody = nobody;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+
+        public Item[] getArray() {
+            return array;
+        }
+
+        public void setArray(Item[] array) {
+            this.array = array;
+        }
+
+        public Item getItem(int index) {
+            return items.get(index);
+        }
+
+        public void setItem(int index, Item item) {
+            items.set(index, item);
+        }
+
+        public Map<String, Object> getAttrs() {
+            return attrs;
+        }
+
+        public void setAttrs(Map<String, Object> attrs) {
+            this.attrs = attrs;
+        }
+
+        public String getTag(String key) {
+            return tags.get(key);
+        }
+
+        public void setTag(String key, String value) {
+            tags.put(key, value);
+        }
+
+        public List<List<String>> getList() {
+            return list;
+        }
+
+        public void setList(List<List<String>> list) {
+            this.list = list;
+        }
+
+        public int[] getMatrix() {
+            return matrix;
+        }
+
+        public void setMatrix(int[] matrix) {
+            this.matrix = matrix;
+        }
+
+        String state() {
+            return id + secret + customer.state() + nobody + items + Arrays.toString(array) + attrs + tags + list + Arrays.toString(matrix);
+        }
+    }
+
+    public static class Customer {
+        private String name = "ann";
+        private String secret = "cs";
+        private Address address = new Address();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+
+        String state() {
+            return name + secret + address.city;
+        }
+    }
+
+    public static class Address {
+        private String city = "paris";
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class Item {
+        private String sku;
+        private int qty;
+
+        public Item() {
+        }
+
+        Item(String sku, int qty) {
+            this.sku = sku;
+            this.qty = qty;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public int getQty() {
+            return qty;
+        }
+
+        public void setQty(int qty) {
+            this.qty = qty;
+        }
+
+        @Override
+        public String toString() {
+            return sku + qty;
+        }
+    }
+
+    public static class Named {
+        private final String name;
+
+        Named(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Test
+    public void getSameAsParsing() {
+        for (String expression : GET_EXPRESSIONS) {
+            Order order = new Order();
+            assertSameOutcome(expression, () -> PARSING.getNestedProperty(order, expression), () -> COMPILED.getNestedProperty(order, expression));
+            assertSameOutcome(expression, () -> PARSING.getNestedProperty(order, expression), () -> PropertyPath.compile(expression).get(order));
+        }
+    }
+
+    @Test
+    public void setSameAsParsing() {
+        for (String expression : SET_EXPRESSIONS) {
+            Object value = expression.startsWith("items[1]") && !expression.contains(".") ? new Item("z", 9) : "v";
+            Order expected = new Order();
+            Order actual = new Order();
+            assertSameOutcome(expression, () -> {
+                PARSING.setNestedProperty(expected, expression, value);
+                return expected.state();
+            }, () -> {
+                COMPILED.setNestedProperty(actual, expression, value);
+                return actual.state();
+            });
+            Assertions.assertEquals(expected.state(), actual.state(), expression);
+        }
+    }
+
+    @Test
+    public void pathFollowsTheBeanClass() {
+        PropertyPath path = COMPILED.compilePath("name");
+        Assertions.assertEquals("ann", path.get(new Customer()));
+        Assertions.assertEquals("bob", path.get(new Named("bob")));
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "map");
+        Assertions.assertEquals("map", path.get(map));
+        Assertions.assertEquals("ann", path.get(new Customer()));
+        Assertions.assertThrows(RuntimeException.class, () -> path.set(new Named("bob"), "x"));
+    }
+
+    @Test
+    public void compiledPathsAreCached() {
+        PropertyUtilsBean propertyUtils = new PropertyUtilsBean();
+        PropertyPath path = propertyUtils.compilePath("customer.name");
+        Assertions.assertSame(path, propertyUtils.compilePath("customer.name"));
+        Assertions.assertEquals("customer.name", path.getExpression());
+        propertyUtils.clearDescriptors();
+        Assertions.assertNotSame(path, propertyUtils.compilePath("customer.name"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> propertyUtils.compilePath(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> path.get(null));
+    }
+
+    private static void assertSameOutcome(String expression, Callable<Object> expected, Callable<Object> actual) {
+        Object expectedResult;
+        try {
+            expectedResult = expected.call();
+        } catch (Exception e) {
+            Exception thrown = Assertions.assertThrows(Exception.class, actual::call, expression);
+            Assertions.assertEquals(e.getClass(), thrown.getClass(), expression);
+            Assertions.assertEquals(e.getMessage(), thrown.getMessage(), expression);
+            return;
+        }
+        try {
+            Object actualResult = actual.call();
+            Assertions.assertTrue(Objects.equals(expectedResult, actualResult), expression + ": " + expectedResult + " != " + actualResult);
+        } catch (Exception e) {
+            Assertions.fail(expression + ": expected " + expectedResult + " but got " + e, e);
+        }
+    }
+}
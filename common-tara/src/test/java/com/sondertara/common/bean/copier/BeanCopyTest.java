@@ -0,0 +1,199 @@
+package com.sondertara.common.bean.copier;
+
+import com.sondertara.common.lang.Pair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BeanCopyTest {
+
+    public static class Source {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Target {
+        private String name = "default";
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class LogicBean {
+        private String name;
+        private int count;
+        private String hidden;
+        private Item item;
+
+        public String getName() {
+            return name == null ? "none" : name.toUpperCase();
+        }
+
+        public void setName(String name) {
+            this.name = "set:" + name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Item getItem() {
+            return item;
+        }
+
+        public void setItem(Item item) {
+            this.item = item;
+        }
+    }
+
+    public static class Item {
+        private String code;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+    }
+
+    public static class SubItem extends Item {
+        @Override
+        public String getCode() {
+            return "sub";
+        }
+    }
+
+    @Test
+    public void copyFieldsNotAccessors() {
+        for (CopierBackend backend : CopierBackend.values()) {
+            BeanCopierRegistry.setBackend(backend);
+            try {
+                LogicBean source = new LogicBean();
+                source.name = "a";
+                source.count = 3;
+                source.hidden = "h";
+                source.item = new SubItem();
+                source.item.code = "c";
+
+                LogicBean copy = BeanCopy.copy(source, LogicBean.class);
+
+                Assertions.assertEquals("a", copy.name, backend.name());
+                Assertions.assertEquals(3, copy.count, backend.name());
+                Assertions.assertEquals("h", copy.hidden, backend.name());
+                Assertions.assertNotSame(source.item, copy.item, backend.name());
+                Assertions.assertEquals("c", copy.item.code, backend.name());
+            } finally {
+                BeanCopierRegistry.setBackend(CopierBackend.BYTECODE);
+            }
+        }
+    }
+
+    @Test
+    public void reuseGeneratedClassAfterClear() {
+        Source source = new Source();
+        source.setName("a");
+        BeanCopy.copy(source, Target.class);
+        String copierClass = BeanCopierRegistry.describe(Source.class, Target.class).getCopierClass();
+        Assertions.assertTrue(copierClass.startsWith(Target.class.getName() + "$$TaraCopier$$"), copierClass);
+        BeanCopierRegistry.clear();
+
+        Assertions.assertEquals("a", BeanCopy.copy(source, Target.class).getName());
+        Assertions.assertEquals(copierClass, BeanCopierRegistry.describe(Source.class, Target.class).getCopierClass());
+    }
+
+    @Test
+    public void parallelCopyKeepsIgnoreNull() {
+        List<Source> sources = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Source source = new Source();
+            source.setName(i % 2 == 0 ? null : "name" + i);
+            sources.add(source);
+        }
+        for (boolean ignoreNull : new boolean[]{false, true}) {
+            List<Target> sequential;
+            List<Target> parallel;
+            try {
+                Copier.COPY_IGNORE_NULL.set(ignoreNull);
+                sequential = BeanCopy.copyList(sources, Target.class, false);
+                parallel = BeanCopy.copyList(sources, Target.class, true);
+            } finally {
+                Copier.COPY_IGNORE_NULL.remove();
+            }
+            Assertions.assertEquals(ignoreNull ? "default" : null, sequential.get(0).getName());
+            for (int i = 0; i < sources.size(); i++) {
+                Assertions.assertEquals(sequential.get(i).getName(), parallel.get(i).getName(), "index " + i);
+            }
+        }
+    }
+
+    @Test
+    public void warmUpIsNotCounted() {
+        BeanCopierRegistry.clear();
+        CopierMetrics before = BeanCopierRegistry.getMetrics();
+        List<CopyPlan> plans = BeanCopierRegistry.warmUp(Collections.singletonList(Pair.of(LogicBean.class, LogicBean.class)));
+        Assertions.assertTrue(plans.get(0).isValid());
+        BeanCopierRegistry.describe(LogicBean.class, LogicBean.class);
+        CopierMetrics warm = BeanCopierRegistry.getMetrics();
+        Assertions.assertEquals(before.getHits(), warm.getHits());
+        Assertions.assertEquals(before.getMisses(), warm.getMisses());
+
+        BeanCopy.copy(new LogicBean(), LogicBean.class);
+        CopierMetrics after = BeanCopierRegistry.getMetrics();
+        Assertions.assertEquals(warm.getHits() + 1, after.getHits());
+        Assertions.assertEquals(warm.getMisses(), after.getMisses());
+    }
+
+    @Test
+    public void copyBeanOfChildLoader() throws Exception {
+        Class<?> beanCls = ChildLoaderBean.loadInChild();
+        Assertions.assertNotSame(ChildLoaderBean.class, beanCls);
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", 7);
+        values.put("big", 300L);
+        values.put("boxed", 5);
+        values.put("name", "n");
+        for (CopierBackend backend : CopierBackend.values()) {
+            BeanCopierRegistry.setBackend(backend);
+            try {
+                Object source = beanCls.getDeclaredConstructor().newInstance();
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    beanCls.getMethod("set" + Character.toUpperCase(entry.getKey().charAt(0)) + entry.getKey().substring(1),
+                            beanCls.getDeclaredField(entry.getKey()).getType()).invoke(source, entry.getValue());
+                }
+
+                Object copy = BeanCopy.copy(source, beanCls);
+
+                Assertions.assertSame(beanCls, copy.getClass(), backend.name());
+                for (String name : values.keySet()) {
+                    Object value = beanCls.getMethod("get" + Character.toUpperCase(name.charAt(0)) + name.substring(1)).invoke(copy);
+                    Assertions.assertEquals(values.get(name), value, backend + " " + name);
+                }
+            } finally {
+                BeanCopierRegistry.setBackend(CopierBackend.BYTECODE);
+            }
+        }
+    }
+}
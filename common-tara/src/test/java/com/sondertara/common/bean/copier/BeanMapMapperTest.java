@@ -0,0 +1,144 @@
+package com.sondertara.common.bean.copier;
+
+import com.sondertara.common.util.BeanUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BeanMapMapperTest {
+
+    public static class Account {
+        private String name;
+        private int balance;
+        private String secret;
+        private String plain;
+
+        public String getName() {
+            return name == null ? null : name.trim().toUpperCase();
+        }
+
+        public void setName(String name) {
+            this.name = "set:" + name;
+        }
+
+        public int getBalance() {
+            return balance * 100;
+        }
+
+        public void setBalance(int balance) {
+            this.balance = balance;
+        }
+
+        public String getPlain() {
+            return plain;
+        }
+
+        public void setPlain(String plain) {
+            this.plain = plain;
+        }
+    }
+
+    public static class AuditedAccount extends Account {
+        @Override
+        public String getPlain() {
+            return "audited";
+        }
+
+        @Override
+        public void setPlain(String plain) {
+            super.setPlain("audited:" + plain);
+        }
+    }
+
+    @Test
+    public void toMapReadsFields() {
+        Account account = new Account();
+        account.name = " ann ";
+        account.balance = 3;
+        account.secret = "s";
+        account.plain = "p";
+
+        Map<String, Object> map = BeanUtils.beanToMap(account);
+
+        Assertions.assertEquals(" ann ", map.get("name"));
+        Assertions.assertEquals(3, map.get("balance"));
+        Assertions.assertEquals("s", map.get("secret"));
+        Assertions.assertEquals("p", map.get("plain"));
+    }
+
+    @Test
+    public void fromMapWritesFields() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "ann");
+        map.put("balance", "3");
+        map.put("secret", "s");
+        map.put("plain", "p");
+        map.put("unknown", "u");
+
+        Account account = BeanUtils.mapToBean(map, Account.class);
+
+        Assertions.assertEquals("ann", account.name);
+        Assertions.assertEquals(3, account.balance);
+        Assertions.assertEquals("s", account.secret);
+        Assertions.assertEquals("p", account.plain);
+    }
+
+    @Test
+    public void subclassOverridingAccessors() {
+        AuditedAccount account = new AuditedAccount();
+        ((Account) account).plain = "p";
+        BeanMapMapper mapper = BeanMapMapper.of(Account.class);
+
+        Assertions.assertEquals("p", mapper.toMap(account).get("plain"));
+        Assertions.assertEquals("p", mapper.toArray(account)[mapper.indexOf("plain")]);
+
+        mapper.fromMap(Collections.singletonMap("plain", "q"), account);
+        Assertions.assertEquals("q", ((Account) account).plain);
+
+        Assertions.assertEquals("q", BeanUtils.beanToMap(account).get("plain"));
+    }
+
+    @Test
+    public void beansToMapsAndBack() {
+        Account first = new Account();
+        first.name = "a";
+        first.balance = 1;
+        Account second = new Account();
+        second.name = "b";
+        second.balance = 2;
+
+        List<Map<String, Object>> maps = BeanCopy.beansToMaps(Arrays.asList(first, null, second), false);
+        Assertions.assertEquals(2, maps.size());
+        Assertions.assertEquals("a", maps.get(0).get("name"));
+        Assertions.assertEquals(2, maps.get(1).get("balance"));
+
+        List<Account> accounts = BeanCopy.mapsToBeans(maps, Account.class, false);
+        Assertions.assertEquals("b", accounts.get(1).name);
+        Assertions.assertEquals(1, accounts.get(0).balance);
+    }
+
+    @Test
+    public void beanOfChildLoader() throws Exception {
+        Class<?> beanCls = ChildLoaderBean.loadInChild();
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", 7);
+        map.put("big", 300L);
+        map.put("boxed", 5);
+        map.put("name", "n");
+
+        Object bean = BeanUtils.mapToBean(map, beanCls);
+        Assertions.assertSame(beanCls, bean.getClass());
+        Assertions.assertEquals(map, BeanUtils.beanToMap(bean));
+
+        BeanMapMapper mapper = BeanMapMapper.of(beanCls);
+        Object other = beanCls.getDeclaredConstructor().newInstance();
+        mapper.fromMap(map, other);
+        Assertions.assertEquals(map, mapper.toMap(other));
+        Assertions.assertEquals(300L, beanCls.getMethod("getBig").invoke(other));
+    }
+}
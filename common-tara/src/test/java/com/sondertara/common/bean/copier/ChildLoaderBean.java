@@ -0,0 +1,90 @@
+package com.sondertara.common.bean.copier;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * A bean defined again by a child class loader of the library, as a web application or a restart class loader does
+ */
+public class ChildLoaderBean {
+    private int a;
+    private long big;
+    private Integer boxed;
+    private String name;
+
+    public int getA() {
+        return a;
+    }
+
+    public void setA(int a) {
+        this.a = a;
+    }
+
+    public long getBig() {
+        return big;
+    }
+
+    public void setBig(long big) {
+        this.big = big;
+    }
+
+    public Integer getBoxed() {
+        return boxed;
+    }
+
+    public void setBoxed(Integer boxed) {
+        this.boxed = boxed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return this class defined by a new child first class loader
+     */
+    public static Class<?> loadInChild() throws ClassNotFoundException {
+        return new ChildFirstLoader(ChildLoaderBean.class.getClassLoader()).loadClass(ChildLoaderBean.class.getName());
+    }
+
+    private static class ChildFirstLoader extends ClassLoader {
+        ChildFirstLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!ChildLoaderBean.class.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    byte[] bytes = read(name.replace('.', '/') + ".class");
+                    cls = defineClass(name, bytes, 0, bytes.length);
+                }
+                return cls;
+            }
+        }
+
+        private byte[] read(String resource) {
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
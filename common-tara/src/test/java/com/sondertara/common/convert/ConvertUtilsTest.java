@@ -0,0 +1,84 @@
+package com.sondertara.common.convert;
+
+import com.sondertara.common.convert.impl.primitive.IntegerPrimitiveTypeConverter;
+import com.sondertara.common.convert.impl.primitive.LongPrimitiveTypeConverter;
+import com.sondertara.common.convert.impl.wrapper.IntegerWrapperTypeConverter;
+import com.sondertara.common.convert.impl.wrapper.LongWrapperTypeConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class ConvertUtilsTest {
+
+    private static final Object[] VALUES = {"0", "12", " 12 ", "-7", "+7", "007", "2147483647", "-2147483648", "2147483648",
+            "-2147483649", "9223372036854775807", "9223372036854775808", "12.9", "-12.9", " 3.5 ", "", "  ", "abc", "1e3",
+            "1_0", "٣", "-", "+", new StringBuilder("42"), 42, 42L, 12.9d, -12.9f, new BigDecimal("7.5"), (short) 3};
+
+    @Test
+    public void stringToIntSameAsDefaultConverters() {
+        for (Object value : VALUES) {
+            assertSameResult(new IntegerPrimitiveTypeConverter(), int.class, value);
+            assertSameResult(new IntegerWrapperTypeConverter(), Integer.class, value);
+        }
+    }
+
+    @Test
+    public void stringToLongSameAsDefaultConverters() {
+        for (Object value : VALUES) {
+            assertSameResult(new LongPrimitiveTypeConverter(), long.class, value);
+            assertSameResult(new LongWrapperTypeConverter(), Long.class, value);
+        }
+    }
+
+    @Test
+    public void sameTypeIsReturnedAsIs() {
+        Integer value = 1000;
+        BigDecimal decimal = new BigDecimal("1.50");
+        Assertions.assertSame(value, ConvertUtils.convert(Integer.class, value));
+        Assertions.assertSame(value, ConvertUtils.convert(int.class, value));
+        Assertions.assertSame(decimal, ConvertUtils.convert(BigDecimal.class, decimal));
+        Assertions.assertEquals("1.50", ConvertUtils.convert(String.class, decimal));
+        Assertions.assertNull(ConvertUtils.convert(Integer.class, null));
+        Assertions.assertNull(ConvertUtils.convert(int.class, null));
+    }
+
+    @Test
+    public void resolveIsCached() {
+        Assertions.assertSame(ConvertUtils.resolve(String.class, int.class), ConvertUtils.resolve(String.class, int.class));
+        Assertions.assertEquals(5, (int) ConvertUtils.<Integer>resolve(String.class, int.class).convert("5", null));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> ConvertUtils.resolve(String.class, Thread.class));
+        Assertions.assertFalse(ConvertUtils.hasConverter(Thread.class));
+    }
+
+    @Test
+    public void convertToPrimitive() {
+        Assertions.assertEquals(12, ConvertUtils.convertToInt(" 12 ", -1));
+        Assertions.assertEquals(-1, ConvertUtils.convertToInt("  ", -1));
+        Assertions.assertEquals(-1, ConvertUtils.convertToInt(null, -1));
+        Assertions.assertEquals(12, ConvertUtils.convertToInt(12.9d, -1));
+        Assertions.assertEquals(12, ConvertUtils.convertToInt("12.9", -1));
+        Assertions.assertThrows(NumberFormatException.class, () -> ConvertUtils.convertToInt("abc", -1));
+
+        Assertions.assertEquals(9223372036854775807L, ConvertUtils.convertToLong("9223372036854775807", -1));
+        Assertions.assertEquals(-1, ConvertUtils.convertToLong("9223372036854775808", -1));
+        Assertions.assertEquals(-1, ConvertUtils.convertToLong("abc", -1));
+        Assertions.assertEquals(-1, ConvertUtils.convertToLong(null, -1));
+        Assertions.assertEquals(7, ConvertUtils.convertToLong(7.9d, -1));
+    }
+
+    private static void assertSameResult(TypeConverter<?> expected, Class<?> type, Object value) {
+        Object expectedResult;
+        try {
+            expectedResult = expected.convert(value, null);
+        } catch (RuntimeException e) {
+            RuntimeException actual = Assertions.assertThrows(RuntimeException.class, () -> ConvertUtils.convert(type, value),
+                    type + " [" + value + "]");
+            Assertions.assertEquals(e.getClass(), actual.getClass(), type + " [" + value + "]");
+            return;
+        }
+        Object actual = ConvertUtils.convert(type, value);
+        Assertions.assertTrue(Objects.equals(expectedResult, actual), type + " [" + value + "]: " + expectedResult + " != " + actual);
+    }
+}
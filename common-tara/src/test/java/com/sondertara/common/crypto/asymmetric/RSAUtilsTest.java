@@ -0,0 +1,109 @@
+package com.sondertara.common.crypto.asymmetric;
+
+import com.sondertara.common.exception.TaraException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.Random;
+
+public class RSAUtilsTest {
+    private static final KeyPair KEY_PAIR = RSAUtils.initKey(2048);
+
+    private final byte[] publicKey = KEY_PAIR.getPublic().getEncoded();
+    private final byte[] privateKey = KEY_PAIR.getPrivate().getEncoded();
+
+    @Test
+    public void envelopeRoundTrip() {
+        int chunk = RSAUtils.ENVELOPE_CHUNK_SIZE;
+        for (int size : new int[]{0, 1, 100, chunk - 1, chunk, chunk + 1, 2 * chunk, 2 * chunk + 7}) {
+            byte[] data = random(size);
+            byte[] envelope = encrypt(data);
+            Assertions.assertArrayEquals(data, decrypt(envelope), "size " + size);
+        }
+    }
+
+    @Test
+    public void envelopeHeader() {
+        byte[] envelope = encrypt(random(10));
+
+        Assertions.assertEquals(RSAUtils.ENVELOPE_VERSION, envelope[0]);
+        // the 2048 bits key wraps the secret to 256 bytes
+        Assertions.assertEquals(256, (envelope[1] & 0xFF) << 8 | envelope[2] & 0xFF);
+        Assertions.assertFalse(Arrays.equals(envelope, encrypt(random(10))));
+    }
+
+    @Test
+    public void rejectTamperedEnvelope() {
+        int chunk = RSAUtils.ENVELOPE_CHUNK_SIZE;
+        byte[] envelope = encrypt(random(chunk + 10));
+        int chunkStart = 3 + 256 + 16;
+        // wrapped key, iv, first chunk length, first chunk data, first tag, second chunk data, last tag
+        int[] positions = {3, 3 + 255, 3 + 256, chunkStart + 3, chunkStart + 4, chunkStart + 4 + chunk, chunkStart + 4 + chunk + 32 + 5,
+                envelope.length - 1};
+        for (int position : positions) {
+            byte[] tampered = envelope.clone();
+            tampered[position] ^= 1;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assertions.assertThrows(TaraException.class,
+                    () -> RSAUtils.decryptEnvelope(new ByteArrayInputStream(tampered), out, privateKey), "position " + position);
+            if (position < chunkStart + 4 + chunk + 32) {
+                Assertions.assertEquals(0, out.size(), "no output before the first chunk is authenticated");
+            }
+        }
+    }
+
+    @Test
+    public void rejectTruncatedEnvelope() {
+        int chunk = RSAUtils.ENVELOPE_CHUNK_SIZE;
+        byte[] envelope = encrypt(random(chunk));
+        // drop the empty final chunk, the remaining chunks are all authentic
+        byte[] truncated = Arrays.copyOf(envelope, envelope.length - 4 - 32);
+        Assertions.assertThrows(TaraException.class,
+                () -> RSAUtils.decryptEnvelope(new ByteArrayInputStream(truncated), new ByteArrayOutputStream(), privateKey));
+
+        byte[] cut = Arrays.copyOf(envelope, envelope.length - 1);
+        Assertions.assertThrows(TaraException.class,
+                () -> RSAUtils.decryptEnvelope(new ByteArrayInputStream(cut), new ByteArrayOutputStream(), privateKey));
+    }
+
+    @Test
+    public void rejectUnknownVersion() {
+        byte[] envelope = encrypt(random(10));
+        envelope[0] = 2;
+        TaraException e = Assertions.assertThrows(TaraException.class,
+                () -> RSAUtils.decryptEnvelope(new ByteArrayInputStream(envelope), new ByteArrayOutputStream(), privateKey));
+        Assertions.assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    public void rejectOtherKey() {
+        byte[] envelope = encrypt(random(10));
+        byte[] otherKey = RSAUtils.initKey(2048).getPrivate().getEncoded();
+        Assertions.assertThrows(TaraException.class,
+                () -> RSAUtils.decryptEnvelope(new ByteArrayInputStream(envelope), new ByteArrayOutputStream(), otherKey));
+    }
+
+    private byte[] encrypt(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long length = RSAUtils.encryptEnvelope(new ByteArrayInputStream(data), out, publicKey);
+        Assertions.assertEquals(out.size(), length);
+        return out.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] envelope) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long length = RSAUtils.decryptEnvelope(new ByteArrayInputStream(envelope), out, privateKey);
+        Assertions.assertEquals(out.size(), length);
+        return out.toByteArray();
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+}
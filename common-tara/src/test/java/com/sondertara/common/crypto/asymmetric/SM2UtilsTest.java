@@ -0,0 +1,175 @@
+package com.sondertara.common.crypto.asymmetric;
+
+import com.sondertara.common.crypto.engine.SM2SignatureEngine;
+import com.sondertara.common.exception.TaraException;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SM2UtilsTest {
+    private static final SM2SignatureEngine ENGINE = SM2SignatureEngine.getInstance();
+    private static final BigInteger N = ENGINE.getDomainParameters().getN();
+    private static final ECPoint G = ENGINE.getDomainParameters().getG();
+    private static final String IDA = "alice@example.com";
+
+    private final Random random = new Random(49);
+
+    @Test
+    public void initKey() {
+        for (int i = 0; i < 5; i++) {
+            SM2KeyPair keyPair = SM2Utils.initKey();
+            ECPoint expected = G.multiply(keyPair.getPrivateKey()).normalize();
+            Assertions.assertEquals(expected, keyPair.getPublicKey());
+            String encoded = SM2Utils.eCPoint2PublicKeyStr(keyPair.getPublicKey(), false);
+            Assertions.assertEquals(keyPair.getPublicKey(), SM2Utils.publicKeyStr2ECPoint(encoded));
+            String compressed = SM2Utils.eCPoint2PublicKeyStr(keyPair.getPublicKey(), true);
+            Assertions.assertEquals(keyPair.getPublicKey(), SM2Utils.publicKeyStr2ECPoint(compressed).normalize());
+        }
+    }
+
+    @Test
+    public void signAndVerify() {
+        SM2KeyPair keyPair = SM2Utils.initKey();
+        SM2KeyPair other = SM2Utils.initKey();
+        for (int i = 0; i < 20; i++) {
+            String message = "message " + i + " 国密";
+            SM2Utils.Signature signature = SM2Utils.signature(message, IDA, keyPair);
+            Assertions.assertTrue(SM2Utils.verifySignature(message, signature, IDA, keyPair.getPublicKey()));
+            Assertions.assertFalse(SM2Utils.verifySignature(message + ".", signature, IDA, keyPair.getPublicKey()));
+            Assertions.assertFalse(SM2Utils.verifySignature(message, signature, "bob@example.com", keyPair.getPublicKey()));
+            Assertions.assertFalse(SM2Utils.verifySignature(message, signature, IDA, other.getPublicKey()));
+            SM2Utils.Signature r = new SM2Utils.Signature(signature.getR().add(BigInteger.ONE), signature.getS());
+            Assertions.assertFalse(SM2Utils.verifySignature(message, r, IDA, keyPair.getPublicKey()));
+            SM2Utils.Signature s = new SM2Utils.Signature(signature.getR(), signature.getS().add(BigInteger.ONE));
+            Assertions.assertFalse(SM2Utils.verifySignature(message, s, IDA, keyPair.getPublicKey()));
+        }
+    }
+
+    @Test
+    public void batchVerifyWithTamperedInput() {
+        SM2KeyPair keyPair = SM2Utils.initKey();
+        int count = 40;
+        String[] messages = new String[count];
+        SM2Utils.Signature[] signatures = new SM2Utils.Signature[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = "batch " + i;
+            signatures[i] = SM2Utils.signature(messages[i], IDA, keyPair);
+        }
+        // 篡改部分消息和签名，包括超出范围的r和s
+        messages[3] = "tampered";
+        signatures[7] = new SM2Utils.Signature(signatures[7].getR(), signatures[7].getS().add(BigInteger.ONE));
+        signatures[11] = new SM2Utils.Signature(signatures[12].getR(), signatures[12].getS());
+        signatures[15] = new SM2Utils.Signature(BigInteger.ZERO, signatures[15].getS());
+        signatures[19] = new SM2Utils.Signature(signatures[19].getR(), N);
+        signatures[23] = new SM2Utils.Signature(signatures[23].getR(), N.subtract(signatures[23].getR()));
+        signatures[27] = new SM2Utils.Signature(signatures[27].getR().add(N), signatures[27].getS());
+
+        boolean[] result = SM2Utils.verifySignatures(messages, signatures, IDA, keyPair.getPublicKey());
+        Assertions.assertEquals(count, result.length);
+        for (int i = 0; i < count; i++) {
+            boolean expected = i != 3 && i != 7 && i != 11 && i != 15 && i != 19 && i != 23 && i != 27;
+            Assertions.assertEquals(expected, result[i], "signature " + i);
+            Assertions.assertEquals(SM2Utils.verifySignature(messages[i], signatures[i], IDA, keyPair.getPublicKey()), result[i]);
+        }
+
+        Assertions.assertFalse(SM2Utils.verifySignatures(messages, signatures, IDA, SM2Utils.initKey().getPublicKey())[0]);
+        Assertions.assertEquals(0, SM2Utils.verifySignatures(new String[0], new SM2Utils.Signature[0], IDA, keyPair.getPublicKey()).length);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SM2Utils.verifySignatures(messages, new SM2Utils.Signature[count - 1], IDA, keyPair.getPublicKey()));
+    }
+
+    @Test
+    public void engineMatchesPlainArithmetic() {
+        SM2KeyPair[] keyPairs = {SM2Utils.initKey(), SM2Utils.initKey(), SM2Utils.initKey()};
+        ENGINE.precompute(keyPairs[0].getPublicKey());
+        int count = 30;
+        BigInteger[] e = new BigInteger[count];
+        BigInteger[] r = new BigInteger[count];
+        BigInteger[] s = new BigInteger[count];
+        ECPoint[] publicKeys = new ECPoint[count];
+        for (int i = 0; i < count; i++) {
+            SM2KeyPair keyPair = keyPairs[i % keyPairs.length];
+            e[i] = new BigInteger(256, random);
+            BigInteger[] rs = ENGINE.sign(e[i], keyPair.getPrivateKey());
+            r[i] = rs[0];
+            s[i] = rs[1];
+            publicKeys[i] = keyPair.getPublicKey();
+            Assertions.assertTrue(reference(e[i], r[i], s[i], publicKeys[i]), "signature " + i);
+            if (i % 4 == 1) {
+                e[i] = e[i].add(BigInteger.ONE);
+            } else if (i % 4 == 2) {
+                publicKeys[i] = keyPairs[(i + 1) % keyPairs.length].getPublicKey();
+            }
+        }
+        boolean[] result = ENGINE.verify(e, r, s, publicKeys);
+        for (int i = 0; i < count; i++) {
+            boolean expected = reference(e[i], r[i], s[i], publicKeys[i]);
+            Assertions.assertEquals(i % 4 != 1 && i % 4 != 2, expected);
+            Assertions.assertEquals(expected, result[i], "signature " + i);
+            Assertions.assertEquals(expected, ENGINE.verify(e[i], r[i], s[i], publicKeys[i]), "signature " + i);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ENGINE.verify(e, r, new BigInteger[count - 1], publicKeys));
+    }
+
+    @Test
+    public void precompute() {
+        ECPoint publicKey = SM2Utils.initKey().getPublicKey();
+        ECPoint decoded = SM2Utils.publicKeyStr2ECPoint(SM2Utils.eCPoint2PublicKeyStr(publicKey, false));
+        ECPoint cached = ENGINE.precompute(publicKey);
+        Assertions.assertEquals(publicKey, cached);
+        Assertions.assertSame(cached, ENGINE.precompute(decoded));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ENGINE.precompute(G.getCurve().getInfinity()));
+        ENGINE.clear();
+        Assertions.assertNotSame(cached, ENGINE.precompute(decoded));
+        Assertions.assertEquals(G.multiply(BigInteger.TEN).normalize(), ENGINE.multiplyBase(BigInteger.TEN));
+    }
+
+    @Test
+    public void encryptAndDecrypt() {
+        SM2KeyPair keyPair = SM2Utils.initKey();
+        for (String message : new String[]{"a", "hello sm2", "The quick brown fox jumps over the lazy dog", repeat("0123456789", 10)}) {
+            byte[] encrypted = SM2Utils.encrypt(message, keyPair.getPublicKey(), false);
+            int length = message.getBytes().length;
+            Assertions.assertEquals(65 + length + 32, encrypted.length);
+            Assertions.assertEquals(message, SM2Utils.decrypt(encrypted, keyPair.getPrivateKey()));
+
+            // C1为65字节的未压缩点，之后是C2和32字节的C3
+            byte[] c1 = Arrays.copyOf(encrypted, 65);
+            Assertions.assertEquals(0x04, c1[0]);
+            Assertions.assertTrue(G.getCurve().decodePoint(c1).isValid());
+
+            byte[] tampered = encrypted.clone();
+            tampered[65] ^= 1;
+            Assertions.assertThrows(TaraException.class, () -> SM2Utils.decrypt(tampered, keyPair.getPrivateKey()));
+            Assertions.assertThrows(TaraException.class, () -> SM2Utils.decrypt(encrypted, SM2Utils.initKey().getPrivateKey()));
+        }
+    }
+
+    /**
+     * 不使用预计算表，按定义计算 R = (e + x1) mod n，(x1, y1) = [s]G + [t]P
+     */
+    private static boolean reference(BigInteger e, BigInteger r, BigInteger s, ECPoint publicKey) {
+        if (r.signum() <= 0 || r.compareTo(N) >= 0 || s.signum() <= 0 || s.compareTo(N) >= 0) {
+            return false;
+        }
+        BigInteger t = r.add(s).mod(N);
+        if (t.signum() == 0) {
+            return false;
+        }
+        ECPoint point = G.multiply(s).add(publicKey.multiply(t)).normalize();
+        return !point.isInfinity() && e.add(point.getAffineXCoord().toBigInteger()).mod(N).equals(r);
+    }
+
+    private static String repeat(String str, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(str);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,356 @@
+package com.sondertara.common.crypto.engine;
+
+import com.sondertara.common.exception.TaraException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class EngineTest {
+    private static final Random RANDOM = new Random(46);
+
+    @Test
+    public void digestMatchesMessageDigest() throws Exception {
+        for (String algorithm : new String[]{"MD5", "SHA-1", "SHA-256", "SHA-512"}) {
+            DigestEngine engine = DigestEngine.of(algorithm);
+            Assertions.assertSame(engine, DigestEngine.of(algorithm));
+            Assertions.assertEquals(algorithm, engine.getAlgorithm());
+            for (int length : new int[]{0, 1, 63, 64, 1000, Engine.BUFFER_SIZE + 17}) {
+                byte[] data = randomBytes(length);
+                byte[] expected = MessageDigest.getInstance(algorithm).digest(data);
+                Assertions.assertArrayEquals(expected, engine.digest(data));
+                Assertions.assertArrayEquals(expected, engine.digest(new ByteArrayInputStream(data)));
+                Assertions.assertArrayEquals(expected, engine.digest(Arrays.copyOfRange(data, 0, length / 2),
+                        Arrays.copyOfRange(data, length / 2, length)));
+                byte[] padded = new byte[length + 10];
+                System.arraycopy(data, 0, padded, 3, length);
+                Assertions.assertArrayEquals(expected, engine.digest(padded, 3, length));
+            }
+        }
+    }
+
+    @Test
+    public void digestFile() throws Exception {
+        byte[] data = randomBytes(3 * Engine.BUFFER_SIZE + 5);
+        File file = File.createTempFile("digest", ".bin");
+        try {
+            Files.write(file.toPath(), data);
+            DigestEngine engine = DigestEngine.of("SHA-256");
+            Assertions.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), engine.digest(file));
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                channel.position(100);
+                byte[] tail = Arrays.copyOfRange(data, 100, data.length);
+                Assertions.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(tail), engine.digest(channel));
+                Assertions.assertEquals(data.length, channel.position());
+            }
+        } finally {
+            Assertions.assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void abandonedUpdateIsReset() throws Exception {
+        DigestEngine digest = DigestEngine.of("SHA-256");
+        digest.messageDigest().update(randomBytes(100));
+        Assertions.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(new byte[]{1, 2}), digest.digest(new byte[]{1, 2}));
+
+        MacEngine mac = MacEngine.of("HmacSHA256");
+        SecretKey key = new SecretKeySpec(randomBytes(32), "HmacSHA256");
+        mac.mac(key).update(randomBytes(100));
+        Assertions.assertArrayEquals(jcaMac("HmacSHA256", key, new byte[]{1, 2}), mac.mac(key, new byte[]{1, 2}));
+
+        CipherEngine cipher = CipherEngine.of("AES/ECB/PKCS5Padding");
+        SecretKey aes = new SecretKeySpec(randomBytes(16), "AES");
+        byte[] data = randomBytes(40);
+        cipher.cipher(Cipher.ENCRYPT_MODE, aes, null).update(randomBytes(7));
+        Assertions.assertArrayEquals(jcaCipher("AES/ECB/PKCS5Padding", Cipher.ENCRYPT_MODE, aes, null, data), cipher.encrypt(aes, data));
+    }
+
+    @Test
+    public void threadLocalInstances() throws Exception {
+        DigestEngine engine = DigestEngine.of("SHA-256");
+        MessageDigest local = engine.messageDigest();
+        Assertions.assertSame(local, engine.messageDigest());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] data = randomBytes(5000);
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(data);
+            Future<?>[] futures = new Future[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> {
+                    Assertions.assertNotSame(local, engine.messageDigest());
+                    for (int j = 0; j < 500; j++) {
+                        Assertions.assertArrayEquals(expected, engine.digest(data));
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void unavailableAlgorithm() {
+        TaraException e = Assertions.assertThrows(TaraException.class, () -> DigestEngine.of("NO-SUCH-DIGEST"));
+        Assertions.assertEquals("NO-SUCH-DIGEST is not available", e.getMessage());
+        Assertions.assertThrows(TaraException.class, () -> CipherEngine.of("NoSuchCipher/ECB/NoPadding"));
+        Assertions.assertThrows(TaraException.class, () -> MacEngine.of("HmacNothing"));
+        Assertions.assertThrows(TaraException.class, () -> SignatureEngine.of("SHA256withNothing"));
+        Assertions.assertThrows(TaraException.class, () -> DigestEngine.of("SHA-256", "NoSuchProvider"));
+    }
+
+    @Test
+    public void cipherMatchesJca() throws Exception {
+        CipherEngine engine = CipherEngine.of("AES/ECB/PKCS5Padding");
+        Assertions.assertSame(engine, CipherEngine.of("AES/ECB/PKCS5Padding"));
+        SecretKey first = new SecretKeySpec(randomBytes(16), "AES");
+        SecretKey second = new SecretKeySpec(randomBytes(32), "AES");
+        // 交替使用不同密钥和模式，每次都要与新建的Cipher结果一致
+        for (int i = 0; i < 50; i++) {
+            SecretKey key = i % 3 == 0 ? second : first;
+            byte[] data = randomBytes(RANDOM.nextInt(100));
+            byte[] encrypted = engine.encrypt(key, data);
+            Assertions.assertArrayEquals(jcaCipher("AES/ECB/PKCS5Padding", Cipher.ENCRYPT_MODE, key, null, data), encrypted);
+            Assertions.assertArrayEquals(data, engine.decrypt(key, encrypted));
+            Assertions.assertArrayEquals(encrypted, engine.encrypt(key, data));
+        }
+        byte[] data = randomBytes(64);
+        byte[] padded = new byte[80];
+        System.arraycopy(data, 0, padded, 8, 64);
+        Assertions.assertArrayEquals(engine.encrypt(first, data), engine.doFinal(Cipher.ENCRYPT_MODE, first, null, padded, 8, 64));
+    }
+
+    @Test
+    public void cipherWithIv() throws Exception {
+        CipherEngine engine = CipherEngine.of("AES/CBC/PKCS5Padding");
+        SecretKey key = new SecretKeySpec(randomBytes(16), "AES");
+        IvParameterSpec iv = new IvParameterSpec(randomBytes(16));
+        byte[] data = randomBytes(100);
+        byte[] encrypted = engine.doFinal(Cipher.ENCRYPT_MODE, key, iv, data, 0, data.length);
+        Assertions.assertArrayEquals(jcaCipher("AES/CBC/PKCS5Padding", Cipher.ENCRYPT_MODE, key, iv, data), encrypted);
+        Assertions.assertArrayEquals(data, engine.doFinal(Cipher.DECRYPT_MODE, key, iv, encrypted, 0, encrypted.length));
+
+        // 未指定IV时每次初始化生成新的IV，不能复用上一次的初始化状态
+        Cipher cipher = engine.cipher(Cipher.ENCRYPT_MODE, key, null);
+        byte[] firstIv = cipher.getIV();
+        byte[] firstEncrypted = cipher.doFinal(data);
+        Assertions.assertFalse(Arrays.equals(firstEncrypted, engine.encrypt(key, data)));
+        Assertions.assertFalse(Arrays.equals(engine.encrypt(key, data), engine.encrypt(key, data)));
+        Assertions.assertArrayEquals(data, jcaCipher("AES/CBC/PKCS5Padding", Cipher.DECRYPT_MODE, key, new IvParameterSpec(firstIv), firstEncrypted));
+    }
+
+    @Test
+    public void cipherFailureResets() throws Exception {
+        CipherEngine engine = CipherEngine.of("AES/ECB/PKCS5Padding");
+        SecretKey key = new SecretKeySpec(randomBytes(16), "AES");
+        byte[] data = randomBytes(33);
+        byte[] encrypted = engine.encrypt(key, data);
+        byte[] truncated = Arrays.copyOf(encrypted, 20);
+        TaraException e = Assertions.assertThrows(TaraException.class, () -> engine.decrypt(key, truncated));
+        Assertions.assertEquals("AES/ECB/PKCS5Padding doFinal error", e.getMessage());
+        Assertions.assertArrayEquals(data, engine.decrypt(key, encrypted));
+        Assertions.assertThrows(TaraException.class, () -> engine.encrypt(new SecretKeySpec(new byte[5], "AES"), data));
+        Assertions.assertArrayEquals(encrypted, engine.encrypt(key, data));
+    }
+
+    @Test
+    public void cipherStreams() throws Exception {
+        CipherEngine engine = CipherEngine.of("AES/ECB/PKCS5Padding");
+        SecretKey key = new SecretKeySpec(randomBytes(16), "AES");
+        for (int length : new int[]{0, 15, 16, Engine.BUFFER_SIZE, 2 * Engine.BUFFER_SIZE + 3}) {
+            byte[] data = randomBytes(length);
+            byte[] expected = engine.encrypt(key, data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assertions.assertEquals(expected.length, engine.encrypt(key, new ByteArrayInputStream(data), out));
+            Assertions.assertArrayEquals(expected, out.toByteArray());
+            out.reset();
+            Assertions.assertEquals(length, engine.decrypt(key, new ByteArrayInputStream(expected), out));
+            Assertions.assertArrayEquals(data, out.toByteArray());
+
+            out.reset();
+            Assertions.assertEquals(expected.length, engine.doFinal(Cipher.ENCRYPT_MODE, key, null,
+                    Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(out)));
+            Assertions.assertArrayEquals(expected, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void macMatchesJca() throws Exception {
+        for (String algorithm : new String[]{"HmacMD5", "HmacSHA1", "HmacSHA256"}) {
+            MacEngine engine = MacEngine.of(algorithm);
+            Assertions.assertSame(engine, MacEngine.of(algorithm));
+            byte[][] keys = {randomBytes(16), randomBytes(32), randomBytes(100)};
+            for (int i = 0; i < 30; i++) {
+                byte[] key = keys[i % keys.length];
+                byte[] data = randomBytes(RANDOM.nextInt(300));
+                byte[] expected = jcaMac(algorithm, new SecretKeySpec(key, algorithm), data);
+                Assertions.assertArrayEquals(expected, engine.mac(key, data));
+                Assertions.assertArrayEquals(expected, engine.mac(new SecretKeySpec(key, algorithm), data));
+            }
+        }
+    }
+
+    @Test
+    public void signatureMatchesJca() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        KeyPair pair = generator.generateKeyPair();
+        KeyPair other = generator.generateKeyPair();
+        SignatureEngine engine = SignatureEngine.of("SHA256withRSA");
+        Assertions.assertSame(engine, SignatureEngine.of("SHA256withRSA"));
+        for (int i = 0; i < 20; i++) {
+            byte[] data = randomBytes(RANDOM.nextInt(500));
+            // RSA PKCS#1 v1.5签名是确定的，可以直接比较
+            byte[] sign = engine.sign(pair.getPrivate(), data);
+            Assertions.assertArrayEquals(jcaSign("SHA256withRSA", pair.getPrivate(), data), sign);
+            Assertions.assertTrue(engine.verify(pair.getPublic(), data, sign));
+            Assertions.assertFalse(engine.verify(other.getPublic(), data, sign));
+            byte[] tampered = Arrays.copyOf(data, data.length + 1);
+            Assertions.assertFalse(engine.verify(pair.getPublic(), tampered, sign));
+            Assertions.assertArrayEquals(sign, engine.sign(pair.getPrivate(), data));
+        }
+
+        KeyPairGenerator dsa = KeyPairGenerator.getInstance("DSA");
+        dsa.initialize(1024);
+        KeyPair dsaPair = dsa.generateKeyPair();
+        SignatureEngine dsaEngine = SignatureEngine.of("SHA256withDSA");
+        byte[] data = randomBytes(100);
+        Signature verifier = Signature.getInstance("SHA256withDSA");
+        verifier.initVerify(dsaPair.getPublic());
+        verifier.update(data);
+        Assertions.assertTrue(verifier.verify(dsaEngine.sign(dsaPair.getPrivate(), data)));
+
+        TaraException e = Assertions.assertThrows(TaraException.class, () -> engine.verify(pair.getPublic(), data, new byte[3]));
+        Assertions.assertEquals("SHA256withRSA verify error", e.getMessage());
+        byte[] sign = engine.sign(pair.getPrivate(), data);
+        Assertions.assertTrue(engine.verify(pair.getPublic(), data, sign));
+        Assertions.assertThrows(TaraException.class, () -> engine.sign(dsaPair.getPrivate(), data));
+        Assertions.assertArrayEquals(sign, engine.sign(pair.getPrivate(), data));
+    }
+
+    @Test
+    public void keyCache() throws Exception {
+        KeyCache.clear();
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        KeyPair pair = generator.generateKeyPair();
+        byte[] publicBytes = pair.getPublic().getEncoded();
+        byte[] privateBytes = pair.getPrivate().getEncoded();
+
+        PublicKey publicKey = KeyCache.publicKey("RSA", publicBytes);
+        Assertions.assertEquals(pair.getPublic(), publicKey);
+        Assertions.assertSame(publicKey, KeyCache.publicKey("RSA", publicBytes.clone()));
+        PrivateKey privateKey = KeyCache.privateKey("RSA", privateBytes);
+        Assertions.assertArrayEquals(privateBytes, privateKey.getEncoded());
+        Assertions.assertSame(privateKey, KeyCache.privateKey("RSA", privateBytes.clone()));
+
+        // 相同字节但类型或算法不同的密钥分开缓存
+        SecretKey aes = KeyCache.secretKey("AES", publicBytes);
+        Assertions.assertEquals("AES", aes.getAlgorithm());
+        Assertions.assertNotSame(aes, KeyCache.secretKey("HmacSHA256", publicBytes));
+
+        // 缓存复制了密钥字节，修改调用方的数组不影响缓存
+        byte[] secret = randomBytes(16);
+        SecretKey cached = KeyCache.secretKey("AES", secret);
+        byte[] original = secret.clone();
+        secret[0]++;
+        Assertions.assertNotSame(cached, KeyCache.secretKey("AES", secret));
+        Assertions.assertSame(cached, KeyCache.secretKey("AES", original));
+        Assertions.assertArrayEquals(original, cached.getEncoded());
+
+        TaraException e = Assertions.assertThrows(TaraException.class, () -> KeyCache.publicKey("RSA", new byte[]{1, 2, 3}));
+        Assertions.assertEquals("Invalid RSA public key", e.getMessage());
+        Assertions.assertThrows(TaraException.class, () -> KeyCache.privateKey("RSA", new byte[]{1, 2, 3}));
+
+        KeyCache.clear();
+        Assertions.assertNotSame(publicKey, KeyCache.publicKey("RSA", publicBytes));
+    }
+
+    @Test
+    public void seededSecretKey() throws Exception {
+        byte[] seed = "password".getBytes();
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+        random.setSeed(seed);
+        keyGenerator.init(128, random);
+        byte[] expected = keyGenerator.generateKey().getEncoded();
+
+        SecretKey key = KeyCache.seededSecretKey("AES", seed, 128);
+        Assertions.assertArrayEquals(expected, key.getEncoded());
+        Assertions.assertSame(key, KeyCache.seededSecretKey("AES", seed.clone(), 128));
+        Assertions.assertEquals(32, KeyCache.seededSecretKey("AES", seed, 256).getEncoded().length);
+        Assertions.assertNotSame(key, KeyCache.secretKey("AES", seed));
+    }
+
+    @Test
+    public void keyCacheIsBounded() {
+        KeyCache.clear();
+        byte[] first = randomBytes(16);
+        SecretKey key = KeyCache.secretKey("AES", first);
+        for (int i = 0; i < KeyCache.MAXIMUM_SIZE * 4; i++) {
+            KeyCache.secretKey("AES", randomBytes(16));
+        }
+        // 最早放入的密钥已被淘汰，再次获取得到新实例
+        SecretKey again = KeyCache.secretKey("AES", first);
+        Assertions.assertNotSame(key, again);
+        Assertions.assertEquals(key, again);
+    }
+
+    private static byte[] jcaCipher(String transformation, int mode, SecretKey key, IvParameterSpec iv, byte[] data) throws Exception {
+        Cipher cipher = Cipher.getInstance(transformation);
+        if (null == iv) {
+            cipher.init(mode, key);
+        } else {
+            cipher.init(mode, key, iv);
+        }
+        return cipher.doFinal(data);
+    }
+
+    private static byte[] jcaMac(String algorithm, SecretKey key, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(key);
+        return mac.doFinal(data);
+    }
+
+    private static byte[] jcaSign(String algorithm, PrivateKey key, byte[] data) throws Exception {
+        Signature signature = Signature.getInstance(algorithm);
+        signature.initSign(key);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+}
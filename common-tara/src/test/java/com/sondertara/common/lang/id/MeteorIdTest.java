@@ -0,0 +1,101 @@
+package com.sondertara.common.lang.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MeteorIdTest {
+    private static final int RAND_BITS = 3;
+    private static final int SEQ_BITS = 11;
+    private static final int NODE_BITS = 20;
+    private static final long INIT_SECOND = 1640966400L;
+
+    @Test
+    public void ascendingAcrossSequenceWrap() {
+        MeteorId.Node node = new MeteorId.Node(5);
+        long previous = -1;
+        for (int i = 0; i < 3 * (1 << SEQ_BITS) + 10; i++) {
+            long id = node.nextId();
+            Assertions.assertTrue((id >>> RAND_BITS) > previous, "id " + i);
+            previous = id >>> RAND_BITS;
+            Assertions.assertEquals(5, node(id));
+        }
+        long second = (previous << RAND_BITS) >>> (RAND_BITS + SEQ_BITS + NODE_BITS);
+        long now = System.currentTimeMillis() / 1000 - INIT_SECOND;
+        // the serials used up in a second are borrowed from the next seconds
+        Assertions.assertTrue(second >= now - 1 && second <= now + 4, second + " vs " + now);
+    }
+
+    @Test
+    public void batchAllocation() {
+        MeteorId.Node node = new MeteorId.Node(7);
+        long before = node.nextId() >>> RAND_BITS;
+        long[] ids = node.nextIds(5000);
+        Assertions.assertEquals(5000, ids.length);
+        long previous = before;
+        for (long id : ids) {
+            Assertions.assertTrue((id >>> RAND_BITS) > previous);
+            previous = id >>> RAND_BITS;
+            Assertions.assertEquals(7, node(id));
+        }
+        Assertions.assertTrue((node.nextId() >>> RAND_BITS) > previous);
+        Assertions.assertEquals(0, node.nextIds(0).length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> node.nextIds(-1));
+    }
+
+    @Test
+    public void uniqueAcrossThreads() throws Exception {
+        MeteorId.Node node = new MeteorId.Node(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final boolean batch = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[20000];
+                    for (int i = 0; i < ids.length; i += 100) {
+                        if (batch) {
+                            System.arraycopy(node.nextIds(100), 0, ids, i, 100);
+                        } else {
+                            for (int j = i; j < i + 100; j++) {
+                                ids[j] = node.nextId();
+                            }
+                        }
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                for (long id : future.get()) {
+                    Assertions.assertTrue(unique.add(id >>> RAND_BITS), "duplicate " + id);
+                }
+            }
+            Assertions.assertEquals(80000, unique.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void nodeId() {
+        MeteorId.Node node = new MeteorId.Node(0);
+        node.setNodeId((1 << NODE_BITS) - 1);
+        Assertions.assertEquals((1 << NODE_BITS) - 1, node(node.nextId()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> node.setNodeId(1 << NODE_BITS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> node.setNodeId(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MeteorId.Node(-1));
+        Assertions.assertTrue(MeteorId.nextId() > 0);
+    }
+
+    private static long node(long id) {
+        return id >>> (RAND_BITS + SEQ_BITS) & ((1L << NODE_BITS) - 1);
+    }
+}
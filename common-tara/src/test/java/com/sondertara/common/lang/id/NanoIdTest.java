@@ -0,0 +1,220 @@
+package com.sondertara.common.lang.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class NanoIdTest {
+    private static final String DEFAULT_ALPHABET = "_-0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Test
+    public void defaultSizeAndAlphabet() {
+        String id = NanoId.randomNanoId();
+        Assertions.assertEquals(NanoId.DEFAULT_SIZE, id.length());
+        assertAlphabet(DEFAULT_ALPHABET, id);
+        for (int size : new int[]{1, 7, 21, 64, 5000}) {
+            assertAlphabet(DEFAULT_ALPHABET, NanoId.randomNanoId(size));
+            assertAlphabet(DEFAULT_ALPHABET, NanoId.fastNanoId(size));
+            Assertions.assertEquals(size, NanoId.randomNanoId(size).length());
+            Assertions.assertEquals(size, NanoId.fastNanoId(size).length());
+        }
+    }
+
+    @Test
+    public void unique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertTrue(ids.add(NanoId.randomNanoId()));
+            Assertions.assertTrue(ids.add(NanoId.fastNanoId(NanoId.DEFAULT_SIZE)));
+        }
+    }
+
+    @Test
+    public void batches() {
+        String[] secure = NanoId.randomNanoIds(3000, 12);
+        String[] fast = NanoId.fastNanoIds(3000, 12);
+        Assertions.assertEquals(3000, secure.length);
+        Assertions.assertEquals(3000, fast.length);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 3000; i++) {
+            Assertions.assertEquals(12, secure[i].length());
+            Assertions.assertEquals(12, fast[i].length());
+            assertAlphabet(DEFAULT_ALPHABET, secure[i]);
+            assertAlphabet(DEFAULT_ALPHABET, fast[i]);
+            Assertions.assertTrue(ids.add(secure[i]));
+            Assertions.assertTrue(ids.add(fast[i]));
+        }
+        Assertions.assertEquals(0, NanoId.randomNanoIds(0, 12).length);
+        Assertions.assertEquals(0, NanoId.fastNanoIds(0, 12).length);
+    }
+
+    @Test
+    public void everySymbolIsUsed() {
+        // 缓冲池跨越多次填充后，默认字母表的每个字符都应出现
+        Set<Character> seen = new HashSet<>();
+        for (char c : NanoId.fastNanoId(RandomBytePool.BUFFER_SIZE * 3).toCharArray()) {
+            seen.add(c);
+        }
+        Assertions.assertEquals(DEFAULT_ALPHABET.length(), seen.size());
+        seen.clear();
+        for (char c : NanoId.randomNanoId(RandomBytePool.BUFFER_SIZE * 3).toCharArray()) {
+            seen.add(c);
+        }
+        Assertions.assertEquals(DEFAULT_ALPHABET.length(), seen.size());
+    }
+
+    @Test
+    public void customRandomMatchesReference() {
+        String[] alphabets = {"a", "ab", "abc", "0123456789", "0123456789abcdef", "0123456789abcdefg", DEFAULT_ALPHABET,
+                DEFAULT_ALPHABET + "+", new String(alphabet(255))};
+        for (String alphabet : alphabets) {
+            for (int size : new int[]{1, 10, 21, 100}) {
+                String expected = reference(new Random(size * 31L + alphabet.length()), alphabet.toCharArray(), size);
+                String actual = NanoId.randomNanoId(new Random(size * 31L + alphabet.length()), alphabet.toCharArray(), size);
+                Assertions.assertEquals(expected, actual, alphabet.length() + "/" + size);
+            }
+        }
+        String expected = reference(new Random(7), DEFAULT_ALPHABET.toCharArray(), 21);
+        Assertions.assertEquals(expected, NanoId.randomNanoId(new Random(7), null, 21));
+    }
+
+    @Test
+    public void nullRandomUsesPool() {
+        String id = NanoId.randomNanoId(null, "xyz".toCharArray(), 40);
+        Assertions.assertEquals(40, id.length());
+        assertAlphabet("xyz", id);
+    }
+
+    @Test
+    public void invalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoId(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.fastNanoId(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoIds(-1, 21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.fastNanoIds(-1, 21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoIds(1, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoId(new Random(), new char[0], 21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoId(new Random(), alphabet(256), 21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> NanoId.randomNanoId(new Random(), null, 0));
+    }
+
+    @Test
+    public void poolBytesInRange() {
+        RandomBytePool[] pools = {RandomBytePool.secure(), RandomBytePool.fast()};
+        for (RandomBytePool pool : pools) {
+            int[] counts = new int[256];
+            for (int i = 0; i < RandomBytePool.BUFFER_SIZE * 64; i++) {
+                int b = pool.nextByte();
+                Assertions.assertTrue(b >= 0 && b <= 255, String.valueOf(b));
+                counts[b]++;
+            }
+            for (int i = 0; i < counts.length; i++) {
+                Assertions.assertTrue(counts[i] > 0, "byte " + i);
+            }
+        }
+        Assertions.assertSame(RandomBytePool.secure(), RandomBytePool.secure());
+        Assertions.assertNotSame(RandomBytePool.secure(), RandomBytePool.fast());
+    }
+
+    @Test
+    public void objectId() {
+        String id = ObjectId.next();
+        Assertions.assertEquals(24, id.length());
+        Assertions.assertTrue(ObjectId.isValid(id));
+        Assertions.assertTrue(id.matches("[0-9a-f]{24}"));
+        String hyphen = ObjectId.next(true);
+        Assertions.assertTrue(hyphen.matches("[0-9a-f]{8}-[0-9a-f]{8}-[0-9a-f]{8}"), hyphen);
+        Assertions.assertTrue(ObjectId.isValid(hyphen));
+
+        long second = System.currentTimeMillis() / 1000;
+        long idSecond = Long.parseLong(id.substring(0, 8), 16);
+        Assertions.assertTrue(Math.abs(second - idSecond) <= 1, id);
+        Assertions.assertEquals(id.substring(8, 16), hyphen.substring(9, 17));
+
+        byte[] bytes = ObjectId.nextBytes();
+        Assertions.assertEquals(12, bytes.length);
+        Assertions.assertEquals(id.substring(8, 16), toHex(bytes).substring(8, 16));
+    }
+
+    @Test
+    public void objectIdBatch() {
+        String first = ObjectId.next();
+        String[] ids = ObjectId.next(1000, false);
+        String[] hyphen = ObjectId.next(10, true);
+        Assertions.assertEquals(1000, ids.length);
+        Assertions.assertEquals(10, hyphen.length);
+        Assertions.assertEquals(0, ObjectId.next(0, true).length);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ObjectId.next(-1, false));
+
+        Set<String> seen = new HashSet<>();
+        seen.add(first);
+        int previous = Integer.parseUnsignedInt(first.substring(16), 16);
+        for (String id : ids) {
+            Assertions.assertTrue(ObjectId.isValid(id));
+            Assertions.assertTrue(seen.add(id));
+            // 批量分配的计数器连续
+            int inc = Integer.parseUnsignedInt(id.substring(16), 16);
+            Assertions.assertEquals(previous + 1, inc);
+            previous = inc;
+        }
+        for (String id : hyphen) {
+            Assertions.assertTrue(id.matches("[0-9a-f]{8}-[0-9a-f]{8}-[0-9a-f]{8}"), id);
+            Assertions.assertTrue(seen.add(id.replace("-", "")));
+        }
+    }
+
+    @Test
+    public void objectIdIsValid() {
+        Assertions.assertFalse(ObjectId.isValid(null));
+        Assertions.assertFalse(ObjectId.isValid(""));
+        Assertions.assertFalse(ObjectId.isValid("5b9e306a4df4f8c54a39fb0"));
+        Assertions.assertFalse(ObjectId.isValid("5b9e306a4df4f8c54a39fb0g"));
+        Assertions.assertTrue(ObjectId.isValid("5B9E306A4DF4F8C54A39FB0F"));
+    }
+
+    /**
+     * 原始NanoId算法：掩码由Math.log计算，每次按step取随机字节
+     */
+    private static String reference(Random random, char[] alphabet, int size) {
+        final int mask = alphabet.length == 1 ? 1 : (2 << (int) Math.floor(Math.log(alphabet.length - 1) / Math.log(2))) - 1;
+        final int step = (int) Math.ceil(1.6 * mask * size / alphabet.length);
+        final StringBuilder idBuilder = new StringBuilder();
+        while (true) {
+            final byte[] bytes = new byte[step];
+            random.nextBytes(bytes);
+            for (int i = 0; i < step; i++) {
+                final int alphabetIndex = bytes[i] & mask;
+                if (alphabetIndex < alphabet.length) {
+                    idBuilder.append(alphabet[alphabetIndex]);
+                    if (idBuilder.length() == size) {
+                        return idBuilder.toString();
+                    }
+                }
+            }
+        }
+    }
+
+    private static char[] alphabet(int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('\u0100' + i);
+        }
+        return chars;
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b & 0xff));
+        }
+        return sb.toString();
+    }
+
+    private static void assertAlphabet(String alphabet, String id) {
+        for (int i = 0; i < id.length(); i++) {
+            Assertions.assertTrue(alphabet.indexOf(id.charAt(i)) >= 0, id);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sondertara.common.time;
+
+import com.sondertara.common.util.LocalDateTimeUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class DateFormatterPoolTest {
+
+    private static final String[] ZONES = {"UTC", "Asia/Shanghai", "America/New_York", "Europe/London", "Asia/Kathmandu", "Pacific/Apia"};
+    private static final String[] PATTERNS = {DatePattern.NORM_DATETIME_PATTERN, DatePattern.NORM_DATE_PATTERN, "yyyyMMddHHmmss", "HH:mm:ss.SSS"};
+
+    @Test
+    public void formatToSameAsDateTimeFormatter() {
+        long[] millis = {0L, -1L, 1L, 999L, -1000L, 951782400000L, 1552201200000L, 1572760800000L, 4102444799999L,
+                -62135596800000L, -62135596800001L, 253402300799999L, 253402300800000L, Long.MAX_VALUE / 1000, -30610224000000L};
+        Random random = new Random(42);
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            for (String zone : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                for (String pattern : PATTERNS) {
+                    for (long epochMilli : millis) {
+                        assertSameAsFormatter(zone, pattern, epochMilli);
+                    }
+                    for (int i = 0; i < 2000; i++) {
+                        assertSameAsFormatter(zone, pattern, (random.nextLong() >> 20) - 1L);
+                    }
+                }
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void formatToAppendable() {
+        StringWriter writer = new StringWriter();
+        writer.append('[');
+        Date date = new Date();
+        Assertions.assertSame(writer, LocalDateTimeUtils.formatTo(date, DatePattern.NORM_DATE_PATTERN, writer));
+        Assertions.assertEquals("[" + LocalDateTimeUtils.format(date, DatePattern.NORM_DATE_PATTERN), writer.toString());
+
+        StringBuilder builder = new StringBuilder("x");
+        LocalDateTimeUtils.formatTo(null, DatePattern.NORM_DATE_PATTERN, builder);
+        Assertions.assertEquals("x", builder.toString());
+    }
+
+    @Test
+    public void formattersAreCached() {
+        DateTimeFormatter formatter = DateFormatterPool.get("yyyy/MM/dd");
+        Assertions.assertSame(formatter, DateFormatterPool.get("yyyy/MM/dd"));
+        Assertions.assertNotSame(formatter, DateFormatterPool.get("yyyy/MM/dd", Locale.US, ZoneId.of("UTC")));
+        Assertions.assertEquals(ZoneId.of("UTC"), DateFormatterPool.get("yyyy/MM/dd", Locale.US, ZoneId.of("UTC")).getZone());
+        Assertions.assertSame(DateFormatterPool.getFastDateFormat("yyyy", null, null),
+                DateFormatterPool.getFastDateFormat("yyyy", TimeZone.getDefault(), Locale.getDefault()));
+        DateFormatterPool.clear();
+        Assertions.assertNotSame(formatter, DateFormatterPool.get("yyyy/MM/dd"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DateFormatterPool.get("yyyy-MM-dd qqqqqq"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LocalDateTimeUtils.format(new Date(), "{bad}"));
+    }
+
+    private static void assertSameAsFormatter(String zone, String pattern, long epochMilli) {
+        LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+        String expected = DateTimeFormatter.ofPattern(pattern).format(localDateTime);
+        Assertions.assertEquals(expected, LocalDateTimeUtils.format(new Date(epochMilli), pattern), zone + " " + pattern + " " + epochMilli);
+    }
+}
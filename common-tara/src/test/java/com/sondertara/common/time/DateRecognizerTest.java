@@ -0,0 +1,75 @@
+package com.sondertara.common.time;
+
+import com.sondertara.common.util.LocalDateTimeUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.TimeZone;
+
+public class DateRecognizerTest {
+
+    private static final String[] ZONES = {"UTC", "Asia/Shanghai", "America/New_York", "Europe/London", "Asia/Kolkata"};
+
+    private static final String[] RECOGNIZED = {"20190601194543", "20190601194543123", "20190601", "2019-06-01", "2019-6-1",
+            "2019/06/01", "2019.06.01", "2019-06-01 19:45", "2019-06-01 19:45:43", "2019-6-1 9:5:3", "2019-06-01 19:45:43.123",
+            "2019-06-01T19:45:43", "2019-06-01T19:45:43Z", "2019-06-01T19:45:43.123Z", "2019-06-01T19:45:43+08:00",
+            "  2019-06-01 19:45:43  ", "2020-02-29", "2020-02-29 23:59:59"};
+
+    private static final String[] OTHERS = {"194543", "2019-06-01 19:45:43.1", "2019-06-01 19:45:43.123456", "2019-06-01T19:45:43+0800",
+            "Sat Jun 01 19:45:43 CST 2019", "Sat Jun 01 19:45:43 GMT+08:00 2019", "2019-02-29", "2019-13-01", "2019-06-31",
+            "2019-06-01 24:00:00", "2019-06-01 23:59:60", "1599-01-01", "1600-03-01 00:00:00", "9999-12-31 23:59:59",
+            "2019-03-10 02:30:00", "2019-11-03 01:30:00", "2019-03-31 01:30:00", "2019-10-27 01:30:00", "abc", "2019-06",
+            "2019-06-01X", "2019-06-01 19", "2019-06-01T19:45:43+19:00", "2019-06-01 19:45:43 ", "２０１９-06-01", "2019-06-01T19:45:43.123-05:30"};
+
+    @Test
+    public void sameAsParseDateByFormat() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            for (String zone : ZONES) {
+                TimeZone.setDefault(TimeZone.getTimeZone(zone));
+                for (String str : RECOGNIZED) {
+                    Assertions.assertNotNull(DateRecognizer.parse(str), zone + " " + str);
+                    assertSameAsFormatter(zone, str);
+                }
+                for (String str : OTHERS) {
+                    assertSameAsFormatter(zone, str);
+                }
+            }
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void unrecognized() {
+        Assertions.assertNull(DateRecognizer.parse(null));
+        Assertions.assertNull(DateRecognizer.parse(""));
+        Assertions.assertNull(DateRecognizer.parse("   "));
+        Assertions.assertNull(DateRecognizer.parse("2019-02-29"));
+        Assertions.assertNull(DateRecognizer.parse("2019-06-01 25:00"));
+        Assertions.assertNull(DateRecognizer.parse("hello"));
+    }
+
+    @Test
+    public void offsetsAreKept() {
+        DateTime utc = DateRecognizer.parse("2019-06-01T19:45:43Z");
+        DateTime plus8 = DateRecognizer.parse("2019-06-01T19:45:43+08:00");
+        Assertions.assertEquals(1559418343000L, utc.getTime());
+        Assertions.assertEquals(utc.getTime() - 8 * 3600_000L, plus8.getTime());
+        Assertions.assertEquals(8 * 3600_000, plus8.getTimeZone().getRawOffset());
+        Assertions.assertEquals(123, DateRecognizer.parse("2019-06-01T19:45:43.123Z").getTime() % 1000);
+    }
+
+    private static void assertSameAsFormatter(String zone, String str) {
+        DateTime recognized = DateRecognizer.parse(str);
+        if (recognized == null) {
+            return;
+        }
+        String message = zone + " " + str;
+        DateTime expected = LocalDateTimeUtils.parseDateByFormat(str);
+        Assertions.assertNotNull(expected, message);
+        Assertions.assertEquals(expected.getTime(), recognized.getTime(), message);
+        Assertions.assertEquals(expected.getTimeZone().getOffset(expected.getTime()), recognized.getTimeZone().getOffset(recognized.getTime()), message);
+        Assertions.assertEquals(expected, LocalDateTimeUtils.parseDate(str), message);
+    }
+}
@@ -0,0 +1,280 @@
+package com.sondertara.common.util;
+
+import com.sondertara.common.exception.TaraException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class HexUtilsTest {
+    private static final Random RANDOM = new Random(45);
+
+    private static final String[] DECODE_INPUTS = {"", "0", "f", "F", "00", "ff", "FF", "fF", "0123456789abcdefABCDEF", "abc",
+            "12 34", " 1234 ", "12\t34\r\n56", "12 34", "12　34", "1 2", "12\u001c34", "﻿1234", "1 2 3",
+            "１２", "١٢", "12g4", "g", "1g", "gg", "12-34", "0x12", "²³", "12ÿ", "１ｇ"};
+
+    @Test
+    public void encodeMatchesReference() {
+        for (int length = 0; length < 600; length += 7) {
+            byte[] data = randomBytes(length);
+            Assertions.assertEquals(reference(data, true), HexUtils.encodeHexStr(data));
+            Assertions.assertEquals(reference(data, true), HexUtils.encodeHexStr(data, true));
+            Assertions.assertEquals(reference(data, false), HexUtils.encodeHexStr(data, false));
+            Assertions.assertArrayEquals(reference(data, true).toCharArray(), HexUtils.encodeHex(data));
+        }
+        byte[] all = new byte[256];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = (byte) i;
+        }
+        Assertions.assertEquals(reference(all, false), HexUtils.encodeHexStr(all, false));
+        Assertions.assertEquals("e4b8ad", HexUtils.encodeHexStr("中"));
+        Assertions.assertEquals("e4b8ad", new String(HexUtils.encodeHex("中", StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void roundTrip() {
+        for (int length = 0; length < 300; length++) {
+            byte[] data = randomBytes(length);
+            String lower = HexUtils.encodeHexStr(data, true);
+            String upper = HexUtils.encodeHexStr(data, false);
+            byte[] expected = length == 0 ? null : data;
+            Assertions.assertArrayEquals(expected, HexUtils.decodeHex(lower));
+            Assertions.assertArrayEquals(expected, HexUtils.decodeHex(upper));
+            Assertions.assertArrayEquals(expected, HexUtils.decodeHex(upper.toCharArray()));
+            Assertions.assertArrayEquals(expected, HexUtils.decodeHex(new StringBuilder(lower)));
+        }
+        Assertions.assertEquals("中文abc", HexUtils.decodeHexStr(HexUtils.encodeHexStr("中文abc")));
+        Assertions.assertEquals("中文", HexUtils.decodeHexStr(HexUtils.encodeHex("中文", StandardCharsets.UTF_16), StandardCharsets.UTF_16));
+    }
+
+    @Test
+    public void decodeMatchesReference() {
+        for (String input : DECODE_INPUTS) {
+            assertSameOutcome(input);
+        }
+        String symbols = "0a F\t　g ０";
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[RANDOM.nextInt(9)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = symbols.charAt(RANDOM.nextInt(symbols.length()));
+            }
+            assertSameOutcome(new String(chars));
+        }
+    }
+
+    @Test
+    public void emptyAndBlank() {
+        Assertions.assertNull(HexUtils.decodeHex(""));
+        Assertions.assertNull(HexUtils.decodeHex((String) null));
+        Assertions.assertNull(HexUtils.decodeHex(new char[0]));
+        Assertions.assertEquals(0, HexUtils.decodeHex("   ").length);
+        Assertions.assertEquals("", HexUtils.decodeHexStr(""));
+        Assertions.assertNull(HexUtils.decodeHexStr((String) null));
+        Assertions.assertArrayEquals(new byte[]{0x0a, (byte) 0xbc}, HexUtils.decodeHex(" a b c "));
+    }
+
+    @Test
+    public void offsetVariants() {
+        byte[] data = randomBytes(100);
+        String hex = HexUtils.encodeHexStr(data, false);
+        char[] out = new char[240];
+        Assertions.assertEquals(5 + 60, HexUtils.encodeHex(data, 10, 30, out, 5, false));
+        Assertions.assertEquals(hex.substring(20, 80), new String(out, 5, 60));
+        Assertions.assertEquals('\0', out[4]);
+        Assertions.assertEquals('\0', out[65]);
+        Assertions.assertEquals(7, HexUtils.encodeHex(data, 0, 0, out, 7, true));
+
+        StringBuilder builder = new StringBuilder("x");
+        Assertions.assertSame(builder, HexUtils.appendHex(builder, data, 3, 4, true));
+        Assertions.assertEquals("x" + hex.substring(6, 14).toLowerCase(), builder.toString());
+
+        byte[] decoded = new byte[40];
+        Assertions.assertEquals(3 + 30, HexUtils.decodeHex("--" + hex, 22, 60, decoded, 3));
+        for (int i = 0; i < 30; i++) {
+            Assertions.assertEquals(data[10 + i], decoded[3 + i]);
+        }
+        Assertions.assertEquals(0, decoded[2]);
+        Assertions.assertEquals(0, decoded[33]);
+        TaraException odd = Assertions.assertThrows(TaraException.class, () -> HexUtils.decodeHex(hex, 0, 3, decoded, 0));
+        Assertions.assertEquals("Odd number of hexadecimal characters: 3", odd.getMessage());
+        TaraException illegal = Assertions.assertThrows(TaraException.class, () -> HexUtils.decodeHex("00 1", 0, 4, decoded, 0));
+        Assertions.assertEquals("Illegal hexadecimal character   at index 2", illegal.getMessage());
+    }
+
+    @Test
+    public void bufferVariants() {
+        byte[] data = randomBytes(50);
+        String hex = HexUtils.encodeHexStr(data);
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer src = direct ? ByteBuffer.allocateDirect(50) : ByteBuffer.allocate(50);
+            src.put(data).flip();
+            src.position(5);
+            CharBuffer dst = CharBuffer.allocate(21);
+            // 目标只够10个字节
+            Assertions.assertEquals(10, HexUtils.encodeHex(src, dst, true));
+            Assertions.assertEquals(15, src.position());
+            Assertions.assertEquals(20, dst.position());
+            dst.flip();
+            Assertions.assertEquals(hex.substring(10, 30), dst.toString());
+
+            ByteBuffer bytes = direct ? ByteBuffer.allocateDirect(8) : ByteBuffer.allocate(8);
+            CharBuffer chars = CharBuffer.wrap(hex.substring(10, 31));
+            // 剩余21个字符，目标只够8个字节
+            Assertions.assertEquals(8, HexUtils.decodeHex(chars, bytes));
+            Assertions.assertEquals(16, chars.position());
+            bytes.clear();
+            Assertions.assertEquals(2, HexUtils.decodeHex(chars, bytes));
+            Assertions.assertEquals(20, chars.position());
+            Assertions.assertEquals(1, chars.remaining());
+            bytes.flip();
+            Assertions.assertEquals(data[13], bytes.get());
+            Assertions.assertEquals(data[14], bytes.get());
+        }
+        // 只读缓冲没有底层数组
+        CharBuffer dst = CharBuffer.allocate(8);
+        Assertions.assertEquals(4, HexUtils.encodeHex(ByteBuffer.wrap(data).asReadOnlyBuffer(), dst, false));
+        dst.flip();
+        Assertions.assertEquals(hex.substring(0, 8).toUpperCase(), dst.toString());
+    }
+
+    @Test
+    public void streaming() throws Exception {
+        for (int length : new int[]{0, 1, 4095, 4096, 4097, 10000}) {
+            byte[] data = randomBytes(length);
+            String hex = HexUtils.encodeHexStr(data, false);
+            StringWriter writer = new StringWriter();
+            Assertions.assertEquals(length, HexUtils.encodeHex(new ByteArrayInputStream(data), writer, false));
+            Assertions.assertEquals(hex, writer.toString());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assertions.assertEquals(length, HexUtils.decodeHex(new StringReader(hex), out));
+            Assertions.assertArrayEquals(data, out.toByteArray());
+
+            // 每次只返回奇数个字符，需要保留半个字节到下一次
+            out.reset();
+            Assertions.assertEquals(length, HexUtils.decodeHex(new ChunkedReader(hex, 3), out));
+            Assertions.assertArrayEquals(data, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void streamingErrors() {
+        String hex = HexUtils.encodeHexStr(randomBytes(5000));
+        TaraException odd = Assertions.assertThrows(TaraException.class,
+                () -> HexUtils.decodeHex(new ChunkedReader(hex + "a", 7), new ByteArrayOutputStream()));
+        Assertions.assertEquals("Odd number of hexadecimal characters: 10001", odd.getMessage());
+
+        String invalid = hex.substring(0, 9001) + "z" + hex.substring(9002);
+        TaraException illegal = Assertions.assertThrows(TaraException.class,
+                () -> HexUtils.decodeHex(new ChunkedReader(invalid, 5), new ByteArrayOutputStream()));
+        Assertions.assertEquals("Illegal hexadecimal character z at index 9001", illegal.getMessage());
+    }
+
+    @Test
+    public void toDigit() {
+        for (char c = 0; c < 0x3000; c++) {
+            int expected = Character.digit(c, 16);
+            if (expected < 0) {
+                final char ch = c;
+                Assertions.assertThrows(TaraException.class, () -> HexUtils.toDigit(ch, 0));
+            } else {
+                Assertions.assertEquals(expected, HexUtils.toDigit(c, 0), String.valueOf((int) c));
+            }
+        }
+    }
+
+    private static void assertSameOutcome(String input) {
+        byte[] expected;
+        try {
+            expected = referenceDecode(input);
+        } catch (TaraException e) {
+            TaraException actual = Assertions.assertThrows(TaraException.class, () -> HexUtils.decodeHex(input), input);
+            Assertions.assertEquals(e.getMessage(), actual.getMessage(), input);
+            return;
+        }
+        Assertions.assertArrayEquals(expected, HexUtils.decodeHex(input), input);
+    }
+
+    /**
+     * 原始实现：逐字节Integer运算编码
+     */
+    private static String reference(byte[] data, boolean toLowerCase) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : data) {
+            sb.append(String.format(toLowerCase ? "%02x" : "%02X", b & 0xFF));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 原始实现：清理空白后奇数长度前补0，用Character.digit逐字符解码
+     */
+    private static byte[] referenceDecode(CharSequence encoded) {
+        if (StringUtils.isEmpty(encoded)) {
+            return null;
+        }
+        encoded = StringUtils.cleanBlank(encoded);
+        int len = encoded.length();
+        if ((len & 0x01) != 0) {
+            encoded = "0" + encoded;
+            len = encoded.length();
+        }
+        final byte[] out = new byte[len >> 1];
+        for (int i = 0, j = 0; j < len; i++) {
+            int f = digit(encoded.charAt(j), j) << 4;
+            j++;
+            f = f | digit(encoded.charAt(j), j);
+            j++;
+            out[i] = (byte) (f & 0xFF);
+        }
+        return out;
+    }
+
+    private static int digit(char ch, int index) {
+        int digit = Character.digit(ch, 16);
+        if (digit < 0) {
+            throw new TaraException("Illegal hexadecimal character {} at index {}", ch, index);
+        }
+        return digit;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static class ChunkedReader extends Reader {
+        private final String data;
+        private final int chunk;
+        private int position;
+
+        ChunkedReader(String data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position == data.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(chunk, len), data.length() - position);
+            data.getChars(position, position + count, cbuf, off);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.sondertara.common.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class StringSplitUtilsTest {
+    private static final String SYMBOLS = "aA,;b B\t 　,,";
+    private static final int[] LIMITS = {-1, 0, 1, 2, 3, 5};
+
+    private final Random random = new Random(50);
+
+    @Test
+    public void edgeCases() {
+        Assertions.assertEquals(Collections.emptyList(), StringSplitUtils.split("", ',', -1, false, false));
+        Assertions.assertEquals(Collections.emptyList(), StringSplitUtils.split(null, ',', -1, false, false));
+        // 返回集合的切分方法沿用空白字符串返回空集合的行为，遍历片段的方法只把长度为0视为空
+        Assertions.assertEquals(Collections.emptyList(), StringSplitUtils.split(" \t ", ',', -1, false, false));
+        Assertions.assertEquals(1, StringSplitUtils.forEachToken(" \t ", ',', false, false, token -> {
+        }));
+        Assertions.assertEquals(" \t ", StringSplitUtils.nthToken(" \t ", ',', 0, false, false));
+        Assertions.assertEquals(Collections.singletonList(","), StringSplitUtils.split(",", ',', 1, false, false));
+        Assertions.assertEquals(Arrays.asList("", ""), StringSplitUtils.split(",", ',', -1, false, false));
+        Assertions.assertEquals(Collections.emptyList(), StringSplitUtils.split(",", ',', -1, false, true));
+        Assertions.assertEquals(Arrays.asList("", "a", "", "b", ""), StringSplitUtils.split(",a,,b,", ',', -1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "b"), StringSplitUtils.split(",a,,b,", ',', -1, false, true));
+        Assertions.assertEquals(Arrays.asList("a", "", "b"), StringSplitUtils.split(" a , , b ", ',', -1, true, false));
+        Assertions.assertEquals(Arrays.asList("a", "b"), StringSplitUtils.splitTrim(" a , , b ", ',', true));
+        Assertions.assertEquals(Arrays.asList("a", "b,c"), StringSplitUtils.split("a,b,c", ',', 2, false, false));
+        // 忽略的空串不计入分片数
+        Assertions.assertEquals(Arrays.asList("a", "b,c"), StringSplitUtils.split(",,a,b,c", ',', 2, false, true));
+        Assertions.assertEquals(Collections.singletonList("a,b"), StringSplitUtils.split("a,b", ',', 1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), StringSplitUtils.splitIgnoreCase("aXbxc", 'x', -1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "c"), StringSplitUtils.splitIgnoreCase("aABc", "ab", -1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "b c"), StringSplitUtils.split("a::b c", "::", -1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), StringSplitUtils.split(" a\tb　 c ", -1));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), StringSplitUtils.split(" a\tb c ", "", -1, false, false));
+        Assertions.assertEquals(Arrays.asList("usr", "local", "bin"), StringSplitUtils.splitPath("/usr//local/bin/"));
+        Assertions.assertArrayEquals(new String[]{"usr", "local/bin/"}, StringSplitUtils.splitPathToArray("/usr/local/bin/", 2));
+        Assertions.assertArrayEquals(new String[]{"a", "b", "c"},
+                StringSplitUtils.splitToArray("a1b22c", Pattern.compile("\\d+"), -1, false, false));
+        Assertions.assertEquals(Arrays.asList("a", "b"), StringSplitUtils.split(" a  b ", (Pattern) null, -1, false, false));
+        Assertions.assertArrayEquals(new String[]{"abc", "def", "g"}, StringSplitUtils.splitByLength("abcdefg", 3));
+        Assertions.assertArrayEquals(new String[]{"abc", "def"}, StringSplitUtils.splitByLength("abcdef", 3));
+        Assertions.assertArrayEquals(new String[0], StringSplitUtils.splitByLength("", 3));
+    }
+
+    @Test
+    public void matchesStringSplit() {
+        for (int i = 0; i < 3000; i++) {
+            String str = randomString();
+            if (str.trim().isEmpty()) {
+                continue;
+            }
+            for (int limit : new int[]{-1, 1, 2, 3, 5}) {
+                Assertions.assertEquals(Arrays.asList(str.split(",", limit)),
+                        StringSplitUtils.split(str, ',', limit, false, false), str + "/" + limit);
+                Assertions.assertEquals(Arrays.asList(str.split(Pattern.quote(",,"), limit)),
+                        StringSplitUtils.split(str, ",,", limit, false, false), str + "/" + limit);
+                Assertions.assertEquals(Arrays.asList(str.split("[,;]+", limit)),
+                        StringSplitUtils.split(str, Pattern.compile("[,;]+"), limit, false, false), str + "/" + limit);
+            }
+        }
+    }
+
+    @Test
+    public void matchesPreviousImplementation() {
+        Pattern[] patterns = {Pattern.compile("[,;]+"), Pattern.compile("\\s*,\\s*"), Pattern.compile(",?")};
+        for (int i = 0; i < 3000; i++) {
+            String str = randomString();
+            for (int limit : LIMITS) {
+                for (int flags = 0; flags < 4; flags++) {
+                    boolean isTrim = (flags & 1) != 0;
+                    boolean ignoreEmpty = (flags & 2) != 0;
+                    String message = "[" + str + "] limit=" + limit + " trim=" + isTrim + " ignoreEmpty=" + ignoreEmpty;
+                    for (String separator : new String[]{",", "a", "ab", ",,", "B "}) {
+                        for (boolean ignoreCase : new boolean[]{false, true}) {
+                            Assertions.assertEquals(reference(str, separator, limit, isTrim, ignoreEmpty, ignoreCase),
+                                    separator.length() == 1
+                                            ? StringSplitUtils.split(str, separator.charAt(0), limit, isTrim, ignoreEmpty, ignoreCase)
+                                            : StringSplitUtils.split(str, separator, limit, isTrim, ignoreEmpty, ignoreCase),
+                                    message + " separator=" + separator + " ignoreCase=" + ignoreCase);
+                        }
+                    }
+                    for (Pattern pattern : patterns) {
+                        Assertions.assertEquals(reference(str, pattern, limit, isTrim, ignoreEmpty),
+                                StringSplitUtils.split(str, pattern, limit, isTrim, ignoreEmpty), message + " pattern=" + pattern);
+                    }
+                }
+                Assertions.assertEquals(reference(str, null, limit, true, true, false), StringSplitUtils.split(str, limit), str);
+            }
+        }
+    }
+
+    @Test
+    public void tokensMatchSplit() {
+        for (int i = 0; i < 2000; i++) {
+            String str = randomString();
+            if (str.trim().isEmpty()) {
+                continue;
+            }
+            for (int flags = 0; flags < 4; flags++) {
+                boolean isTrim = (flags & 1) != 0;
+                boolean ignoreEmpty = (flags & 2) != 0;
+                List<String> expected = StringSplitUtils.split(str, ',', -1, isTrim, ignoreEmpty);
+
+                List<String> tokens = new ArrayList<>();
+                Assertions.assertEquals(expected.size(), StringSplitUtils.forEachToken(str, ',', -1, isTrim, ignoreEmpty, false,
+                        (s, start, end) -> tokens.add(s.subSequence(start, end).toString())));
+                Assertions.assertEquals(expected, tokens, str);
+
+                List<String> views = new ArrayList<>();
+                Assertions.assertEquals(expected.size(), StringSplitUtils.forEachToken(str, ',', isTrim, ignoreEmpty,
+                        token -> views.add(token.toString())));
+                Assertions.assertEquals(expected, views, str);
+
+                for (int n = -1; n <= expected.size(); n++) {
+                    String nth = n >= 0 && n < expected.size() ? expected.get(n) : null;
+                    Assertions.assertEquals(nth, StringSplitUtils.nthToken(str, ',', n, isTrim, ignoreEmpty), str + "/" + n);
+                    Assertions.assertEquals(nth, StringSplitUtils.nthToken(str, ",", n, isTrim, ignoreEmpty), str + "/" + n);
+                }
+
+                int[] offsets = new int[2 * expected.size() + 2];
+                Assertions.assertEquals(expected.size(), StringSplitUtils.splitToOffsets(str, ',', isTrim, ignoreEmpty, offsets));
+                for (int t = 0; t < expected.size(); t++) {
+                    Assertions.assertEquals(expected.get(t), str.substring(offsets[2 * t], offsets[2 * t + 1]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tokenizerStopsEarly() {
+        String str = "a,b,,c,d";
+        List<String> tokens = new ArrayList<>();
+        Assertions.assertEquals(3, StringSplitUtils.forEachToken(str, ',', -1, false, true, false, (s, start, end) -> {
+            tokens.add(s.subSequence(start, end).toString());
+            return tokens.size() < 3;
+        }));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), tokens);
+
+        int[] offsets = new int[5];
+        Assertions.assertEquals(2, StringSplitUtils.splitToOffsets(str, ',', false, false, offsets));
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 0}, offsets);
+        Assertions.assertEquals(0, StringSplitUtils.splitToOffsets(str, ',', false, false, new int[1]));
+        Assertions.assertEquals(0, StringSplitUtils.splitToOffsets("", ',', false, false, offsets));
+
+        tokens.clear();
+        Assertions.assertEquals(2, StringSplitUtils.forEachToken(" x  y ", -1, (s, start, end) -> tokens.add(s.subSequence(start, end).toString())));
+        Assertions.assertEquals(Arrays.asList("x", "y"), tokens);
+
+        tokens.clear();
+        Assertions.assertEquals(2, StringSplitUtils.forEachToken("a1b22c", Pattern.compile("\\d+"), 2, false, false,
+                (s, start, end) -> tokens.add(s.subSequence(start, end).toString())));
+        Assertions.assertEquals(Arrays.asList("a", "b22c"), tokens);
+    }
+
+    @Test
+    public void tokenView() {
+        StringBuilder builder = new StringBuilder("ab, cd ,e");
+        List<String> checked = new ArrayList<>();
+        StringSplitUtils.forEachToken(builder, ',', true, false, token -> {
+            Assertions.assertEquals(token.toString().length(), token.length());
+            if (token.length() == 2) {
+                Assertions.assertEquals(token.toString().charAt(1), token.charAt(1));
+                Assertions.assertEquals(token.toString().substring(1), token.subSequence(1, 2).toString());
+                Assertions.assertThrows(StringIndexOutOfBoundsException.class, () -> token.charAt(2));
+                Assertions.assertThrows(StringIndexOutOfBoundsException.class, () -> token.subSequence(1, 3));
+            }
+            checked.add(token.toString());
+        });
+        Assertions.assertEquals(Arrays.asList("ab", "cd", "e"), checked);
+    }
+
+    private String randomString() {
+        char[] chars = new char[random.nextInt(12)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = SYMBOLS.charAt(random.nextInt(SYMBOLS.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 原始实现：查找分隔符后截取子串，再去除空白、忽略空串，分隔符为{@code null}时按空白符切分
+     */
+    private static List<String> reference(String str, String separator, int limit, boolean isTrim, boolean ignoreEmpty,
+            boolean ignoreCase) {
+        final List<String> list = new ArrayList<>();
+        if (StringUtils.isEmpty(str)) {
+            return list;
+        }
+        if (limit == 1) {
+            return addToList(list, str, isTrim, ignoreEmpty);
+        }
+        int start = 0;
+        int i;
+        while ((i = indexOf(str, separator, start, ignoreCase)) > -1) {
+            addToList(list, str.substring(start, i), isTrim, ignoreEmpty);
+            start = i + (null == separator ? 1 : separator.length());
+            if (limit > 0 && list.size() > limit - 2) {
+                break;
+            }
+        }
+        return addToList(list, str.substring(start), isTrim, ignoreEmpty);
+    }
+
+    private static List<String> reference(String str, Pattern pattern, int limit, boolean isTrim, boolean ignoreEmpty) {
+        final List<String> list = new ArrayList<>();
+        if (StringUtils.isEmpty(str)) {
+            return list;
+        }
+        if (limit == 1) {
+            return addToList(list, str, isTrim, ignoreEmpty);
+        }
+        final Matcher matcher = pattern.matcher(str);
+        int start = 0;
+        while (matcher.find()) {
+            addToList(list, str.substring(start, matcher.start()), isTrim, ignoreEmpty);
+            start = matcher.end();
+            if (limit > 0 && list.size() > limit - 2) {
+                break;
+            }
+        }
+        return addToList(list, str.substring(start), isTrim, ignoreEmpty);
+    }
+
+    private static int indexOf(String str, String separator, int from, boolean ignoreCase) {
+        for (int i = from; i < str.length(); i++) {
+            if (null == separator) {
+                if (CharUtils.isBlankChar(str.charAt(i))) {
+                    return i;
+                }
+            } else if (str.regionMatches(ignoreCase, i, separator, 0, separator.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> addToList(List<String> list, String part, boolean isTrim, boolean ignoreEmpty) {
+        if (isTrim) {
+            part = StringUtils.trim(part);
+        }
+        if (!ignoreEmpty || !part.isEmpty()) {
+            list.add(part);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,85 @@
+package benchmark;
+
+import com.sondertara.common.bean.copier.BeanCopierRegistry;
+import com.sondertara.common.bean.copier.BeanCopy;
+import com.sondertara.common.bean.copier.CopierBackend;
+import com.sondertara.common.bean.model.same.BaitSameEntity;
+import com.sondertara.common.bean.model.same.BaitSameVo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BeanCopy} with each {@link CopierBackend} against a hand-written mapper which copies the list and map as
+ * BeanCopy does
+ *
+ * @author huangxiaohu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CopyBackendTest {
+
+    @Param({"BYTECODE", "METHOD_HANDLE", "REFLECT"})
+    private CopierBackend backend;
+
+    private BaitSameVo vo;
+
+    @Setup
+    public void setup() {
+        BeanCopierRegistry.setBackend(backend);
+        vo = new BaitSameVo();
+        vo.setId(123456L);
+        vo.setName("123");
+        vo.setOsType("windows");
+        vo.setUsers(new ArrayList<>(Arrays.asList("Jones", "John", "Tom")));
+        Map<String, String> apps = new HashMap<>();
+        apps.put("Spring boot", "V2.6");
+        apps.put("Nginx", "V1.2.1");
+        vo.setApps(apps);
+    }
+
+    @Benchmark
+    public BaitSameEntity beanCopy() {
+        return BeanCopy.copy(vo, BaitSameEntity.class);
+    }
+
+    @Benchmark
+    public BaitSameEntity handWritten() {
+        BaitSameEntity entity = new BaitSameEntity();
+        entity.setId(vo.getId() == null ? null : vo.getId().intValue());
+        entity.setName(vo.getName());
+        entity.setOsType(vo.getOsType());
+        entity.setUsers(vo.getUsers() == null ? null : new ArrayList<>(vo.getUsers()));
+        entity.setApps(vo.getApps() == null ? null : new HashMap<>(vo.getApps()));
+        return entity;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CopyBackendTest.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
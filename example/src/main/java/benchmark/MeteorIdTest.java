@@ -0,0 +1,85 @@
+package benchmark;
+
+import com.sondertara.common.lang.id.MeteorId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MeteorId} throughput under contention, against the previous {@code synchronized} node.
+ * Run with {@code -t} (or {@code -Dthreads}) to compare the scaling with the thread count.
+ *
+ * @author huangxiaohu
+ */
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeteorIdTest {
+    private static final int BATCH = 64;
+
+    private final SynchronizedNode synchronizedNode = new SynchronizedNode();
+
+    @Benchmark
+    public long nextId() {
+        return MeteorId.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] nextIds() {
+        return MeteorId.nextIds(BATCH);
+    }
+
+    @Benchmark
+    public long synchronizedNextId() {
+        return synchronizedNode.nextId();
+    }
+
+    /**
+     * The lock based generator before the packed second and serial
+     */
+    private static class SynchronizedNode {
+        private long seqNum;
+        private long second = System.currentTimeMillis() / 1000 - 1640966400L;
+        private long seed = 1;
+
+        synchronized long nextId() {
+            seqNum = (seqNum + 1) & 2047;
+            long x = seed;
+            x ^= x << 13;
+            x ^= x << 17;
+            x ^= x << 5;
+            seed = x % 7;
+            if (seqNum == 0) {
+                second++;
+            }
+            return second << 34 | seqNum << 3 | seed;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MeteorIdTest.class.getSimpleName())
+                .threads(Integer.getInteger("threads", Runtime.getRuntime().availableProcessors()))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import com.sondertara.common.util.LocalDateTimeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LocalDateTimeUtils#parseDate(CharSequence)} (single pass recognizer) against
+ * {@link LocalDateTimeUtils#parseDateByFormat(CharSequence)} (regex and FastDateFormat)
+ *
+ * @author huangxiaohu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParseDateTest {
+
+    @Param({"2022-04-29 15:29:30", "2022-04-29 15:29:30.123", "2022/4/29", "20220429152930", "2022-04-29T15:29:30.123Z",
+            "2022-04-29T15:29:30+08:00", "Fri Apr 29 15:29:30 CST 2022"})
+    public String date;
+
+    @Benchmark
+    public Object recognizer() {
+        return LocalDateTimeUtils.parseDate(date);
+    }
+
+    @Benchmark
+    public Object format() {
+        return LocalDateTimeUtils.parseDateByFormat(date);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ParseDateTest.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
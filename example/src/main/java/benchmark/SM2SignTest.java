@@ -0,0 +1,91 @@
+package benchmark;
+
+import com.sondertara.common.crypto.asymmetric.SM2KeyPair;
+import com.sondertara.common.crypto.asymmetric.SM2Utils;
+import com.sondertara.common.crypto.engine.SM2SignatureEngine;
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SM2Utils} signing and verification, a public key decoded per call against one cached by
+ * {@link SM2SignatureEngine#precompute(ECPoint)}, and the batch verification
+ *
+ * @author huangxiaohu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SM2SignTest {
+    private static final int BATCH = 32;
+    private static final String IDA = "ALICE123@YAHOO.COM";
+
+    private SM2KeyPair keyPair;
+    private String publicKey;
+    private String message;
+    private SM2Utils.Signature signature;
+    private String[] messages;
+    private SM2Utils.Signature[] signatures;
+
+    @Setup
+    public void setup() {
+        keyPair = SM2Utils.initKey();
+        publicKey = SM2Utils.eCPoint2PublicKeyStr(keyPair.getPublicKey(), false);
+        message = "message digest";
+        signature = SM2Utils.signature(message, IDA, keyPair);
+        messages = new String[BATCH];
+        signatures = new SM2Utils.Signature[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            messages[i] = message + i;
+            signatures[i] = SM2Utils.signature(messages[i], IDA, keyPair);
+        }
+        SM2SignatureEngine.getInstance().precompute(keyPair.getPublicKey());
+    }
+
+    @Benchmark
+    public SM2Utils.Signature sign() {
+        return SM2Utils.signature(message, IDA, keyPair);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        SM2SignatureEngine.getInstance().clear();
+        return SM2Utils.verifySignature(message, signature, IDA, SM2Utils.publicKeyStr2ECPoint(publicKey));
+    }
+
+    @Benchmark
+    public boolean verifyPrecomputed() {
+        return SM2Utils.verifySignature(message, signature, IDA, keyPair.getPublicKey());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean[] verifyBatch() {
+        return SM2Utils.verifySignatures(messages, signatures, IDA, keyPair.getPublicKey());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SM2SignTest.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import com.sondertara.common.util.StringSplitUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picking one field of a delimited line: {@link StringSplitUtils#split(String, char, int, boolean, boolean)} against
+ * {@link StringSplitUtils#nthToken(CharSequence, char, int, boolean, boolean)} and a reused offsets buffer
+ *
+ * @author huangxiaohu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringSplitTest {
+    private static final int FIELD = 4;
+
+    private final String line = "2022-04-29 15:29:30, INFO, ledger, acct-42, 1024.50, ok";
+    private final int[] offsets = new int[16];
+
+    @Benchmark
+    public String split() {
+        return StringSplitUtils.split(line, ',', -1, true, true).get(FIELD);
+    }
+
+    @Benchmark
+    public String nthToken() {
+        return StringSplitUtils.nthToken(line, ',', FIELD, true, true);
+    }
+
+    @Benchmark
+    public int offsets() {
+        StringSplitUtils.splitToOffsets(line, ',', true, true, offsets);
+        return offsets[FIELD * 2 + 1] - offsets[FIELD * 2];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StringSplitTest.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,5 +1,8 @@
 package com.sondertara.excel.antlr;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.sondertara.common.bean.PropertyUtils;
 import com.sondertara.excel.antlr.parser.DataVariableParserVisitor;
 import com.sondertara.excel.antlr.parser.VariableParserLexer;
@@ -51,6 +54,12 @@ public class ExcelHelper {
     private ExcelHelper() {
     }
 
+    /**
+     * 已解析的单元格变量，模板中的变量名有限，超出时淘汰最久未使用的
+     */
+    private static final LoadingCache<String, CellVariable[]> VARIABLE_CACHE = CacheBuilder.newBuilder().maximumSize(1024)
+            .build(CacheLoader.from(ExcelHelper::compileCellVariable));
+
     private static final char[] COL_SET = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z'};
 
     public static String getColName(Integer index) {
@@ -366,25 +375,15 @@ public class ExcelHelper {
      */
     @SuppressWarnings("rawtypes")
     public static Object parseCellVariable(Object data, String cellVariableName) {
-        // lexical analysis
-        VariableParserLexer lexer = new VariableParserLexer(CharStreams.fromString(cellVariableName));
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-
-        // syntax analysis
-        VariableParserParser parser = new VariableParserParser(tokens);
-
         Object propValue = data;
-        for (VariableParserParser.VariableContext variableContext : parser.variableExpr().variable()) {
-            String variableName = variableContext.IDENTIFIER().getText();
-            propValue = getPropValue(propValue, variableName);
+        for (CellVariable variable : VARIABLE_CACHE.getUnchecked(cellVariableName)) {
+            propValue = getPropValue(propValue, variable.name);
             if (propValue == null) {
                 return null;
             }
 
             // if the prop instanceof List, then get the value under a specific index.
-            List<VariableParserParser.ArrayIdxContext> arrayIdxContexts = variableContext.arrayIdx();
-            for (VariableParserParser.ArrayIdxContext arrayIdxContext : arrayIdxContexts) {
-                int index = Integer.parseInt(arrayIdxContext.NUMBER().getSymbol().getText());
+            for (int index : variable.indexes) {
                 if (propValue instanceof List) {
                     List propValueList = (List) propValue;
                     try {
@@ -401,6 +400,47 @@ public class ExcelHelper {
         return propValue;
     }
 
+    /**
+     * 解析单元格变量，按变量名缓存解析结果
+     * parse the variable name filled in the cell
+     *
+     * @param cellVariableName the variable name filled in the cell
+     * @return the variables and their indexes
+     */
+    private static CellVariable[] compileCellVariable(String cellVariableName) {
+        // lexical analysis
+        VariableParserLexer lexer = new VariableParserLexer(CharStreams.fromString(cellVariableName));
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+
+        // syntax analysis
+        VariableParserParser parser = new VariableParserParser(tokens);
+        List<VariableParserParser.VariableContext> variableContexts = parser.variableExpr().variable();
+        CellVariable[] variables = new CellVariable[variableContexts.size()];
+        for (int i = 0; i < variables.length; i++) {
+            VariableParserParser.VariableContext variableContext = variableContexts.get(i);
+            List<VariableParserParser.ArrayIdxContext> arrayIdxContexts = variableContext.arrayIdx();
+            int[] indexes = new int[arrayIdxContexts.size()];
+            for (int j = 0; j < indexes.length; j++) {
+                indexes[j] = Integer.parseInt(arrayIdxContexts.get(j).NUMBER().getSymbol().getText());
+            }
+            variables[i] = new CellVariable(variableContext.IDENTIFIER().getText(), indexes);
+        }
+        return variables;
+    }
+
+    /**
+     * 单元格变量中的一级属性及其下标
+     */
+    private static final class CellVariable {
+        private final String name;
+        private final int[] indexes;
+
+        private CellVariable(String name, int[] indexes) {
+            this.name = name;
+            this.indexes = indexes;
+        }
+    }
+
     /**
      * 获取表格数据对应变量的值
      * get the value of the specified attribute of the incoming data
@@ -25,6 +25,26 @@ public class TaraExcelConfig {
 
     boolean useLegacy = false;
 
+    /**
+     * write the annotation Excel by the fast writer engine instead of POI SXSSF
+     */
+    boolean useFastBeanWriter = false;
+
+    /**
+     * threads compressing the sheets written by the fast writer engine,1 compresses on the writing thread
+     */
+    int fastWriterCompressThreads = 1;
+
+    /**
+     * pages queried ahead while the annotation Excel is written,0 queries the pages one by one on the writing thread
+     */
+    int queryPrefetchPages = 0;
+
+    /**
+     * run the blocking page queries on virtual threads,only effective on JDK 21+
+     */
+    boolean queryVirtualThreads = false;
+
 
     private TaraExcelConfig() {
 
@@ -43,6 +63,10 @@ public class TaraExcelConfig {
         CONFIG.openAutoColWidth = config.isOpenAutoColWidth();
         CONFIG.defaultRowPeerSheet = config.getDefaultRowPeerSheet();
         CONFIG.useLegacy = config.isUseLegacy();
+        CONFIG.useFastBeanWriter = config.isUseFastBeanWriter();
+        CONFIG.fastWriterCompressThreads = config.getFastWriterCompressThreads();
+        CONFIG.queryPrefetchPages = config.getQueryPrefetchPages();
+        CONFIG.queryVirtualThreads = config.isQueryVirtualThreads();
     }
 
 
@@ -1,7 +1,11 @@
 package com.sondertara.excel.base;
 
+import com.sondertara.excel.utils.ExcelResponseUtils;
+
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author huangxiaohu
@@ -22,4 +26,15 @@ public interface TaraExcelWriter {
      */
     void to(HttpServletResponse httpServletResponse, String filename);
 
+    /**
+     * to HttpServletResponse asynchronously,the servlet thread is released while generating
+     *
+     * @param request             HttpServletRequest which supports async
+     * @param httpServletResponse HttpServletResponse
+     * @param filename            filename
+     * @return the future completed when the file is written, or completed exceptionally with the failure
+     */
+    default CompletableFuture<Void> toAsync(HttpServletRequest request, HttpServletResponse httpServletResponse, String filename) {
+        return ExcelResponseUtils.writeResponseAsync(request, httpServletResponse, filename, this::to);
+    }
 }
@@ -1,11 +1,16 @@
 package com.sondertara.excel.boot;
 
+import com.sondertara.common.exception.TaraException;
+import com.sondertara.excel.base.TaraExcelConfig;
 import com.sondertara.excel.context.AnnotationExcelWriterContext;
+import com.sondertara.excel.executor.FastExcelWriterExecutor;
 import com.sondertara.excel.resolver.builder.AbstractExcelWriter;
 import com.sondertara.excel.resolver.builder.DataCollectionBuilder;
 import com.sondertara.excel.resolver.builder.DateQueryBuilder;
 import org.apache.poi.ss.usermodel.Workbook;
 
+import java.io.OutputStream;
+
 /**
  * @author huangxiaohu
  */
@@ -26,8 +31,33 @@ public class ExcelBeanWriter extends AbstractExcelWriter<Workbook> {
         return new DataCollectionBuilder<>(new ExcelBeanWriter());
     }
 
+    /**
+     * generate the POI workbook by the legacy SXSSF engine
+     *
+     * @return the workbook
+     */
     @Override
     public Workbook generate() {
         return this.getWriterContext().getExecutor().execute();
     }
+
+    /**
+     * write to OutputStream
+     * <p>
+     * If {@link TaraExcelConfig#isUseFastBeanWriter()} the rows are streamed to the out by the fast writer engine.
+     *
+     * @param out out
+     */
+    @Override
+    public void to(OutputStream out) {
+        if (!TaraExcelConfig.CONFIG.isUseFastBeanWriter()) {
+            super.to(out);
+            return;
+        }
+        try {
+            new FastExcelWriterExecutor(this.getWriterContext(), out).execute();
+        } catch (Exception e) {
+            throw new TaraException("Write workbook to stream error", e);
+        }
+    }
 }
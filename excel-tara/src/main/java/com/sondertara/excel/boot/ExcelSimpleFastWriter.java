@@ -1,10 +1,7 @@
 package com.sondertara.excel.boot;
 
 import com.sondertara.common.exception.TaraException;
-import com.sondertara.common.io.FileUtils;
-import com.sondertara.common.io.IoUtils;
 import com.sondertara.common.lang.Partition;
-import com.sondertara.common.lang.id.NanoId;
 import com.sondertara.excel.base.TaraExcelConfig;
 import com.sondertara.excel.fast.writer.BorderStyle;
 import com.sondertara.excel.fast.writer.Color;
@@ -16,13 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.xssf.streaming.SXSSFCell;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedInputStream;
-import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
@@ -38,10 +30,6 @@ import java.util.concurrent.ExecutionException;
 @Slf4j
 public class ExcelSimpleFastWriter extends ExcelSimpleWriter<FastWorkbook> {
 
-
-    private Path tmpFile;
-
-
     public ExcelSimpleFastWriter(FastWorkbook workbook) {
         super(workbook);
         this.sheetIndex.set(workbook.getNumberOfSheets());
@@ -49,14 +37,8 @@ public class ExcelSimpleFastWriter extends ExcelSimpleWriter<FastWorkbook> {
     }
 
     public ExcelSimpleFastWriter() {
-        try {
-            Path path = Paths.get(FileUtils.getTmpDirPath(), "tara", NanoId.randomNanoId());
-            FileUtils.mkdir(path.getParent());
-            this.tmpFile = path;
-            this.workbook = new FastWorkbook(Files.newOutputStream(path), "TaraApplication", "1.0");
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        this.workbook = new FastWorkbook("TaraApplication", "1.0");
+        this.workbook.getCompression().parallelism(TaraExcelConfig.CONFIG.getFastWriterCompressThreads());
         this.sheetIndex.set(workbook.getNumberOfSheets());
 
     }
@@ -133,16 +115,21 @@ public class ExcelSimpleFastWriter extends ExcelSimpleWriter<FastWorkbook> {
         return this.workbook;
     }
 
+    /**
+     * write the workbook to the stream
+     * <p>
+     * The workbook is serialized directly into the given stream without temp file.
+     * A workbook passed to {@link #read(FastWorkbook)} must be created by {@link FastWorkbook#FastWorkbook(String, String)},
+     * one already bound to an output stream is rejected.
+     *
+     * @param out the output stream
+     */
     @Override
     public void to(OutputStream out) {
         try {
-            FastWorkbook wb = generate();
-            wb.finish();
-            IoUtils.copy(new BufferedInputStream(Files.newInputStream(tmpFile)), out);
+            generate().finish(out);
         } catch (Exception e) {
             throw new TaraException("Write workbook to stream error", e);
-        } finally {
-            FileUtils.del(tmpFile);
         }
     }
 
@@ -5,9 +5,9 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.sondertara.common.lang.Pair;
 import com.sondertara.common.lang.reflect.ReflectUtils;
-import com.sondertara.common.model.PageResult;
 import com.sondertara.common.util.CollectionUtils;
 import com.sondertara.common.util.StringUtils;
+import com.sondertara.excel.base.TaraExcelConfig;
 import com.sondertara.excel.common.constants.Constants;
 import com.sondertara.excel.context.ExcelRawWriterContext;
 import com.sondertara.excel.exception.ExcelAnnotationWriterException;
@@ -18,8 +18,6 @@ import com.sondertara.excel.meta.annotation.CellRange;
 import com.sondertara.excel.meta.annotation.ExcelComplexHeader;
 import com.sondertara.excel.meta.annotation.ExcelDataFormat;
 import com.sondertara.excel.meta.annotation.ExcelExportField;
-import com.sondertara.excel.meta.annotation.converter.ExcelConverter;
-import com.sondertara.excel.meta.annotation.datavalidation.ExcelDataValidation;
 import com.sondertara.excel.meta.model.AnnotationExcelWriterSheetDefinition;
 import com.sondertara.excel.meta.model.ExcelCellStyleDefinition;
 import com.sondertara.excel.meta.model.TaraRow;
@@ -27,9 +25,7 @@ import com.sondertara.excel.meta.model.TaraSheet;
 import com.sondertara.excel.meta.style.CellStyleBuilder;
 import com.sondertara.excel.resolver.ExcelDefaultWriterResolver;
 import com.sondertara.excel.support.converter.AbstractExcelColumnConverter;
-import com.sondertara.excel.support.converter.ExcelDefaultConverter;
-import com.sondertara.excel.support.dataconstraint.ExcelDataValidationConstraint;
-import com.sondertara.excel.utils.CacheUtils;
+import com.sondertara.excel.task.PagePrefetcher;
 import com.sondertara.excel.utils.ExcelAnnotationUtils;
 import com.sondertara.excel.utils.ExcelFieldUtils;
 import org.apache.poi.ss.usermodel.Cell;
@@ -52,7 +48,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -148,7 +143,7 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
                 throw new IllegalArgumentException(field.getName() + "' colIndex less than 1");
             }
 
-            final String[] dataValidationConstraintList = getDataValidationConstraint(field);
+            final String[] dataValidationConstraintList = ExcelAnnotationUtils.getDataValidationConstraint(field);
             if (dataValidationConstraintList != null) {
 
                 final DataValidationHelper helper = sheet.getDataValidationHelper();
@@ -223,13 +218,9 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
                     break;
                 case QUERY:
                     ExportFunction<?> queryFunction = sheetDefinition.getQueryFunction();
-                    int pageNo = 0;
-                    while (true) {
+                    final Map<Integer, Object> queryLastRowData = lastRowData;
+                    PagePrefetcher.forEachPage(queryFunction, TaraExcelConfig.CONFIG.getQueryPrefetchPages(), result -> {
                         List<Object> existData = new LinkedList<>();
-                        PageResult<?> result = queryFunction.query(pageNo);
-                        if (result.isEmpty()) {
-                            break;
-                        }
                         List<?> data = result.getData();
                         SXSSFSheet existSheet = getSheet(sheetDefinition.getName(), sheetIdentity);
                         int rowDataCount = Math.max(0, existSheet.getLastRowNum() - sheetDefinition.getFirstDataRow());
@@ -237,22 +228,18 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
                         for (int i = 0; i < endIndex; i++) {
                             existData.add(data.get(i));
                         }
-                        createBody(existSheet, sheetDefinition, existData, lastRowData);
+                        createBody(existSheet, sheetDefinition, existData, queryLastRowData);
                         List<?> objects = data.subList(endIndex, data.size());
                         if (objects.isEmpty()) {
-                            continue;
+                            return;
                         }
                         List<? extends List<?>> partition = Lists.partition(objects, sheetDefinition.getMaxRowsPerSheet());
                         for (List<?> sheetData : partition) {
                             SXSSFSheet newSheet = createSheet(sheetDefinition.getName(), sheetIdentity);
-                            lastRowData = new LinkedHashMap<>();
-                            createBody(newSheet, sheetDefinition, sheetData, lastRowData);
-                        }
-                        if (pageNo >= result.endIndex()) {
-                            break;
+                            queryLastRowData.clear();
+                            createBody(newSheet, sheetDefinition, sheetData, queryLastRowData);
                         }
-                        pageNo++;
-                    }
+                    });
                     break;
                 default:
             }
@@ -298,11 +285,7 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
             cell.setCellStyle(cellStyle);
 
             // 值转换
-            List<AbstractExcelColumnConverter<Annotation, ?>> columnConverters = CacheUtils.getColConverterCache().getIfPresent(mappingClass.getName() + "#" + field.getName());
-            if (columnConverters == null) {
-                columnConverters = findColumnConverter(field);
-                CacheUtils.getColConverterCache().put(mappingClass.getName() + "#" + field.getName(), columnConverters);
-            }
+            List<AbstractExcelColumnConverter<Annotation, ?>> columnConverters = ExcelAnnotationUtils.getColumnConverters(mappingClass, field);
             Object value;
             try {
                 value = field.get(rowData);
@@ -320,8 +303,10 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
                 ExcelFieldUtils.setCellValue(cell, value, field, exportColumn, resolver);
                 if (isSame(previous.get(curColIndex), value)) {
                     //set current and previous to merge flag
-                    table.set(row.getRowNum() + 1, columnFieldEntry.getKey(), 1);
-                    table.set(row.getRowNum(), columnFieldEntry.getKey(), 1);
+                    // the table is indexed by the position in the current page
+                    final int tableRow = rowIndex + sheetDefinition.getFirstDataRow();
+                    table.set(tableRow + 1, columnFieldEntry.getKey(), 1);
+                    table.set(tableRow, columnFieldEntry.getKey(), 1);
                 }
                 data.put(curColIndex, value);
             } catch (final IllegalAccessException e) {
@@ -336,18 +321,20 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
         if (CollectionUtils.isEmpty(rows)) {
             return;
         }
+        // the pages of a query are appended to the rows already written
+        final int startRow = Math.max(sheetDefinition.getFirstDataRow(), sheet.getLastRowNum() + 1);
         List<Integer> rowKeys = Stream.iterate(sheetDefinition.getFirstDataRow() + 1, item -> item + 1).limit(rows.size() + sheetDefinition.getFirstDataRow() + 1).collect(Collectors.toList());
         final Map<Integer, Field> columnFields = sheetDefinition.getColFields();
         Set<Integer> columnKeys = columnFields.keySet();
         ArrayTable<Integer, Integer, Integer> table = ArrayTable.create(rowKeys, columnKeys);
         Object firstData = rows.get(0);
-        final Row firstRow = sheet.createRow(sheetDefinition.getFirstDataRow());
+        final Row firstRow = sheet.createRow(startRow);
         firstRow.setHeightInPoints(sheetDefinition.getDataRowHeight());
         if (previousRowData.isEmpty()) {
             previousRowData = createRow(Maps.newHashMap(), firstRow, 0, firstData, sheetDefinition, table);
         }
         for (int rowIndex = 1; rowIndex < rows.size(); rowIndex++) {
-            final Row row = sheet.createRow(rowIndex + sheetDefinition.getFirstDataRow());
+            final Row row = sheet.createRow(rowIndex + startRow);
             row.setHeightInPoints(sheetDefinition.getDataRowHeight());
             Object rowData = rows.get(rowIndex);
             previousRowData = createRow(previousRowData, row, rowIndex, rowData, sheetDefinition, table);
@@ -391,7 +378,7 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
     }
 
 
-    private static boolean isSame(Object previous, Object current) {
+    static boolean isSame(Object previous, Object current) {
         if (null == previous && null == current) {
             return true;
 
@@ -464,28 +451,6 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
         return this.sxssfWorkbook;
     }
 
-    /**
-     * 获取列的下拉校验值列表
-     *
-     * @param field the Excel field
-     * @return the values
-     */
-
-    @SuppressWarnings("unchecked")
-    private String[] getDataValidationConstraint(final Field field) {
-        final Annotation[] annotations = field.getAnnotations();
-        for (final Annotation annotation : annotations) {
-            final Class<? extends Annotation> aClass = annotation.annotationType();
-            if (aClass.isAnnotationPresent(ExcelDataValidation.class)) {
-                final ExcelDataValidation dataValidation = aClass.getAnnotation(ExcelDataValidation.class);
-                ExcelDataValidationConstraint<Annotation> dataValidationConstraint = ReflectUtils.newInstance(dataValidation.dataConstraint());
-                dataValidationConstraint.initialize(annotation);
-                return dataValidationConstraint.generate();
-            }
-        }
-        return null;
-    }
-
     /**
      * get sheet by sheetIndex
      * if cause error then create new sheet by the sheetIndex
@@ -554,25 +519,4 @@ public abstract class AbstractExcelWriterExecutor implements TaraExcelExecutor<W
         }
 
     }
-
-    @SuppressWarnings("unchecked")
-    private List<AbstractExcelColumnConverter<Annotation, ?>> findColumnConverter(final Field field) {
-        List<AbstractExcelColumnConverter<Annotation, ?>> columnConverters = new ArrayList<>();
-        final Annotation[] annotations = field.getAnnotations();
-        for (final Annotation annotation : annotations) {
-            final Class<? extends Annotation> aClass = annotation.annotationType();
-            if (aClass.isAnnotationPresent(ExcelConverter.class)) {
-                final ExcelConverter excelConverter = aClass.getAnnotation(ExcelConverter.class);
-                AbstractExcelColumnConverter<Annotation, ?> columnConverter = ReflectUtils.newInstance(excelConverter.convertBy());
-                columnConverter.initialize(annotation);
-                columnConverters.add(columnConverter);
-            }
-        }
-
-        if (columnConverters.size() == 0) {
-            columnConverters = Collections.singletonList(new ExcelDefaultConverter());
-        }
-
-        return columnConverters;
-    }
 }
@@ -25,7 +25,7 @@ public class ExcelCsvWriterExecutor implements TaraExcelExecutor<String> {
 
     public ExcelCsvWriterExecutor(Map<String,AnnotationSheet> sheetDefinitions) {
         this.sheetDefinitions = sheetDefinitions;
-        this.filename = NanoId.randomNanoId(16);
+        this.filename = NanoId.fastNanoId(16);
     }
 
     @Override
@@ -0,0 +1,67 @@
+package com.sondertara.excel.executor;
+
+import com.sondertara.excel.fast.writer.BorderStyle;
+import com.sondertara.excel.fast.writer.StyleSetter;
+
+/**
+ * Captured cell style applied to the fast writer {@link StyleSetter}
+ *
+ * @author huangxiaohu
+ */
+class FastCellStyle {
+
+    String fillColor;
+    String fontColor;
+    String fontName;
+    Integer fontSize;
+    boolean bold;
+    boolean italic;
+    String horizontalAlignment;
+    String verticalAlignment;
+    boolean wrapText;
+    BorderStyle border;
+    String format;
+
+    /**
+     * apply this style to the setter,the caller must call {@link StyleSetter#set()}
+     *
+     * @param setter the style setter
+     * @return the setter
+     */
+    StyleSetter apply(StyleSetter setter) {
+        if (fillColor != null) {
+            setter.fillColor(fillColor);
+        }
+        if (fontColor != null) {
+            setter.fontColor(fontColor);
+        }
+        if (fontName != null) {
+            setter.fontName(fontName);
+        }
+        if (fontSize != null) {
+            setter.fontSize(fontSize);
+        }
+        if (bold) {
+            setter.bold();
+        }
+        if (italic) {
+            setter.italic();
+        }
+        if (horizontalAlignment != null) {
+            setter.horizontalAlignment(horizontalAlignment);
+        }
+        if (verticalAlignment != null) {
+            setter.verticalAlignment(verticalAlignment);
+        }
+        if (wrapText) {
+            setter.wrapText(true);
+        }
+        if (border != null) {
+            setter.borderStyle(border);
+        }
+        if (format != null) {
+            setter.format(format);
+        }
+        return setter;
+    }
+}
@@ -0,0 +1,182 @@
+package com.sondertara.excel.executor;
+
+import com.sondertara.common.util.StringUtils;
+import com.sondertara.excel.meta.model.ExcelCellStyleDefinition;
+import com.sondertara.excel.meta.style.CellStyleBuilder;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translate the POI based {@link CellStyleBuilder} to the fast writer style.
+ * <p>
+ * The builder is run once on a scratch workbook and the resulting style is
+ * captured as a {@link FastCellStyle}, so user defined builders keep working with the fast engine.
+ *
+ * @author huangxiaohu
+ */
+class FastCellStyleResolver implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(FastCellStyleResolver.class);
+
+    private final XSSFWorkbook scratch = new XSSFWorkbook();
+    private final XSSFSheet scratchSheet = scratch.createSheet();
+    private final CellStyleCache cellStyleCache = CellStyleCache.getInstance();
+    private final Map<Class<?>, FastCellStyle> styles = new HashMap<>();
+
+    /**
+     * resolve the style of the builder class
+     *
+     * @param builderClass the {@link CellStyleBuilder} class
+     * @return the fast style
+     */
+    FastCellStyle resolve(Class<?> builderClass) {
+        return styles.computeIfAbsent(builderClass, this::build);
+    }
+
+    private FastCellStyle build(Class<?> builderClass) {
+        CellStyleBuilder builder = cellStyleCache.getCellStyleInstance(builderClass);
+        Cell cell = scratchSheet.createRow(styles.size()).createCell(0);
+        XSSFCellStyle cellStyle = (XSSFCellStyle) builder.build(scratch, new ExcelCellStyleDefinition(scratch), cell);
+        FastCellStyle style = new FastCellStyle();
+        if (cellStyle.getFillPattern() == FillPatternType.SOLID_FOREGROUND) {
+            style.fillColor = toRgb(cellStyle.getFillForegroundColorColor());
+        }
+        style.horizontalAlignment = toAlignment(cellStyle.getAlignment());
+        style.verticalAlignment = toAlignment(cellStyle.getVerticalAlignment());
+        style.wrapText = cellStyle.getWrapText();
+        style.border = toBorder(builderClass, cellStyle.getBorderTop(), cellStyle.getBorderBottom(), cellStyle.getBorderLeft(), cellStyle.getBorderRight());
+        String format = cellStyle.getDataFormatString();
+        if (StringUtils.isNotBlank(format) && !"General".equals(format)) {
+            style.format = format;
+        }
+        XSSFFont font = cellStyle.getFont();
+        if (font != null) {
+            style.bold = font.getBold();
+            style.italic = font.getItalic();
+            style.fontColor = toRgb(font.getXSSFColor());
+            if (font.getFontHeightInPoints() != XSSFFont.DEFAULT_FONT_SIZE) {
+                style.fontSize = (int) font.getFontHeightInPoints();
+            }
+            if (!XSSFFont.DEFAULT_FONT_NAME.equals(font.getFontName())) {
+                style.fontName = font.getFontName();
+            }
+        }
+        return style;
+    }
+
+    private static String toRgb(XSSFColor color) {
+        if (color == null) {
+            return null;
+        }
+        byte[] rgb = color.getRGB();
+        if (rgb == null) {
+            return null;
+        }
+        return String.format("%02X%02X%02X", rgb[0] & 0xff, rgb[1] & 0xff, rgb[2] & 0xff);
+    }
+
+    private static String toAlignment(HorizontalAlignment alignment) {
+        switch (alignment) {
+            case LEFT:
+            case CENTER:
+            case RIGHT:
+            case FILL:
+            case JUSTIFY:
+            case DISTRIBUTED:
+                return alignment.name().toLowerCase();
+            case CENTER_SELECTION:
+                return "centerContinuous";
+            default:
+                return null;
+        }
+    }
+
+    private static String toAlignment(VerticalAlignment alignment) {
+        return alignment == null ? null : alignment.name().toLowerCase();
+    }
+
+    /**
+     * The fast style only supports the same border on all sides,a mixed border is replaced by the
+     * visible style used on most sides
+     */
+    private static com.sondertara.excel.fast.writer.BorderStyle toBorder(Class<?> builderClass, BorderStyle... sides) {
+        BorderStyle dominant = BorderStyle.NONE;
+        int dominantCount = 0;
+        boolean mixed = false;
+        for (BorderStyle side : sides) {
+            mixed |= side != sides[0];
+            if (side == BorderStyle.NONE || side == dominant) {
+                continue;
+            }
+            int count = 0;
+            for (BorderStyle other : sides) {
+                if (other == side) {
+                    count++;
+                }
+            }
+            if (count > dominantCount) {
+                dominant = side;
+                dominantCount = count;
+            }
+        }
+        if (mixed) {
+            logger.warn("CellStyleBuilder[{}] has different borders {},the fast writer uses [{}] on all sides", builderClass.getName(), Arrays.toString(sides), dominant);
+        }
+        return toFastBorder(builderClass, dominant);
+    }
+
+    private static com.sondertara.excel.fast.writer.BorderStyle toFastBorder(Class<?> builderClass, BorderStyle border) {
+        switch (border) {
+            case NONE:
+                return null;
+            case THIN:
+                return com.sondertara.excel.fast.writer.BorderStyle.THIN;
+            case MEDIUM:
+                return com.sondertara.excel.fast.writer.BorderStyle.MEDIUM;
+            case DASHED:
+                return com.sondertara.excel.fast.writer.BorderStyle.DASHED;
+            case DOTTED:
+                return com.sondertara.excel.fast.writer.BorderStyle.DOTTED;
+            case THICK:
+                return com.sondertara.excel.fast.writer.BorderStyle.THICK;
+            case DOUBLE:
+                return com.sondertara.excel.fast.writer.BorderStyle.DOUBLE;
+            case HAIR:
+                return com.sondertara.excel.fast.writer.BorderStyle.HAIR;
+            case MEDIUM_DASHED:
+                return com.sondertara.excel.fast.writer.BorderStyle.MEDIUM_DASHED;
+            case DASH_DOT:
+                return com.sondertara.excel.fast.writer.BorderStyle.DASH_DOT;
+            case MEDIUM_DASH_DOT:
+                return com.sondertara.excel.fast.writer.BorderStyle.MEDIUM_DASH_DOT;
+            case DASH_DOT_DOT:
+                return com.sondertara.excel.fast.writer.BorderStyle.DASH_DOT_DOT;
+            case MEDIUM_DASH_DOT_DOT:
+                return com.sondertara.excel.fast.writer.BorderStyle.MEDIUM_DASH_DOT_DOT;
+            case SLANTED_DASH_DOT:
+                return com.sondertara.excel.fast.writer.BorderStyle.SLANT_DASH_DOT;
+            default:
+                logger.warn("CellStyleBuilder[{}] has unsupported border [{}],the fast writer uses [THIN]", builderClass.getName(), border);
+                return com.sondertara.excel.fast.writer.BorderStyle.THIN;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scratch.close();
+    }
+}
@@ -0,0 +1,452 @@
+package com.sondertara.excel.executor;
+
+import com.sondertara.common.time.DatePattern;
+import com.sondertara.common.util.CollectionUtils;
+import com.sondertara.common.util.StringUtils;
+import com.sondertara.excel.base.TaraExcelConfig;
+import com.sondertara.excel.common.constants.Constants;
+import com.sondertara.excel.context.ExcelRawWriterContext;
+import com.sondertara.excel.exception.ExcelAnnotationWriterException;
+import com.sondertara.excel.exception.ExcelWriterException;
+import com.sondertara.excel.fast.writer.FastWorkbook;
+import com.sondertara.excel.fast.writer.RowWriter;
+import com.sondertara.excel.fast.writer.Worksheet;
+import com.sondertara.excel.function.ExportFunction;
+import com.sondertara.excel.meta.annotation.CellRange;
+import com.sondertara.excel.meta.annotation.ExcelComplexHeader;
+import com.sondertara.excel.meta.annotation.ExcelExportField;
+import com.sondertara.excel.meta.model.AnnotationExcelWriterSheetDefinition;
+import com.sondertara.excel.meta.model.TaraRow;
+import com.sondertara.excel.meta.model.TaraSheet;
+import com.sondertara.excel.support.converter.AbstractExcelColumnConverter;
+import com.sondertara.excel.task.PagePrefetcher;
+import com.sondertara.excel.utils.ExcelAnnotationUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The annotation Excel writer executor on the fast writer engine.
+ * <p>
+ * Same features as {@link ExcelWriterExecutor} (complex header, data validation, striped rows, converters and merges),
+ * but the rows are serialized directly to the output stream by {@link FastWorkbook} instead of the POI SXSSF temp files.
+ * Each page of data is flushed as soon as it is written, only one sheet is in progress at a time.
+ * Data rows are written with the {@link RowWriter} so no cell is kept in memory,
+ * except the first page of a sheet which has auto width columns.
+ *
+ * @author huangxiaohu
+ */
+@Slf4j
+public class FastExcelWriterExecutor implements TaraExcelExecutor<FastWorkbook> {
+
+    protected int curRowIndex;
+    protected int curSheetIndex;
+    protected int curColIndex;
+
+    private final ExcelRawWriterContext<?> writerContext;
+    private final BufferedOutputStream out;
+    private final FastWorkbook workbook;
+    private final FastCellStyleResolver styleResolver;
+
+    private int existSheetIndex = 0;
+
+    public FastExcelWriterExecutor(final ExcelRawWriterContext<?> writerContext, OutputStream out) {
+        this.writerContext = writerContext;
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        this.workbook = new FastWorkbook(this.out, "TaraApplication", "1.0");
+        this.workbook.getCompression().parallelism(TaraExcelConfig.CONFIG.getFastWriterCompressThreads());
+        this.styleResolver = new FastCellStyleResolver();
+    }
+
+    @Override
+    public FastWorkbook execute() {
+        log.debug("start write!");
+        final long startTimeMillis = System.currentTimeMillis();
+        try {
+            for (Map.Entry<String, ? extends TaraSheet> entry : this.writerContext.getSheetDefinitions().entrySet()) {
+                writeSheet(entry.getKey(), (AnnotationExcelWriterSheetDefinition<?>) entry.getValue());
+            }
+            workbook.finish();
+            out.flush();
+        } catch (ExcelWriterException e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new ExcelWriterException("写入数据失败", e);
+        } finally {
+            try {
+                styleResolver.close();
+            } catch (IOException e) {
+                log.warn("close style resolver error", e);
+            }
+        }
+        log.debug("finish write![total cost {}ms]", (System.currentTimeMillis() - startTimeMillis));
+        return this.workbook;
+    }
+
+    private void writeSheet(String sheetIdentity, AnnotationExcelWriterSheetDefinition<?> sheetDefinition) throws IOException {
+        SheetWriter sheetWriter = new SheetWriter(sheetIdentity, sheetDefinition);
+        switch (sheetDefinition.getExcelDataType()) {
+            case DIRECT:
+                List<Object> list = sheetDefinition.getRows().stream().map(TaraRow::getRowData).collect(Collectors.toList());
+                int batchSize = Constants.DEFAULT_ROW_ACCESS_WINDOW_SIZE;
+                for (int i = 0; i < list.size(); i += batchSize) {
+                    sheetWriter.append(list.subList(i, Math.min(list.size(), i + batchSize)));
+                }
+                break;
+            case QUERY:
+                ExportFunction<?> queryFunction = sheetDefinition.getQueryFunction();
+                PagePrefetcher.forEachPage(queryFunction, TaraExcelConfig.CONFIG.getQueryPrefetchPages(), result -> {
+                    try {
+                        sheetWriter.append(result.getData());
+                    } catch (IOException e) {
+                        throw new ExcelWriterException(e);
+                    }
+                });
+                break;
+            default:
+        }
+        sheetWriter.close();
+    }
+
+    /**
+     * The plan of one column,resolved once per sheet definition
+     */
+    private static class ColumnPlan {
+        final int col;
+        final Field field;
+        final ExcelExportField exportColumn;
+        final List<AbstractExcelColumnConverter<Annotation, ?>> converters;
+        final FastCellStyle dataStyle;
+        String format;
+        /**
+         * cached style index of the streamed cells,-1 if not resolved yet
+         */
+        int styleIndex = -1;
+        int mergeStart = -1;
+        Object previous;
+
+        ColumnPlan(int colIndex, Field field, ExcelExportField exportColumn, List<AbstractExcelColumnConverter<Annotation, ?>> converters, FastCellStyle dataStyle) {
+            this.col = colIndex - 1;
+            this.field = field;
+            this.exportColumn = exportColumn;
+            this.converters = converters;
+            this.dataStyle = dataStyle;
+            String dataFormat = exportColumn.dataFormat().value();
+            this.format = StringUtils.isBlank(dataFormat) ? dataStyle.format : dataFormat;
+        }
+    }
+
+    /**
+     * Write the rows of one sheet definition,roll over to a new sheet when reaching the max rows per sheet
+     */
+    private class SheetWriter {
+        private final String sheetIdentity;
+        private final AnnotationExcelWriterSheetDefinition<?> sheetDefinition;
+        private final List<ColumnPlan> columns = new ArrayList<>();
+        private final int firstCol;
+        private final int lastCol;
+        private Worksheet sheet;
+        private int nextRow;
+        /**
+         * keep the cells of the first page in memory,the auto width columns are computed from them
+         */
+        private boolean buffered;
+        private RowWriter rowWriter;
+
+        SheetWriter(String sheetIdentity, AnnotationExcelWriterSheetDefinition<?> sheetDefinition) {
+            this.sheetIdentity = sheetIdentity;
+            this.sheetDefinition = sheetDefinition;
+            Class<?> mappingClass = sheetDefinition.getMappingClass();
+            for (Map.Entry<Integer, Field> entry : sheetDefinition.getColFields().entrySet()) {
+                Field field = entry.getValue();
+                if (entry.getKey() < 1) {
+                    throw new IllegalArgumentException(field.getName() + "' colIndex less than 1");
+                }
+                ExcelExportField exportColumn = field.getAnnotation(ExcelExportField.class);
+                columns.add(new ColumnPlan(entry.getKey(), field, exportColumn, ExcelAnnotationUtils.getColumnConverters(mappingClass, field), styleResolver.resolve(exportColumn.dataCellStyleBuilder())));
+            }
+            columns.sort(Comparator.comparingInt(c -> c.col));
+            this.firstCol = columns.stream().mapToInt(c -> c.col).min().orElse(0);
+            this.lastCol = columns.stream().mapToInt(c -> c.col).max().orElse(0);
+            newSheet();
+        }
+
+        void append(List<?> rows) throws IOException {
+            if (CollectionUtils.isEmpty(rows)) {
+                return;
+            }
+            int batchStart = nextRow;
+            for (Object rowData : rows) {
+                if (nextRow - sheetDefinition.getFirstDataRow() >= sheetDefinition.getMaxRowsPerSheet()) {
+                    finishBatch(batchStart);
+                    closeSheet();
+                    newSheet();
+                    batchStart = nextRow;
+                }
+                writeRow(rowData);
+            }
+            finishBatch(batchStart);
+            if (buffered) {
+                buffered = false;
+                rowWriter = sheet.rowWriter();
+            }
+        }
+
+        private void writeRow(Object rowData) throws IOException {
+            int r = nextRow++;
+            curRowIndex = r + 1;
+            if (!buffered) {
+                rowWriter.startRow(r);
+            }
+            for (ColumnPlan column : columns) {
+                curColIndex = column.col + 1;
+                Object value;
+                try {
+                    value = column.field.get(rowData);
+                } catch (IllegalAccessException e) {
+                    throw new ExcelWriterException(e);
+                }
+                if (null == value && StringUtils.isNotBlank(column.exportColumn.defaultCellValue())) {
+                    value = column.exportColumn.defaultCellValue();
+                }
+                for (final AbstractExcelColumnConverter<Annotation, ?> columnConverter : column.converters) {
+                    value = columnConverter.convert(value);
+                }
+                if (buffered) {
+                    setCellValue(column, r, value);
+                } else {
+                    streamCellValue(column, value);
+                }
+                if (column.exportColumn.autoMerge()) {
+                    if (column.mergeStart < 0 || !AbstractExcelWriterExecutor.isSame(column.previous, value)) {
+                        mergeColumn(column, r - 1);
+                        column.mergeStart = r;
+                    }
+                    column.previous = value;
+                }
+            }
+            if (!buffered) {
+                rowWriter.endRow();
+            }
+        }
+
+        private void setCellValue(ColumnPlan column, int r, Object value) {
+            int c = column.col;
+            if (null == value) {
+                return;
+            }
+            if (value instanceof String) {
+                CellType cellType = column.exportColumn.cellType();
+                if (cellType == CellType.FORMULA) {
+                    sheet.formula(r, c, (String) value);
+                } else if (cellType != CellType.BLANK) {
+                    sheet.value(r, c, (String) value);
+                }
+            } else if (value instanceof Number) {
+                sheet.value(r, c, (Number) value);
+            } else if (value instanceof Boolean) {
+                sheet.value(r, c, (Boolean) value);
+            } else if (value instanceof Date) {
+                sheet.value(r, c, (Date) value);
+                dateFormat(column, DatePattern.NORM_DATETIME_PATTERN);
+            } else if (value instanceof LocalDateTime) {
+                sheet.value(r, c, (LocalDateTime) value);
+                dateFormat(column, DatePattern.NORM_DATETIME_PATTERN);
+            } else if (value instanceof LocalDate) {
+                sheet.value(r, c, (LocalDate) value);
+                dateFormat(column, DatePattern.NORM_DATE_PATTERN);
+            } else if (value instanceof ZonedDateTime) {
+                sheet.value(r, c, (ZonedDateTime) value);
+                dateFormat(column, DatePattern.NORM_DATETIME_PATTERN);
+            } else {
+                throw new UnsupportedOperationException("不支持此数据类型 => [" + column.field.getType() + "]!");
+            }
+        }
+
+        private void streamCellValue(ColumnPlan column, Object value) throws IOException {
+            rowWriter.skipCells(column.col - rowWriter.getColumnNum());
+            if (value instanceof Date || value instanceof LocalDateTime || value instanceof ZonedDateTime) {
+                dateFormat(column, DatePattern.NORM_DATETIME_PATTERN);
+            } else if (value instanceof LocalDate) {
+                dateFormat(column, DatePattern.NORM_DATE_PATTERN);
+            }
+            if (column.styleIndex < 0) {
+                column.styleIndex = column.dataStyle.apply(rowWriter.style()).format(column.format).cache();
+            }
+            int style = column.styleIndex;
+            if (null == value) {
+                rowWriter.writeBlank(style);
+            } else if (value instanceof String) {
+                CellType cellType = column.exportColumn.cellType();
+                if (cellType == CellType.FORMULA) {
+                    rowWriter.writeFormula((String) value, style);
+                } else if (cellType == CellType.BLANK) {
+                    rowWriter.writeBlank(style);
+                } else {
+                    rowWriter.writeString((String) value, style);
+                }
+            } else if (value instanceof Number) {
+                rowWriter.writeNumber((Number) value, style);
+            } else if (value instanceof Boolean) {
+                rowWriter.writeBoolean((Boolean) value, style);
+            } else if (value instanceof Date) {
+                rowWriter.writeDate((Date) value, style);
+            } else if (value instanceof LocalDateTime) {
+                rowWriter.writeDate((LocalDateTime) value, style);
+            } else if (value instanceof LocalDate) {
+                rowWriter.writeDate((LocalDate) value, style);
+            } else if (value instanceof ZonedDateTime) {
+                rowWriter.writeDate((ZonedDateTime) value, style);
+            } else {
+                throw new UnsupportedOperationException("不支持此数据类型 => [" + column.field.getType() + "]!");
+            }
+        }
+
+        private void dateFormat(ColumnPlan column, String pattern) {
+            if (column.format == null) {
+                column.format = pattern;
+                column.styleIndex = -1;
+            }
+        }
+
+        private void mergeColumn(ColumnPlan column, int end) {
+            if (column.mergeStart >= 0 && end > column.mergeStart) {
+                sheet.range(column.mergeStart, column.col, end, column.col).merge();
+            }
+        }
+
+        /**
+         * apply the column styles to the rows of this batch then flush them to the output stream
+         */
+        private void finishBatch(int batchStart) throws IOException {
+            if (!buffered || nextRow <= batchStart) {
+                return;
+            }
+            for (ColumnPlan column : columns) {
+                column.dataStyle.apply(sheet.range(batchStart, column.col, nextRow - 1, column.col).style()).format(column.format).set();
+            }
+            sheet.flush();
+        }
+
+        private void newSheet() {
+            existSheetIndex++;
+            curSheetIndex = existSheetIndex;
+            sheet = workbook.newWorksheet(existSheetIndex + "_" + sheetDefinition.getName());
+            sheet.defaultRowHeight(sheetDefinition.getDataRowHeight());
+            rowWriter = null;
+            buffered = false;
+            for (ColumnPlan column : columns) {
+                column.mergeStart = -1;
+                column.previous = null;
+                column.styleIndex = -1;
+            }
+            try {
+                handleComplexHeader();
+            } catch (final Throwable e) {
+                throw new ExcelAnnotationWriterException(sheetIdentity, curSheetIndex, curRowIndex, curColIndex, "", "复杂表头生成失败!", e);
+            }
+            try {
+                addDataValidation();
+            } catch (final Throwable e) {
+                throw new ExcelAnnotationWriterException(sheetIdentity, curSheetIndex, curRowIndex, curColIndex, "", "添加单元格校验器失败", e);
+            }
+            try {
+                initHeadTitle();
+            } catch (final Throwable e) {
+                throw new ExcelWriterException(sheetIdentity, curSheetIndex, curRowIndex, curColIndex, "", "初始化标题失败", e);
+            }
+            nextRow = sheetDefinition.getFirstDataRow();
+            try {
+                if (!buffered) {
+                    rowWriter = sheet.rowWriter();
+                }
+            } catch (IOException e) {
+                throw new ExcelWriterException(e);
+            }
+        }
+
+        private void handleComplexHeader() {
+            final ExcelComplexHeader excelComplexHeader = sheetDefinition.getAnnotation(ExcelComplexHeader.class);
+            if (excelComplexHeader == null) {
+                return;
+            }
+            for (final CellRange cellRange : excelComplexHeader.value()) {
+                curRowIndex = cellRange.firstRow();
+                curColIndex = cellRange.firstCol();
+                final int firstRow = cellRange.firstRow() - 1;
+                final int firstCol = cellRange.firstCol() - 1;
+                sheet.rowHeight(firstRow, cellRange.height());
+                sheet.value(firstRow, firstCol, cellRange.title());
+                FastCellStyle style = styleResolver.resolve(cellRange.cellStyleBuilder());
+                style.apply(sheet.range(firstRow, firstCol, cellRange.lastRow() - 1, cellRange.lastCol() - 1).style()).merge().set();
+            }
+        }
+
+        private void addDataValidation() {
+            for (ColumnPlan column : columns) {
+                curColIndex = column.col + 1;
+                final String[] values = ExcelAnnotationUtils.getDataValidationConstraint(column.field);
+                if (values != null) {
+                    sheet.range(sheetDefinition.getFirstDataRow(), column.col, 999, column.col)
+                            .validateWithValues(values)
+                            .prompt("提示", "可选值:" + Arrays.toString(values))
+                            .error("错误提示", "您的输入有误, 可选值:" + Arrays.toString(values));
+                }
+            }
+        }
+
+        private void initHeadTitle() {
+            int titleRow = sheetDefinition.getFirstDataRow() - 1;
+            curRowIndex = titleRow + 1;
+            sheet.rowHeight(titleRow, sheetDefinition.getTitleRowHeight());
+            for (ColumnPlan column : columns) {
+                curColIndex = column.col + 1;
+                ExcelExportField exportColumn = column.exportColumn;
+                sheet.value(titleRow, column.col, ExcelAnnotationUtils.getColName(exportColumn));
+                styleResolver.resolve(exportColumn.titleCellStyleBuilder()).apply(sheet.style(titleRow, column.col)).set();
+                if (Constants.DEFAULT_COL_WIDTH != exportColumn.colWidth()) {
+                    sheet.width(column.col, exportColumn.colWidth());
+                } else if (!sheetDefinition.isAutoColWidth() && !exportColumn.autoWidth()) {
+                    sheet.width(column.col, Constants.DEFAULT_COL_WIDTH);
+                } else {
+                    buffered = true;
+                }
+            }
+        }
+
+        private void closeSheet() throws IOException {
+            for (ColumnPlan column : columns) {
+                if (column.exportColumn.autoMerge()) {
+                    mergeColumn(column, nextRow - 1);
+                }
+            }
+            int firstDataRow = sheetDefinition.getFirstDataRow();
+            if (sheetDefinition.isRowStriped() && sheetDefinition.getRowStripeColor() != null && nextRow > firstDataRow) {
+                java.awt.Color color = sheetDefinition.getRowStripeColor();
+                String rgb = String.format("%02X%02X%02X", color.getRed(), color.getGreen(), color.getBlue());
+                // start the range one row above so the first data row is shaded as the legacy writer does
+                sheet.range(firstDataRow - 1, firstCol, nextRow - 1, lastCol).shadeAlternateRows(rgb);
+            }
+            sheet.finish();
+        }
+
+        void close() throws IOException {
+            closeSheet();
+        }
+    }
+}
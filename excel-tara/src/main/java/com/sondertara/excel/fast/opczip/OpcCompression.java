@@ -0,0 +1,198 @@
+package com.sondertara.excel.fast.opczip;
+
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
+
+/**
+ * Compression settings of {@link OpcOutputStream}.
+ * <p>
+ * The level and strategy can be set separately for the worksheet parts, which are by far the largest entries
+ * of a xlsx file. Entries smaller than the stored threshold are written without compression,
+ * and worksheets can be compressed in parallel blocks when the parallelism is greater than one.
+ * <blockquote><pre>
+ *  OpcCompression compression = new OpcCompression()
+ *          .sheetLevel(Deflater.BEST_SPEED)
+ *          .parallelism(Runtime.getRuntime().availableProcessors());
+ * </pre></blockquote>
+ * Settings must not be changed while an entry is written.
+ */
+public class OpcCompression {
+
+    /**
+     * Prefix of the worksheet parts.
+     */
+    static final String SHEET_PREFIX = "xl/worksheets/";
+
+    /**
+     * Default size of the parallel compressed blocks, same as pigz.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * Default size under which an entry is stored without compression, 0 so all the entries are compressed.
+     */
+    public static final int DEFAULT_STORED_THRESHOLD = 0;
+
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int strategy = Deflater.DEFAULT_STRATEGY;
+    private Integer sheetLevel;
+    private Integer sheetStrategy;
+    private int storedThreshold = DEFAULT_STORED_THRESHOLD;
+    private int parallelism = 1;
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private ExecutorService executor;
+
+    /**
+     * Set the compression level of all entries.
+     *
+     * @param level the compression level (0-9)
+     * @return this
+     * @see Deflater#setLevel(int)
+     */
+    public OpcCompression level(int level) {
+        this.level = checkLevel(level);
+        return this;
+    }
+
+    /**
+     * Set the compression strategy of all entries.
+     *
+     * @param strategy the strategy, e.g. {@link Deflater#FILTERED}
+     * @return this
+     * @see Deflater#setStrategy(int)
+     */
+    public OpcCompression strategy(int strategy) {
+        this.strategy = checkStrategy(strategy);
+        return this;
+    }
+
+    /**
+     * Set the compression level of the worksheet entries, e.g. {@link Deflater#BEST_SPEED}.
+     *
+     * @param sheetLevel the compression level (0-9)
+     * @return this
+     */
+    public OpcCompression sheetLevel(int sheetLevel) {
+        this.sheetLevel = checkLevel(sheetLevel);
+        return this;
+    }
+
+    /**
+     * Set the compression strategy of the worksheet entries.
+     *
+     * @param sheetStrategy the strategy
+     * @return this
+     */
+    public OpcCompression sheetStrategy(int sheetStrategy) {
+        this.sheetStrategy = checkStrategy(sheetStrategy);
+        return this;
+    }
+
+    /**
+     * Set the size under which an entry is stored without compression, 0 to compress all entries.
+     *
+     * @param storedThreshold size in bytes
+     * @return this
+     */
+    public OpcCompression storedThreshold(int storedThreshold) {
+        if (storedThreshold < 0) {
+            throw new IllegalArgumentException("Stored threshold must not be negative");
+        }
+        this.storedThreshold = storedThreshold;
+        return this;
+    }
+
+    /**
+     * Set the number of threads compressing the worksheet blocks, 1 compresses on the writing thread.
+     *
+     * @param parallelism number of threads
+     * @return this
+     */
+    public OpcCompression parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Set the size of the parallel compressed blocks.
+     *
+     * @param blockSize size in bytes, at least 32K which is the deflate window
+     * @return this
+     */
+    public OpcCompression blockSize(int blockSize) {
+        if (blockSize < ParallelDeflater.DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Block size must be at least " + ParallelDeflater.DICTIONARY_SIZE);
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * Use the given executor for the parallel compression instead of a pool owned by the stream.
+     * The executor is not shut down by the stream.
+     *
+     * @param executor the executor
+     * @return this
+     */
+    public OpcCompression executor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getStrategy() {
+        return strategy;
+    }
+
+    public int getStoredThreshold() {
+        return storedThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    boolean isSheet(String name) {
+        return name.startsWith(SHEET_PREFIX);
+    }
+
+    int levelOf(String name) {
+        return sheetLevel != null && isSheet(name) ? sheetLevel : level;
+    }
+
+    int strategyOf(String name) {
+        return sheetStrategy != null && isSheet(name) ? sheetStrategy : strategy;
+    }
+
+    boolean isParallel(String name) {
+        return parallelism > 1 && isSheet(name);
+    }
+
+    private static int checkLevel(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        return level;
+    }
+
+    private static int checkStrategy(int strategy) {
+        if (strategy != Deflater.DEFAULT_STRATEGY && strategy != Deflater.FILTERED && strategy != Deflater.HUFFMAN_ONLY) {
+            throw new IllegalArgumentException("invalid compression strategy");
+        }
+        return strategy;
+    }
+}
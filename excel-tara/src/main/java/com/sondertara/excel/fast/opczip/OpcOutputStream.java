@@ -5,23 +5,45 @@ package com.sondertara.excel.fast.opczip;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipOutputStream;
 
 /**
  * ZIP64 OutputStream implementation compatible with MS Excel.
  * Drop in replacement for `java.util.ZipOutputStream`.
+ * <p>
+ * The compression of each entry is driven by {@link OpcCompression}: tiny entries can be stored,
+ * and large worksheet entries can be compressed in parallel blocks.
  */
 public class OpcOutputStream extends DeflaterOutputStream {
 
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
     private final Zip64Impl spec;
     private final List<Zip64Impl.Entry> entries = new ArrayList<>();
     private final CRC32 crc = new CRC32();
+    private OpcCompression compression = new OpcCompression();
     private Zip64Impl.Entry current;
+    /**
+     * whether the local header of the current entry is written,entries are buffered until they exceed the stored threshold
+     */
+    private boolean headerWritten;
+    private byte[] pending;
+    private int pendingLength;
+    private ParallelDeflater parallel;
+    private ExecutorService ownExecutor;
     private int written = 0;
     private boolean finished = false;
 
@@ -37,9 +59,26 @@ public class OpcOutputStream extends DeflaterOutputStream {
 
     /**
      * @see Deflater#setLevel(int)
+     * @see OpcCompression#level(int)
      */
     public void setLevel(int level) {
-        super.def.setLevel(level);
+        compression.level(level);
+    }
+
+    /**
+     * Set the compression settings,applied from the next entry
+     *
+     * @param compression the compression settings
+     */
+    public void setCompression(OpcCompression compression) {
+        if (current != null) {
+            throw new IllegalStateException("Can not change the compression while writing an entry");
+        }
+        this.compression = Objects.requireNonNull(compression);
+    }
+
+    public OpcCompression getCompression() {
+        return compression;
     }
 
     /**
@@ -50,9 +89,12 @@ public class OpcOutputStream extends DeflaterOutputStream {
             closeEntry();
         }
         current = new Zip64Impl.Entry(e.getName());
-        current.offset = written;
-        written += spec.writeLFH(current);
         entries.add(current);
+        headerWritten = false;
+        pendingLength = 0;
+        if (compression.getStoredThreshold() == 0) {
+            startCompression();
+        }
     }
 
     /**
@@ -62,23 +104,46 @@ public class OpcOutputStream extends DeflaterOutputStream {
         if (current == null) {
             throw new IllegalStateException("not current zip current");
         }
-        def.finish();
-        while (!def.finished()) {
-            deflate();
+        if (!headerWritten) {
+            // small enough to be stored,the sizes are known so no data descriptor is needed
+            if (pendingLength > 0) {
+                crc.update(pending, 0, pendingLength);
+            }
+            current.stored = true;
+            current.size = pendingLength;
+            current.compressedSize = pendingLength;
+            current.crc = crc.getValue();
+            current.offset = written;
+            written += spec.writeLFH(current);
+            if (pendingLength > 0) {
+                out.write(pending, 0, pendingLength);
+            }
+            written += pendingLength;
+        } else {
+            if (parallel != null) {
+                parallel.finish();
+                current.size = parallel.getBytesRead();
+                current.compressedSize = (int) parallel.getBytesWritten();
+                current.crc = parallel.getCrc();
+                parallel = null;
+            } else {
+                def.finish();
+                while (!def.finished()) {
+                    deflate();
+                }
+                current.size = def.getBytesRead();
+                current.compressedSize = (int) def.getBytesWritten();
+                current.crc = crc.getValue();
+                def.reset();
+            }
+            written += current.compressedSize;
+            written += spec.writeDAT(current);
         }
-
-        current.size = def.getBytesRead();
-        current.compressedSize = (int) def.getBytesWritten();
-        current.crc = crc.getValue();
-
-        written += current.compressedSize;
-        written += spec.writeDAT(current);
         current = null;
-        def.reset();
+        pendingLength = 0;
         crc.reset();
     }
 
-
     /**
      * @see ZipOutputStream#finish()
      */
@@ -87,15 +152,22 @@ public class OpcOutputStream extends DeflaterOutputStream {
         if(finished){
             return;
         }
-        if(current != null) {
-            closeEntry();
-        }
-        int offset = written;
-        for (Zip64Impl.Entry entry : entries) {
-            written += spec.writeCEN(entry);
+        try {
+            if (current != null) {
+                closeEntry();
+            }
+            int offset = written;
+            for (Zip64Impl.Entry entry : entries) {
+                written += spec.writeCEN(entry);
+            }
+            written += spec.writeEND(entries.size(), offset, written - offset);
+            finished = true;
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+                ownExecutor = null;
+            }
         }
-        written += spec.writeEND(entries.size(), offset, written - offset);
-        finished = true;
     }
 
     /**
@@ -108,8 +180,24 @@ public class OpcOutputStream extends DeflaterOutputStream {
         } else if (len == 0) {
             return;
         }
-        super.write(b, off, len);
-        crc.update(b, off, len);
+        if (current == null) {
+            throw new ZipException("no current ZIP entry");
+        }
+        if (!headerWritten) {
+            int threshold = compression.getStoredThreshold();
+            if (pendingLength + len <= threshold) {
+                if (pending == null) {
+                    pending = new byte[threshold];
+                } else if (pending.length < threshold) {
+                    pending = Arrays.copyOf(pending, threshold);
+                }
+                System.arraycopy(b, off, pending, pendingLength, len);
+                pendingLength += len;
+                return;
+            }
+            startCompression();
+        }
+        compress(b, off, len);
     }
 
     /**
@@ -120,4 +208,54 @@ public class OpcOutputStream extends DeflaterOutputStream {
         finish();
         out.close();
     }
+
+    /**
+     * Write the local header of the current entry and set up its compressor, then compress the buffered bytes
+     */
+    private void startCompression() throws IOException {
+        current.offset = written;
+        written += spec.writeLFH(current);
+        headerWritten = true;
+        String name = current.filename;
+        if (compression.isParallel(name)) {
+            parallel = new ParallelDeflater(out, executor(), compression.levelOf(name), compression.strategyOf(name),
+                    compression.getBlockSize(), compression.getParallelism() * 2);
+        } else {
+            def.setLevel(compression.levelOf(name));
+            def.setStrategy(compression.strategyOf(name));
+        }
+        if (pendingLength > 0) {
+            int length = pendingLength;
+            pendingLength = 0;
+            compress(pending, 0, length);
+        }
+    }
+
+    private void compress(byte[] b, int off, int len) throws IOException {
+        if (parallel != null) {
+            parallel.write(b, off, len);
+        } else {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+    }
+
+    private ExecutorService executor() {
+        ExecutorService executor = compression.getExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        if (ownExecutor == null) {
+            int threads = compression.getParallelism();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "opc-deflate-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // idle workers die if the stream is never finished
+            pool.allowCoreThreadTimeOut(true);
+            ownExecutor = pool;
+        }
+        return ownExecutor;
+    }
 }
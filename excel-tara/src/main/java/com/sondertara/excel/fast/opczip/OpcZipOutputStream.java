@@ -18,6 +18,10 @@ public class OpcZipOutputStream extends ZipOutputStream {
         out.setLevel(level);
     }
 
+    public void setCompression(OpcCompression compression) {
+        out.setCompression(compression);
+    }
+
     @Override
     public void putNextEntry(ZipEntry e) throws IOException {
         out.putNextEntry(e);
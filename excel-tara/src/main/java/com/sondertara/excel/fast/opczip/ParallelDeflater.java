@@ -0,0 +1,182 @@
+package com.sondertara.excel.fast.opczip;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compress one zip entry in parallel blocks, the pigz way.
+ * <p>
+ * The input is cut into fixed size blocks compressed by the executor. Each block is primed with the last 32K
+ * of the previous block as preset dictionary and ends with a sync flush, so the concatenated blocks form a single
+ * raw deflate stream. The CRC-32 of each block is computed by the worker and combined in order.
+ */
+class ParallelDeflater {
+
+    /**
+     * Size of the deflate window.
+     */
+    static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int level;
+    private final int strategy;
+    private final int blockSize;
+    private final int maxInFlight;
+    private final Deque<Future<Block>> inFlight = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private byte[] dictionary;
+
+    private long bytesRead;
+    private long bytesWritten;
+    private long crc;
+
+    ParallelDeflater(OutputStream out, ExecutorService executor, int level, int strategy, int blockSize, int maxInFlight) {
+        this.out = out;
+        this.executor = executor;
+        this.level = level;
+        this.strategy = strategy;
+        this.blockSize = blockSize;
+        this.maxInFlight = maxInFlight;
+        this.block = new byte[blockSize];
+    }
+
+    void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == blockSize) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Compress the remaining input and write all the blocks.
+     */
+    void finish() throws IOException {
+        submit(true);
+        while (!inFlight.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    long getCrc() {
+        return crc;
+    }
+
+    private void submit(boolean last) throws IOException {
+        final byte[] input = block;
+        final int length = blockLength;
+        final byte[] dict = dictionary;
+        if (!last) {
+            dictionary = Arrays.copyOfRange(input, length - DICTIONARY_SIZE, length);
+            block = new byte[blockSize];
+            blockLength = 0;
+        }
+        inFlight.add(executor.submit(() -> compress(input, length, dict, last)));
+        while (inFlight.size() > maxInFlight) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        Block compressed;
+        try {
+            compressed = inFlight.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            cancel();
+            throw new IOException("Compress block error", e.getCause());
+        }
+        out.write(compressed.data, 0, compressed.length);
+        bytesWritten += compressed.length;
+        crc = bytesRead == 0 ? compressed.crc : Crc32Combine.combine(crc, compressed.crc, compressed.inputLength);
+        bytesRead += compressed.inputLength;
+    }
+
+    private void cancel() {
+        for (Future<Block> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    private Block compress(byte[] input, int length, byte[] dict, boolean last) {
+        CRC32 checksum = new CRC32();
+        checksum.update(input, 0, length);
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setStrategy(strategy);
+            if (dict != null) {
+                deflater.setDictionary(dict);
+            }
+            deflater.setInput(input, 0, length);
+            byte[] output = new byte[length + (length >> 3) + 64];
+            int written = 0;
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (written == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    written += deflater.deflate(output, written, output.length - written);
+                }
+            } else {
+                // the sync flush ends the block on a byte boundary without the final bit
+                int n;
+                int available;
+                do {
+                    if (written == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    available = output.length - written;
+                    n = deflater.deflate(output, written, available, Deflater.SYNC_FLUSH);
+                    written += n;
+                } while (n == available);
+            }
+            return new Block(output, written, length, checksum.getValue());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static class Block {
+        final byte[] data;
+        final int length;
+        final int inputLength;
+        final long crc;
+
+        Block(byte[] data, int length, int inputLength, long crc) {
+            this.data = data;
+            this.length = length;
+            this.inputLength = inputLength;
+            this.crc = crc;
+        }
+    }
+}
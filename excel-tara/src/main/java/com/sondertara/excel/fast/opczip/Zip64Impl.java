@@ -27,6 +27,10 @@ class Zip64Impl {
         long size;
         int compressedSize;
         int offset;
+        /**
+         * stored without compression,the sizes and crc are known when writing the local header
+         */
+        boolean stored;
 
         Entry(String filename) {
             this.filename = filename;
@@ -44,12 +48,12 @@ class Zip64Impl {
         written = 0;
         writeInt(PK0304);                        // "PK\003\004"
         writeShort(VERSION_45);                  // version required: 4.5
-        writeShort(DATA_DESCRIPTOR_USED);        // flags: 8 = data descriptor used
-        writeShort(ZipEntry.DEFLATED);           // compression method: 8 = deflate
+        writeShort(entry.stored ? 0 : DATA_DESCRIPTOR_USED); // flags: 8 = data descriptor used
+        writeShort(entry.stored ? ZipEntry.STORED : ZipEntry.DEFLATED); // compression method: 0 = stored, 8 = deflate
         writeInt(0);                          // file modification time & date
         writeInt(entry.crc);                     // CRC-32
-        writeInt(0);                          // compressed file size
-        writeInt(0);                          // uncompressed file size
+        writeInt(entry.stored ? entry.compressedSize : 0); // compressed file size
+        writeInt(entry.stored ? entry.size : 0);           // uncompressed file size
         writeShort(entry.filename.length());     // filename length
         writeShort(0);                        // extra flags size
         byte[] filenameBytes = entry.filename.getBytes(US_ASCII);
@@ -78,8 +82,8 @@ class Zip64Impl {
         writeInt(PK0102);                              // "PK\001\002"
         writeShort(VERSION_45);                        // version made by: 4.5
         writeShort(useZip64 ? VERSION_45 : VERSION_20);// version required: 4.5
-        writeShort(DATA_DESCRIPTOR_USED);              // flags: 8 = data descriptor used
-        writeShort(ZipEntry.DEFLATED);                 // compression method: 8 = deflate
+        writeShort(entry.stored ? 0 : DATA_DESCRIPTOR_USED); // flags: 8 = data descriptor used
+        writeShort(entry.stored ? ZipEntry.STORED : ZipEntry.DEFLATED); // compression method: 0 = stored, 8 = deflate
         writeInt(0);                                // file modification time & date
         writeInt(entry.crc);                           // CRC-32
         writeInt(entry.compressedSize);                // compressed size
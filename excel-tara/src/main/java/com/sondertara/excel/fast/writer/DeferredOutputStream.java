@@ -0,0 +1,119 @@
+package com.sondertara.excel.fast.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Output stream whose target is bound after creation.
+ * <p>
+ * A {@link FastWorkbook} keeps its rows in memory until it is finished, so the
+ * real destination (e.g. a servlet response) usually only has to be known when
+ * {@link FastWorkbook#finish(OutputStream)} is called. Data written before the
+ * target is bound, e.g. by {@link Worksheet#flush()}, is spooled in memory and
+ * moved to a temporary file once it exceeds {@link #SPOOL_MEMORY_THRESHOLD}.
+ * The spool is copied to the target when it is bound, and the rest is streamed
+ * directly.
+ */
+class DeferredOutputStream extends OutputStream {
+
+    /**
+     * Bytes kept in memory before the spool moves to a temporary file.
+     */
+    static final int SPOOL_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    private OutputStream target;
+    private ByteArrayOutputStream memory;
+    private Path file;
+    private OutputStream fileStream;
+
+    /**
+     * Bind the target stream and copy the spooled data into it. Can only be called once.
+     *
+     * @param target the real output stream
+     * @throws IOException if the spooled data can not be copied
+     */
+    synchronized void bind(OutputStream target) throws IOException {
+        if (this.target != null) {
+            throw new IllegalStateException("Output stream is already bound");
+        }
+        this.target = target;
+        try {
+            if (memory != null) {
+                memory.writeTo(target);
+            }
+            if (file != null) {
+                fileStream.close();
+                Files.copy(file, target);
+            }
+        } finally {
+            discardSpool();
+        }
+    }
+
+    synchronized boolean isBound() {
+        return target != null;
+    }
+
+    private OutputStream target(int len) throws IOException {
+        if (target != null) {
+            return target;
+        }
+        if (fileStream != null) {
+            return fileStream;
+        }
+        if (memory == null) {
+            memory = new ByteArrayOutputStream();
+        }
+        if (memory.size() + len <= SPOOL_MEMORY_THRESHOLD) {
+            return memory;
+        }
+        file = Files.createTempFile("tara", ".xlsx");
+        fileStream = new BufferedOutputStream(Files.newOutputStream(file));
+        memory.writeTo(fileStream);
+        memory = null;
+        return fileStream;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        target(1).write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        target(len).write(b, off, len);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (target != null) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (target != null) {
+            target.close();
+        } else {
+            discardSpool();
+        }
+    }
+
+    private void discardSpool() throws IOException {
+        memory = null;
+        if (file != null) {
+            try {
+                fileStream.close();
+            } finally {
+                Files.deleteIfExists(file);
+                file = null;
+                fileStream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sondertara.excel.fast.writer;
+
+import java.io.IOException;
+
+/**
+ * A DataValidation of type = "list" whose values are given inline
+ * instead of referencing a range of cells.
+ */
+public class ExplicitListDataValidation implements DataValidation {
+    private final static String TYPE = "list";
+    private final Range range;
+    private final String[] values;
+
+    private boolean allowBlank = true;
+    private boolean showDropdown = true;
+    private DataValidationErrorStyle errorStyle = DataValidationErrorStyle.STOP;
+    private boolean showErrorMessage = false;
+    private String errorTitle;
+    private String error;
+    private boolean showInputMessage = false;
+    private String promptTitle;
+    private String prompt;
+
+    /**
+     * Constructor
+     *
+     * @param range  The Range this validation is applied to
+     * @param values The allowed values
+     */
+    ExplicitListDataValidation(Range range, String[] values) {
+        this.range = range;
+        this.values = values;
+    }
+
+    /**
+     * whether blank cells should pass the validation
+     *
+     * @param allowBlank whether or not to allow blank values
+     * @return this ExplicitListDataValidation
+     */
+    public ExplicitListDataValidation allowBlank(boolean allowBlank) {
+        this.allowBlank = allowBlank;
+        return this;
+    }
+
+    /**
+     * Whether Excel will show an in-cell dropdown list
+     * containing the validation list
+     *
+     * @param showDropdown whether or not to show the dropdown
+     * @return this ExplicitListDataValidation
+     */
+    public ExplicitListDataValidation showDropdown(boolean showDropdown) {
+        this.showDropdown = showDropdown;
+        return this;
+    }
+
+    /**
+     * The style of error alert used for this data validation.
+     *
+     * @param errorStyle The DataValidationErrorStyle for this DataValidation
+     * @return this ExplicitListDataValidation
+     */
+    public ExplicitListDataValidation errorStyle(DataValidationErrorStyle errorStyle) {
+        this.errorStyle = errorStyle;
+        return this;
+    }
+
+    /**
+     * Show the error box with the given title and message for invalid values.
+     *
+     * @param errorTitle The error title
+     * @param error      The error message
+     * @return this ExplicitListDataValidation
+     */
+    public ExplicitListDataValidation error(String errorTitle, String error) {
+        this.showErrorMessage = true;
+        this.errorTitle = errorTitle;
+        this.error = error;
+        return this;
+    }
+
+    /**
+     * Show the prompt box with the given title and message when the cell is selected.
+     *
+     * @param promptTitle The prompt title
+     * @param prompt      The prompt message
+     * @return this ExplicitListDataValidation
+     */
+    public ExplicitListDataValidation prompt(String promptTitle, String prompt) {
+        this.showInputMessage = true;
+        this.promptTitle = promptTitle;
+        this.prompt = prompt;
+        return this;
+    }
+
+    /**
+     * Write this dataValidation as an XML element.
+     *
+     * @param w Output writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void write(Writer w) throws IOException {
+        w.append("<dataValidation sqref=\"")
+                .append(range.toString())
+                .append("\" type=\"")
+                .append(TYPE)
+                .append("\" allowBlank=\"")
+                .append(String.valueOf(allowBlank))
+                .append("\" showDropDown=\"")
+                .append(String.valueOf(!showDropdown)) // inverse, see ListDataValidation
+                .append("\" errorStyle=\"")
+                .append(errorStyle.toString())
+                .append("\" showErrorMessage=\"")
+                .append(String.valueOf(showErrorMessage))
+                .append("\" showInputMessage=\"")
+                .append(String.valueOf(showInputMessage))
+                .append('"');
+        if (errorTitle != null) {
+            w.append(" errorTitle=\"").appendEscaped(errorTitle).append('"');
+        }
+        if (error != null) {
+            w.append(" error=\"").appendEscaped(error).append('"');
+        }
+        if (promptTitle != null) {
+            w.append(" promptTitle=\"").appendEscaped(promptTitle).append('"');
+        }
+        if (prompt != null) {
+            w.append(" prompt=\"").appendEscaped(prompt).append('"');
+        }
+        w.append("><formula1>")
+                .appendEscaped("\"" + String.join(",", values) + "\"")
+                .append("</formula1></dataValidation>");
+    }
+}
@@ -16,8 +16,10 @@
 package com.sondertara.excel.fast.writer;
 
 
+import com.sondertara.excel.fast.opczip.OpcCompression;
 import com.sondertara.excel.fast.opczip.OpcOutputStream;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.Instant;
@@ -32,6 +34,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 
 
@@ -40,6 +43,11 @@ import java.util.zip.ZipEntry;
  */
 public class FastWorkbook {
 
+    /**
+     * Buffer size used when streaming to a late bound output stream.
+     */
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private int activeTab = 0;
     private final String applicationName;
     private final String applicationVersion;
@@ -48,6 +56,10 @@ public class FastWorkbook {
     private final StyleCache styleCache = new StyleCache();
     private final OpcOutputStream os;
     private final Writer writer;
+    /**
+     * Late bound target, {@code null} if the output stream was given to the constructor.
+     */
+    private final DeferredOutputStream deferred;
 
     /**
      * Constructor.
@@ -61,6 +73,30 @@ public class FastWorkbook {
      *                           page</a> for details.
      */
     public FastWorkbook(OutputStream os, String applicationName, String applicationVersion) {
+        this(os, null, applicationName, applicationVersion);
+    }
+
+    /**
+     * Constructor for a workbook streamed to an output stream supplied later
+     * by {@link #finish(OutputStream)}. Data flushed before then, e.g. by
+     * {@link Worksheet#flush()}, is spooled in memory and moved to a temporary
+     * file when it grows large; everything after is streamed directly.
+     *
+     * @param applicationName    Name of the application which generated this
+     *                           workbook.
+     * @param applicationVersion Version of the application. Ignored if
+     *                           {@code null}.
+     */
+    public FastWorkbook(String applicationName, String applicationVersion) {
+        this(new DeferredOutputStream(), applicationName, applicationVersion);
+    }
+
+    private FastWorkbook(DeferredOutputStream deferred, String applicationName, String applicationVersion) {
+        this(deferred, deferred, applicationName, applicationVersion);
+    }
+
+    private FastWorkbook(OutputStream os, DeferredOutputStream deferred, String applicationName, String applicationVersion) {
+        this.deferred = deferred;
         this.os = new OpcOutputStream(os);
         /* Tests showed that:
          * The default (-1) is level 6
@@ -94,6 +130,31 @@ public class FastWorkbook {
         this.os.setLevel(level);
     }
 
+    /**
+     * Sets the compression settings of the xlsx, e.g. a faster level for the worksheets
+     * or the parallel compression of large worksheets.
+     * Must be called before the first worksheet is flushed.
+     * The compression level of the workbook (4 by default, see {@link #setCompressionLevel(int)})
+     * is kept if the settings do not set a level.
+     *
+     * @param compression the compression settings
+     */
+    public void setCompression(OpcCompression compression) {
+        if (compression.getLevel() == Deflater.DEFAULT_COMPRESSION) {
+            compression.level(this.os.getCompression().getLevel());
+        }
+        this.os.setCompression(compression);
+    }
+
+    /**
+     * Gets the compression settings of the xlsx, they can be modified before the first worksheet is flushed.
+     *
+     * @return the compression settings
+     */
+    public OpcCompression getCompression() {
+        return this.os.getCompression();
+    }
+
     public void setActiveTab(int tabIndex) {
         this.activeTab = tabIndex;
     }
@@ -114,6 +175,9 @@ public class FastWorkbook {
      * @throws IOException In case of I/O error.
      */
     public void finish() throws IOException {
+        if (deferred != null && !deferred.isBound()) {
+            throw new IllegalStateException("No output stream bound to the workbook, use finish(OutputStream)");
+        }
         if (worksheets.isEmpty()) {
             throw new IllegalArgumentException("A workbook must contain at least one worksheet.");
         }
@@ -157,6 +221,24 @@ public class FastWorkbook {
         this.os.finish();
     }
 
+    /**
+     * Complete workbook generation, streaming the zip entries directly into the
+     * given output stream. Only applicable to workbooks created with
+     * {@link #FastWorkbook(String, String)}. The stream is flushed but not closed.
+     *
+     * @param out Target output stream, e.g. a servlet response stream.
+     * @throws IOException In case of I/O error.
+     */
+    public void finish(OutputStream out) throws IOException {
+        if (deferred == null) {
+            throw new IllegalStateException("Workbook is already bound to an output stream, use finish()");
+        }
+        BufferedOutputStream bos = new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+        deferred.bind(bos);
+        finish();
+        bos.flush();
+    }
+
     /**
      * @return true when any sheet has any comments
      */
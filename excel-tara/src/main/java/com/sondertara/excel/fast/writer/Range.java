@@ -181,6 +181,17 @@ public class Range {
         worksheet.merge(this);
     }
 
+    /**
+     * Shade alternate rows of this range with a conditional formatting.
+     * Unlike {@link StyleSetter#shadeAlternateRows(String)} the cells are not
+     * touched, so the range may cover rows already flushed.
+     *
+     * @param rgb RGB shading color.
+     */
+    public void shadeAlternateRows(String rgb) {
+        shadeAlternateRows(Fill.fromColor(rgb, false));
+    }
+
     /**
      * Check if this range contains the given cell coordinates.
      *
@@ -218,6 +229,18 @@ public class Range {
         return listDataValidation;
     }
 
+    /**
+     * Construct a new ExplicitListDataValidation
+     *
+     * @param values The allowed values of the cells in this range
+     * @return a new explicit list data validation object
+     */
+    public ExplicitListDataValidation validateWithValues(String... values) {
+        ExplicitListDataValidation dataValidation = new ExplicitListDataValidation(this, values);
+        worksheet.addValidation(dataValidation);
+        return dataValidation;
+    }
+
     /**
      * Specifically define this range by assigning it a name.
      * It will be visible in the cell range dropdown menu.
@@ -0,0 +1,396 @@
+package com.sondertara.excel.fast.writer;
+
+import com.sondertara.common.time.DatePattern;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Sequential writer of a {@link Worksheet}.
+ * <p>
+ * Cells are serialized straight to the sheet XML, no {@link Cell} object is allocated and rows
+ * are not kept in memory once written. Rows are append only: a row number must be greater than
+ * the previous one and cells are written from left to right.
+ * <blockquote><pre>
+ *  RowWriter rw = ws.rowWriter();
+ *  int bold = rw.style().bold().cache();
+ *  rw.startRow().writeString("name", bold).writeString("age", bold).endRow();
+ *  for (User user : users) {
+ *      rw.startRow().writeString(user.getName()).writeNumber(user.getAge()).endRow();
+ *  }
+ * </pre></blockquote>
+ * Obtain an instance with {@link Worksheet#rowWriter()}.
+ */
+public class RowWriter {
+
+    private final Worksheet worksheet;
+    private final FastWorkbook workbook;
+    private final Writer writer;
+
+    /**
+     * Cached column references, e.g. "A", "B"...
+     */
+    private String[] columnNames = new String[16];
+
+    /**
+     * Zero-based number of the current row, -1 when no row is started.
+     */
+    private int row = -1;
+
+    /**
+     * Zero-based number of the next cell in the current row.
+     */
+    private int column;
+
+    private int dateTimeStyle = -1;
+    private int dateStyle = -1;
+
+    RowWriter(Worksheet worksheet, Writer writer) {
+        this.worksheet = worksheet;
+        this.workbook = worksheet.getWorkbook();
+        this.writer = writer;
+    }
+
+    /**
+     * Start the row following the last written one.
+     *
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter startRow() throws IOException {
+        return startRow(worksheet.nextStreamedRow());
+    }
+
+    /**
+     * Start the given row, the rows between the last written one and this row are left empty.
+     *
+     * @param r Zero-based row number.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter startRow(int r) throws IOException {
+        if (row >= 0) {
+            throw new IllegalStateException("Row " + row + " is not ended");
+        }
+        if (r >= Worksheet.MAX_ROWS) {
+            throw new IllegalArgumentException("Row number " + r + " exceeds " + Worksheet.MAX_ROWS);
+        }
+        int next = worksheet.nextStreamedRow();
+        if (r < next) {
+            throw new IllegalStateException("Row " + r + " already flushed from memory.");
+        }
+        writer.append("<row r=\"").append(r + 1).append('\"');
+        if (worksheet.isRowHidden(r)) {
+            writer.append(" hidden=\"true\"");
+        }
+        Double height = worksheet.getRowHeight(r);
+        if (height != null) {
+            writer.append(" ht=\"").append(height).append("\" customHeight=\"1\"");
+        }
+        writer.append('>');
+        row = r;
+        column = 0;
+        return this;
+    }
+
+    /**
+     * End the current row.
+     *
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter endRow() throws IOException {
+        checkInRow();
+        writer.append("</row>");
+        worksheet.rowStreamed(row);
+        row = -1;
+        return this;
+    }
+
+    /**
+     * Leave the next cell empty.
+     *
+     * @return This writer.
+     */
+    public RowWriter skipCell() {
+        return skipCells(1);
+    }
+
+    /**
+     * Leave the next cells empty.
+     *
+     * @param count Number of cells to skip.
+     * @return This writer.
+     */
+    public RowWriter skipCells(int count) {
+        checkInRow();
+        column += count;
+        return this;
+    }
+
+    /**
+     * Write an empty cell with the given style.
+     *
+     * @param style Cached style index, see {@link StyleSetter#cache()}.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeBlank(int style) throws IOException {
+        if (style == 0) {
+            return skipCell();
+        }
+        startCell(style, null);
+        writer.append("/>");
+        return this;
+    }
+
+    public RowWriter writeString(String value) throws IOException {
+        return writeString(value, 0);
+    }
+
+    /**
+     * Write a string cell. The string is added to the shared strings table.
+     *
+     * @param value Cell value, {@code null} writes an empty cell.
+     * @param style Cached style index, see {@link StyleSetter#cache()}.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeString(String value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        startCell(style, "s");
+        writer.append("><v>").append(workbook.cacheString(value).getIndex()).append("</v></c>");
+        return this;
+    }
+
+    public RowWriter writeNumber(int value) throws IOException {
+        return writeNumber(value, 0);
+    }
+
+    public RowWriter writeNumber(int value, int style) throws IOException {
+        startCell(style, "n");
+        writer.append("><v>").append(value).append("</v></c>");
+        return this;
+    }
+
+    public RowWriter writeNumber(long value) throws IOException {
+        return writeNumber(value, 0);
+    }
+
+    public RowWriter writeNumber(long value, int style) throws IOException {
+        startCell(style, "n");
+        writer.append("><v>").append(value).append("</v></c>");
+        return this;
+    }
+
+    public RowWriter writeNumber(double value) throws IOException {
+        return writeNumber(value, 0);
+    }
+
+    public RowWriter writeNumber(double value, int style) throws IOException {
+        startCell(style, "n");
+        writer.append("><v>").append(value).append("</v></c>");
+        return this;
+    }
+
+    public RowWriter writeNumber(Number value) throws IOException {
+        return writeNumber(value, 0);
+    }
+
+    /**
+     * Write a numeric cell.
+     *
+     * @param value Cell value, {@code null} writes an empty cell.
+     * @param style Cached style index, see {@link StyleSetter#cache()}.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeNumber(Number value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return writeNumber(value.intValue(), style);
+        }
+        if (value instanceof Long) {
+            return writeNumber(value.longValue(), style);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return writeNumber(value.doubleValue(), style);
+        }
+        startCell(style, "n");
+        writer.append("><v>").append(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString()).append("</v></c>");
+        return this;
+    }
+
+    public RowWriter writeBoolean(boolean value) throws IOException {
+        return writeBoolean(value, 0);
+    }
+
+    public RowWriter writeBoolean(boolean value, int style) throws IOException {
+        startCell(style, "b");
+        writer.append("><v>").append(value ? '1' : '0').append("</v></c>");
+        return this;
+    }
+
+    /**
+     * Write a date cell with the default {@link DatePattern#NORM_DATETIME_PATTERN} format.
+     *
+     * @param value Cell value, {@code null} writes an empty cell.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeDate(Date value) throws IOException {
+        return writeDate(value, dateTimeStyle());
+    }
+
+    /**
+     * Write a date cell. Note Excel timestamps do not carry any timezone information,
+     * the value is converted with the system timezone.
+     *
+     * @param value Cell value, {@code null} writes an empty cell.
+     * @param style Cached style index with a date format, see {@link StyleSetter#cache()}.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeDate(Date value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        return writeNumber(TimestampUtil.convertDate(value).doubleValue(), style);
+    }
+
+    public RowWriter writeDate(LocalDateTime value) throws IOException {
+        return writeDate(value, dateTimeStyle());
+    }
+
+    public RowWriter writeDate(LocalDateTime value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        return writeDate(Date.from(value.atZone(ZoneId.systemDefault()).toInstant()), style);
+    }
+
+    public RowWriter writeDate(LocalDate value) throws IOException {
+        return writeDate(value, dateStyle());
+    }
+
+    public RowWriter writeDate(LocalDate value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        return writeNumber(TimestampUtil.convertDate(value).doubleValue(), style);
+    }
+
+    public RowWriter writeDate(ZonedDateTime value) throws IOException {
+        return writeDate(value, dateTimeStyle());
+    }
+
+    public RowWriter writeDate(ZonedDateTime value, int style) throws IOException {
+        if (value == null) {
+            return writeBlank(style);
+        }
+        return writeNumber(TimestampUtil.convertZonedDateTime(value).doubleValue(), style);
+    }
+
+    /**
+     * Write a formula cell.
+     *
+     * @param expression Formula expression.
+     * @param style Cached style index, see {@link StyleSetter#cache()}.
+     * @return This writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter writeFormula(String expression, int style) throws IOException {
+        startCell(style, null);
+        writer.append("><f>").append(expression).append("</f></c>");
+        return this;
+    }
+
+    /**
+     * Create a style setter whose result is cached with {@link StyleSetter#cache()}
+     * and passed to the write methods.
+     *
+     * @return A detached style setter.
+     */
+    public StyleSetter style() {
+        return new StyleSetter(workbook);
+    }
+
+    /**
+     * Get the current row number.
+     *
+     * @return Zero-based number of the current row, -1 if no row is started.
+     */
+    public int getRowNum() {
+        return row;
+    }
+
+    /**
+     * Get the number of the next cell.
+     *
+     * @return Zero-based number of the next cell in the current row.
+     */
+    public int getColumnNum() {
+        return column;
+    }
+
+    boolean isInRow() {
+        return row >= 0;
+    }
+
+    private void startCell(int style, String type) throws IOException {
+        checkInRow();
+        if (column >= Worksheet.MAX_COLS) {
+            throw new IllegalArgumentException("Column number " + column + " exceeds " + Worksheet.MAX_COLS);
+        }
+        writer.append("<c r=\"").append(columnName(column)).append(row + 1).append('\"');
+        if (style != 0) {
+            writer.append(" s=\"").append(style).append('\"');
+        }
+        if (type != null) {
+            writer.append(" t=\"").append(type).append('\"');
+        }
+        column++;
+    }
+
+    private String columnName(int c) {
+        if (c >= columnNames.length) {
+            columnNames = Arrays.copyOf(columnNames, Math.max(c + 1, columnNames.length * 2));
+        }
+        String name = columnNames[c];
+        if (name == null) {
+            name = Range.colToString(c);
+            columnNames[c] = name;
+        }
+        return name;
+    }
+
+    private void checkInRow() {
+        if (row < 0) {
+            throw new IllegalStateException("No row is started, call startRow() first");
+        }
+    }
+
+    private int dateTimeStyle() {
+        if (dateTimeStyle < 0) {
+            dateTimeStyle = style().format(DatePattern.NORM_DATETIME_PATTERN).cache();
+        }
+        return dateTimeStyle;
+    }
+
+    private int dateStyle() {
+        if (dateStyle < 0) {
+            dateStyle = style().format(DatePattern.NORM_DATE_PATTERN).cache();
+        }
+        return dateStyle;
+    }
+}
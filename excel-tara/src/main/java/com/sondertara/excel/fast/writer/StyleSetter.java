@@ -38,6 +38,10 @@ public class StyleSetter {
      * Range of cells where the style is applied.
      */
     private final Range range;
+    /**
+     * Workbook owning the style cache.
+     */
+    private final FastWorkbook workbook;
     /**
      * Value formatting.
      */
@@ -111,6 +115,17 @@ public class StyleSetter {
      */
     StyleSetter(Range range) {
         this.range = range;
+        this.workbook = range.getWorksheet().getWorkbook();
+    }
+
+    /**
+     * Constructor of a detached style setter, only {@link #cache()} can be used.
+     *
+     * @param workbook Workbook owning the style cache.
+     */
+    StyleSetter(FastWorkbook workbook) {
+        this.range = null;
+        this.workbook = workbook;
     }
 
     /**
@@ -398,6 +413,43 @@ public class StyleSetter {
      * done otherwise style changes are lost!</b>
      */
     public void set() {
+        if (range == null) {
+            throw new IllegalStateException("This style setter is not bound to a range, use cache() instead");
+        }
+        // Compute a map giving new styles for current styles
+        Set<Integer> currentStyles = range.getStyles();
+        Map<Integer, Integer> newStyles = currentStyles.stream().collect(Collectors.toMap(Function.identity(), this::mergeStyle));
+
+        // Apply styles to range
+        range.applyStyle(newStyles);
+
+        // Shading color for alternate rows is cached separately
+        if (alternateShadingFillColor != null) {
+            range.shadeAlternateRows(Fill.fromColor(alternateShadingFillColor, false));
+        }
+
+        if (shadingFillColor != null) {
+            range.shadeRows(Fill.fromColor(shadingFillColor, false), eachNRows);
+        }
+    }
+
+    /**
+     * Cache the style elements without applying them to cells.
+     * The returned index is meant for {@link RowWriter}, which writes cells without buffering them.
+     *
+     * @return Cached style index.
+     */
+    public int cache() {
+        return mergeStyle(0);
+    }
+
+    /**
+     * Merge the style elements with the given cached style.
+     *
+     * @param currentStyle Current cached style index.
+     * @return New cached style index.
+     */
+    private int mergeStyle(int currentStyle) {
         Alignment alignment;
         if (horizontalAlignment != null || verticalAlignment != null || wrapText) {
             alignment = new Alignment(horizontalAlignment, verticalAlignment, wrapText);
@@ -416,31 +468,12 @@ public class StyleSetter {
         } else {
             fill = Fill.fromColor(fillColor);
         }
-        if (border == null) {
-            border = Border.NONE;
-        }
-
         Protection protection;
         if (protectionOptions != null) {
             protection = new Protection(protectionOptions);
         } else {
             protection = null;
         }
-
-        // Compute a map giving new styles for current styles
-        Set<Integer> currentStyles = range.getStyles();
-        Map<Integer, Integer> newStyles = currentStyles.stream().collect(Collectors.toMap(Function.identity(), s -> range.getWorksheet().getWorkbook().mergeAndCacheStyle(s, valueFormatting, font, fill, border, alignment, protection)));
-
-        // Apply styles to range
-        range.applyStyle(newStyles);
-
-        // Shading color for alternate rows is cached separately
-        if (alternateShadingFillColor != null) {
-            range.shadeAlternateRows(Fill.fromColor(alternateShadingFillColor, false));
-        }
-
-        if (shadingFillColor != null) {
-            range.shadeRows(Fill.fromColor(shadingFillColor, false), eachNRows);
-        }
+        return workbook.mergeAndCacheStyle(currentStyle, valueFormatting, font, fill, border == null ? Border.NONE : border, alignment, protection);
     }
 }
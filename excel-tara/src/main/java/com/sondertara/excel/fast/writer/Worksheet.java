@@ -102,6 +102,11 @@ public class Worksheet {
      */
     private final Map<Integer, Double> rowHeights = new HashMap<>();
 
+    /**
+     * Height of the rows without custom height.
+     */
+    private double defaultRowHeight = 15.0;
+
     final Comments comments = new Comments();
 
     /**
@@ -235,6 +240,11 @@ public class Worksheet {
      */
     private int flushedRows = 0;
 
+    /**
+     * Sequential writer of this worksheet, created on demand.
+     */
+    private RowWriter rowWriter;
+
     /**
      * Constructor.
      *
@@ -257,7 +267,7 @@ public class Worksheet {
 
 
     public int getLastRowNum(){
-        return this.rows.size();
+        return Math.max(this.rows.size(), flushedRows);
     }
 
     /**
@@ -563,6 +573,19 @@ public class Worksheet {
         rowHeights.put(r, height);
     }
 
+    /**
+     * Specify the height of all the rows without a custom height.
+     * Prefer this over {@link #rowHeight(int, double)} for uniform data rows.
+     *
+     * @param height New default row height
+     */
+    public void defaultRowHeight(double height) {
+        if (height > MAX_ROW_HEIGHT) {
+            throw new IllegalArgumentException();
+        }
+        this.defaultRowHeight = height;
+    }
+
     /**
      * Set the cell value at the given coordinates.
      *
@@ -827,6 +850,9 @@ public class Worksheet {
         if (finished) {
             return;
         }
+        if (rowWriter != null && rowWriter.isInRow()) {
+            throw new IllegalStateException("Row " + rowWriter.getRowNum() + " is not ended");
+        }
         flush();
         writer.append("</sheetData>");
 
@@ -959,8 +985,15 @@ public class Worksheet {
                 writeFreezePane(writer);
             }
             writer.append("</sheetView>");
-            writer.append("</sheetViews><sheetFormatPr defaultRowHeight=\"15.0\"/>");
+            writer.append("</sheetViews><sheetFormatPr defaultRowHeight=\"").append(defaultRowHeight).append("\"");
+            if (defaultRowHeight != 15.0) {
+                writer.append(" customHeight=\"1\"");
+            }
+            writer.append("/>");
             int nbCols = rows.stream().filter(Objects::nonNull).map(r -> r.length).reduce(0, Math::max);
+            // columns of streamed rows are unknown here, keep the explicitly configured ones
+            nbCols = Math.max(nbCols, colWidths.keySet().stream().reduce(-1, Math::max) + 1);
+            nbCols = Math.max(nbCols, hiddenColumns.stream().reduce(-1, Math::max) + 1);
             if (nbCols > 0) {
                 writeCols(writer, nbCols);
             }
@@ -975,12 +1008,66 @@ public class Worksheet {
             }
             rows.set(r, null); // free flushed row data
         }
-        flushedRows = rows.size() - 1;
+        flushedRows = Math.max(flushedRows, rows.size() - 1);
 
 
         writer.flush();
     }
 
+    /**
+     * Get the sequential writer of this worksheet.
+     * <p>
+     * Rows written by the {@link RowWriter} are serialized straight to the output stream,
+     * no {@link Cell} is created for them. The rows set with {@code value(...)} so far are flushed
+     * first, so columns widths, hidden columns and frozen panes must be defined before calling this method.
+     * Random access and sequential writes can be mixed as long as the random access rows are below
+     * the rows already written.
+     *
+     * @return The row writer.
+     * @throws IOException If an I/O error occurs.
+     */
+    public RowWriter rowWriter() throws IOException {
+        if (rowWriter == null) {
+            nextStreamedRow();
+            rowWriter = new RowWriter(this, writer);
+        }
+        return rowWriter;
+    }
+
+    /**
+     * Flush the buffered rows before streaming a new row.
+     *
+     * @return Zero-based number of the first row which can be streamed.
+     * @throws IOException If an I/O error occurs.
+     */
+    int nextStreamedRow() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Worksheet " + name + " is already finished");
+        }
+        if (writer == null || rows.size() > flushedRows) {
+            flush();
+            flushedRows = Math.max(flushedRows, rows.size());
+        }
+        return flushedRows;
+    }
+
+    /**
+     * Mark the given row as written by the {@link RowWriter}.
+     *
+     * @param r Zero-based row number.
+     */
+    void rowStreamed(int r) {
+        flushedRows = r + 1;
+    }
+
+    boolean isRowHidden(int r) {
+        return hiddenRows.contains(r);
+    }
+
+    Double getRowHeight(int r) {
+        return rowHeights.get(r);
+    }
+
     /**
      * Writes corresponding pane definitions into XML and freezes pane.
      */
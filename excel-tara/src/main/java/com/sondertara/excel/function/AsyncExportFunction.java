@@ -0,0 +1,55 @@
+package com.sondertara.excel.function;
+
+import com.sondertara.common.exception.TaraException;
+import com.sondertara.common.model.PageResult;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking page query,e.g. by a reactive database driver or an async http client.
+ * <p>
+ * No thread is held while the page is loading, the export keeps several pages in flight.
+ *
+ * @param <T> the row type
+ * @author huangxiaohu
+ */
+@FunctionalInterface
+public interface AsyncExportFunction<T> extends ExportFunction<T> {
+
+    /**
+     * Query Page Data asynchronously
+     * the index is start from 0
+     *
+     * @param index page
+     * @return the future page
+     */
+    CompletableFuture<PageResult<T>> queryAsync(Integer index);
+
+    /**
+     * the executor is not used,the future completes on the thread of the async client
+     */
+    @Override
+    default CompletableFuture<PageResult<T>> queryAsync(Integer index, Executor executor) {
+        return queryAsync(index);
+    }
+
+    /**
+     * Block until the page is loaded
+     */
+    @Override
+    default PageResult<T> query(Integer index) {
+        try {
+            return queryAsync(index).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TaraException("Query page[" + index + "] error", e.getCause());
+        } catch (CancellationException e) {
+            throw new TaraException("Query page[" + index + "] is cancelled", e);
+        }
+    }
+}
@@ -2,11 +2,19 @@ package com.sondertara.excel.function;
 
 import com.sondertara.common.model.PageResult;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 /**
  * 分页查询
  *
  * @param <T>
  * @author huangxiaohu
+ * @see AsyncExportFunction
+ * @see KeysetExportFunction
  */
 @FunctionalInterface
 public interface ExportFunction<T> {
@@ -18,4 +26,42 @@ public interface ExportFunction<T> {
      * @return page
      */
     PageResult<T> query(Integer index);
+
+    /**
+     * Query Page Data asynchronously,the blocking {@link #query(Integer)} is run by the executor
+     *
+     * @param index    page,start from 0
+     * @param executor the executor running the blocking query
+     * @return the future page
+     */
+    default CompletableFuture<PageResult<T>> queryAsync(Integer index, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> query(index), executor);
+    }
+
+    /**
+     * Whether the pages must be queried one after another,e.g. keyset paging needs the last row of the previous page
+     *
+     * @return true if the pages can not be queried concurrently
+     */
+    default boolean isSequential() {
+        return false;
+    }
+
+    /**
+     * Keyset(seek) paging,avoid the OFFSET scan of the database
+     * <pre>
+     * ExportFunction.keyset(1000, User::getId, (lastId, size) -&gt; userMapper.selectAfter(lastId, size));
+     * // select * from user where id &gt; #{lastId} order by id limit #{size}
+     * </pre>
+     *
+     * @param pageSize     the page size
+     * @param keyExtractor get the key of a row,the rows must be sorted by this key
+     * @param query        query the rows after the key(null for the first page) and the page size
+     * @param <T>          the row type
+     * @param <K>          the key type
+     * @return the sequential export function
+     */
+    static <T, K> ExportFunction<T> keyset(int pageSize, Function<T, K> keyExtractor, BiFunction<K, Integer, List<T>> query) {
+        return new KeysetExportFunction<>(pageSize, keyExtractor, query);
+    }
 }
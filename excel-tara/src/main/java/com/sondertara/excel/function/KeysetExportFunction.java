@@ -0,0 +1,66 @@
+package com.sondertara.excel.function;
+
+import com.sondertara.common.exception.TaraException;
+import com.sondertara.common.model.PageResult;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset(seek) paging adapter.
+ * <p>
+ * Each page is queried with the key of the last row of the previous page instead of an offset,
+ * so the pages must be queried in order. The total is unknown, a full page announces one more page
+ * and a short page is the last one.
+ * <p>
+ * Querying the first page again restarts from the beginning,so the function can be reused by
+ * another export once the previous one is done,but not shared by concurrent exports.
+ *
+ * @param <T> the row type
+ * @param <K> the key type
+ * @author huangxiaohu
+ * @see ExportFunction#keyset(int, Function, BiFunction)
+ */
+public class KeysetExportFunction<T, K> implements ExportFunction<T> {
+
+    private final int pageSize;
+    private final Function<T, K> keyExtractor;
+    private final BiFunction<K, Integer, List<T>> query;
+
+    private int nextIndex = 0;
+    private K lastKey;
+
+    public KeysetExportFunction(int pageSize, Function<T, K> keyExtractor, BiFunction<K, Integer, List<T>> query) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageSize = pageSize;
+        this.keyExtractor = keyExtractor;
+        this.query = query;
+    }
+
+    @Override
+    public synchronized PageResult<T> query(Integer index) {
+        if (index == 0) {
+            nextIndex = 0;
+            lastKey = null;
+        } else if (index != nextIndex) {
+            throw new TaraException("Keyset paging must be queried in order,expect page[{}] but got [{}]", nextIndex, index);
+        }
+        List<T> rows = query.apply(lastKey, pageSize);
+        nextIndex++;
+        int size = rows == null ? 0 : rows.size();
+        if (size > 0) {
+            lastKey = keyExtractor.apply(rows.get(size - 1));
+        }
+        // a full page may be followed by another one
+        long total = (long) index * pageSize + (size < pageSize ? size : 2L * pageSize);
+        return PageResult.of(rows).pagination(index, pageSize).total(total);
+    }
+
+    @Override
+    public boolean isSequential() {
+        return true;
+    }
+}
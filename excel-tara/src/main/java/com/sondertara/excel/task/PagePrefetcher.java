@@ -0,0 +1,284 @@
+package com.sondertara.excel.task;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sondertara.common.exception.TaraException;
+import com.sondertara.common.model.PageResult;
+import com.sondertara.excel.base.TaraExcelConfig;
+import com.sondertara.excel.function.ExportFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keep several page queries of an {@link ExportFunction} in flight while the pages are written.
+ * <p>
+ * The first page is queried alone to learn the last page index, then up to {@code maxInFlight} pages are queried
+ * concurrently. The number of pages in flight follows the measured query latency and consume time,
+ * so a slow database gets more concurrent queries and a slow writer does not pile up pages in memory.
+ * Sequential functions (e.g. keyset paging) are chained: each query starts when the previous page is loaded,
+ * but still ahead of the consumer.
+ * <p>
+ * Pages are returned in order by {@link #take()}, which can be called by several consumer threads.
+ *
+ * @param <R> the row type
+ * @author huangxiaohu
+ */
+public class PagePrefetcher<R> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PagePrefetcher.class);
+
+    /**
+     * weight of the last sample in the moving average of the latencies
+     */
+    private static final double SAMPLE_WEIGHT = 0.3;
+
+    private final ExportFunction<R> exportFunction;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final boolean sequential;
+    private final Deque<CompletableFuture<PageResult<R>>> window = new ArrayDeque<>();
+
+    private int consumers = 1;
+    private int nextIndex = 0;
+    /**
+     * the last page index,only the first page is queried until it is known
+     */
+    private int endIndex = 0;
+    private boolean endIndexKnown;
+    private boolean stopped;
+    private CompletableFuture<PageResult<R>> last;
+
+    private double queryNanos;
+    private double consumeNanos;
+
+    /**
+     * @param exportFunction the page query
+     * @param executor       the executor running the blocking queries
+     * @param maxInFlight    the max pages queried at the same time
+     */
+    public PagePrefetcher(ExportFunction<R> exportFunction, Executor executor, int maxInFlight) {
+        this.exportFunction = exportFunction;
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.sequential = exportFunction.isSequential();
+    }
+
+    /**
+     * the number of threads calling {@link #take()},used to size the pages in flight
+     *
+     * @param consumers the consumer count
+     * @return this
+     */
+    public PagePrefetcher<R> consumers(int consumers) {
+        this.consumers = Math.max(1, consumers);
+        return this;
+    }
+
+    /**
+     * Get the next page in order,wait until it is loaded
+     *
+     * @return the page, null if all the pages are taken
+     */
+    public PageResult<R> take() {
+        CompletableFuture<PageResult<R>> future = next();
+        if (future == null) {
+            return null;
+        }
+        PageResult<R> result;
+        try {
+            result = future.join();
+        } catch (CompletionException | CancellationException e) {
+            close();
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TaraException("Query page error", cause);
+        }
+        if (result == null || result.isEmpty()) {
+            close();
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Record the time spent to consume a page
+     *
+     * @param nanos the consume time
+     */
+    public synchronized void consumed(long nanos) {
+        consumeNanos = average(consumeNanos, nanos);
+        fill();
+    }
+
+    /**
+     * Cancel the pages in flight
+     */
+    @Override
+    public synchronized void close() {
+        stopped = true;
+        for (CompletableFuture<PageResult<R>> future : window) {
+            future.cancel(true);
+        }
+        window.clear();
+    }
+
+    private synchronized CompletableFuture<PageResult<R>> next() {
+        fill();
+        CompletableFuture<PageResult<R>> future = window.poll();
+        fill();
+        return future;
+    }
+
+    /**
+     * the pages in flight to hide the query latency: latency / consume interval + 1
+     */
+    private int target() {
+        if (!endIndexKnown && !sequential) {
+            return 1;
+        }
+        if (queryNanos <= 0 || consumeNanos <= 0) {
+            return maxInFlight;
+        }
+        double interval = consumeNanos / consumers;
+        return (int) Math.max(1, Math.min(maxInFlight, Math.ceil(queryNanos / interval) + 1));
+    }
+
+    private void fill() {
+        while (!stopped && window.size() < target() && (sequential || nextIndex <= endIndex)) {
+            // enqueue the page before starting the query,a query may complete on this thread and fill again
+            int index = nextIndex++;
+            CompletableFuture<PageResult<R>> page = new CompletableFuture<>();
+            CompletableFuture<PageResult<R>> previous = last;
+            last = page;
+            window.add(page);
+            query(index, previous).whenComplete((result, e) -> {
+                if (e != null) {
+                    page.completeExceptionally(e);
+                } else {
+                    page.complete(result);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<PageResult<R>> query(int index, CompletableFuture<PageResult<R>> previous) {
+        if (sequential && previous != null) {
+            // chain on the previous page,no query after the last page
+            return previous.thenCompose(p -> isLast(p) ? CompletableFuture.completedFuture(null) : timed(index));
+        }
+        return timed(index);
+    }
+
+    private CompletableFuture<PageResult<R>> timed(int index) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("start query page[{}]...", index);
+        }
+        final long start = System.nanoTime();
+        return exportFunction.queryAsync(index, executor).whenComplete((result, e) -> queried(index, result, System.nanoTime() - start));
+    }
+
+    private synchronized void queried(int index, PageResult<R> result, long nanos) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("end query page[{}],cost {}ms", index, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+        queryNanos = average(queryNanos, nanos);
+        if (result == null) {
+            return;
+        }
+        if (result.isEmpty()) {
+            stopped = true;
+            return;
+        }
+        if (!endIndexKnown && index == 0) {
+            endIndexKnown = true;
+            endIndex = result.getTotal() == null || result.getPageSize() == null ? Integer.MAX_VALUE : result.endIndex();
+            fill();
+        }
+    }
+
+    private static boolean isLast(PageResult<?> page) {
+        if (page == null || page.isEmpty()) {
+            return true;
+        }
+        return page.getPage() != null && page.getTotal() != null && page.getPageSize() != null && page.getPage() >= page.endIndex();
+    }
+
+    private static double average(double average, long sample) {
+        return average <= 0 ? sample : average * (1 - SAMPLE_WEIGHT) + sample * SAMPLE_WEIGHT;
+    }
+
+    /**
+     * Consume all the pages in order.
+     * <p>
+     * With a prefetch of 0 the pages are queried one by one on the calling thread,
+     * otherwise up to {@code prefetch} pages are queried ahead by a {@link PagePrefetcher}.
+     *
+     * @param exportFunction the page query
+     * @param prefetch       the max pages queried ahead
+     * @param consumer       the page consumer
+     * @param <R>            the row type
+     */
+    public static <R> void forEachPage(ExportFunction<R> exportFunction, int prefetch, Consumer<PageResult<R>> consumer) {
+        if (prefetch <= 0) {
+            int pageNo = 0;
+            while (true) {
+                PageResult<R> result = exportFunction.query(pageNo);
+                if (result.isEmpty()) {
+                    break;
+                }
+                consumer.accept(result);
+                if (pageNo >= result.endIndex()) {
+                    break;
+                }
+                pageNo++;
+            }
+            return;
+        }
+        ExecutorService queryExecutor = newQueryExecutor(prefetch);
+        try (PagePrefetcher<R> prefetcher = new PagePrefetcher<>(exportFunction, queryExecutor, prefetch)) {
+            PageResult<R> result;
+            while ((result = prefetcher.take()) != null) {
+                long start = System.nanoTime();
+                consumer.accept(result);
+                prefetcher.consumed(System.nanoTime() - start);
+            }
+        } finally {
+            queryExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Create the executor running the blocking page queries,virtual threads are used on JDK 21+
+     * if {@link TaraExcelConfig#isQueryVirtualThreads()} is enabled.
+     *
+     * @param threads the max threads
+     * @return the executor,must be shut down by the caller
+     */
+    public static ExecutorService newQueryExecutor(int threads) {
+        if (TaraExcelConfig.CONFIG.isQueryVirtualThreads()) {
+            try {
+                Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.debug("Virtual threads are not supported,use platform threads");
+            }
+        }
+        ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Excel-query-%d").build());
+        poolExecutor.allowCoreThreadTimeOut(true);
+        return poolExecutor;
+    }
+}
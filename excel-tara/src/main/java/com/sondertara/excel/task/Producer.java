@@ -3,7 +3,9 @@ package com.sondertara.excel.task;
 /**
  * @author huangxiaohu
  * 生产
+ * @deprecated 分页数据由{@link PagePrefetcher}查询，不再使用生产者线程
  */
+@Deprecated
 public interface Producer {
     /**
      * 生产任务
@@ -1,7 +1,19 @@
 package com.sondertara.excel.utils;
 
+import com.sondertara.common.lang.reflect.ReflectUtils;
 import com.sondertara.common.util.StringUtils;
 import com.sondertara.excel.meta.annotation.ExcelExportField;
+import com.sondertara.excel.meta.annotation.converter.ExcelConverter;
+import com.sondertara.excel.meta.annotation.datavalidation.ExcelDataValidation;
+import com.sondertara.excel.support.converter.AbstractExcelColumnConverter;
+import com.sondertara.excel.support.converter.ExcelDefaultConverter;
+import com.sondertara.excel.support.dataconstraint.ExcelDataValidationConstraint;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * @author huangxiaohu
@@ -15,4 +27,63 @@ public class ExcelAnnotationUtils {
 
         return excelExportField.colName().trim();
     }
+
+    /**
+     * 获取列的值转换器,结果按 类名#字段名 缓存
+     *
+     * @param mappingClass the Excel class
+     * @param field        the Excel field
+     * @return the converters
+     */
+    public static List<AbstractExcelColumnConverter<Annotation, ?>> getColumnConverters(Class<?> mappingClass, Field field) {
+        String key = mappingClass.getName() + "#" + field.getName();
+        List<AbstractExcelColumnConverter<Annotation, ?>> columnConverters = CacheUtils.getColConverterCache().getIfPresent(key);
+        if (columnConverters == null) {
+            columnConverters = findColumnConverter(field);
+            CacheUtils.getColConverterCache().put(key, columnConverters);
+        }
+        return columnConverters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AbstractExcelColumnConverter<Annotation, ?>> findColumnConverter(final Field field) {
+        List<AbstractExcelColumnConverter<Annotation, ?>> columnConverters = new ArrayList<>();
+        final Annotation[] annotations = field.getAnnotations();
+        for (final Annotation annotation : annotations) {
+            final Class<? extends Annotation> aClass = annotation.annotationType();
+            if (aClass.isAnnotationPresent(ExcelConverter.class)) {
+                final ExcelConverter excelConverter = aClass.getAnnotation(ExcelConverter.class);
+                AbstractExcelColumnConverter<Annotation, ?> columnConverter = ReflectUtils.newInstance(excelConverter.convertBy());
+                columnConverter.initialize(annotation);
+                columnConverters.add(columnConverter);
+            }
+        }
+
+        if (columnConverters.size() == 0) {
+            columnConverters = Collections.singletonList(new ExcelDefaultConverter());
+        }
+
+        return columnConverters;
+    }
+
+    /**
+     * 获取列的下拉校验值列表
+     *
+     * @param field the Excel field
+     * @return the values,null if the field has no data validation
+     */
+    @SuppressWarnings("unchecked")
+    public static String[] getDataValidationConstraint(final Field field) {
+        final Annotation[] annotations = field.getAnnotations();
+        for (final Annotation annotation : annotations) {
+            final Class<? extends Annotation> aClass = annotation.annotationType();
+            if (aClass.isAnnotationPresent(ExcelDataValidation.class)) {
+                final ExcelDataValidation dataValidation = aClass.getAnnotation(ExcelDataValidation.class);
+                ExcelDataValidationConstraint<Annotation> dataValidationConstraint = ReflectUtils.newInstance(dataValidation.dataConstraint());
+                dataValidationConstraint.initialize(annotation);
+                return dataValidationConstraint.generate();
+            }
+        }
+        return null;
+    }
 }
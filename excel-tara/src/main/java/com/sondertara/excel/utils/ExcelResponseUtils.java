@@ -4,17 +4,23 @@ import com.sondertara.common.exception.TaraException;
 import com.sondertara.common.util.StringUtils;
 import com.sondertara.excel.common.constants.Constants;
 import com.sondertara.excel.exception.ExcelException;
+import lombok.extern.slf4j.Slf4j;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
  * @author huangxiaohu
  */
+@Slf4j
 public class ExcelResponseUtils {
 
     /**
@@ -43,20 +49,19 @@ public class ExcelResponseUtils {
         return response;
     }
 
+    /**
+     * write the file to response
+     * <p>
+     * The headers are committed before the consumer runs and no content length is set,
+     * so the container sends the body with chunked transfer encoding as it is produced.
+     *
+     * @param httpServletResponse the response
+     * @param fileName            the file name
+     * @param consumer            the file writer
+     */
     public static void writeResponse(HttpServletResponse httpServletResponse, String fileName, Consumer<OutputStream> consumer) {
         try (OutputStream out = httpServletResponse.getOutputStream()) {
-            if (!fileName.endsWith(Constants.CSV_SUFFIX)) {
-                int indexOf = fileName.lastIndexOf(".");
-                if (indexOf > 0) {
-                    fileName = fileName.substring(0, indexOf) + Constants.Excel_FILE_SUFFIX[0];
-                } else {
-                    fileName = fileName + Constants.Excel_FILE_SUFFIX[0];
-                }
-            }
-            httpServletResponse.setContentType(Constants.OCTET_STREAM_CONTENT_TYPE);
-            String s = new String(fileName.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
-            httpServletResponse.setHeader("Content-disposition", "attachment; filename=" + s);
-            httpServletResponse.flushBuffer();
+            prepareResponse(httpServletResponse, fileName);
             consumer.accept(out);
         } catch (Exception e) {
             throw new TaraException("Download Excel error", e);
@@ -64,4 +69,83 @@ public class ExcelResponseUtils {
         }
 
     }
+
+    /**
+     * write the file to response asynchronously
+     * <p>
+     * The servlet thread is released at once and the file is generated by the container's async thread.
+     * The request must support async processing.
+     *
+     * @param request             the request
+     * @param httpServletResponse the response
+     * @param fileName            the file name
+     * @param consumer            the file writer
+     * @return the future completed when the file is written, or completed exceptionally with the failure
+     */
+    public static CompletableFuture<Void> writeResponseAsync(HttpServletRequest request, HttpServletResponse httpServletResponse, String fileName, Consumer<OutputStream> consumer) {
+        return writeResponseAsync(request, httpServletResponse, fileName, consumer, null);
+    }
+
+    /**
+     * write the file to response asynchronously by the given executor
+     * <p>
+     * The headers are already committed when the writer fails, so the failure can not be sent to the client
+     * as an error status. It is logged and reported by the returned future.
+     *
+     * @param request             the request
+     * @param httpServletResponse the response
+     * @param fileName            the file name
+     * @param consumer            the file writer
+     * @param executor            the executor to generate the file,if null use the container's async thread
+     * @return the future completed when the file is written, or completed exceptionally with the failure
+     */
+    public static CompletableFuture<Void> writeResponseAsync(HttpServletRequest request, HttpServletResponse httpServletResponse, String fileName, Consumer<OutputStream> consumer, Executor executor) {
+        AsyncContext asyncContext = request.startAsync(request, httpServletResponse);
+        // the export may take longer than the container default async timeout
+        asyncContext.setTimeout(0);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            Throwable error = null;
+            try (OutputStream out = asyncContext.getResponse().getOutputStream()) {
+                prepareResponse((HttpServletResponse) asyncContext.getResponse(), fileName);
+                consumer.accept(out);
+            } catch (Throwable e) {
+                log.error("Download Excel error", e);
+                error = e;
+            } finally {
+                asyncContext.complete();
+            }
+            if (error == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(new TaraException("Download Excel error", error));
+            }
+        };
+        try {
+            if (executor == null) {
+                asyncContext.start(task);
+            } else {
+                executor.execute(task);
+            }
+        } catch (RuntimeException e) {
+            asyncContext.complete();
+            throw new TaraException("Download Excel error", e);
+        }
+        return future;
+    }
+
+    private static void prepareResponse(HttpServletResponse httpServletResponse, String fileName) throws Exception {
+        if (!fileName.endsWith(Constants.CSV_SUFFIX)) {
+            int indexOf = fileName.lastIndexOf(".");
+            if (indexOf > 0) {
+                fileName = fileName.substring(0, indexOf) + Constants.Excel_FILE_SUFFIX[0];
+            } else {
+                fileName = fileName + Constants.Excel_FILE_SUFFIX[0];
+            }
+        }
+        httpServletResponse.setContentType(Constants.OCTET_STREAM_CONTENT_TYPE);
+        String s = new String(fileName.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+        httpServletResponse.setHeader("Content-disposition", "attachment; filename=" + s);
+        httpServletResponse.flushBuffer();
+    }
 }
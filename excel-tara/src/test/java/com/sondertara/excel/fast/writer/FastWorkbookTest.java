@@ -0,0 +1,27 @@
+package com.sondertara.excel.fast.writer;
+
+import com.sondertara.excel.fast.opczip.OpcCompression;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.Deflater;
+
+public class FastWorkbookTest {
+
+    @Test
+    public void setCompressionKeepsWorkbookLevel() {
+        FastWorkbook workbook = new FastWorkbook(new ByteArrayOutputStream(), "test", "1.0");
+        Assertions.assertEquals(4, workbook.getCompression().getLevel());
+
+        workbook.setCompression(new OpcCompression().sheetLevel(Deflater.BEST_SPEED));
+        Assertions.assertEquals(4, workbook.getCompression().getLevel());
+
+        workbook.setCompressionLevel(2);
+        workbook.setCompression(new OpcCompression());
+        Assertions.assertEquals(2, workbook.getCompression().getLevel());
+
+        workbook.setCompression(new OpcCompression().level(Deflater.BEST_COMPRESSION));
+        Assertions.assertEquals(Deflater.BEST_COMPRESSION, workbook.getCompression().getLevel());
+    }
+}